@@ -0,0 +1,75 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.carrot2.clustering.Cluster;
+import org.carrot2.clustering.ClusteringAlgorithm;
+import org.carrot2.clustering.Document;
+import org.carrot2.clustering.kmeans.BisectingKMeansClusteringAlgorithm;
+import org.carrot2.clustering.lingo.LingoClusteringAlgorithm;
+import org.carrot2.clustering.stc.STCClusteringAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** End-to-end clustering of a {@link Corpus} with each algorithm, in default configuration. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClusteringBenchmark {
+  @Param({"Lingo", "STC", "BisectingKMeans"})
+  public String algorithm;
+
+  private ClusteringAlgorithm instance;
+
+  @Setup(Level.Trial)
+  public void setup(Corpus corpus) {
+    switch (algorithm) {
+      case "Lingo":
+        LingoClusteringAlgorithm lingo = new LingoClusteringAlgorithm();
+        lingo.preprocessing.threads.set(corpus.threads);
+        instance = lingo;
+        break;
+      case "STC":
+        STCClusteringAlgorithm stc = new STCClusteringAlgorithm();
+        stc.preprocessing.threads.set(corpus.threads);
+        stc.threads.set(corpus.threads);
+        instance = stc;
+        break;
+      case "BisectingKMeans":
+        BisectingKMeansClusteringAlgorithm kmeans = new BisectingKMeansClusteringAlgorithm();
+        kmeans.preprocessing.threads.set(corpus.threads);
+        instance = kmeans;
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+    }
+  }
+
+  @Benchmark
+  public List<Cluster<Document>> cluster(Corpus corpus) {
+    return instance.cluster(corpus.documents.stream(), corpus.languageComponents);
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import org.carrot2.clustering.Document;
+import org.carrot2.language.LanguageComponents;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark state with a {@link SyntheticCorpus} of the requested size and English language
+ * components, shared by all benchmarks.
+ */
+@State(Scope.Benchmark)
+public class Corpus {
+  /** The number of documents in the corpus. */
+  @Param({"100", "1000", "10000", "50000"})
+  public int documentCount;
+
+  /** The number of threads used by stages which can run in parallel. */
+  @Param({"1"})
+  public int threads;
+
+  public List<Document> documents;
+  public LanguageComponents languageComponents;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    documents = SyntheticCorpus.generate(documentCount, 0xdeadbeefL);
+    try {
+      languageComponents = LanguageComponents.loader().load().language("English");
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
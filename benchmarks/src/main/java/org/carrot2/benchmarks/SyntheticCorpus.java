@@ -0,0 +1,159 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiConsumer;
+import org.carrot2.clustering.Document;
+
+/**
+ * Generates corpora of short documents (a title and a snippet each), similar to search results.
+ *
+ * <p>Words are drawn from a vocabulary of pronounceable pseudo-words with a Zipf distribution of
+ * frequencies and interleaved with English stop words. Words appear in inflected forms and with
+ * capitalized first letters, so all preprocessing stages have work to do. Each document is about
+ * one of a number of topics and contains phrases characteristic of that topic, so that clustering
+ * algorithms discover clusters of realistic sizes.
+ */
+public final class SyntheticCorpus {
+  private static final String[] SYLLABLES = {
+    "ba", "be", "bi", "bo", "ca", "ce", "co", "da", "de", "di", "do", "fa", "fe", "fi", "ga",
+    "go", "ha", "he", "la", "le", "li", "lo", "ma", "me", "mi", "mo", "na", "ne", "no", "pa",
+    "pe", "pi", "po", "ra", "re", "ri", "ro", "sa", "se", "si", "so", "ta", "te", "ti", "to",
+    "va", "ve", "vi", "za", "zo", "ar", "en", "in", "on", "ul", "ex", "st", "tr", "pl", "gr"
+  };
+
+  private static final String[] STOP_WORDS = {
+    "the", "of", "and", "a", "in", "to", "for", "with", "on", "is", "are", "by", "from", "this"
+  };
+
+  private static final String[] SUFFIXES = {"", "", "", "", "s", "s", "ing", "ed", "er"};
+
+  private static final int VOCABULARY_SIZE = 20_000;
+  private static final int PHRASES_PER_TOPIC = 6;
+
+  private final Random random;
+  private final String[] vocabulary;
+  private final double[] cumulativeFrequency;
+  private final String[][][] topicPhrases;
+
+  private SyntheticCorpus(int documentCount, long seed) {
+    this.random = new Random(seed);
+    this.vocabulary = vocabulary(random);
+
+    // Zipf distribution of word ranks.
+    this.cumulativeFrequency = new double[vocabulary.length];
+    double sum = 0;
+    for (int rank = 0; rank < vocabulary.length; rank++) {
+      sum += 1.0 / (rank + 1);
+      cumulativeFrequency[rank] = sum;
+    }
+
+    // Topic phrases are made of mid-frequency words.
+    final int topicCount = Math.max(5, (int) Math.sqrt(documentCount));
+    this.topicPhrases = new String[topicCount][PHRASES_PER_TOPIC][];
+    for (String[][] phrases : topicPhrases) {
+      for (int i = 0; i < phrases.length; i++) {
+        phrases[i] = new String[2 + random.nextInt(2)];
+        for (int j = 0; j < phrases[i].length; j++) {
+          phrases[i][j] = vocabulary[100 + random.nextInt(5_000)];
+        }
+      }
+    }
+  }
+
+  /**
+   * @param documentCount The number of documents to generate.
+   * @param seed The seed of the generator. Corpora generated with the same seed are identical.
+   * @return Returns a list of generated documents.
+   */
+  public static List<Document> generate(int documentCount, long seed) {
+    final SyntheticCorpus corpus = new SyntheticCorpus(documentCount, seed);
+    final List<Document> documents = new ArrayList<>(documentCount);
+    for (int i = 0; i < documentCount; i++) {
+      documents.add(corpus.document());
+    }
+    return documents;
+  }
+
+  private Document document() {
+    final String[][] phrases = topicPhrases[random.nextInt(topicPhrases.length)];
+    final String title = sentence(phrases, 3 + random.nextInt(6), 1);
+    final StringBuilder snippet = new StringBuilder();
+    for (int i = 1 + random.nextInt(3); i > 0; i--) {
+      if (snippet.length() > 0) {
+        snippet.append(' ');
+      }
+      snippet.append(sentence(phrases, 6 + random.nextInt(12), random.nextInt(3))).append('.');
+    }
+    return new SyntheticDocument(title, snippet.toString());
+  }
+
+  private String sentence(String[][] topicPhrases, int words, int phrases) {
+    final List<String> sentence = new ArrayList<>();
+    for (int i = 0; i < words; i++) {
+      if (random.nextInt(4) == 0) {
+        sentence.add(STOP_WORDS[random.nextInt(STOP_WORDS.length)]);
+      }
+      sentence.add(word() + SUFFIXES[random.nextInt(SUFFIXES.length)]);
+    }
+    for (int i = 0; i < phrases; i++) {
+      final int at = random.nextInt(sentence.size() + 1);
+      sentence.addAll(at, Arrays.asList(topicPhrases[random.nextInt(topicPhrases.length)]));
+    }
+    for (int i = 0; i < sentence.size(); i++) {
+      if (i > 0 && random.nextInt(10) == 0) {
+        sentence.set(i - 1, sentence.get(i - 1) + ",");
+      }
+    }
+
+    final String text = String.join(" ", sentence);
+    return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+  }
+
+  private String word() {
+    final double value = random.nextDouble() * cumulativeFrequency[cumulativeFrequency.length - 1];
+    final int index = Arrays.binarySearch(cumulativeFrequency, value);
+    return vocabulary[index >= 0 ? index : -index - 1];
+  }
+
+  private static String[] vocabulary(Random random) {
+    final String[] vocabulary = new String[VOCABULARY_SIZE];
+    final StringBuilder word = new StringBuilder();
+    for (int i = 0; i < vocabulary.length; i++) {
+      word.setLength(0);
+      for (int syllables = 1 + random.nextInt(4); syllables > 0; syllables--) {
+        word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+      }
+      vocabulary[i] = word.toString();
+    }
+    return vocabulary;
+  }
+
+  private static final class SyntheticDocument implements Document {
+    private final String title;
+    private final String snippet;
+
+    SyntheticDocument(String title, String snippet) {
+      this.title = title;
+      this.snippet = snippet;
+    }
+
+    @Override
+    public void visitFields(BiConsumer<String, String> fieldConsumer) {
+      fieldConsumer.accept("title", title);
+      fieldConsumer.accept("snippet", snippet);
+    }
+  }
+}
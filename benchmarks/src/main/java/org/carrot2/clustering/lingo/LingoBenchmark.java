@@ -0,0 +1,167 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.clustering.lingo;
+
+import java.util.concurrent.TimeUnit;
+import org.carrot2.benchmarks.Corpus;
+import org.carrot2.math.matrix.KMeansMatrixFactorizationFactory;
+import org.carrot2.math.matrix.LocalNonnegativeMatrixFactorizationFactory;
+import org.carrot2.math.matrix.MatrixFactorizationFactory;
+import org.carrot2.math.matrix.NonnegativeMatrixFactorizationEDFactory;
+import org.carrot2.math.matrix.NonnegativeMatrixFactorizationKLFactory;
+import org.carrot2.math.matrix.PartialSingularValueDecompositionFactory;
+import org.carrot2.math.matrix.RandomizedSingularValueDecompositionFactory;
+import org.carrot2.text.preprocessing.PreprocessingContext;
+import org.carrot2.text.vsm.ReducedVectorSpaceModelContext;
+import org.carrot2.text.vsm.TermDocumentMatrixReducer;
+import org.carrot2.text.vsm.VectorSpaceModelContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Stages of {@link LingoClusteringAlgorithm} that follow preprocessing: term-document matrix
+ * building, matrix factorization (with each of the available factorization methods) and cluster
+ * building.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LingoBenchmark {
+  /** A preprocessed corpus. Preprocessing results are not modified by the benchmarked stages. */
+  @State(Scope.Benchmark)
+  public static class Preprocessed {
+    final LingoClusteringAlgorithm algorithm = new LingoClusteringAlgorithm();
+    PreprocessingContext context;
+
+    @Setup(Level.Trial)
+    public void setup(Corpus corpus) {
+      algorithm.preprocessing.threads.set(corpus.threads);
+      context =
+          algorithm.preprocessing.preprocess(
+              corpus.documents.stream(), null, corpus.languageComponents);
+    }
+
+    int dimensions() {
+      return LingoClusteringAlgorithm.computeClusterCount(
+          algorithm.desiredClusterCount.get(), context.documentCount);
+    }
+
+    VectorSpaceModelContext buildMatrices() {
+      final VectorSpaceModelContext vsmContext = new VectorSpaceModelContext(context);
+      algorithm.matrixBuilder.buildTermDocumentMatrix(vsmContext);
+      algorithm.matrixBuilder.buildTermPhraseMatrix(vsmContext);
+      return vsmContext;
+    }
+  }
+
+  /** A term-document matrix and a factorization method. */
+  @State(Scope.Benchmark)
+  public static class Factorization {
+    @Param({
+      "NonnegativeMatrixFactorizationED",
+      "NonnegativeMatrixFactorizationKL",
+      "LocalNonnegativeMatrixFactorization",
+      "KMeansMatrixFactorization",
+      "PartialSingularValueDecomposition",
+      "RandomizedSingularValueDecomposition"
+    })
+    public String factorization;
+
+    final TermDocumentMatrixReducer reducer = new TermDocumentMatrixReducer();
+    VectorSpaceModelContext vsmContext;
+
+    @Setup(Level.Trial)
+    public void setup(Preprocessed preprocessed) {
+      reducer.factorizationFactory = factory(factorization);
+      vsmContext = preprocessed.buildMatrices();
+    }
+
+    private static MatrixFactorizationFactory factory(String name) {
+      switch (name) {
+        case "NonnegativeMatrixFactorizationED":
+          return new NonnegativeMatrixFactorizationEDFactory();
+        case "NonnegativeMatrixFactorizationKL":
+          return new NonnegativeMatrixFactorizationKLFactory();
+        case "LocalNonnegativeMatrixFactorization":
+          return new LocalNonnegativeMatrixFactorizationFactory();
+        case "KMeansMatrixFactorization":
+          return new KMeansMatrixFactorizationFactory();
+        case "PartialSingularValueDecomposition":
+          return new PartialSingularValueDecompositionFactory();
+        case "RandomizedSingularValueDecomposition":
+          return new RandomizedSingularValueDecompositionFactory();
+        default:
+          throw new IllegalArgumentException("Unknown factorization: " + name);
+      }
+    }
+  }
+
+  /**
+   * A reduced term-document matrix, prepared per invocation because cluster building modifies label
+   * document sets.
+   */
+  @State(Scope.Thread)
+  public static class Reduced {
+    LingoProcessingContext lingoContext;
+
+    @Setup(Level.Invocation)
+    public void setup(Corpus corpus, Preprocessed preprocessed) {
+      final LingoClusteringAlgorithm algorithm = preprocessed.algorithm;
+      final PreprocessingContext context =
+          algorithm.preprocessing.preprocess(
+              corpus.documents.stream(), null, corpus.languageComponents);
+      final VectorSpaceModelContext vsmContext = new VectorSpaceModelContext(context);
+      algorithm.matrixBuilder.buildTermDocumentMatrix(vsmContext);
+      algorithm.matrixBuilder.buildTermPhraseMatrix(vsmContext);
+
+      final ReducedVectorSpaceModelContext reducedVsmContext =
+          new ReducedVectorSpaceModelContext(vsmContext);
+      algorithm.matrixReducer.reduce(reducedVsmContext, preprocessed.dimensions());
+      lingoContext = new LingoProcessingContext(reducedVsmContext);
+    }
+  }
+
+  @Benchmark
+  public VectorSpaceModelContext buildMatrices(Preprocessed preprocessed) {
+    return preprocessed.buildMatrices();
+  }
+
+  @Benchmark
+  public ReducedVectorSpaceModelContext factorize(
+      Preprocessed preprocessed, Factorization factorization) {
+    final ReducedVectorSpaceModelContext reducedVsmContext =
+        new ReducedVectorSpaceModelContext(factorization.vsmContext);
+    factorization.reducer.reduce(reducedVsmContext, preprocessed.dimensions());
+    return reducedVsmContext;
+  }
+
+  @Benchmark
+  public LingoProcessingContext buildClusters(Preprocessed preprocessed, Reduced reduced) {
+    final ClusterBuilder clusterBuilder = preprocessed.algorithm.clusterBuilder;
+    final LingoProcessingContext lingoContext = reduced.lingoContext;
+    clusterBuilder.buildLabels(lingoContext, preprocessed.algorithm.matrixBuilder.termWeighting);
+    clusterBuilder.assignDocuments(lingoContext);
+    clusterBuilder.merge(lingoContext);
+    return lingoContext;
+  }
+}
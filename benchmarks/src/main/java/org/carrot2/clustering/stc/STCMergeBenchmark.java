@@ -0,0 +1,96 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.clustering.stc;
+
+import com.carrotsearch.hppc.IntArrayList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.carrot2.util.CompressedBitSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Detection of overlapping base clusters of {@link STCClusteringAlgorithm} with an inverted
+ * document index versus pairwise comparison of all base clusters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class STCMergeBenchmark {
+  private static final float MERGE_THRESHOLD = 0.6f;
+
+  @Param({"300", "1000", "3000", "10000"})
+  public int baseClusters;
+
+  @Param({"5000"})
+  public int documents;
+
+  /** The maximum number of documents in a base cluster. */
+  @Param({"50"})
+  public int maxClusterDocuments;
+
+  private List<ClusterCandidate> candidates;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    final Random random = new Random(0);
+    candidates = new ArrayList<>();
+    for (int i = 0; i < baseClusters; i++) {
+      final CompressedBitSet clusterDocuments = new CompressedBitSet();
+      for (int j = 1 + random.nextInt(maxClusterDocuments); j > 0; j--) {
+        clusterDocuments.set(random.nextInt(documents));
+      }
+      candidates.add(
+          new ClusterCandidate(
+              new int[0], clusterDocuments, (int) clusterDocuments.cardinality(), 1f));
+    }
+  }
+
+  @Benchmark
+  public IntArrayList invertedIndex() {
+    return STCClusteringAlgorithm.overlappingPairs(candidates, MERGE_THRESHOLD);
+  }
+
+  @Benchmark
+  public IntArrayList pairwise() {
+    final IntArrayList pairs = new IntArrayList();
+    for (int i = 0; i < candidates.size(); i++) {
+      for (int j = i + 1; j < candidates.size(); j++) {
+        final ClusterCandidate c1 = candidates.get(i);
+        final ClusterCandidate c2 = candidates.get(j);
+
+        final float a = c1.cardinality;
+        final float b = c2.cardinality;
+        final float c = CompressedBitSet.intersectionCount(c1.documents, c2.documents);
+
+        if (c / a > MERGE_THRESHOLD && c / b > MERGE_THRESHOLD) {
+          pairs.add(i, j);
+        }
+      }
+    }
+    return pairs;
+  }
+}
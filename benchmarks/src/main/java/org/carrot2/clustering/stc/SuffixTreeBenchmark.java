@@ -0,0 +1,55 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.clustering.stc;
+
+import java.util.concurrent.TimeUnit;
+import org.carrot2.benchmarks.Corpus;
+import org.carrot2.clustering.stc.GeneralizedSuffixTree.SequenceBuilder;
+import org.carrot2.text.preprocessing.PreprocessingContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Construction of the generalized suffix tree of {@link STCClusteringAlgorithm}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SuffixTreeBenchmark {
+  private PreprocessingContext context;
+
+  @Setup(Level.Trial)
+  public void setup(Corpus corpus) {
+    final STCClusteringAlgorithm algorithm = new STCClusteringAlgorithm();
+    algorithm.preprocessing.threads.set(corpus.threads);
+    context =
+        algorithm.preprocessing.preprocess(
+            corpus.documents.stream(), null, corpus.languageComponents);
+  }
+
+  @Benchmark
+  public SequenceBuilder buildSuffixTree() {
+    final SequenceBuilder sb = new SequenceBuilder();
+    STCClusteringAlgorithm.addPhrases(context, sb);
+    sb.buildSuffixTree();
+    return sb;
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.language;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.carrot2.benchmarks.Corpus;
+import org.carrot2.clustering.Document;
+import org.carrot2.util.MutableCharArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Filtering candidate labels with regular expression dictionary entries: a union {@link Pattern}
+ * versus a {@link RegExpAutomaton}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegExpDictionaryBenchmark {
+  private static final List<String> PATTERNS =
+      List.of(
+          "(?i)(^.*(page|part|copyright) \\d+.*)",
+          "(?i)(années?|deux|général(ement)?|accueil)",
+          "(?i)(neue?|information)",
+          "(?i)(sito|nuovi|basta)",
+          "^(the|a|an) .*",
+          ".* (of|for|with)$",
+          "[0-9]+(st|nd|rd|th)");
+
+  /** Candidate labels: all one to three word sequences of document fields. */
+  private List<MutableCharArray> labels;
+
+  private Pattern union;
+  private RegExpAutomaton automaton;
+
+  @Setup(Level.Trial)
+  public void setup(Corpus corpus) {
+    labels = new ArrayList<>();
+    for (Document document : corpus.documents) {
+      document.visitFields(
+          (field, value) -> {
+            String[] words = value.split("\\s+");
+            for (int i = 0; i < words.length; i++) {
+              StringBuilder label = new StringBuilder(words[i]);
+              for (int j = i + 1; j < Math.min(words.length, i + 3); j++) {
+                labels.add(new MutableCharArray(label));
+                label.append(' ').append(words[j]);
+              }
+              labels.add(new MutableCharArray(label));
+            }
+          });
+    }
+
+    StringJoiner joiner = new StringJoiner(")|(?:", "(?:", ")");
+    PATTERNS.forEach(joiner::add);
+    union = Pattern.compile(joiner.toString());
+    automaton = RegExpAutomaton.compile(PATTERNS, 10_000);
+  }
+
+  @Benchmark
+  public int pattern() {
+    int matches = 0;
+    for (MutableCharArray label : labels) {
+      if (union.matcher(label.toString()).find()) {
+        matches++;
+      }
+    }
+    return matches;
+  }
+
+  @Benchmark
+  public int automaton() {
+    int matches = 0;
+    for (MutableCharArray label : labels) {
+      if (automaton.find(label)) {
+        matches++;
+      }
+    }
+    return matches;
+  }
+}
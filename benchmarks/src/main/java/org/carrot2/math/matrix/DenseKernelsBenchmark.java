@@ -0,0 +1,115 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.matrix;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DenseKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Nonnegative matrix factorizations of a random term-document matrix with the vectorized and the
+ * scalar {@link DenseKernels}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class DenseKernelsBenchmark {
+  @Param({
+    "NonnegativeMatrixFactorizationED",
+    "NonnegativeMatrixFactorizationKL",
+    "LocalNonnegativeMatrixFactorization"
+  })
+  public String factorization;
+
+  @Param({"1000"})
+  public int terms;
+
+  @Param({"200", "1000"})
+  public int documents;
+
+  @Param({"25"})
+  public int k;
+
+  private IterativeMatrixFactorizationFactory factory;
+  private DoubleMatrix2D termDocumentMatrix;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    switch (factorization) {
+      case "NonnegativeMatrixFactorizationED":
+        factory = new NonnegativeMatrixFactorizationEDFactory();
+        break;
+      case "NonnegativeMatrixFactorizationKL":
+        factory = new NonnegativeMatrixFactorizationKLFactory();
+        break;
+      case "LocalNonnegativeMatrixFactorization":
+        factory = new LocalNonnegativeMatrixFactorizationFactory();
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown factorization: " + factorization);
+    }
+    factory.setK(k);
+    factory.setMaxIterations(15);
+    factory.setStopThreshold(0);
+
+    // About 5% of non-zero term weights.
+    final Random rnd = new Random(0xdeadbeefL);
+    termDocumentMatrix = new DenseDoubleMatrix2D(terms, documents);
+    for (int r = 0; r < terms; r++) {
+      for (int c = 0; c < documents; c++) {
+        if (rnd.nextInt(20) == 0) {
+          termDocumentMatrix.setQuick(r, c, rnd.nextDouble());
+        }
+      }
+    }
+    MatrixUtils.normalizeColumnL2(termDocumentMatrix, null);
+  }
+
+  @Benchmark
+  @Fork(
+      value = 1,
+      jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+  public MatrixFactorization vectorized() {
+    return factorize(true);
+  }
+
+  @Benchmark
+  @Fork(
+      value = 1,
+      jvmArgsAppend = {"-D" + DenseKernels.PROPERTY_VECTORIZED + "=false"})
+  public MatrixFactorization scalar() {
+    return factorize(false);
+  }
+
+  private MatrixFactorization factorize(boolean vectorized) {
+    if (DenseKernels.isVectorized() != vectorized) {
+      throw new IllegalStateException(
+          "Vector API " + (vectorized ? "not available." : "not disabled."));
+    }
+    return factory.factorize(termDocumentMatrix);
+  }
+}
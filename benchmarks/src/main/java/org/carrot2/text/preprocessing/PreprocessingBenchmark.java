@@ -0,0 +1,134 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.text.preprocessing;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.carrot2.benchmarks.Corpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Individual stages of the preprocessing pipeline, in the order they are applied. Each benchmark
+ * receives a fresh context with all preceding stages already applied.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreprocessingBenchmark {
+  private static final int DF_THRESHOLD = 1;
+
+  /** A preprocessing context with a number of initial stages applied, prepared per invocation. */
+  @State(Scope.Thread)
+  public abstract static class Prepared {
+    PreprocessingContext context;
+
+    /** The number of stages to apply. */
+    abstract int stages();
+
+    @Setup(Level.Invocation)
+    public void setup(Corpus corpus) {
+      context = new PreprocessingContext(corpus.languageComponents);
+      final int stages = stages();
+      if (stages > 0) {
+        tokenize(context, corpus);
+      }
+      if (stages > 1) {
+        new CaseNormalizer().normalize(context, DF_THRESHOLD);
+      }
+      if (stages > 2) {
+        stem(context, corpus);
+      }
+      if (stages > 3) {
+        new StopListMarker().mark(context);
+      }
+    }
+  }
+
+  public static class Tokenized extends Prepared {
+    @Override
+    int stages() {
+      return 1;
+    }
+  }
+
+  public static class CaseNormalized extends Prepared {
+    @Override
+    int stages() {
+      return 2;
+    }
+  }
+
+  public static class Stemmed extends Prepared {
+    @Override
+    int stages() {
+      return 3;
+    }
+  }
+
+  public static class StopWordsMarked extends Prepared {
+    @Override
+    int stages() {
+      return 4;
+    }
+  }
+
+  @Benchmark
+  public PreprocessingContext tokenize(Corpus corpus) {
+    final PreprocessingContext context = new PreprocessingContext(corpus.languageComponents);
+    tokenize(context, corpus);
+    return context;
+  }
+
+  @Benchmark
+  public PreprocessingContext normalizeCase(Tokenized state) {
+    new CaseNormalizer().normalize(state.context, DF_THRESHOLD);
+    return state.context;
+  }
+
+  @Benchmark
+  public PreprocessingContext stem(CaseNormalized state, Corpus corpus) {
+    stem(state.context, corpus);
+    return state.context;
+  }
+
+  @Benchmark
+  public PreprocessingContext markStopWords(Stemmed state) {
+    new StopListMarker().mark(state.context);
+    return state.context;
+  }
+
+  @Benchmark
+  public PreprocessingContext extractPhrases(StopWordsMarked state) {
+    new PhraseExtractor(DF_THRESHOLD).extractPhrases(state.context);
+    return state.context;
+  }
+
+  private static void tokenize(PreprocessingContext context, Corpus corpus) {
+    new InputTokenizer()
+        .tokenize(context, corpus.documents.stream(), corpus.threads, ForkJoinPool.commonPool());
+  }
+
+  private static void stem(PreprocessingContext context, Corpus corpus) {
+    new LanguageModelStemmer().stem(context, null, corpus.threads, ForkJoinPool.commonPool());
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.text.preprocessing;
+
+import com.carrotsearch.hppc.sorting.IndirectSort;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Suffix and LCP arrays of {@link SuffixSorter} versus comparison-based suffix sorting, on
+ * synthetic, highly repetitive input (a long document with a repeated fragment of text).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SuffixSorterBenchmark {
+  @Param({"20000"})
+  public int tokens;
+
+  /** The length of the repeated fragment. */
+  @Param({"10", "100", "1000"})
+  public int periodLength;
+
+  private int[] intCodes;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    final Random random = new Random(0);
+    final int times = tokens / periodLength;
+    final int[] wordIndex = new int[periodLength * times + 1];
+    for (int i = 0; i < periodLength; i++) {
+      wordIndex[i] = random.nextInt(periodLength + 1);
+    }
+    for (int i = 1; i < times; i++) {
+      System.arraycopy(wordIndex, 0, wordIndex, i * periodLength, periodLength);
+    }
+    wordIndex[wordIndex.length - 1] = -1;
+    intCodes = SuffixSorter.suffixCodes(wordIndex);
+  }
+
+  @Benchmark
+  public int[] sais() {
+    return SuffixSorter.calculateLcp(intCodes, SuffixSorter.suffixArray(intCodes));
+  }
+
+  @Benchmark
+  public int[] comparisonSort() {
+    final int[] intCodes = this.intCodes;
+    final int[] suffixOrder =
+        IndirectSort.mergesort(
+            0,
+            intCodes.length,
+            (suffixA, suffixB) -> {
+              if (suffixA == suffixB) {
+                return 0;
+              }
+              while (intCodes[suffixA] == intCodes[suffixB]) {
+                suffixA++;
+                suffixB++;
+              }
+              return intCodes[suffixB] - intCodes[suffixA];
+            });
+
+    final int[] lcpArray = new int[intCodes.length];
+    for (int i = 1; i < lcpArray.length - 1; i++) {
+      int lcp = 0;
+      while (intCodes[suffixOrder[i - 1] + lcp] == intCodes[suffixOrder[i] + lcp]) {
+        lcp++;
+      }
+      lcpArray[i] = lcp;
+    }
+    return lcpArray;
+  }
+}
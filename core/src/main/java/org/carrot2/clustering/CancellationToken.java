@@ -0,0 +1,127 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.clustering;
+
+import java.time.Duration;
+
+/**
+ * Cooperative cancellation of a clustering call. A token is passed to {@link
+ * ClusteringAlgorithm#cluster(java.util.stream.Stream, org.carrot2.language.LanguageComponents,
+ * StageListener, CancellationToken)} and checked periodically during processing (preprocessing
+ * loops, matrix factorization iterations, suffix tree construction and cluster merging).
+ *
+ * <p>A token can be cancelled explicitly (with {@link #cancel()}, from any thread) and can have a
+ * deadline. Once a token is cancelled, or its deadline passes, clustering is aborted with a {@link
+ * ClusteringCancelledException}. In the <i>best effort</i> mode the deadline only stops iterative
+ * stages (matrix factorization, k-means) early and clusters are built from their partial results,
+ * explicit cancellation still aborts clustering.
+ *
+ * @since 4.8.0
+ */
+public final class CancellationToken {
+  /** A token that is never cancelled. */
+  public static final CancellationToken NONE = new CancellationToken(false, 0, false);
+
+  private final boolean hasDeadline;
+  private final long deadlineNanos;
+  private final boolean bestEffort;
+
+  private volatile boolean cancelled;
+
+  private CancellationToken(boolean hasDeadline, long deadlineNanos, boolean bestEffort) {
+    this.hasDeadline = hasDeadline;
+    this.deadlineNanos = deadlineNanos;
+    this.bestEffort = bestEffort;
+  }
+
+  /**
+   * @return Returns a new token, cancelled only explicitly with {@link #cancel()}.
+   */
+  public static CancellationToken create() {
+    return new CancellationToken(false, 0, false);
+  }
+
+  /**
+   * @param timeout The time budget of clustering, counted from now.
+   * @param bestEffort If <code>true</code>, iterative stages stop at the deadline and clustering
+   *     completes with partial results. If <code>false</code>, clustering is aborted at the
+   *     deadline.
+   * @return Returns a new token with a deadline.
+   */
+  public static CancellationToken withTimeout(Duration timeout, boolean bestEffort) {
+    return new CancellationToken(true, System.nanoTime() + timeout.toNanos(), bestEffort);
+  }
+
+  /** Cancels clustering calls using this token. */
+  public void cancel() {
+    if (this == NONE) {
+      throw new UnsupportedOperationException("This token can't be cancelled.");
+    }
+    cancelled = true;
+  }
+
+  /**
+   * @return Returns <code>true</code> if this token was explicitly cancelled.
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * @return Returns <code>true</code> if this token has a deadline and it has passed.
+   */
+  public boolean isDeadlineExceeded() {
+    return hasDeadline && System.nanoTime() - deadlineNanos >= 0;
+  }
+
+  /**
+   * @return Returns the time left until the deadline of this token in nanoseconds (zero or less if
+   *     the deadline has passed), or {@link Long#MAX_VALUE} if the token has no deadline.
+   */
+  public long remainingNanos() {
+    return hasDeadline ? deadlineNanos - System.nanoTime() : Long.MAX_VALUE;
+  }
+
+  /**
+   * @return Returns <code>true</code> if the deadline of this token only stops iterative stages
+   *     early (and does not abort clustering).
+   */
+  public boolean isBestEffort() {
+    return bestEffort;
+  }
+
+  /**
+   * Aborts processing if this token was cancelled, or if its deadline has passed and the token is
+   * not in the best effort mode.
+   *
+   * @throws ClusteringCancelledException If processing should be aborted.
+   */
+  public void checkCancelled() {
+    if (cancelled) {
+      throw new ClusteringCancelledException("Clustering cancelled.");
+    }
+    if (!bestEffort && isDeadlineExceeded()) {
+      throw new ClusteringCancelledException("Clustering deadline exceeded.");
+    }
+  }
+
+  /**
+   * Checks whether an iterative stage, which can produce a result from a partial computation,
+   * should stop iterating.
+   *
+   * @return Returns <code>true</code> if the deadline of a best effort token has passed.
+   * @throws ClusteringCancelledException If processing should be aborted.
+   */
+  public boolean stopIterating() {
+    checkCancelled();
+    return isDeadlineExceeded();
+  }
+}
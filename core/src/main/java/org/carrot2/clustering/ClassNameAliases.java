@@ -25,6 +25,7 @@ import org.carrot2.math.matrix.LocalNonnegativeMatrixFactorizationFactory;
 import org.carrot2.math.matrix.NonnegativeMatrixFactorizationEDFactory;
 import org.carrot2.math.matrix.NonnegativeMatrixFactorizationKLFactory;
 import org.carrot2.math.matrix.PartialSingularValueDecompositionFactory;
+import org.carrot2.math.matrix.RandomizedSingularValueDecompositionFactory;
 import org.carrot2.text.preprocessing.BasicPreprocessingPipeline;
 import org.carrot2.text.preprocessing.CompletePreprocessingPipeline;
 import org.carrot2.text.preprocessing.DocumentAssigner;
@@ -110,6 +111,10 @@ public class ClassNameAliases implements AliasMapperFactory {
             "PartialSingularValueDecompositionFactory",
             PartialSingularValueDecompositionFactory.class,
             PartialSingularValueDecompositionFactory::new)
+        .alias(
+            "RandomizedSingularValueDecompositionFactory",
+            RandomizedSingularValueDecompositionFactory.class,
+            RandomizedSingularValueDecompositionFactory::new)
         .alias("EphemeralDictionaries", EphemeralDictionaries.class, EphemeralDictionaries::new)
         .alias("DefaultDictionaryImpl", DefaultDictionaryImpl.class, DefaultDictionaryImpl::new);
   }
@@ -56,4 +56,50 @@ public interface ClusteringAlgorithm extends AcceptingVisitor {
    */
   <T extends Document> List<Cluster<T>> cluster(
       Stream<? extends T> documents, LanguageComponents languageComponents);
+
+  /**
+   * Cluster a set of documents, reporting processing stage timings and statistics to a listener.
+   * The default implementation reports no stages.
+   *
+   * @param documents A stream of {@link Document documents} for clustering.
+   * @param languageComponents {@link LanguageComponents} with a set of suppliers for the required
+   *     language-specific components.
+   * @param stageListener The listener receiving processing stage timings and statistics.
+   * @param <T> Any subclass of {@link Document}. Clusters of objects of the same type are returned.
+   * @return A list of top-level clusters (clusters can form a hierarchy via {@link
+   *     Cluster#getClusters()}.
+   * @see #cluster(Stream, LanguageComponents)
+   */
+  default <T extends Document> List<Cluster<T>> cluster(
+      Stream<? extends T> documents,
+      LanguageComponents languageComponents,
+      StageListener stageListener) {
+    return cluster(documents, languageComponents);
+  }
+
+  /**
+   * Cluster a set of documents, reporting processing stages to a listener and checking a
+   * cancellation token during processing. The default implementation only checks the token before
+   * clustering starts.
+   *
+   * @param documents A stream of {@link Document documents} for clustering.
+   * @param languageComponents {@link LanguageComponents} with a set of suppliers for the required
+   *     language-specific components.
+   * @param stageListener The listener receiving processing stage timings and statistics.
+   * @param cancellation The token aborting (or, in the best effort mode, shortening) clustering.
+   * @param <T> Any subclass of {@link Document}. Clusters of objects of the same type are returned.
+   * @return A list of top-level clusters (clusters can form a hierarchy via {@link
+   *     Cluster#getClusters()}.
+   * @throws ClusteringCancelledException If clustering was aborted by the token.
+   * @see #cluster(Stream, LanguageComponents)
+   * @since 4.8.0
+   */
+  default <T extends Document> List<Cluster<T>> cluster(
+      Stream<? extends T> documents,
+      LanguageComponents languageComponents,
+      StageListener stageListener,
+      CancellationToken cancellation) {
+    cancellation.checkCancelled();
+    return cluster(documents, languageComponents, stageListener);
+  }
 }
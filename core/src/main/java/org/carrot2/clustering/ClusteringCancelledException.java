@@ -0,0 +1,23 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.clustering;
+
+/**
+ * Thrown by clustering algorithms when processing is aborted by a {@link CancellationToken}.
+ *
+ * @since 4.8.0
+ */
+@SuppressWarnings("serial")
+public class ClusteringCancelledException extends RuntimeException {
+  public ClusteringCancelledException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.clustering;
+
+/**
+ * Receives the processing time of consecutive clustering stages (tokenization, phrase extraction,
+ * matrix building, etc.) and statistics of intermediate data structures (numbers of terms, matrix
+ * dimensions). Intended for diagnostics, the names of stages and statistics are algorithm-specific.
+ *
+ * @see ClusteringAlgorithm#cluster(java.util.stream.Stream,
+ *     org.carrot2.language.LanguageComponents, StageListener)
+ * @see StageTimer
+ */
+public interface StageListener {
+  /** A listener that ignores all events. */
+  StageListener NONE =
+      new StageListener() {
+        @Override
+        public void stageCompleted(String stage, long elapsedNanos) {}
+      };
+
+  /**
+   * Invoked after a processing stage completes.
+   *
+   * @param stage Name of the stage.
+   * @param elapsedNanos Processing time of the stage, in nanoseconds.
+   */
+  void stageCompleted(String stage, long elapsedNanos);
+
+  /**
+   * Invoked with a statistic of processed data.
+   *
+   * @param name Name of the statistic.
+   * @param value The value of the statistic.
+   */
+  default void statistic(String name, long value) {}
+}
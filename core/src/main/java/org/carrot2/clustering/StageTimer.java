@@ -0,0 +1,37 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.clustering;
+
+/**
+ * Measures the time of consecutive processing stages and reports them to a {@link StageListener}.
+ * Each stage lasts from the end of the previous stage (or from the creation of the timer).
+ */
+public final class StageTimer {
+  private final StageListener listener;
+  private long stageStart;
+
+  public StageTimer(StageListener listener) {
+    this.listener = listener;
+    this.stageStart = System.nanoTime();
+  }
+
+  /** Reports the completion of a stage and starts the next one. */
+  public void stage(String name) {
+    long now = System.nanoTime();
+    listener.stageCompleted(name, now - stageStart);
+    stageStart = now;
+  }
+
+  /** Reports a statistic of processed data. */
+  public void statistic(String name, long value) {
+    listener.statistic(name, value);
+  }
+}
@@ -25,17 +25,19 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.carrot2.attrs.AttrBoolean;
 import org.carrot2.attrs.AttrComposite;
 import org.carrot2.attrs.AttrInteger;
 import org.carrot2.attrs.AttrObject;
 import org.carrot2.attrs.AttrString;
+import org.carrot2.clustering.CancellationToken;
 import org.carrot2.clustering.Cluster;
 import org.carrot2.clustering.ClusteringAlgorithm;
 import org.carrot2.clustering.Document;
 import org.carrot2.clustering.SharedInfrastructure;
+import org.carrot2.clustering.StageListener;
+import org.carrot2.clustering.StageTimer;
 import org.carrot2.internal.clustering.ClusteringAlgorithmUtilities;
 import org.carrot2.language.EphemeralDictionaries;
 import org.carrot2.language.LabelFilter;
@@ -173,7 +175,27 @@ public class BisectingKMeansClusteringAlgorithm extends AttrComposite
   @Override
   public <T extends Document> List<Cluster<T>> cluster(
       Stream<? extends T> docStream, LanguageComponents languageComponents) {
-    List<T> documents = docStream.collect(Collectors.toList());
+    return cluster(docStream, languageComponents, StageListener.NONE);
+  }
+
+  @Override
+  public <T extends Document> List<Cluster<T>> cluster(
+      Stream<? extends T> docStream,
+      LanguageComponents languageComponents,
+      StageListener stageListener) {
+    return cluster(docStream, languageComponents, stageListener, CancellationToken.NONE);
+  }
+
+  @Override
+  public <T extends Document> List<Cluster<T>> cluster(
+      Stream<? extends T> docStream,
+      LanguageComponents languageComponents,
+      StageListener stageListener,
+      CancellationToken cancellation) {
+    // Documents are tokenized as they are consumed from the stream, only references to them are
+    // kept (to assign them to clusters).
+    List<T> documents = new ArrayList<>();
+    Stream<? extends T> consumed = docStream.sequential().peek(documents::add);
 
     // Apply ephemeral dictionaries.
     if (this.dictionaries != null) {
@@ -182,7 +204,9 @@ public class BisectingKMeansClusteringAlgorithm extends AttrComposite
 
     // Preprocessing of documents
     final PreprocessingContext preprocessingContext =
-        preprocessing.preprocess(documents.stream(), queryHint.get(), languageComponents);
+        preprocessing.preprocess(
+            consumed, queryHint.get(), languageComponents, stageListener, cancellation);
+    StageTimer timer = new StageTimer(stageListener);
 
     // Add trivial AllLabels so that we can reuse the common TD matrix builder
     final int[] stemsMfow = preprocessingContext.allStems.mostFrequentOriginalWordIndex;
@@ -208,6 +232,10 @@ public class BisectingKMeansClusteringAlgorithm extends AttrComposite
 
       matrixBuilder.buildTermDocumentMatrix(vsmContext);
       matrixBuilder.buildTermPhraseMatrix(vsmContext);
+      timer.stage("matrixBuilding");
+      timer.statistic("termDocumentMatrixRows", vsmContext.termDocumentMatrix.rows());
+      timer.statistic("termDocumentMatrixColumns", vsmContext.termDocumentMatrix.columns());
+      cancellation.checkCancelled();
 
       // Prepare rowIndex -> stemIndex mapping for labeling
       final IntIntHashMap rowToStemIndex = new IntIntHashMap();
@@ -220,9 +248,12 @@ public class BisectingKMeansClusteringAlgorithm extends AttrComposite
           && clusterCount.get() * 2 < preprocessingContext.documentCount) {
         matrixReducer.reduce(reducedVsmContext, clusterCount.get() * 2);
         tdMatrix = reducedVsmContext.coefficientMatrix.viewDice();
+        timer.stage("matrixReduction");
+        timer.statistic("baseVectors", reducedVsmContext.baseMatrix.columns());
       } else {
         tdMatrix = vsmContext.termDocumentMatrix;
       }
+      cancellation.checkCancelled();
 
       // Initial selection containing all columns, initial clustering
       final IntArrayList columns = new IntArrayList(tdMatrix.columns());
@@ -230,11 +261,17 @@ public class BisectingKMeansClusteringAlgorithm extends AttrComposite
         columns.add(c);
       }
       final List<IntArrayList> rawClusters = new ArrayList<>();
-      rawClusters.addAll(split(partitionCount.get(), tdMatrix, columns, maxIterations.get()));
+      rawClusters.addAll(
+          split(partitionCount.get(), tdMatrix, columns, maxIterations.get(), cancellation));
       Collections.sort(rawClusters, BY_SIZE_DESCENDING);
 
       int largestIndex = 0;
       while (rawClusters.size() < clusterCount.get() && largestIndex < rawClusters.size()) {
+        // Stop splitting (and label the clusters we have) once the time budget runs out.
+        if (cancellation.stopIterating()) {
+          break;
+        }
+
         // Find largest cluster to split
         IntArrayList largest = rawClusters.get(largestIndex);
         if (largest.size() <= partitionCount.get() * 2) {
@@ -245,7 +282,7 @@ public class BisectingKMeansClusteringAlgorithm extends AttrComposite
         }
 
         final List<IntArrayList> split =
-            split(partitionCount.get(), tdMatrix, largest, maxIterations.get());
+            split(partitionCount.get(), tdMatrix, largest, maxIterations.get(), cancellation);
         if (split.size() > 1) {
           rawClusters.remove(largestIndex);
           rawClusters.addAll(split);
@@ -256,6 +293,8 @@ public class BisectingKMeansClusteringAlgorithm extends AttrComposite
         }
       }
 
+      timer.stage("partitioning");
+
       LabelFormatter labelFormatter = languageComponents.get(LabelFormatter.class);
       for (IntArrayList rawCluster : rawClusters) {
         final Cluster<T> cluster = new Cluster<>();
@@ -274,6 +313,7 @@ public class BisectingKMeansClusteringAlgorithm extends AttrComposite
           clusters.add(cluster);
         }
       }
+      timer.stage("labelBuilding");
     }
 
     return SharedInfrastructure.reorderByDescendingSizeAndLabel(clusters);
@@ -321,9 +361,15 @@ public class BisectingKMeansClusteringAlgorithm extends AttrComposite
    * routine.
    */
   private List<IntArrayList> split(
-      int partitions, DoubleMatrix2D input, IntArrayList columns, int iterations) {
+      int partitions,
+      DoubleMatrix2D input,
+      IntArrayList columns,
+      int iterations,
+      CancellationToken cancellation) {
     // Prepare selected matrix
-    final DoubleMatrix2D selected = input.viewSelection(null, columns.toArray()).copy();
+    final DoubleMatrix2D selected =
+        new DenseDoubleMatrix2D(input.rows(), columns.size())
+            .assign(input.viewSelection(null, columns.toArray()));
     final IntIntMap selectedToInput = new IntIntHashMap(selected.columns());
     for (int i = 0; i < columns.size(); i++) {
       selectedToInput.put(i, columns.get(i));
@@ -386,6 +432,10 @@ public class BisectingKMeansClusteringAlgorithm extends AttrComposite
         // Unchanged result
         break;
       }
+
+      if (cancellation.stopIterating()) {
+        break;
+      }
     }
 
     // Map the results back to the global indices
@@ -10,23 +10,24 @@
  */
 package org.carrot2.clustering.lingo;
 
-import com.carrotsearch.hppc.BitSet;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.carrot2.attrs.AttrComposite;
 import org.carrot2.attrs.AttrDouble;
 import org.carrot2.attrs.AttrInteger;
 import org.carrot2.attrs.AttrObject;
 import org.carrot2.attrs.AttrString;
+import org.carrot2.clustering.CancellationToken;
 import org.carrot2.clustering.Cluster;
 import org.carrot2.clustering.ClusteringAlgorithm;
 import org.carrot2.clustering.Document;
 import org.carrot2.clustering.SharedInfrastructure;
+import org.carrot2.clustering.StageListener;
+import org.carrot2.clustering.StageTimer;
 import org.carrot2.internal.clustering.ClusteringAlgorithmUtilities;
 import org.carrot2.language.EphemeralDictionaries;
 import org.carrot2.language.LabelFilter;
@@ -41,6 +42,7 @@ import org.carrot2.text.vsm.ReducedVectorSpaceModelContext;
 import org.carrot2.text.vsm.TermDocumentMatrixBuilder;
 import org.carrot2.text.vsm.TermDocumentMatrixReducer;
 import org.carrot2.text.vsm.VectorSpaceModelContext;
+import org.carrot2.util.CompressedBitSet;
 
 /**
  * Lingo clustering algorithm. Implementation as described in: Stanisław Osiński, Dawid Weiss: A
@@ -155,7 +157,27 @@ public class LingoClusteringAlgorithm extends AttrComposite implements Clusterin
   @Override
   public <T extends Document> List<Cluster<T>> cluster(
       Stream<? extends T> docStream, LanguageComponents languageComponents) {
-    List<T> documents = docStream.collect(Collectors.toList());
+    return cluster(docStream, languageComponents, StageListener.NONE);
+  }
+
+  @Override
+  public <T extends Document> List<Cluster<T>> cluster(
+      Stream<? extends T> docStream,
+      LanguageComponents languageComponents,
+      StageListener stageListener) {
+    return cluster(docStream, languageComponents, stageListener, CancellationToken.NONE);
+  }
+
+  @Override
+  public <T extends Document> List<Cluster<T>> cluster(
+      Stream<? extends T> docStream,
+      LanguageComponents languageComponents,
+      StageListener stageListener,
+      CancellationToken cancellation) {
+    // Documents are tokenized as they are consumed from the stream, only references to them are
+    // kept (to assign them to clusters).
+    List<T> documents = new ArrayList<>();
+    Stream<? extends T> consumed = docStream.sequential().peek(documents::add);
 
     // Apply ephemeral dictionaries.
     if (this.dictionaries != null) {
@@ -164,11 +186,14 @@ public class LingoClusteringAlgorithm extends AttrComposite implements Clusterin
 
     // Preprocessing of documents
     final PreprocessingContext context =
-        preprocessing.preprocess(documents.stream(), queryHint.get(), languageComponents);
+        preprocessing.preprocess(
+            consumed, queryHint.get(), languageComponents, stageListener, cancellation);
 
     // Further processing only if there are words to process
     List<Cluster<T>> clusters = new ArrayList<>();
     if (context.hasLabels()) {
+      StageTimer timer = new StageTimer(stageListener);
+
       // Term-document matrix building and reduction
       final VectorSpaceModelContext vsmContext = new VectorSpaceModelContext(context);
       final ReducedVectorSpaceModelContext reducedVsmContext =
@@ -178,25 +203,37 @@ public class LingoClusteringAlgorithm extends AttrComposite implements Clusterin
       TermDocumentMatrixBuilder matrixBuilder = this.matrixBuilder;
       matrixBuilder.buildTermDocumentMatrix(vsmContext);
       matrixBuilder.buildTermPhraseMatrix(vsmContext);
+      timer.stage("matrixBuilding");
+      timer.statistic("termDocumentMatrixRows", vsmContext.termDocumentMatrix.rows());
+      timer.statistic("termDocumentMatrixColumns", vsmContext.termDocumentMatrix.columns());
+      cancellation.checkCancelled();
 
       matrixReducer.reduce(
           reducedVsmContext, computeClusterCount(desiredClusterCount.get(), documents.size()));
+      timer.stage("matrixReduction");
+      timer.statistic("baseVectors", reducedVsmContext.baseMatrix.columns());
+      cancellation.checkCancelled();
 
       // Cluster label building
       clusterBuilder.buildLabels(lingoContext, matrixBuilder.termWeighting);
+      timer.stage("labelBuilding");
+      cancellation.checkCancelled();
 
       // Document assignment
       clusterBuilder.assignDocuments(lingoContext);
+      timer.stage("clusterDocumentAssignment");
+      cancellation.checkCancelled();
 
       // Cluster merging
       clusterBuilder.merge(lingoContext);
+      timer.stage("clusterMerging");
 
       // Format final clusters
       final LabelFormatter labelFormatter =
           lingoContext.preprocessingContext.languageComponents.get(LabelFormatter.class);
 
       final int[] clusterLabelIndex = lingoContext.clusterLabelFeatureIndex;
-      final BitSet[] clusterDocuments = lingoContext.clusterDocuments;
+      final CompressedBitSet[] clusterDocuments = lingoContext.clusterDocuments;
       final double[] clusterLabelScore = lingoContext.clusterLabelScore;
       for (int i = 0; i < clusterLabelIndex.length; i++) {
         final Cluster<T> cluster = new Cluster<>();
@@ -212,7 +249,7 @@ public class LingoClusteringAlgorithm extends AttrComposite implements Clusterin
         cluster.setScore(clusterLabelScore[i]);
 
         // Add documents
-        final BitSet bs = clusterDocuments[i];
+        final CompressedBitSet bs = clusterDocuments[i];
         for (int bit = bs.nextSetBit(0); bit >= 0; bit = bs.nextSetBit(bit + 1)) {
           cluster.addDocument(documents.get(bit));
         }
@@ -220,6 +257,7 @@ public class LingoClusteringAlgorithm extends AttrComposite implements Clusterin
         // Add cluster
         clusters.add(cluster);
       }
+      timer.stage("clusterFormatting");
     }
 
     clusters = SharedInfrastructure.reorderByWeightedScoreAndSize(clusters, this.scoreWeight.get());
@@ -10,11 +10,11 @@
  */
 package org.carrot2.clustering.lingo;
 
-import com.carrotsearch.hppc.BitSet;
 import org.carrot2.text.preprocessing.PreprocessingContext;
 import org.carrot2.text.preprocessing.PreprocessingContext.AllLabels;
 import org.carrot2.text.vsm.ReducedVectorSpaceModelContext;
 import org.carrot2.text.vsm.VectorSpaceModelContext;
+import org.carrot2.util.CompressedBitSet;
 
 /** Stores intermediate data required during Lingo clustering. */
 public class LingoProcessingContext {
@@ -34,7 +34,7 @@ public class LingoProcessingContext {
   double[] clusterLabelScore;
 
   /** Documents assigned to clusters */
-  BitSet[] clusterDocuments;
+  CompressedBitSet[] clusterDocuments;
 
   LingoProcessingContext(ReducedVectorSpaceModelContext reducedVsmContext) {
     this.reducedVsmContext = reducedVsmContext;
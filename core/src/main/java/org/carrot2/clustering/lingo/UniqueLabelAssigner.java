@@ -16,7 +16,6 @@ import com.carrotsearch.hppc.IntIntHashMap;
 import org.carrot2.attrs.AttrComposite;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
 import org.carrot2.text.preprocessing.PreprocessingContext;
-import org.carrot2.util.Pair;
 
 /**
  * Assigns unique labels to each base vector using a greedy algorithm. For each base vector chooses
@@ -41,66 +40,18 @@ public class UniqueLabelAssigner extends AttrComposite implements LabelAssigner
 
     final IntArrayList clusterLabelFeatureIndex = new IntArrayList(desiredClusterCount);
     final DoubleArrayList clusterLabelScore = new DoubleArrayList(desiredClusterCount);
-    for (int label = 0; label < desiredClusterCount; label++) {
-      final Pair<Integer, Integer> stemMax = max(stemCos);
-      final Pair<Integer, Integer> phraseMax = max(phraseCos);
-
-      if (stemMax == null && phraseMax == null) {
-        break;
-      }
-
-      double stemScore = stemMax != null ? stemCos.getQuick(stemMax.objectA, stemMax.objectB) : -1;
-      double phraseScore =
-          phraseMax != null ? phraseCos.getQuick(phraseMax.objectA, phraseMax.objectB) : -1;
-
-      if (phraseScore > stemScore) {
-        phraseCos.viewRow(phraseMax.objectA).assign(0);
-        phraseCos.viewColumn(phraseMax.objectB).assign(0);
-        stemCos.viewColumn(phraseMax.objectB).assign(0);
-
-        clusterLabelFeatureIndex.add(labelsFeatureIndex[phraseMax.objectA + firstPhraseIndex]);
-        clusterLabelScore.add(phraseScore);
+    final UniqueLabelSelector selector = new UniqueLabelSelector(stemCos, phraseCos);
+    for (int label = 0; label < desiredClusterCount && selector.next(); label++) {
+      if (selector.phrase) {
+        clusterLabelFeatureIndex.add(labelsFeatureIndex[selector.row + firstPhraseIndex]);
       } else {
-        stemCos.viewRow(stemMax.objectA).assign(0);
-        stemCos.viewColumn(stemMax.objectB).assign(0);
-        if (phraseCos != null) {
-          phraseCos.viewColumn(stemMax.objectB).assign(0);
-        }
-
         clusterLabelFeatureIndex.add(
-            mostFrequentOriginalWordIndex[filteredRowToStemIndex.get(stemMax.objectA)]);
-        clusterLabelScore.add(stemScore);
+            mostFrequentOriginalWordIndex[filteredRowToStemIndex.get(selector.row)]);
       }
+      clusterLabelScore.add(selector.score);
     }
 
     context.clusterLabelFeatureIndex = clusterLabelFeatureIndex.toArray();
     context.clusterLabelScore = clusterLabelScore.toArray();
   }
-
-  private Pair<Integer, Integer> max(DoubleMatrix2D matrix) {
-    if (matrix == null) {
-      return null;
-    }
-
-    int row = 0;
-    int column = 0;
-    double value = 0;
-
-    for (int r = 0; r < matrix.rows(); r++) {
-      for (int c = 0; c < matrix.columns(); c++) {
-        final double currentValue = matrix.getQuick(r, c);
-        if (currentValue > value) {
-          value = currentValue;
-          row = r;
-          column = c;
-        }
-      }
-    }
-
-    if (value > 0) {
-      return new Pair<>(row, column);
-    } else {
-      return null;
-    }
-  }
 }
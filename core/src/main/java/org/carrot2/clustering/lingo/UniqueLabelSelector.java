@@ -0,0 +1,204 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.clustering.lingo;
+
+import java.util.Arrays;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+
+/**
+ * Selects labels for {@link UniqueLabelAssigner}: repeatedly picks the largest positive entry of
+ * the stem and phrase cosine matrices (preferring stems on ties, then lower rows and columns), then
+ * excludes its row (in the matrix it came from) and its column (in both matrices) from subsequent
+ * selections.
+ *
+ * <p>Instead of scanning both matrices for each selected label, each column keeps a max-heap of its
+ * positive entries and rows excluded from selection are skipped lazily, once they reach the top of
+ * the heap.
+ */
+final class UniqueLabelSelector {
+  private final ColumnHeaps stems;
+  private final ColumnHeaps phrases;
+  private final boolean[] usedColumns;
+
+  /** <code>true</code> if the last selected label is a phrase. */
+  boolean phrase;
+
+  /** The row of the last selected label, in the stem or phrase matrix. */
+  int row;
+
+  /** The column (base vector) of the last selected label. */
+  int column;
+
+  /** The score of the last selected label. */
+  double score;
+
+  /**
+   * @param stemCos The stem cosine matrix.
+   * @param phraseCos The phrase cosine matrix, may be <code>null</code>.
+   */
+  UniqueLabelSelector(DoubleMatrix2D stemCos, DoubleMatrix2D phraseCos) {
+    this.stems = new ColumnHeaps(stemCos);
+    this.phrases = phraseCos != null ? new ColumnHeaps(phraseCos) : null;
+    this.usedColumns = new boolean[stemCos.columns()];
+  }
+
+  /**
+   * Selects the next label.
+   *
+   * @return Returns <code>false</code> if there are no more positive entries to select.
+   */
+  boolean next() {
+    final int stemColumn = stems.maxColumn(usedColumns);
+    final int phraseColumn = phrases != null ? phrases.maxColumn(usedColumns) : -1;
+    if (stemColumn < 0 && phraseColumn < 0) {
+      return false;
+    }
+
+    final double stemScore = stemColumn >= 0 ? stems.topValue(stemColumn) : -1;
+    final double phraseScore = phraseColumn >= 0 ? phrases.topValue(phraseColumn) : -1;
+    if (phraseScore > stemScore) {
+      select(true, phrases, phraseColumn, phraseScore);
+    } else {
+      select(false, stems, stemColumn, stemScore);
+    }
+    return true;
+  }
+
+  private void select(boolean phrase, ColumnHeaps heaps, int column, double score) {
+    this.phrase = phrase;
+    this.row = heaps.topRow(column);
+    this.column = column;
+    this.score = score;
+
+    heaps.usedRows[row] = true;
+    usedColumns[column] = true;
+  }
+
+  /** Max-heaps of positive entries of each column of a matrix. */
+  private static final class ColumnHeaps {
+    final boolean[] usedRows;
+
+    private final int[][] rows;
+    private final double[][] values;
+    private final int[] sizes;
+
+    ColumnHeaps(DoubleMatrix2D matrix) {
+      final int rowCount = matrix.rows();
+      final int columnCount = matrix.columns();
+
+      this.usedRows = new boolean[rowCount];
+      this.rows = new int[columnCount][];
+      this.values = new double[columnCount][];
+      this.sizes = new int[columnCount];
+
+      final int[] columnRows = new int[rowCount];
+      final double[] columnValues = new double[rowCount];
+      for (int c = 0; c < columnCount; c++) {
+        int size = 0;
+        for (int r = 0; r < rowCount; r++) {
+          final double value = matrix.getQuick(r, c);
+          if (value > 0) {
+            columnRows[size] = r;
+            columnValues[size] = value;
+            size++;
+          }
+        }
+
+        rows[c] = Arrays.copyOf(columnRows, size);
+        values[c] = Arrays.copyOf(columnValues, size);
+        sizes[c] = size;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+          siftDown(c, i);
+        }
+      }
+    }
+
+    /**
+     * @return Returns the column whose top entry is the largest (on ties: in the lowest row, then
+     *     the lowest column) among columns not marked as used, or -1 if there are no entries left.
+     */
+    int maxColumn(boolean[] usedColumns) {
+      int maxColumn = -1;
+      double maxValue = 0;
+      int maxRow = 0;
+      for (int c = 0; c < sizes.length; c++) {
+        if (usedColumns[c] || !removeUsedRows(c)) {
+          continue;
+        }
+
+        final double value = values[c][0];
+        final int row = rows[c][0];
+        if (maxColumn < 0 || value > maxValue || (value == maxValue && row < maxRow)) {
+          maxColumn = c;
+          maxValue = value;
+          maxRow = row;
+        }
+      }
+      return maxColumn;
+    }
+
+    int topRow(int column) {
+      return rows[column][0];
+    }
+
+    double topValue(int column) {
+      return values[column][0];
+    }
+
+    /**
+     * Removes entries of used rows from the top of the column's heap.
+     *
+     * @return Returns <code>false</code> if the heap is empty.
+     */
+    private boolean removeUsedRows(int c) {
+      final int[] rows = this.rows[c];
+      final double[] values = this.values[c];
+      while (sizes[c] > 0 && usedRows[rows[0]]) {
+        final int last = --sizes[c];
+        rows[0] = rows[last];
+        values[0] = values[last];
+        siftDown(c, 0);
+      }
+      return sizes[c] > 0;
+    }
+
+    private void siftDown(int c, int i) {
+      final int[] rows = this.rows[c];
+      final double[] values = this.values[c];
+      final int size = sizes[c];
+
+      final int row = rows[i];
+      final double value = values[i];
+      while (true) {
+        int child = 2 * i + 1;
+        if (child >= size) {
+          break;
+        }
+        if (child + 1 < size && precedes(values, rows, child + 1, child)) {
+          child++;
+        }
+        if (values[child] < value || (values[child] == value && rows[child] > row)) {
+          break;
+        }
+        rows[i] = rows[child];
+        values[i] = values[child];
+        i = child;
+      }
+      rows[i] = row;
+      values[i] = value;
+    }
+
+    /** Larger values first, lower rows first on ties. */
+    private static boolean precedes(double[] values, int[] rows, int i, int j) {
+      return values[i] > values[j] || (values[i] == values[j] && rows[i] < rows[j]);
+    }
+  }
+}
@@ -10,8 +10,8 @@
  */
 package org.carrot2.clustering.stc;
 
-import com.carrotsearch.hppc.BitSet;
 import java.util.ArrayList;
+import org.carrot2.util.CompressedBitSet;
 
 /** A cluster candidate in the process of building STC clusters. */
 final class ClusterCandidate {
@@ -19,7 +19,7 @@ final class ClusterCandidate {
   float score;
 
   /** Indexes of documents this cluster covers. */
-  BitSet documents;
+  CompressedBitSet documents;
 
   /**
    * Pairs of integers denoting a range of indices in {@link
@@ -33,11 +33,11 @@ final class ClusterCandidate {
   /* For cluster merging. */
   ClusterCandidate() {
     this.phrases = new ArrayList<>();
-    this.documents = new BitSet();
+    this.documents = new CompressedBitSet();
   }
 
   /* */
-  ClusterCandidate(int[] phraseIndices, BitSet documents, int cardinality, float score) {
+  ClusterCandidate(int[] phraseIndices, CompressedBitSet documents, int cardinality, float score) {
     assert documents.cardinality() == cardinality;
 
     phrases = new ArrayList<>(1);
@@ -12,13 +12,15 @@ package org.carrot2.clustering.stc;
 
 import static org.carrot2.text.suffixtree.SuffixTree.NO_EDGE;
 
-import com.carrotsearch.hppc.BitSet;
+import com.carrotsearch.hppc.IntArrayList;
 import com.carrotsearch.hppc.IntStack;
 import java.util.ArrayList;
+import org.carrot2.clustering.CancellationToken;
 import org.carrot2.text.suffixtree.IntegerSequence;
 import org.carrot2.text.suffixtree.Sequence;
 import org.carrot2.text.suffixtree.SuffixTree;
 import org.carrot2.text.suffixtree.SuffixTreeBuilder;
+import org.carrot2.util.CompressedBitSet;
 
 /** A suffix tree dedicated to finding frequent phrases in documents. */
 final class GeneralizedSuffixTree {
@@ -41,13 +43,24 @@ final class GeneralizedSuffixTree {
     /** A suffix tree built from the input phrases. */
     public SuffixTree stree;
 
+    /** The number of input positions between cancellation checks (a power of two). */
+    private static final int CANCELLATION_CHECK_INTERVAL = 4096;
+
     /** Callbacks for marking leaf states. */
     private final class LeafStateMarker
         implements SuffixTree.IStateCallback, SuffixTree.IProgressCallback {
+      private final CancellationToken cancellation;
       private int currentDocument = 0;
       private int markerIndex = 0;
 
+      LeafStateMarker(CancellationToken cancellation) {
+        this.cancellation = cancellation;
+      }
+
       public void next(int pos) {
+        if ((pos & (CANCELLATION_CHECK_INTERVAL - 1)) == 0) {
+          cancellation.checkCancelled();
+        }
         if (pos == documentMarkers.get(markerIndex)) {
           currentDocument++;
           markerIndex++;
@@ -78,9 +91,14 @@ final class GeneralizedSuffixTree {
 
     /** */
     public void buildSuffixTree() {
+      buildSuffixTree(CancellationToken.NONE);
+    }
+
+    /** Builds the suffix tree, aborting construction if the token is cancelled. */
+    public void buildSuffixTree(CancellationToken cancellation) {
       this.stateOriginDocument.clear();
 
-      final LeafStateMarker marker = new LeafStateMarker();
+      final LeafStateMarker marker = new LeafStateMarker(cancellation);
       final Sequence seq = new IntegerSequence(input.buffer, 0, input.elementsCount);
       this.stree =
           SuffixTreeBuilder.from(seq)
@@ -99,7 +117,7 @@ final class GeneralizedSuffixTree {
     private final IntStack edges = new IntStack();
 
     /** Bitsets used to compute cardinality in each node. */
-    private final ArrayList<BitSet> bsets = new ArrayList<BitSet>();
+    private final ArrayList<CompressedBitSet> bsets = new ArrayList<>();
 
     /** Suffix tree on all the input. */
     private final SuffixTree stree;
@@ -119,23 +137,55 @@ final class GeneralizedSuffixTree {
     }
 
     public void visit() {
-      // In a suffix tree without any documents, this will be the case.
-      if (stree.isLeaf(stree.getRootState())) return;
+      for (int edge : subtreeEdges(sb)) {
+        visitSubtree(edge);
+      }
+    }
+
+    /**
+     * Walks the subtree under the given edge leaving the root state. Subtrees are independent of
+     * each other, visiting all of them (in the order of {@link #subtreeEdges}) is equivalent to
+     * {@link #visit()}.
+     */
+    public void visitSubtree(int edge) {
+      final CompressedBitSet child = getBitSet(1);
+      child.clear();
+      edges.push(stree.getStartIndex(edge), stree.getEndIndex(edge));
+      countDocs(1, stree.getToState(edge));
+      edges.discard(2);
+    }
 
-      countDocs(0, stree.getRootState());
+    /**
+     * @return Returns the edges leaving the root state and leading to internal states, in the order
+     *     of the walk performed by {@link #visit()}.
+     */
+    public static int[] subtreeEdges(SequenceBuilder sb) {
+      final SuffixTree stree = sb.stree;
+      final IntArrayList subtrees = new IntArrayList();
+      // In a suffix tree without any documents, the root is a leaf.
+      if (!stree.isLeaf(stree.getRootState())) {
+        for (int edge = stree.firstEdge(stree.getRootState());
+            edge != NO_EDGE;
+            edge = stree.nextEdge(edge)) {
+          if (!stree.isLeaf(stree.getToState(edge))) {
+            subtrees.add(edge);
+          }
+        }
+      }
+      return subtrees.toArray();
     }
 
     private void countDocs(int level, int state) {
       assert !stree.isLeaf(state);
 
-      final BitSet me = getBitSet(level);
+      final CompressedBitSet me = getBitSet(level);
       for (int edge = stree.firstEdge(state); edge != NO_EDGE; edge = stree.nextEdge(edge)) {
         final int childState = stree.getToState(edge);
         if (stree.isLeaf(childState)) {
           final int documentIndex = sb.stateOriginDocument.get(childState);
           me.set(documentIndex);
         } else {
-          final BitSet child = getBitSet(level + 1);
+          final CompressedBitSet child = getBitSet(level + 1);
           child.clear();
           edges.push(stree.getStartIndex(edge), stree.getEndIndex(edge));
           countDocs(level + 1, childState);
@@ -152,10 +202,11 @@ final class GeneralizedSuffixTree {
       }
     }
 
-    protected abstract void visit(int state, int cardinality, BitSet documents, IntStack path);
+    protected abstract void visit(
+        int state, int cardinality, CompressedBitSet documents, IntStack path);
 
-    private BitSet getBitSet(int level) {
-      while (bsets.size() <= level) bsets.add(new BitSet());
+    private CompressedBitSet getBitSet(int level) {
+      while (bsets.size() <= level) bsets.add(new CompressedBitSet());
       return bsets.get(level);
     }
   }
@@ -10,8 +10,6 @@
  */
 package org.carrot2.clustering.stc;
 
-import com.carrotsearch.hppc.BitSet;
-import com.carrotsearch.hppc.BitSetIterator;
 import com.carrotsearch.hppc.IntArrayList;
 import com.carrotsearch.hppc.IntStack;
 import java.util.ArrayList;
@@ -24,8 +22,9 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.carrot2.attrs.AttrBoolean;
 import org.carrot2.attrs.AttrComposite;
@@ -33,10 +32,13 @@ import org.carrot2.attrs.AttrDouble;
 import org.carrot2.attrs.AttrInteger;
 import org.carrot2.attrs.AttrObject;
 import org.carrot2.attrs.AttrString;
+import org.carrot2.clustering.CancellationToken;
 import org.carrot2.clustering.Cluster;
 import org.carrot2.clustering.ClusteringAlgorithm;
 import org.carrot2.clustering.Document;
 import org.carrot2.clustering.SharedInfrastructure;
+import org.carrot2.clustering.StageListener;
+import org.carrot2.clustering.StageTimer;
 import org.carrot2.clustering.stc.GeneralizedSuffixTree.SequenceBuilder;
 import org.carrot2.internal.clustering.ClusteringAlgorithmUtilities;
 import org.carrot2.language.EphemeralDictionaries;
@@ -49,6 +51,8 @@ import org.carrot2.language.Tokenizer;
 import org.carrot2.text.preprocessing.BasicPreprocessingPipeline;
 import org.carrot2.text.preprocessing.LabelFormatter;
 import org.carrot2.text.preprocessing.PreprocessingContext;
+import org.carrot2.util.CompressedBitSet;
+import org.carrot2.util.ExecutorServiceUtils;
 
 /**
  * Suffix Tree Clustering (STC) algorithm. Pretty much as described in: <i>Oren Zamir, Oren Etzioni,
@@ -217,6 +221,20 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
               .label("Merge all stem-equivalent phrases when discovering base clusters")
               .defaultValue(true));
 
+  /**
+   * The number of threads used to discover base clusters. If larger than 1, independent subtrees of
+   * the suffix tree are walked in parallel. The result is the same as with one thread, only the
+   * processing time differs.
+   */
+  public AttrInteger threads =
+      attributes.register(
+          "threads",
+          AttrInteger.builder()
+              .label("Base cluster discovery threads")
+              .min(1)
+              .max(256)
+              .defaultValue(1));
+
   /** Configuration of the text preprocessing stage. */
   public BasicPreprocessingPipeline preprocessing;
 
@@ -241,8 +259,6 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
         attributes, () -> dictionaries, (v) -> dictionaries = v);
   }
 
-  private LabelFormatter labelFormatter;
-
   /**
    * Helper class for computing merged cluster labels.
    *
@@ -280,8 +296,26 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
    */
   private static final Predicate<PhraseCandidate> NOT_SELECTED = (p) -> !p.selected;
 
-  private GeneralizedSuffixTree.SequenceBuilder sb;
-  private PreprocessingContext context;
+  /**
+   * The state of a single clustering request. All per-request data is kept here (and not in the
+   * algorithm's fields), so that a configured algorithm instance can cluster concurrently.
+   */
+  private static final class RequestState {
+    final PreprocessingContext context;
+    final LabelFormatter labelFormatter;
+    final SequenceBuilder sb = new SequenceBuilder();
+
+    RequestState(PreprocessingContext context) {
+      this.context = context;
+      this.labelFormatter = context.languageComponents.get(LabelFormatter.class);
+    }
+  }
+
+  /** The number of base clusters between cancellation checks (a power of two). */
+  private static final int CANCELLATION_CHECK_INTERVAL = 1024;
+
+  /** Minimum number of suffix tree subtrees walked by a single task in parallel discovery. */
+  static final int MIN_SUBTREES_PER_TASK = 64;
 
   @Override
   public Set<Class<?>> requiredLanguageComponents() {
@@ -292,7 +326,27 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
   @Override
   public <T extends Document> List<Cluster<T>> cluster(
       Stream<? extends T> docStream, LanguageComponents languageComponents) {
-    List<T> documents = docStream.collect(Collectors.toList());
+    return cluster(docStream, languageComponents, StageListener.NONE);
+  }
+
+  @Override
+  public <T extends Document> List<Cluster<T>> cluster(
+      Stream<? extends T> docStream,
+      LanguageComponents languageComponents,
+      StageListener stageListener) {
+    return cluster(docStream, languageComponents, stageListener, CancellationToken.NONE);
+  }
+
+  @Override
+  public <T extends Document> List<Cluster<T>> cluster(
+      Stream<? extends T> docStream,
+      LanguageComponents languageComponents,
+      StageListener stageListener,
+      CancellationToken cancellation) {
+    // Documents are tokenized as they are consumed from the stream, only references to them are
+    // kept (to assign them to clusters).
+    List<T> documents = new ArrayList<>();
+    Stream<? extends T> consumed = docStream.sequential().peek(documents::add);
     List<Cluster<T>> clusters = new ArrayList<>();
 
     // Apply ephemeral dictionaries.
@@ -303,14 +357,54 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
     /*
      * Step 1. Preprocessing: tokenization, stop word marking and stemming (if available).
      */
-    context = preprocessing.preprocess(documents.stream(), queryHint.get(), languageComponents);
-    labelFormatter = context.languageComponents.get(LabelFormatter.class);
+    final RequestState state =
+        new RequestState(
+            preprocessing.preprocess(
+                consumed, queryHint.get(), languageComponents, stageListener, cancellation));
+    final PreprocessingContext context = state.context;
+    StageTimer timer = new StageTimer(stageListener);
 
     /*
      * Step 2: Create a generalized suffix tree from phrases in the input.
      */
-    sb = new GeneralizedSuffixTree.SequenceBuilder();
+    final SequenceBuilder sb = state.sb;
+    addPhrases(context, sb);
+    sb.buildSuffixTree(cancellation);
+    timer.stage("suffixTree");
+    timer.statistic("suffixTreeInput", sb.input.size());
+
+    /*
+     * Step 3: Find "base" clusters by looking up frequently recurring phrases in the
+     * generalized suffix tree.
+     */
+    List<ClusterCandidate> baseClusters = createBaseClusters(state);
+    timer.stage("baseClusters");
+    timer.statistic("baseClusters", baseClusters.size());
+    cancellation.checkCancelled();
+
+    /*
+     * Step 4: Merge base clusters that overlap too much to form final clusters.
+     */
+    List<ClusterCandidate> mergedClusters = createMergedClusters(state, baseClusters);
+    timer.stage("clusterMerging");
+    timer.statistic("mergedClusters", mergedClusters.size());
+    cancellation.checkCancelled();
+
+    /*
+     * Step 5: Create the junk (unassigned documents) cluster and create the final
+     * set of clusters in Carrot2 format.
+     */
+    postProcessing(state, documents, mergedClusters, clusters);
+    timer.stage("postProcessing");
 
+    return SharedInfrastructure.reorderByWeightedScoreAndSize(clusters, this.scoreWeight.get());
+  }
+
+  /**
+   * Adds sequences of consecutive words of each document (delimited by punctuation, field and
+   * document separators) to the generalized suffix tree input.
+   */
+  static void addPhrases(PreprocessingContext context, SequenceBuilder sb) {
     final int[] tokenIndex = context.allTokens.wordIndex;
     final short[] tokenType = context.allTokens.type;
     for (int i = 0; i < tokenIndex.length; i++) {
@@ -332,26 +426,6 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
         sb.addPhrase(tokenIndex, s, phraseLength);
       }
     }
-    sb.buildSuffixTree();
-
-    /*
-     * Step 3: Find "base" clusters by looking up frequently recurring phrases in the
-     * generalized suffix tree.
-     */
-    List<ClusterCandidate> baseClusters = createBaseClusters(sb);
-
-    /*
-     * Step 4: Merge base clusters that overlap too much to form final clusters.
-     */
-    List<ClusterCandidate> mergedClusters = createMergedClusters(baseClusters);
-
-    /*
-     * Step 5: Create the junk (unassigned documents) cluster and create the final
-     * set of clusters in Carrot2 format.
-     */
-    postProcessing(documents, mergedClusters, clusters);
-
-    return SharedInfrastructure.reorderByWeightedScoreAndSize(clusters, this.scoreWeight.get());
   }
 
   /**
@@ -359,49 +433,18 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
    * extract them by walking the generalized suffix tree constructed for each phrase, and extracting
    * paths from those internal tree states, that occurred in more than one document.
    */
-  private List<ClusterCandidate> createBaseClusters(SequenceBuilder sb) {
+  private List<ClusterCandidate> createBaseClusters(RequestState state) {
     /*
      * Collect all phrases that will form base clusters,
      * initially filtered to fulfill the minimum acceptance criteria.
      */
-    final List<ClusterCandidate> candidates = new ArrayList<>();
-
-    // Walk the internal nodes of the suffix tree.
-    final int minBaseClusterSize = this.minBaseClusterSize.get();
-    new GeneralizedSuffixTree.Visitor(sb, minBaseClusterSize) {
-      protected void visit(int state, int cardinality, BitSet documents, IntStack path) {
-        // Check minimum base cluster cardinality.
-        assert cardinality >= minBaseClusterSize;
-
-        /*
-         * Consider certain special cases of internal suffix tree nodes.
-         */
-        if (!checkAcceptablePhrase(path)) {
-          return;
-        }
-
-        // Calculate "effective phrase length", which is the number of non-stopwords.
-        final int effectivePhraseLen = effectivePhraseLength(path);
-        if (effectivePhraseLen == 0) {
-          return;
-        }
-
-        /*
-         * Calculate base cluster's score as a function of effective phrase's length.
-         * STC originally used a linear gradient, we modified it to penalize very long
-         * phrases (which usually correspond to duplicated snippets anyway).
-         */
-        final float score = baseClusterScore(effectivePhraseLen, cardinality);
-        candidates.add(
-            new ClusterCandidate(path.toArray(), (BitSet) documents.clone(), cardinality, score));
-      }
-    }.visit();
+    final List<ClusterCandidate> candidates = discoverBaseClusters(state);
 
     /*
      * Combine all phrases that are stem-equivalent into one candidate.
      */
     if (mergeStemEquivalentBaseClusters.get()) {
-      mergeStemEquivalentBaseClusters(sb, candidates);
+      mergeStemEquivalentBaseClusters(state, candidates);
     }
 
     /*
@@ -425,14 +468,14 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
     candidates.sort((c1, c2) -> -Float.compare(c1.score, c2.score));
 
     j = 0;
-    LabelFilter labelFilter = context.languageComponents.get(LabelFilter.class);
+    LabelFilter labelFilter = state.context.languageComponents.get(LabelFilter.class);
     int maxBaseClusters = this.maxBaseClusters.get();
     for (int max = candidates.size(), i = 0; i < max && j < maxBaseClusters; i++) {
       ClusterCandidate cc = candidates.get(i);
       // Build the candidate cluster's label for filtering. This may be costly so
       // we only do this for base clusters which are promoted to merging phase.
       assert cc.phrases.size() == 1;
-      if (labelFilter.test(buildLabel(cc.phrases.get(0)))) {
+      if (labelFilter.test(buildLabel(state, cc.phrases.get(0)))) {
         candidates.set(j++, cc);
       }
     }
@@ -445,9 +488,84 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
     return candidates;
   }
 
+  /**
+   * Walks the internal nodes of the suffix tree, collecting phrases that fulfill the minimum
+   * acceptance criteria. Subtrees of the root are walked in parallel if more than one thread is
+   * configured; candidates are concatenated in the order of subtrees, so the result is the same as
+   * that of a sequential walk.
+   */
+  private List<ClusterCandidate> discoverBaseClusters(RequestState state) {
+    final int[] subtrees = GeneralizedSuffixTree.Visitor.subtreeEdges(state.sb);
+    final int taskCount = Math.min(threads.get(), subtrees.length / MIN_SUBTREES_PER_TASK);
+    if (taskCount <= 1) {
+      return discoverBaseClusters(state, subtrees, 0, subtrees.length);
+    }
+
+    final List<Callable<List<ClusterCandidate>>> tasks = new ArrayList<>();
+    for (int task = 0; task < taskCount; task++) {
+      final int from = (int) ((long) subtrees.length * task / taskCount);
+      final int to = (int) ((long) subtrees.length * (task + 1) / taskCount);
+      tasks.add(() -> discoverBaseClusters(state, subtrees, from, to));
+    }
+
+    final List<ClusterCandidate> candidates = new ArrayList<>();
+    for (List<ClusterCandidate> taskCandidates :
+        ExecutorServiceUtils.invokeAll(ForkJoinPool.commonPool(), tasks)) {
+      candidates.addAll(taskCandidates);
+    }
+    return candidates;
+  }
+
+  /** Walks the given range of root subtrees, collecting base cluster candidates. */
+  private List<ClusterCandidate> discoverBaseClusters(
+      RequestState state, int[] subtrees, int from, int to) {
+    final List<ClusterCandidate> candidates = new ArrayList<>();
+
+    // Walk the internal nodes of the suffix tree.
+    final int minBaseClusterSize = this.minBaseClusterSize.get();
+    final GeneralizedSuffixTree.Visitor visitor =
+        new GeneralizedSuffixTree.Visitor(state.sb, minBaseClusterSize) {
+          protected void visit(
+              int node, int cardinality, CompressedBitSet documents, IntStack path) {
+            // Check minimum base cluster cardinality.
+            assert cardinality >= minBaseClusterSize;
+
+            /*
+             * Consider certain special cases of internal suffix tree nodes.
+             */
+            if (!checkAcceptablePhrase(state, path)) {
+              return;
+            }
+
+            // Calculate "effective phrase length", which is the number of non-stopwords.
+            final int effectivePhraseLen = effectivePhraseLength(state, path);
+            if (effectivePhraseLen == 0) {
+              return;
+            }
+
+            /*
+             * Calculate base cluster's score as a function of effective phrase's length.
+             * STC originally used a linear gradient, we modified it to penalize very long
+             * phrases (which usually correspond to duplicated snippets anyway).
+             */
+            final float score = baseClusterScore(effectivePhraseLen, cardinality);
+            candidates.add(
+                new ClusterCandidate(path.toArray(), documents.clone(), cardinality, score));
+          }
+        };
+
+    final CancellationToken cancellation = state.context.cancellation;
+    for (int i = from; i < to; i++) {
+      cancellation.checkCancelled();
+      visitor.visitSubtree(subtrees[i]);
+    }
+    return candidates;
+  }
+
   /* */
   private void mergeStemEquivalentBaseClusters(
-      SequenceBuilder sb, final List<ClusterCandidate> candidates) {
+      RequestState state, final List<ClusterCandidate> candidates) {
+    final SequenceBuilder sb = state.sb;
     // Look for candidates to merge.
     Map<IntArrayList, ClusterCandidate> merged = new HashMap<>();
     int j = 0;
@@ -457,7 +575,7 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
 
       // Convert word indices to stem indices.
       assert cc.phrases.size() == 1;
-      int[] stemIndices = context.allWords.stemIndex;
+      int[] stemIndices = state.context.allWords.stemIndex;
       int[] phraseWords = cc.phrases.get(0);
       IntArrayList stemList = new IntArrayList(phraseWords.length);
       for (int seqIndex : phraseWords) {
@@ -495,7 +613,7 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
         cc.cardinality = (int) cc.documents.cardinality();
         scratch.buffer = cc.phrases.get(0);
         scratch.elementsCount = scratch.buffer.length;
-        cc.score = baseClusterScore(effectivePhraseLength(scratch), cc.cardinality);
+        cc.score = baseClusterScore(effectivePhraseLength(state, scratch), cc.cardinality);
 
         // Clear any other phrase variants.
         cc.phrases.subList(1, cc.phrases.size()).clear();
@@ -508,7 +626,8 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
    * greedy process of compacting clusters with document sets that overlap by a certain ratio. In
    * other words, phrases that "cover" nearly identical document sets will be conflated.
    */
-  private ArrayList<ClusterCandidate> createMergedClusters(List<ClusterCandidate> baseClusters) {
+  private ArrayList<ClusterCandidate> createMergedClusters(
+      RequestState state, List<ClusterCandidate> baseClusters) {
     /*
      * Calculate overlap between base clusters first, saving adjacency lists for
      * each base cluster.
@@ -519,23 +638,16 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
     final IntStack neighborList = new IntStack();
     neighborList.push(END);
     final int[] neighbors = new int[baseClusters.size()];
-    final float m = mergeThreshold.get().floatValue();
-    for (int i = 0; i < baseClusters.size(); i++) {
-      for (int j = i + 1; j < baseClusters.size(); j++) {
-        final ClusterCandidate c1 = baseClusters.get(i);
-        final ClusterCandidate c2 = baseClusters.get(j);
-
-        final float a = c1.cardinality;
-        final float b = c2.cardinality;
-        final float c = BitSet.intersectionCount(c1.documents, c2.documents);
-
-        if (c / a > m && c / b > m) {
-          neighborList.push(neighbors[i], j);
-          neighbors[i] = neighborList.size() - 2;
-          neighborList.push(neighbors[j], i);
-          neighbors[j] = neighborList.size() - 2;
-        }
-      }
+    final IntArrayList pairs =
+        overlappingPairs(
+            baseClusters, mergeThreshold.get().floatValue(), state.context.cancellation);
+    for (int k = 0; k < pairs.size(); k += 2) {
+      final int i = pairs.get(k);
+      final int j = pairs.get(k + 1);
+      neighborList.push(neighbors[i], j);
+      neighbors[i] = neighborList.size() - 2;
+      neighborList.push(neighbors[j], i);
+      neighbors[j] = neighborList.size() - 2;
     }
 
     /*
@@ -581,7 +693,7 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
        * Aggregate documents from each base cluster of the current merge, compute
        * the score and labels.
        */
-      mergedClusters.add(merge(context, mergeList, baseClusters));
+      mergedClusters.add(merge(state, mergeList, baseClusters));
       mergeList.clear();
     }
 
@@ -606,9 +718,95 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
     return mergedClusters;
   }
 
+  /**
+   * Finds pairs of base clusters whose document sets overlap by more than the merge threshold (with
+   * respect to the size of both clusters). Instead of comparing all pairs of clusters, intersection
+   * sizes are accumulated from an inverted index of documents, so only clusters sharing at least
+   * one document are ever considered.
+   *
+   * @return Returns pairs of cluster indexes <code>(i, j)</code>, <code>i &lt; j</code>, sorted
+   *     lexicographically.
+   */
+  static IntArrayList overlappingPairs(List<ClusterCandidate> baseClusters, float m) {
+    return overlappingPairs(baseClusters, m, CancellationToken.NONE);
+  }
+
+  /**
+   * Same as {@link #overlappingPairs(List, float)}, checking the cancellation token periodically.
+   */
+  static IntArrayList overlappingPairs(
+      List<ClusterCandidate> baseClusters, float m, CancellationToken cancellation) {
+    final int clusterCount = baseClusters.size();
+
+    // Build the document -> clusters index, with clusters in increasing order.
+    int documentCount = 0;
+    for (ClusterCandidate c : baseClusters) {
+      documentCount = Math.max(documentCount, (int) c.documents.length());
+    }
+    final int[] start = new int[documentCount + 1];
+    for (ClusterCandidate c : baseClusters) {
+      final CompressedBitSet.SetBitIterator i = c.documents.iterator();
+      for (int d = i.nextSetBit(); d >= 0; d = i.nextSetBit()) {
+        start[d + 1]++;
+      }
+    }
+    for (int d = 0; d < documentCount; d++) {
+      start[d + 1] += start[d];
+    }
+    final int[] clusters = new int[start[documentCount]];
+    final int[] next = Arrays.copyOf(start, documentCount);
+    for (int c = 0; c < clusterCount; c++) {
+      final CompressedBitSet.SetBitIterator i = baseClusters.get(c).documents.iterator();
+      for (int d = i.nextSetBit(); d >= 0; d = i.nextSetBit()) {
+        clusters[next[d]++] = c;
+      }
+    }
+
+    // Count intersections of each cluster with all subsequent clusters. Clusters are processed
+    // in increasing order, so the position of the current cluster in each of its documents'
+    // lists advances by one (next[d]).
+    System.arraycopy(start, 0, next, 0, documentCount);
+    final IntArrayList pairs = new IntArrayList();
+    final int[] intersection = new int[clusterCount];
+    final IntArrayList overlapping = new IntArrayList();
+    for (int i = 0; i < clusterCount; i++) {
+      if ((i & (CANCELLATION_CHECK_INTERVAL - 1)) == 0) {
+        cancellation.checkCancelled();
+      }
+
+      final ClusterCandidate c1 = baseClusters.get(i);
+      final CompressedBitSet.SetBitIterator it = c1.documents.iterator();
+      for (int d = it.nextSetBit(); d >= 0; d = it.nextSetBit()) {
+        assert clusters[next[d]] == i;
+        for (int k = ++next[d], max = start[d + 1]; k < max; k++) {
+          final int j = clusters[k];
+          if (intersection[j]++ == 0) {
+            overlapping.add(j);
+          }
+        }
+      }
+
+      Arrays.sort(overlapping.buffer, 0, overlapping.size());
+      for (int k = 0; k < overlapping.size(); k++) {
+        final int j = overlapping.get(k);
+        final float a = c1.cardinality;
+        final float b = baseClusters.get(j).cardinality;
+        final float c = intersection[j];
+        intersection[j] = 0;
+
+        if (c / a > m && c / b > m) {
+          pairs.add(i, j);
+        }
+      }
+      overlapping.clear();
+    }
+
+    return pairs;
+  }
+
   /** Merge a list of base clusters into one. */
   private ClusterCandidate merge(
-      PreprocessingContext context, IntStack mergeList, List<ClusterCandidate> baseClusters) {
+      RequestState state, IntStack mergeList, List<ClusterCandidate> baseClusters) {
     assert mergeList.size() > 0;
     final ClusterCandidate result = new ClusterCandidate();
 
@@ -632,14 +830,14 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
       phrases.add(new PhraseCandidate(cc, coverage));
     }
 
-    markSubSuperPhrases(phrases);
+    markSubSuperPhrases(state, phrases);
     phrases.removeIf(NOT_SELECTED);
 
-    markOverlappingPhrases(context, phrases);
+    markOverlappingPhrases(state, phrases);
     phrases.removeIf(NOT_SELECTED);
 
     for (PhraseCandidate p : phrases) {
-      p.renderedLabel = buildLabel(p.cluster.phrases.get(0));
+      p.renderedLabel = buildLabel(state, p.cluster.phrases.get(0));
     }
 
     Comparator<PhraseCandidate> comparator =
@@ -664,7 +862,7 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
    * Leave only most general (no other phrase is a substring of this one) and most specific (no
    * other phrase is a superstring of this one) phrases.
    */
-  private void markSubSuperPhrases(ArrayList<PhraseCandidate> phrases) {
+  private void markSubSuperPhrases(RequestState state, ArrayList<PhraseCandidate> phrases) {
     final int max = phrases.size();
 
     // A list of all words for each candidate phrase.
@@ -674,7 +872,7 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
     final IntStack offsets = new IntStack(phrases.size() * 2);
 
     for (PhraseCandidate p : phrases) {
-      appendWords(words, offsets, p);
+      appendWords(state, words, offsets, p);
     }
 
     /*
@@ -745,8 +943,7 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
    * Mark those phrases that overlap with other phrases by more than {@link #maxPhraseOverlap} and
    * have lower coverage.
    */
-  private void markOverlappingPhrases(
-      PreprocessingContext context, ArrayList<PhraseCandidate> phrases) {
+  private void markOverlappingPhrases(RequestState state, ArrayList<PhraseCandidate> phrases) {
     final int max = phrases.size();
 
     // A list of all unique words for each candidate phrase.
@@ -756,7 +953,7 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
     final IntStack offsets = new IntStack(phrases.size() * 2);
 
     for (PhraseCandidate p : phrases) {
-      appendUniqueWords(context, words, offsets, p);
+      appendUniqueWords(state, words, offsets, p);
     }
 
     double maxPhraseOverlap = this.maxPhraseOverlap.get();
@@ -809,15 +1006,15 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
 
   /** Collect all unique non-stop word from a phrase. */
   private void appendUniqueWords(
-      PreprocessingContext context, IntStack words, IntStack offsets, PhraseCandidate p) {
+      RequestState state, IntStack words, IntStack offsets, PhraseCandidate p) {
     assert p.cluster.phrases.size() == 1;
 
     final int start = words.size();
     final int[] phraseIndices = p.cluster.phrases.get(0);
-    final short[] tokenTypes = context.allWords.type;
+    final short[] tokenTypes = state.context.allWords.type;
     for (int i = 0; i < phraseIndices.length; i += 2) {
       for (int j = phraseIndices[i]; j <= phraseIndices[i + 1]; j++) {
-        final int termIndex = sb.input.get(j);
+        final int termIndex = state.sb.input.get(j);
         if (!TokenTypeUtils.isCommon(tokenTypes[termIndex])) {
           words.push(termIndex);
         }
@@ -840,14 +1037,15 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
   }
 
   /** Collect all words from a phrase. */
-  private void appendWords(IntStack words, IntStack offsets, PhraseCandidate p) {
+  private void appendWords(
+      RequestState state, IntStack words, IntStack offsets, PhraseCandidate p) {
     final int start = words.size();
 
     final int[] phraseIndices = p.cluster.phrases.get(0);
-    final short[] tokenTypes = context.allWords.type;
+    final short[] tokenTypes = state.context.allWords.type;
     for (int i = 0; i < phraseIndices.length; i += 2) {
       for (int j = phraseIndices[i]; j <= phraseIndices[i + 1]; j++) {
-        final int termIndex = sb.input.get(j);
+        final int termIndex = state.sb.input.get(j);
         if (!TokenTypeUtils.isCommon(tokenTypes[termIndex])) {
           words.push(termIndex);
         }
@@ -862,13 +1060,16 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
    * format.
    */
   private <T extends Document> void postProcessing(
-      List<T> documents, List<ClusterCandidate> candidates, List<Cluster<T>> clusters) {
+      RequestState state,
+      List<T> documents,
+      List<ClusterCandidate> candidates,
+      List<Cluster<T>> clusters) {
     // Adapt to Carrot2 classes, counting used documents on the way.
-    final BitSet all = new BitSet(documents.size());
+    final CompressedBitSet all = new CompressedBitSet();
     final ArrayList<T> docs = new ArrayList<>(documents.size());
     for (ClusterCandidate c : candidates) {
       final Cluster<T> c2 = new Cluster<>();
-      collectPhrases(c, c2);
+      collectPhrases(state, c, c2);
       collectDocuments(documents, docs, c.documents).forEach(document -> c2.addDocument(document));
       c2.setScore((double) c.score);
       clusters.add(c2);
@@ -879,20 +1080,20 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
   }
 
   /** Collect phrases from a cluster. */
-  private void collectPhrases(ClusterCandidate c, Cluster<?> cluster) {
+  private void collectPhrases(RequestState state, ClusterCandidate c, Cluster<?> cluster) {
     for (int[] phraseIndexes : c.phrases) {
-      cluster.addLabel(buildLabel(phraseIndexes));
+      cluster.addLabel(buildLabel(state, phraseIndexes));
     }
   }
 
   /** Collect documents from a bitset. */
   private <T extends Document> List<T> collectDocuments(
-      List<T> documents, List<T> l, BitSet bitset) {
+      List<T> documents, List<T> l, CompressedBitSet bitset) {
     if (l == null) {
       l = new ArrayList<>((int) bitset.cardinality());
     }
 
-    final BitSetIterator i = bitset.iterator();
+    final CompressedBitSet.SetBitIterator i = bitset.iterator();
     for (int d = i.nextSetBit(); d >= 0; d = i.nextSetBit()) {
       l.add(documents.get(d));
     }
@@ -900,7 +1101,7 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
   }
 
   /** Build the cluster's label from suffix tree edge indices. */
-  private String buildLabel(int[] phraseIndices) {
+  private String buildLabel(RequestState state, int[] phraseIndices) {
     // Count the number of terms first.
     int termsCount = 0;
     for (int j = 0; j < phraseIndices.length; j += 2) {
@@ -910,27 +1111,27 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
     // Extract terms info for the phrase and construct the label.
     final boolean[] stopwords = new boolean[termsCount];
     final char[][] images = new char[termsCount][];
-    final short[] tokenTypes = context.allWords.type;
+    final short[] tokenTypes = state.context.allWords.type;
 
     int k = 0;
     for (int i = 0; i < phraseIndices.length; i += 2) {
       for (int j = phraseIndices[i]; j <= phraseIndices[i + 1]; j++, k++) {
-        final int termIndex = sb.input.get(j);
-        images[k] = context.allWords.image[termIndex];
+        final int termIndex = state.sb.input.get(j);
+        images[k] = state.context.allWords.image[termIndex];
         stopwords[k] = TokenTypeUtils.isCommon(tokenTypes[termIndex]);
       }
     }
 
-    return labelFormatter.format(images, stopwords);
+    return state.labelFormatter.format(images, stopwords);
   }
 
   @SuppressWarnings("unused")
-  private String toString(PhraseCandidate c) {
+  private String toString(RequestState state, PhraseCandidate c) {
     return String.format(
         Locale.ENGLISH,
         "%3.2f %s %s %s %s",
         c.coverage,
-        buildLabel(c.cluster.phrases.get(0)),
+        buildLabel(state, c.cluster.phrases.get(0)),
         c.selected ? "S" : "",
         c.mostGeneral ? "MG" : "",
         c.mostSpecific ? "MS" : "");
@@ -941,18 +1142,18 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
    * information.
    */
   @SuppressWarnings("unused")
-  private String buildDebugLabel(int[] phraseIndices) {
+  private String buildDebugLabel(RequestState state, int[] phraseIndices) {
     final StringBuilder b = new StringBuilder();
 
     String sep = "";
     int k = 0;
-    final short[] tokenTypes = context.allWords.type;
+    final short[] tokenTypes = state.context.allWords.type;
     for (int i = 0; i < phraseIndices.length; i += 2) {
       for (int j = phraseIndices[i]; j <= phraseIndices[i + 1]; j++, k++) {
         b.append(sep);
 
-        final int termIndex = sb.input.get(j);
-        b.append(context.allWords.image[termIndex]);
+        final int termIndex = state.sb.input.get(j);
+        b.append(state.context.allWords.image[termIndex]);
 
         if (TokenTypeUtils.isCommon(tokenTypes[termIndex])) b.append("[S]");
         sep = " ";
@@ -980,11 +1181,11 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
    *       have to be a branch somewhere in the suffix tree on the edge).
    * </dl>
    */
-  final boolean checkAcceptablePhrase(IntStack path) {
+  private boolean checkAcceptablePhrase(RequestState state, IntStack path) {
     assert path.size() > 0;
 
-    final int[] terms = sb.input.buffer;
-    final short[] tokenTypes = context.allWords.type;
+    final int[] terms = state.sb.input.buffer;
+    final short[] tokenTypes = state.context.allWords.type;
 
     // Ignore nodes that start with a stop word.
     if (TokenTypeUtils.isCommon(tokenTypes[terms[path.get(0)]])) {
@@ -1021,8 +1222,9 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
   }
 
   /** Calculate "effective phrase length", that is the number of non-ignored words in the phrase. */
-  final int effectivePhraseLength(IntStack path) {
-    final int[] terms = sb.input.buffer;
+  private int effectivePhraseLength(RequestState state, IntStack path) {
+    final PreprocessingContext context = state.context;
+    final int[] terms = state.sb.input.buffer;
     final int lower = preprocessing.wordDfThreshold.get();
     final int upper = (int) (ignoreWordIfInHigherDocsPercent.get() * context.documentCount);
 
@@ -0,0 +1,68 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.language;
+
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled {@link DefaultDictionaryImpl}: a predicate matching (filtering out) the entries of the
+ * dictionary, with an estimate of the memory it uses.
+ */
+final class CompiledDictionary implements Predicate<CharSequence> {
+  /** An estimate of a hash set entry, in addition to the string it holds. */
+  private static final int HASH_ENTRY_BYTES = 48;
+
+  /** An estimate of a compiled glob pattern (its tokens and index entries), without strings. */
+  private static final int GLOB_PATTERN_BYTES = 256;
+
+  /** An estimate of a {@link Pattern}'s node tree, per character of the pattern. */
+  private static final int PATTERN_BYTES_PER_CHAR = 64;
+
+  private Predicate<CharSequence> predicate;
+  private long ramBytesUsed;
+
+  @Override
+  public boolean test(CharSequence label) {
+    return predicate != null && predicate.test(label);
+  }
+
+  /**
+   * @return Returns an estimate of the memory used by this dictionary, in bytes.
+   */
+  long ramBytesUsed() {
+    return ramBytesUsed;
+  }
+
+  /** Adds a predicate, matching labels if any of the predicates matches them. */
+  void add(Predicate<CharSequence> predicate, long ramBytesUsed) {
+    this.predicate = this.predicate == null ? predicate : this.predicate.or(predicate);
+    this.ramBytesUsed += ramBytesUsed;
+  }
+
+  static long exactEntryBytes(String entry) {
+    return HASH_ENTRY_BYTES + stringBytes(entry);
+  }
+
+  static long globPatternBytes(String pattern) {
+    // Token images are stored verbatim and normalized.
+    return GLOB_PATTERN_BYTES + 2 * stringBytes(pattern);
+  }
+
+  static long patternBytes(Pattern pattern) {
+    return stringBytes(pattern.pattern())
+        + (long) PATTERN_BYTES_PER_CHAR * pattern.pattern().length();
+  }
+
+  private static long stringBytes(String s) {
+    return 40 + 2L * s.length();
+  }
+}
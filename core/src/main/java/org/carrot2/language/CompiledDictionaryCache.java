@@ -0,0 +1,258 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.language;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * A bounded, thread-safe cache of compiled {@link DefaultDictionaryImpl} dictionaries, keyed by
+ * their contents. Requests with {@link EphemeralDictionaries} often carry the same dictionaries
+ * over and over, caching their compiled form avoids recompiling exact sets, globs and regular
+ * expressions on every request.
+ *
+ * <p>The cache is an optional language component, used by {@link
+ * EphemeralDictionaries#override(LanguageComponents)}. To enable it, add it to the language
+ * components (the same cache can be shared by all languages):
+ *
+ * <pre>
+ * CompiledDictionaryCache cache = new CompiledDictionaryCache(16 * 1024 * 1024);
+ * languageComponents = languageComponents.override(CompiledDictionaryCache.class, () -&gt; cache);
+ * </pre>
+ *
+ * <p>Cache keys are SHA-256 digests of dictionary contents, so the cache does not retain the
+ * dictionaries themselves. The memory used by each compiled dictionary is estimated once it is
+ * compiled (including the states and transitions of regular expression automata) and the least
+ * recently used dictionaries are evicted once the estimate exceeds the limit. Dictionaries other
+ * than {@link DefaultDictionaryImpl} (including its subclasses) are compiled on each call.
+ *
+ * @since 4.8.0
+ */
+public final class CompiledDictionaryCache {
+  private final long maxBytes;
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long bytes;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * @param maxBytes The (estimated) maximum memory used by compiled dictionaries, in bytes.
+   */
+  public CompiledDictionaryCache(long maxBytes) {
+    if (maxBytes <= 0) {
+      throw new IllegalArgumentException("The maximum memory must be positive.");
+    }
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * @return Returns a stop word filter compiled from the dictionary, shared with all other calls
+   *     for dictionaries with the same contents.
+   */
+  public StopwordFilter stopwordFilter(StopwordFilterDictionary dictionary) {
+    if (!isCacheable(dictionary)) {
+      return dictionary.compileStopwordFilter();
+    }
+    Predicate<CharSequence> compiled = compiled((DefaultDictionaryImpl) dictionary);
+    return (t) -> !compiled.test(t);
+  }
+
+  /**
+   * @return Returns a label filter compiled from the dictionary, shared with all other calls for
+   *     dictionaries with the same contents.
+   */
+  public LabelFilter labelFilter(LabelFilterDictionary dictionary) {
+    if (!isCacheable(dictionary)) {
+      return dictionary.compileLabelFilter();
+    }
+    Predicate<CharSequence> compiled = compiled((DefaultDictionaryImpl) dictionary);
+    return (t) -> !compiled.test(t);
+  }
+
+  /**
+   * @return Returns the number of lookups served from the cache.
+   */
+  public long hits() {
+    return hits.get();
+  }
+
+  /**
+   * @return Returns the number of lookups that required compiling a dictionary.
+   */
+  public long misses() {
+    return misses.get();
+  }
+
+  /**
+   * @return Returns the number of cached dictionaries.
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * @return Returns the estimated memory used by cached dictionaries, in bytes.
+   */
+  public synchronized long estimatedBytes() {
+    return bytes;
+  }
+
+  /** Removes all cached dictionaries. */
+  public synchronized void clear() {
+    entries.clear();
+    bytes = 0;
+  }
+
+  private static boolean isCacheable(Object dictionary) {
+    return dictionary.getClass() == DefaultDictionaryImpl.class;
+  }
+
+  private Predicate<CharSequence> compiled(DefaultDictionaryImpl dictionary) {
+    final Key key = new Key(dictionary);
+    final Entry entry;
+    synchronized (this) {
+      entry = entries.computeIfAbsent(key, (k) -> new Entry(k));
+    }
+
+    // Compile outside of the cache lock, concurrent lookups of the same dictionary wait for
+    // the first one to complete.
+    try {
+      return entry.compiled(dictionary);
+    } catch (RuntimeException e) {
+      synchronized (this) {
+        if (entries.remove(key, entry)) {
+          bytes -= entry.weight;
+        }
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Accounts for the memory used by a newly compiled dictionary, unless it has been evicted while
+   * compiling. Dictionaries larger than the limit are not cached.
+   */
+  private synchronized void compiled(Entry entry, CompiledDictionary compiled) {
+    if (entries.get(entry.key) != entry) {
+      return;
+    }
+
+    final long weight = compiled.ramBytesUsed();
+    if (weight > maxBytes) {
+      entries.remove(entry.key);
+    } else {
+      entry.weight = weight;
+      bytes += weight;
+      evict();
+    }
+  }
+
+  private void evict() {
+    final Iterator<Entry> it = entries.values().iterator();
+    while (bytes > maxBytes && it.hasNext()) {
+      bytes -= it.next().weight;
+      it.remove();
+    }
+  }
+
+  /** A compiled dictionary, compiled lazily by the first lookup. */
+  private final class Entry {
+    final Key key;
+
+    /**
+     * The estimated size of the compiled dictionary (zero until compiled), guarded by the cache.
+     */
+    long weight;
+
+    private volatile CompiledDictionary compiled;
+
+    Entry(Key key) {
+      this.key = key;
+    }
+
+    Predicate<CharSequence> compiled(DefaultDictionaryImpl dictionary) {
+      CompiledDictionary value = compiled;
+      if (value != null) {
+        hits.incrementAndGet();
+        return value;
+      }
+
+      synchronized (this) {
+        value = compiled;
+        if (value != null) {
+          hits.incrementAndGet();
+        } else {
+          misses.incrementAndGet();
+          value = dictionary.compile();
+          compiled = value;
+          CompiledDictionaryCache.this.compiled(this, value);
+        }
+        return value;
+      }
+    }
+  }
+
+  /** A digest of dictionary contents. */
+  private static final class Key {
+    private final byte[] digest;
+    private final int hash;
+
+    Key(DefaultDictionaryImpl dictionary) {
+      final MessageDigest md;
+      try {
+        md = MessageDigest.getInstance("SHA-256");
+      } catch (NoSuchAlgorithmException e) {
+        throw new RuntimeException(e);
+      }
+
+      for (String[] strings :
+          Arrays.asList(dictionary.exact.get(), dictionary.glob.get(), dictionary.regexp.get())) {
+        if (strings == null) {
+          update(md, -1);
+        } else {
+          update(md, strings.length);
+          for (String s : strings) {
+            final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            update(md, bytes.length);
+            md.update(bytes);
+          }
+        }
+      }
+
+      this.digest = md.digest();
+      this.hash = Arrays.hashCode(digest);
+    }
+
+    private static void update(MessageDigest md, int value) {
+      md.update((byte) (value >>> 24));
+      md.update((byte) (value >>> 16));
+      md.update((byte) (value >>> 8));
+      md.update((byte) value);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof Key && Arrays.equals(digest, ((Key) other).digest);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.language;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A bounded, thread-safe pool of idle instances of a stateful language component (a {@link
+ * Tokenizer} or a {@link Stemmer}). Instances are created by the component's supplier when the pool
+ * is empty and returned instances in excess of the limit are discarded.
+ *
+ * @see LanguageComponents#pooled(int, Class[])
+ */
+final class ComponentPool<T> {
+  private final Supplier<? extends T> supplier;
+  private final ArrayBlockingQueue<T> idle;
+
+  private final AtomicLong created = new AtomicLong();
+  private final AtomicLong reused = new AtomicLong();
+
+  /**
+   * @param supplier The supplier of new component instances.
+   * @param maxIdle The maximum number of idle instances kept in the pool.
+   */
+  ComponentPool(Supplier<? extends T> supplier, int maxIdle) {
+    if (maxIdle <= 0) {
+      throw new IllegalArgumentException("The maximum number of idle instances must be positive.");
+    }
+    this.supplier = supplier;
+    this.idle = new ArrayBlockingQueue<>(maxIdle);
+  }
+
+  /**
+   * @return Returns an idle instance or a new instance if there are no idle ones.
+   */
+  T acquire() {
+    T instance = idle.poll();
+    if (instance != null) {
+      reused.incrementAndGet();
+      return instance;
+    }
+    created.incrementAndGet();
+    return supplier.get();
+  }
+
+  /** Returns an instance to the pool, the instance is discarded if the pool is full. */
+  void release(T instance) {
+    if (instance != null) {
+      idle.offer(instance);
+    }
+  }
+
+  Supplier<? extends T> supplier() {
+    return supplier;
+  }
+
+  /**
+   * @return Returns the number of instances created by the pool.
+   */
+  long created() {
+    return created.get();
+  }
+
+  /**
+   * @return Returns the number of acquired instances that were reused.
+   */
+  long reused() {
+    return reused.get();
+  }
+
+  /**
+   * @return Returns the number of idle instances.
+   */
+  int idle() {
+    return idle.size();
+  }
+}
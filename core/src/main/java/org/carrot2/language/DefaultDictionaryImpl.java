@@ -25,9 +25,19 @@ import org.carrot2.attrs.AttrStringArray;
  * Default implementation of {@link StopwordFilterDictionary} and {@link LabelFilterDictionary}
  * interfaces. Provides support for exact string matching, globs (wildcard expressions) and regular
  * expression ({@link Pattern}) matching.
+ *
+ * <p>Regular expressions using only regular constructs are compiled into a single deterministic
+ * automaton (see {@link RegExpAutomaton}), other patterns are matched with {@link Pattern}. The
+ * choice of the engine is logged when the dictionary is compiled.
  */
 public class DefaultDictionaryImpl extends AttrComposite
     implements StopwordFilterDictionary, LabelFilterDictionary {
+  private static final System.Logger LOGGER =
+      System.getLogger(DefaultDictionaryImpl.class.getName());
+
+  /** The maximum number of states of an automaton compiled from regular expressions. */
+  private static final int MAX_AUTOMATON_STATES = 10_000;
+
   public AttrStringArray exact =
       attributes.register(
           "exact",
@@ -51,42 +61,89 @@ public class DefaultDictionaryImpl extends AttrComposite
 
   @Override
   public StopwordFilter compileStopwordFilter() {
-    Predicate<String> compiled = compile();
-    return (t) -> !compiled.test(t.toString());
+    Predicate<CharSequence> compiled = compile();
+    return (t) -> !compiled.test(t);
   }
 
   @Override
   public LabelFilter compileLabelFilter() {
-    Predicate<String> compiled = compile();
-    return (t) -> !compiled.test(t.toString());
+    Predicate<CharSequence> compiled = compile();
+    return (t) -> !compiled.test(t);
   }
 
-  private Predicate<String> compile() {
-    ArrayList<Predicate<String>> predicates = new ArrayList<>();
+  /**
+   * @return Returns a predicate matching (filtering out) the entries of this dictionary.
+   */
+  CompiledDictionary compile() {
+    CompiledDictionary compiled = new CompiledDictionary();
 
     if (!exact.isEmpty()) {
-      predicates.add(toSet(exact.get())::contains);
+      Set<String> exact = toSet(this.exact.get());
+      compiled.add(
+          (label) -> exact.contains(label.toString()),
+          exact.stream().mapToLong(CompiledDictionary::exactEntryBytes).sum());
     }
 
     if (!glob.isEmpty()) {
-      GlobDictionary glob = GlobDictionary.compilePatterns(toSet(this.glob.get()).stream());
-      predicates.add(glob::test);
+      Set<String> patterns = toSet(this.glob.get());
+      GlobDictionary glob = GlobDictionary.compilePatterns(patterns.stream());
+      compiled.add(
+          glob::test, patterns.stream().mapToLong(CompiledDictionary::globPatternBytes).sum());
     }
 
     if (!regexp.isEmpty()) {
-      Pattern compiled = union(compile(toSet(regexp.get())));
-      predicates.add((label) -> compiled.matcher(label).find());
+      compileRegExps(toSet(regexp.get()), compiled);
+    }
+
+    return compiled;
+  }
+
+  /**
+   * Compiles regular expressions supported by {@link RegExpAutomaton} into a deterministic
+   * automaton. The remaining patterns (or all of them, if the automaton would be too large) are
+   * matched with {@link Pattern}s.
+   */
+  private static void compileRegExps(Collection<String> patterns, CompiledDictionary compiled) {
+    List<String> supported = new ArrayList<>();
+    List<Pattern> fallback = new ArrayList<>();
+    for (Pattern p : compile(patterns)) {
+      if (RegExpAutomaton.isSupported(p.pattern())) {
+        supported.add(p.pattern());
+      } else {
+        fallback.add(p);
+      }
+    }
+
+    if (!fallback.isEmpty()) {
+      LOGGER.log(
+          System.Logger.Level.INFO,
+          "Regular expressions with non-regular constructs matched with java.util.regex: {0}",
+          fallback);
     }
 
-    if (predicates.isEmpty()) {
-      return (v) -> false;
-    } else {
-      var it = predicates.iterator();
-      var p = it.next();
-      while (it.hasNext()) {
-        p = p.or(it.next());
+    if (!supported.isEmpty()) {
+      RegExpAutomaton automaton = RegExpAutomaton.compile(supported, MAX_AUTOMATON_STATES);
+      if (automaton != null) {
+        LOGGER.log(
+            System.Logger.Level.DEBUG,
+            "Compiled {0} regular expression(s) into an automaton with {1} states.",
+            supported.size(),
+            automaton.stateCount());
+        compiled.add(automaton::find, automaton.ramBytesUsed());
+      } else {
+        LOGGER.log(
+            System.Logger.Level.INFO,
+            "Regular expressions exceed the automaton size limit ({0} states), "
+                + "matched with java.util.regex: {1}",
+            MAX_AUTOMATON_STATES,
+            supported);
+        fallback.addAll(compile(supported));
       }
-      return p;
+    }
+
+    // Patterns with back references can't be combined into a union (group numbers would shift).
+    for (Pattern p : fallback) {
+      compiled.add((label) -> p.matcher(label).find(), CompiledDictionary.patternBytes(p));
     }
   }
 
@@ -102,19 +159,4 @@ public class DefaultDictionaryImpl extends AttrComposite
     }
     return compiled;
   }
-
-  /**
-   * Combines a number of patterns into a single pattern with a union of all of them. With
-   * automata-based pattern engines, this should be faster and memory-friendly.
-   */
-  private static Pattern union(List<Pattern> patterns) {
-    final StringBuilder union = new StringBuilder();
-    union.append("(");
-    for (int i = 0; i < patterns.size(); i++) {
-      if (i > 0) union.append(")|(");
-      union.append(patterns.get(i).toString());
-    }
-    union.append(")");
-    return Pattern.compile(union.toString());
-  }
 }
@@ -81,14 +81,24 @@ public class EphemeralDictionaries extends AttrComposite {
 
   /**
    * Override components of the existing {@link LanguageComponents} instance with this object's
-   * dictionaries.
+   * dictionaries. If the language components contain a {@link CompiledDictionaryCache}, compiled
+   * dictionaries are reused from the cache.
    */
   public LanguageComponents override(LanguageComponents languageComponents) {
+    CompiledDictionaryCache cache =
+        languageComponents.components().contains(CompiledDictionaryCache.class)
+            ? languageComponents.get(CompiledDictionaryCache.class)
+            : null;
+
     List<StopwordFilterDictionary> wordFilterAttrs = this.wordFilters.get();
     if (wordFilterAttrs != null && !wordFilterAttrs.isEmpty()) {
       StopwordFilter dictFilter =
           wordFilterAttrs.stream()
-              .map(StopwordFilterDictionary::compileStopwordFilter)
+              .map(
+                  (dictionary) ->
+                      cache == null
+                          ? dictionary.compileStopwordFilter()
+                          : cache.stopwordFilter(dictionary))
               .reduce(StopwordFilter::and)
               .get();
 
@@ -110,7 +120,11 @@ public class EphemeralDictionaries extends AttrComposite {
     if (labelFilterAttrs != null && !labelFilterAttrs.isEmpty()) {
       LabelFilter dictFilter =
           labelFilterAttrs.stream()
-              .map(LabelFilterDictionary::compileLabelFilter)
+              .map(
+                  (dictionary) ->
+                      cache == null
+                          ? dictionary.compileLabelFilter()
+                          : cache.labelFilter(dictionary))
               .reduce(LabelFilter::and)
               .get();
 
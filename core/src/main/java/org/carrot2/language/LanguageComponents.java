@@ -10,6 +10,7 @@
  */
 package org.carrot2.language;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -21,10 +22,19 @@ import java.util.function.Supplier;
 public final class LanguageComponents {
   private final String language;
   private final Map<Class<?>, Supplier<?>> components;
+  private final Map<Class<?>, ComponentPool<?>> pools;
 
   public LanguageComponents(String language, Map<Class<?>, Supplier<?>> suppliers) {
+    this(language, suppliers, Collections.emptyMap());
+  }
+
+  private LanguageComponents(
+      String language,
+      Map<Class<?>, Supplier<?>> suppliers,
+      Map<Class<?>, ComponentPool<?>> pools) {
     this.language = language;
     this.components = suppliers;
+    this.pools = pools;
   }
 
   public String language() {
@@ -32,22 +42,70 @@ public final class LanguageComponents {
   }
 
   public <T> T get(Class<T> componentClass) {
-    Supplier<?> supplier = components.get(componentClass);
-    if (supplier == null) {
-      throw new RuntimeException(
-          String.format(
-              Locale.ROOT,
-              "This instance of LanguageComponents for language '%s' does not come with a supplier of component class '%s'.",
-              language,
-              componentClass.getName()));
+    return componentClass.cast(supplier(componentClass).get());
+  }
+
+  /**
+   * Returns an instance of the given component for exclusive use by the caller until it is passed
+   * to {@link #release(Class, Object)}. Instances of {@linkplain #pooled(int, Class[]) pooled}
+   * components are reused, for other components this method is equivalent to {@link #get(Class)}.
+   *
+   * @since 4.8.0
+   */
+  public <T> T acquire(Class<T> componentClass) {
+    ComponentPool<?> pool = pools.get(componentClass);
+    if (pool == null) {
+      return get(componentClass);
+    }
+    return componentClass.cast(pool.acquire());
+  }
+
+  /**
+   * Returns an instance obtained from {@link #acquire(Class)}. The caller must not use the instance
+   * afterwards.
+   *
+   * @since 4.8.0
+   */
+  public <T> void release(Class<T> componentClass, T instance) {
+    @SuppressWarnings("unchecked")
+    ComponentPool<T> pool = (ComponentPool<T>) pools.get(componentClass);
+    if (pool != null) {
+      pool.release(instance);
+    }
+  }
+
+  /**
+   * Pools instances of stateful components (such as {@link Tokenizer} or {@link Stemmer}), so that
+   * they are reused by subsequent clustering calls instead of being created for each call. Pooled
+   * instances are obtained with {@link #acquire(Class)} and returned with {@link #release(Class,
+   * Object)}, {@link #get(Class)} still returns a new instance on each call.
+   *
+   * <p>The pools are shared by all users of the returned instance (and of instances derived from it
+   * with {@link #override(Class, Supplier)}), overriding a pooled component discards its pool.
+   *
+   * @param maxIdle The maximum number of idle instances kept for each component (the expected
+   *     number of concurrent clustering calls).
+   * @param componentClasses The components to pool.
+   * @return Returns the modified, immutable {@link LanguageComponents} instance.
+   * @since 4.8.0
+   */
+  public LanguageComponents pooled(int maxIdle, Class<?>... componentClasses) {
+    Map<Class<?>, ComponentPool<?>> clonedPools = new LinkedHashMap<>(pools);
+    for (Class<?> clazz : componentClasses) {
+      clonedPools.put(clazz, new ComponentPool<>(supplier(clazz), maxIdle));
     }
-    return componentClass.cast(supplier.get());
+    return new LanguageComponents(language, components, clonedPools);
   }
 
   public <T> LanguageComponents override(Class<T> clazz, Supplier<? extends T> supplier) {
     Map<Class<?>, Supplier<?>> clonedSuppliers = new LinkedHashMap<>(components);
     clonedSuppliers.put(clazz, supplier);
-    return new LanguageComponents(language, clonedSuppliers);
+    Map<Class<?>, ComponentPool<?>> clonedPools = pools;
+    if (pools.containsKey(clazz)) {
+      clonedPools = new LinkedHashMap<>(pools);
+      clonedPools.remove(clazz);
+    }
+    return new LanguageComponents(language, clonedSuppliers, clonedPools);
   }
 
   /**
@@ -68,6 +126,26 @@ public final class LanguageComponents {
     return components.keySet();
   }
 
+  /**
+   * @return Returns the pool of the given component or <code>null</code> if it is not pooled.
+   */
+  ComponentPool<?> pool(Class<?> componentClass) {
+    return pools.get(componentClass);
+  }
+
+  private Supplier<?> supplier(Class<?> componentClass) {
+    Supplier<?> supplier = components.get(componentClass);
+    if (supplier == null) {
+      throw new RuntimeException(
+          String.format(
+              Locale.ROOT,
+              "This instance of LanguageComponents for language '%s' does not come with a supplier of component class '%s'.",
+              language,
+              componentClass.getName()));
+    }
+    return supplier;
+  }
+
   public static LanguageComponentsLoader loader() {
     return new LanguageComponentsLoader();
   }
@@ -0,0 +1,1050 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.language;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntHashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+/**
+ * A minimized deterministic automaton equivalent to {@link java.util.regex.Matcher#find()} of a
+ * union of regular expressions. The automaton runs directly over {@link CharSequence}s, in linear
+ * time and without backtracking.
+ *
+ * <p>Only the regular subset of {@link Pattern} syntax is supported: literals and escapes,
+ * character classes (without unions and intersections), predefined classes (<code>.</code>, <code>
+ * \d</code>, <code>\w</code>, <code>\s</code> and their complements), groups, alternatives, greedy
+ * and reluctant quantifiers, input boundaries (<code>^</code>, <code>$</code>) and the
+ * case-insensitive flag (<code>(?i)</code>, US-ASCII only, as in {@link Pattern}). Use {@link
+ * #isSupported(String)} to check a pattern.
+ *
+ * <p>Inputs with line terminators or surrogate characters are matched with an equivalent {@link
+ * Pattern} because boundaries and character classes have special semantics for them.
+ */
+final class RegExpAutomaton {
+  /** The maximum number of repetitions of a bounded quantifier. */
+  private static final int MAX_REPETITIONS = 100;
+
+  /** Line terminators, as defined by {@link Pattern}. */
+  private static final int[] LINE_TERMINATORS =
+      ranges('\n', '\n', '\r', '\r', '\u0085', '\u0085', '\u2028', '\u2029');
+
+  private static final int[] ANY = ranges(0, Character.MAX_VALUE);
+  private static final int[] DIGIT = ranges('0', '9');
+  private static final int[] WORD = ranges('0', '9', 'A', 'Z', '_', '_', 'a', 'z');
+  private static final int[] SPACE = ranges('\t', '\r', ' ', ' ');
+
+  /** Upper bounds of character classes (all characters in a class lead to the same state). */
+  private final char[] classEnds;
+
+  /** Character classes of ASCII characters. */
+  private final int[] asciiClasses;
+
+  private final int classCount;
+  private final int[] transitions;
+  private final boolean[] accepts;
+  private final boolean[] acceptsAtEnd;
+  private final Pattern fallback;
+
+  private RegExpAutomaton(
+      char[] classEnds,
+      int[] transitions,
+      boolean[] accepts,
+      boolean[] acceptsAtEnd,
+      Pattern fallback) {
+    this.classEnds = classEnds;
+    this.classCount = classEnds.length;
+    this.transitions = transitions;
+    this.accepts = accepts;
+    this.acceptsAtEnd = acceptsAtEnd;
+    this.fallback = fallback;
+
+    this.asciiClasses = new int[128];
+    for (int c = 0; c < asciiClasses.length; c++) {
+      asciiClasses[c] = classOf((char) c);
+    }
+  }
+
+  /**
+   * @return Returns <code>true</code> if any of the compiled patterns matches a fragment of the
+   *     input, equivalent to {@link java.util.regex.Matcher#find()}.
+   */
+  boolean find(CharSequence input) {
+    int state = 0;
+    final int length = input.length();
+    for (int i = 0; i < length; i++) {
+      if (accepts[state]) {
+        return true;
+      }
+
+      final char chr = input.charAt(i);
+      final int cls;
+      if (chr < 128) {
+        cls = asciiClasses[chr];
+        if (chr == '\n' || chr == '\r') {
+          return fallback.matcher(input).find();
+        }
+      } else {
+        if (Character.isSurrogate(chr) || chr == '\u0085' || chr == '\u2028' || chr == '\u2029') {
+          return fallback.matcher(input).find();
+        }
+        cls = classOf(chr);
+      }
+      state = transitions[state * classCount + cls];
+    }
+    return accepts[state] || acceptsAtEnd[state];
+  }
+
+  /**
+   * @return Returns the number of states of the automaton.
+   */
+  int stateCount() {
+    return accepts.length;
+  }
+
+  /**
+   * @return Returns an estimate of the memory used by this automaton (including the fallback
+   *     pattern), in bytes.
+   */
+  long ramBytesUsed() {
+    return 64
+        + 16
+        + (long) classEnds.length * Character.BYTES
+        + 16
+        + (long) asciiClasses.length * Integer.BYTES
+        + 16
+        + (long) transitions.length * Integer.BYTES
+        + 16
+        + accepts.length
+        + 16
+        + acceptsAtEnd.length
+        + CompiledDictionary.patternBytes(fallback);
+  }
+
+  private int classOf(char chr) {
+    int lo = 0;
+    int hi = classEnds.length - 1;
+    while (lo < hi) {
+      final int mid = (lo + hi) >>> 1;
+      if (classEnds[mid] < chr) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  /**
+   * @return Returns <code>true</code> if the pattern only uses constructs supported by this
+   *     automaton. The pattern must be a valid {@link Pattern}.
+   */
+  static boolean isSupported(String pattern) {
+    try {
+      new Parser(pattern).parse();
+      return true;
+    } catch (UnsupportedPatternException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Compiles a union of patterns into a minimized automaton.
+   *
+   * @param patterns Valid {@link Pattern}s, all of them {@linkplain #isSupported(String)
+   *     supported}.
+   * @param maxStates The maximum number of states of the automaton during construction.
+   * @return Returns the automaton or <code>null</code> if it would have more than <code>maxStates
+   *     </code> states.
+   */
+  static RegExpAutomaton compile(Collection<String> patterns, int maxStates) {
+    final Nfa nfa = new Nfa();
+    final int start = nfa.newState();
+    final int end = nfa.newState();
+    final StringJoiner union = new StringJoiner(")|(?:", "(?:", ")");
+    union.setEmptyValue("(?!)");
+    for (String pattern : patterns) {
+      final Node node;
+      try {
+        node = new Parser(pattern).parse();
+      } catch (UnsupportedPatternException e) {
+        throw new IllegalArgumentException("Unsupported pattern: " + pattern, e);
+      }
+      final int s = nfa.newState();
+      nfa.epsilon(start, s);
+      nfa.epsilon(node.build(nfa, s), end);
+      union.add(pattern);
+    }
+
+    final Dfa dfa = Dfa.determinize(nfa, start, end, maxStates);
+    if (dfa == null) {
+      return null;
+    }
+    return dfa.minimize().toAutomaton(Pattern.compile(union.toString()));
+  }
+
+  /** Thrown when a pattern uses constructs not supported by the automaton. */
+  @SuppressWarnings("serial")
+  private static final class UnsupportedPatternException extends RuntimeException {
+    UnsupportedPatternException(String message) {
+      super(message);
+    }
+  }
+
+  /**
+   * Character sets are sorted, disjoint and non-adjacent inclusive ranges of characters, stored as
+   * <code>[from1, to1, from2, to2, ...]</code>.
+   */
+  private static int[] ranges(int... ranges) {
+    return ranges;
+  }
+
+  private static int[] union(int[] a, int[] b) {
+    final int[] all = new int[a.length + b.length];
+    System.arraycopy(a, 0, all, 0, a.length);
+    System.arraycopy(b, 0, all, a.length, b.length);
+    return normalize(all, all.length);
+  }
+
+  private static int[] complement(int[] set) {
+    final IntArrayList result = new IntArrayList();
+    int next = 0;
+    for (int i = 0; i < set.length; i += 2) {
+      if (set[i] > next) {
+        result.add(next, set[i] - 1);
+      }
+      next = set[i + 1] + 1;
+    }
+    if (next <= Character.MAX_VALUE) {
+      result.add(next, Character.MAX_VALUE);
+    }
+    return result.toArray();
+  }
+
+  /** Adds the other case of US-ASCII letters in the set. */
+  private static int[] asciiCaseInsensitive(int[] set) {
+    final IntArrayList result = new IntArrayList();
+    result.add(set);
+    for (int i = 0; i < set.length; i += 2) {
+      addShifted(result, set[i], set[i + 1], 'a', 'z', 'A' - 'a');
+      addShifted(result, set[i], set[i + 1], 'A', 'Z', 'a' - 'A');
+    }
+    return normalize(result.buffer, result.size());
+  }
+
+  private static void addShifted(IntArrayList result, int from, int to, int lo, int hi, int delta) {
+    from = Math.max(from, lo);
+    to = Math.min(to, hi);
+    if (from <= to) {
+      result.add(from + delta, to + delta);
+    }
+  }
+
+  /** Sorts and merges overlapping or adjacent ranges. */
+  private static int[] normalize(int[] ranges, int length) {
+    final long[] packed = new long[length / 2];
+    for (int i = 0; i < packed.length; i++) {
+      packed[i] = ((long) ranges[2 * i] << 32) | ranges[2 * i + 1];
+    }
+    Arrays.sort(packed);
+
+    final IntArrayList result = new IntArrayList();
+    for (long range : packed) {
+      final int from = (int) (range >>> 32);
+      final int to = (int) range;
+      final int last = result.size() - 1;
+      if (last > 0 && from <= result.get(last) + 1) {
+        result.set(last, Math.max(result.get(last), to));
+      } else {
+        result.add(from, to);
+      }
+    }
+    return result.toArray();
+  }
+
+  /** A node of the pattern's syntax tree. */
+  private abstract static class Node {
+    /**
+     * Adds states and transitions matching this node to the NFA, starting from the provided state.
+     *
+     * @return Returns the state reached after a match of this node.
+     */
+    abstract int build(Nfa nfa, int from);
+  }
+
+  private static final class CharSetNode extends Node {
+    final int[] chars;
+
+    CharSetNode(int[] chars) {
+      this.chars = chars;
+    }
+
+    @Override
+    int build(Nfa nfa, int from) {
+      final int to = nfa.newState();
+      nfa.chars(from, to, chars);
+      return to;
+    }
+  }
+
+  private static final class BoundaryNode extends Node {
+    final int type;
+
+    BoundaryNode(int type) {
+      this.type = type;
+    }
+
+    @Override
+    int build(Nfa nfa, int from) {
+      final int to = nfa.newState();
+      nfa.edge(from, to, type, null);
+      return to;
+    }
+  }
+
+  private static final class ConcatenationNode extends Node {
+    final List<Node> nodes;
+
+    ConcatenationNode(List<Node> nodes) {
+      this.nodes = nodes;
+    }
+
+    @Override
+    int build(Nfa nfa, int from) {
+      int state = from;
+      for (Node node : nodes) {
+        state = node.build(nfa, state);
+      }
+      return state;
+    }
+  }
+
+  private static final class AlternativeNode extends Node {
+    final List<Node> nodes;
+
+    AlternativeNode(List<Node> nodes) {
+      this.nodes = nodes;
+    }
+
+    @Override
+    int build(Nfa nfa, int from) {
+      final int to = nfa.newState();
+      for (Node node : nodes) {
+        final int s = nfa.newState();
+        nfa.epsilon(from, s);
+        nfa.epsilon(node.build(nfa, s), to);
+      }
+      return to;
+    }
+  }
+
+  private static final class RepetitionNode extends Node {
+    final Node node;
+    final int min;
+
+    /** The maximum number of repetitions, -1 if unbounded. */
+    final int max;
+
+    RepetitionNode(Node node, int min, int max) {
+      this.node = node;
+      this.min = min;
+      this.max = max;
+    }
+
+    @Override
+    int build(Nfa nfa, int from) {
+      int state = from;
+      for (int i = 0; i < min; i++) {
+        state = node.build(nfa, state);
+      }
+
+      if (max < 0) {
+        final int loop = nfa.newState();
+        nfa.epsilon(state, loop);
+        nfa.epsilon(node.build(nfa, loop), loop);
+        return loop;
+      }
+
+      for (int i = min; i < max; i++) {
+        final int next = nfa.newState();
+        nfa.epsilon(state, next);
+        nfa.epsilon(node.build(nfa, state), next);
+        state = next;
+      }
+      return state;
+    }
+  }
+
+  /** A parser of the supported subset of {@link Pattern} syntax. */
+  private static final class Parser {
+    private final String pattern;
+    private int pos;
+    private boolean caseInsensitive;
+
+    Parser(String pattern) {
+      this.pattern = pattern;
+    }
+
+    Node parse() {
+      final Node node = alternatives();
+      if (pos != pattern.length()) {
+        throw unsupported("unexpected '" + pattern.charAt(pos) + "'");
+      }
+      return node;
+    }
+
+    private Node alternatives() {
+      final List<Node> nodes = new ArrayList<>();
+      nodes.add(concatenation());
+      while (pos < pattern.length() && pattern.charAt(pos) == '|') {
+        pos++;
+        nodes.add(concatenation());
+      }
+      return nodes.size() == 1 ? nodes.get(0) : new AlternativeNode(nodes);
+    }
+
+    private Node concatenation() {
+      final List<Node> nodes = new ArrayList<>();
+      while (pos < pattern.length()) {
+        final char chr = pattern.charAt(pos);
+        if (chr == '|' || chr == ')') {
+          break;
+        }
+
+        final Node atom = atom();
+        if (atom != null) {
+          nodes.add(quantifier(atom));
+        }
+      }
+      return nodes.size() == 1 ? nodes.get(0) : new ConcatenationNode(nodes);
+    }
+
+    /**
+     * @return Returns the next atom or <code>null</code> if the pattern only changed matching
+     *     flags.
+     */
+    private Node atom() {
+      final char chr = pattern.charAt(pos++);
+      switch (chr) {
+        case '(':
+          return group();
+        case '[':
+          return new CharSetNode(characterClass());
+        case '.':
+          return new CharSetNode(complement(LINE_TERMINATORS));
+        case '^':
+          return new BoundaryNode(Nfa.START);
+        case '$':
+          return new BoundaryNode(Nfa.END);
+        case '\\':
+          if (pos < pattern.length() && pattern.charAt(pos) == 'Q') {
+            return quoted();
+          }
+          return new CharSetNode(escape(false));
+        case '*':
+        case '+':
+        case '?':
+        case '{':
+        case ')':
+          throw unsupported("unexpected '" + chr + "'");
+        default:
+          return new CharSetNode(literal(chr));
+      }
+    }
+
+    private Node group() {
+      final boolean savedCaseInsensitive = caseInsensitive;
+      if (pos < pattern.length() && pattern.charAt(pos) == '?') {
+        pos++;
+        final char chr = next();
+        if (chr == '<' && pos < pattern.length() && Character.isLetter(pattern.charAt(pos))) {
+          // A named group, matched like any other group.
+          pos = pattern.indexOf('>', pos) + 1;
+          if (pos == 0) {
+            throw unsupported("unterminated group name");
+          }
+        } else if (chr != ':') {
+          pos--;
+          if (!flags()) {
+            // Flags apply to the rest of the enclosing group.
+            return null;
+          }
+        }
+      }
+
+      final Node node = alternatives();
+      if (next() != ')') {
+        throw unsupported("unterminated group");
+      }
+      caseInsensitive = savedCaseInsensitive;
+      return node;
+    }
+
+    /**
+     * Parses flags of a <code>(?flags)</code> or <code>(?flags:X)</code> construct.
+     *
+     * @return Returns <code>true</code> if the flags are followed by a group body.
+     */
+    private boolean flags() {
+      boolean enable = true;
+      while (true) {
+        final char chr = next();
+        switch (chr) {
+          case 'i':
+            caseInsensitive = enable;
+            break;
+          case '-':
+            enable = false;
+            break;
+          case ')':
+            return false;
+          case ':':
+            return true;
+          default:
+            throw unsupported("unsupported flag or group type '" + chr + "'");
+        }
+      }
+    }
+
+    private Node quantifier(Node atom) {
+      if (pos >= pattern.length()) {
+        return atom;
+      }
+
+      final int min;
+      final int max;
+      switch (pattern.charAt(pos)) {
+        case '*':
+          min = 0;
+          max = -1;
+          break;
+        case '+':
+          min = 1;
+          max = -1;
+          break;
+        case '?':
+          min = 0;
+          max = 1;
+          break;
+        case '{':
+          pos++;
+          min = number();
+          if (pattern.charAt(pos) == ',') {
+            pos++;
+            max = pattern.charAt(pos) == '}' ? -1 : number();
+          } else {
+            max = min;
+          }
+          if (pattern.charAt(pos) != '}' || Math.max(min, max) > MAX_REPETITIONS) {
+            throw unsupported("unsupported repetition");
+          }
+          break;
+        default:
+          return atom;
+      }
+      pos++;
+
+      // Reluctant quantifiers match the same inputs, possessive ones do not.
+      if (pos < pattern.length()) {
+        switch (pattern.charAt(pos)) {
+          case '?':
+            pos++;
+            break;
+          case '+':
+            throw unsupported("possessive quantifiers");
+          default:
+            break;
+        }
+      }
+
+      return new RepetitionNode(atom, min, max);
+    }
+
+    private int number() {
+      final int start = pos;
+      while (pos < pattern.length() && pos - start < 9 && isDigit(pattern.charAt(pos))) {
+        pos++;
+      }
+      if (start == pos || pos == pattern.length()) {
+        throw unsupported("invalid repetition");
+      }
+      return Integer.parseInt(pattern.substring(start, pos));
+    }
+
+    private int[] characterClass() {
+      boolean negate = false;
+      if (pos < pattern.length() && pattern.charAt(pos) == '^') {
+        negate = true;
+        pos++;
+      }
+
+      int[] set = new int[0];
+      boolean first = true;
+      while (true) {
+        final char chr = next();
+        if (chr == ']' && !first) {
+          break;
+        }
+        if (chr == '[' || chr == ']' || (chr == '&' && peek('&'))) {
+          throw unsupported("nested classes, unions and intersections");
+        }
+        first = false;
+
+        final int[] item;
+        if (chr == '\\') {
+          item = escape(true);
+        } else {
+          item = single(chr);
+        }
+
+        // A range.
+        if (item.length == 2
+            && item[0] == item[1]
+            && peek('-')
+            && pos + 1 < pattern.length()
+            && pattern.charAt(pos + 1) != ']') {
+          pos++;
+          final char toChr = next();
+          final int[] to = toChr == '\\' ? escape(true) : single(toChr);
+          if (toChr == '[' || to.length != 2 || to[0] != to[1] || to[0] < item[0]) {
+            throw unsupported("invalid range");
+          }
+          set = union(set, ranges(item[0], to[0]));
+        } else {
+          set = union(set, item);
+        }
+      }
+
+      if (caseInsensitive) {
+        set = asciiCaseInsensitive(set);
+      }
+      return negate ? complement(set) : set;
+    }
+
+    /** Parses an escape sequence (following a backslash) into a set of characters. */
+    private int[] escape(boolean inClass) {
+      final char chr = next();
+      switch (chr) {
+        case 'd':
+          return DIGIT;
+        case 'D':
+          return complement(DIGIT);
+        case 'w':
+          return WORD;
+        case 'W':
+          return complement(WORD);
+        case 's':
+          return SPACE;
+        case 'S':
+          return complement(SPACE);
+        case 't':
+          return character('\t', inClass);
+        case 'n':
+          return character('\n', inClass);
+        case 'r':
+          return character('\r', inClass);
+        case 'f':
+          return character('\f', inClass);
+        case 'a':
+          return character('\u0007', inClass);
+        case 'e':
+          return character('\u001B', inClass);
+        case 'c':
+          return character(next() ^ 64, inClass);
+        case '0':
+          return character(octal(), inClass);
+        case 'x':
+          return character(hex(), inClass);
+        case 'u':
+          return character(hex(4), inClass);
+        default:
+          if (isDigit(chr) || Character.isLetter(chr)) {
+            throw unsupported("unsupported escape '\\" + chr + "'");
+          }
+          return character(chr, inClass);
+      }
+    }
+
+    private Node quoted() {
+      pos++;
+      int end = pattern.indexOf("\\E", pos);
+      if (end < 0) {
+        end = pattern.length();
+      }
+
+      final List<Node> nodes = new ArrayList<>();
+      while (pos < end) {
+        nodes.add(new CharSetNode(literal(pattern.charAt(pos++))));
+      }
+      pos = Math.min(end + 2, pattern.length());
+
+      return quantifierOfLast(nodes);
+    }
+
+    /** A quantifier following a quoted sequence applies to its last character. */
+    private Node quantifierOfLast(List<Node> nodes) {
+      if (nodes.isEmpty()) {
+        return new ConcatenationNode(nodes);
+      }
+      final int last = nodes.size() - 1;
+      nodes.set(last, quantifier(nodes.get(last)));
+      return new ConcatenationNode(nodes);
+    }
+
+    private int octal() {
+      int value = 0;
+      for (int digits = 0; digits < 3 && pos < pattern.length(); digits++) {
+        final int digit = pattern.charAt(pos) - '0';
+        if (digit < 0 || digit > 7 || (digits == 2 && value > 037)) {
+          break;
+        }
+        value = value * 8 + digit;
+        pos++;
+      }
+      return value;
+    }
+
+    private int hex() {
+      if (peek('{')) {
+        final int end = pattern.indexOf('}', pos);
+        if (end < 0) {
+          throw unsupported("unterminated hexadecimal escape");
+        }
+        pos++;
+        return hex(end - pos, true);
+      }
+      return hex(2);
+    }
+
+    private int hex(int digits) {
+      return hex(digits, false);
+    }
+
+    private int hex(int digits, boolean braces) {
+      if (digits <= 0 || digits > 6 || pos + digits > pattern.length()) {
+        throw unsupported("invalid hexadecimal escape");
+      }
+      final int value = Integer.parseInt(pattern.substring(pos, pos + digits), 16);
+      pos += digits + (braces ? 1 : 0);
+      return value;
+    }
+
+    /** A literal character, outside a character class. */
+    private int[] literal(char chr) {
+      return character(chr, false);
+    }
+
+    /** A literal character, inside a character class (case folding is applied to the class). */
+    private int[] single(char chr) {
+      return character(chr, true);
+    }
+
+    private int[] character(int chr, boolean inClass) {
+      if (chr > Character.MAX_VALUE || Character.isSurrogate((char) chr)) {
+        throw unsupported("supplementary characters");
+      }
+      final int[] set = ranges(chr, chr);
+      return caseInsensitive && !inClass ? asciiCaseInsensitive(set) : set;
+    }
+
+    private boolean peek(char chr) {
+      return pos < pattern.length() && pattern.charAt(pos) == chr;
+    }
+
+    private char next() {
+      if (pos >= pattern.length()) {
+        throw unsupported("unexpected end of pattern");
+      }
+      return pattern.charAt(pos++);
+    }
+
+    private static boolean isDigit(char chr) {
+      return chr >= '0' && chr <= '9';
+    }
+
+    private UnsupportedPatternException unsupported(String reason) {
+      return new UnsupportedPatternException(reason + " in: " + pattern);
+    }
+  }
+
+  /** A nondeterministic automaton with character set, epsilon and input boundary transitions. */
+  private static final class Nfa {
+    static final int EPSILON = 0;
+    static final int CHARS = 1;
+    static final int START = 2;
+    static final int END = 3;
+
+    /** Outgoing edges of each state: indexes into the edge arrays. */
+    final List<IntArrayList> edges = new ArrayList<>();
+
+    final IntArrayList edgeType = new IntArrayList();
+    final IntArrayList edgeTarget = new IntArrayList();
+    final List<int[]> edgeChars = new ArrayList<>();
+
+    int newState() {
+      edges.add(new IntArrayList(2));
+      return edges.size() - 1;
+    }
+
+    void epsilon(int from, int to) {
+      edge(from, to, EPSILON, null);
+    }
+
+    void chars(int from, int to, int[] chars) {
+      edge(from, to, CHARS, chars);
+    }
+
+    void edge(int from, int to, int type, int[] chars) {
+      edges.get(from).add(edgeType.size());
+      edgeType.add(type);
+      edgeTarget.add(to);
+      edgeChars.add(chars);
+    }
+
+    int stateCount() {
+      return edges.size();
+    }
+
+    /**
+     * Adds states reachable from the states on the stack (and marked in the set) with epsilon
+     * transitions and input boundary transitions of the given types.
+     */
+    void closure(IntArrayList stack, BitSet set, boolean atStart, boolean atEnd) {
+      while (!stack.isEmpty()) {
+        final int state = stack.removeAt(stack.size() - 1);
+        final IntArrayList out = edges.get(state);
+        for (int i = 0; i < out.size(); i++) {
+          final int edge = out.get(i);
+          final int type = edgeType.get(edge);
+          if (type == EPSILON || (type == START && atStart) || (type == END && atEnd)) {
+            final int target = edgeTarget.get(edge);
+            if (!set.get(target)) {
+              set.set(target);
+              stack.add(target);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /** A deterministic automaton over character classes. */
+  private static final class Dfa {
+    final char[] classEnds;
+    final int classCount;
+    final int[] transitions;
+    final boolean[] accepts;
+    final boolean[] acceptsAtEnd;
+
+    Dfa(char[] classEnds, int[] transitions, boolean[] accepts, boolean[] acceptsAtEnd) {
+      this.classEnds = classEnds;
+      this.classCount = classEnds.length;
+      this.transitions = transitions;
+      this.accepts = accepts;
+      this.acceptsAtEnd = acceptsAtEnd;
+    }
+
+    /**
+     * Subset construction of a deterministic automaton finding matches of the NFA anywhere in the
+     * input (the NFA's start state is added after every character).
+     */
+    static Dfa determinize(Nfa nfa, int start, int end, int maxStates) {
+      // Split characters into classes which no transition distinguishes.
+      final IntHashSet boundaries = new IntHashSet();
+      boundaries.add(0);
+      for (int[] chars : nfa.edgeChars) {
+        if (chars != null) {
+          for (int i = 0; i < chars.length; i += 2) {
+            boundaries.add(chars[i]);
+            boundaries.add(chars[i + 1] + 1);
+          }
+        }
+      }
+      boundaries.remove(Character.MAX_VALUE + 1);
+      final int[] classStarts = boundaries.toArray();
+      Arrays.sort(classStarts);
+      final int classCount = classStarts.length;
+      final char[] classEnds = new char[classCount];
+      for (int i = 0; i < classCount; i++) {
+        classEnds[i] = (char) (i + 1 < classCount ? classStarts[i + 1] - 1 : Character.MAX_VALUE);
+      }
+
+      // Character classes of each character set transition.
+      final List<int[]> edgeClasses = new ArrayList<>();
+      for (int[] chars : nfa.edgeChars) {
+        if (chars == null) {
+          edgeClasses.add(null);
+        } else {
+          final IntArrayList classes = new IntArrayList();
+          for (int i = 0; i < chars.length; i += 2) {
+            int cls = Arrays.binarySearch(classStarts, chars[i]);
+            for (; cls < classCount && classStarts[cls] <= chars[i + 1]; cls++) {
+              classes.add(cls);
+            }
+          }
+          edgeClasses.add(classes.toArray());
+        }
+      }
+
+      final int nfaStates = nfa.stateCount();
+      final IntArrayList stack = new IntArrayList();
+      final Map<BitSet, Integer> stateIds = new HashMap<>();
+      final List<BitSet> states = new ArrayList<>();
+      final IntArrayList transitions = new IntArrayList();
+
+      // The initial state is the only one at the start of the input.
+      final BitSet initial = new BitSet(nfaStates);
+      initial.set(start);
+      stack.add(start);
+      nfa.closure(stack, initial, true, false);
+      states.add(initial);
+
+      final BitSet restart = new BitSet(nfaStates);
+      restart.set(start);
+      stack.add(start);
+      nfa.closure(stack, restart, false, false);
+
+      for (int id = 0; id < states.size(); id++) {
+        final BitSet state = states.get(id);
+        if (state.get(end)) {
+          // Accepting states are final, loop over any input.
+          for (int cls = 0; cls < classCount; cls++) {
+            transitions.add(id);
+          }
+          continue;
+        }
+
+        final BitSet[] targets = new BitSet[classCount];
+        for (int s = state.nextSetBit(0); s >= 0; s = state.nextSetBit(s + 1)) {
+          final IntArrayList out = nfa.edges.get(s);
+          for (int i = 0; i < out.size(); i++) {
+            final int edge = out.get(i);
+            final int[] classes = edgeClasses.get(edge);
+            if (classes != null) {
+              for (int cls : classes) {
+                if (targets[cls] == null) {
+                  targets[cls] = (BitSet) restart.clone();
+                }
+                final int target = nfa.edgeTarget.get(edge);
+                if (!targets[cls].get(target)) {
+                  targets[cls].set(target);
+                  stack.add(target);
+                  nfa.closure(stack, targets[cls], false, false);
+                }
+              }
+            }
+          }
+        }
+
+        for (int cls = 0; cls < classCount; cls++) {
+          final BitSet target = targets[cls] == null ? restart : targets[cls];
+          Integer targetId = stateIds.get(target);
+          if (targetId == null) {
+            if (states.size() >= maxStates) {
+              return null;
+            }
+            targetId = states.size();
+            states.add(target);
+            stateIds.put(target, targetId);
+          }
+          transitions.add(targetId);
+        }
+      }
+
+      final boolean[] accepts = new boolean[states.size()];
+      final boolean[] acceptsAtEnd = new boolean[states.size()];
+      for (int id = 0; id < states.size(); id++) {
+        final BitSet state = states.get(id);
+        accepts[id] = state.get(end);
+
+        final BitSet atEnd = (BitSet) state.clone();
+        for (int s = state.nextSetBit(0); s >= 0; s = state.nextSetBit(s + 1)) {
+          stack.add(s);
+        }
+        nfa.closure(stack, atEnd, id == 0, true);
+        acceptsAtEnd[id] = atEnd.get(end);
+      }
+
+      return new Dfa(classEnds, transitions.toArray(), accepts, acceptsAtEnd);
+    }
+
+    /** Merges equivalent states (Moore's partition refinement). */
+    Dfa minimize() {
+      final int stateCount = accepts.length;
+      int[] block = new int[stateCount];
+      for (int s = 0; s < stateCount; s++) {
+        block[s] = accepts[s] ? 2 : (acceptsAtEnd[s] ? 1 : 0);
+      }
+
+      int blockCount = -1;
+      while (true) {
+        final Map<IntArrayList, Integer> signatures = new HashMap<>();
+        final int[] next = new int[stateCount];
+        for (int s = 0; s < stateCount; s++) {
+          final IntArrayList signature = new IntArrayList(classCount + 1);
+          signature.add(block[s]);
+          for (int cls = 0; cls < classCount; cls++) {
+            signature.add(block[transitions[s * classCount + cls]]);
+          }
+          Integer id = signatures.get(signature);
+          if (id == null) {
+            id = signatures.size();
+            signatures.put(signature, id);
+          }
+          next[s] = id;
+        }
+        block = next;
+        if (signatures.size() == blockCount) {
+          break;
+        }
+        blockCount = signatures.size();
+      }
+
+      // Renumber blocks so that the initial state is 0.
+      final int[] renumbered = new int[blockCount];
+      Arrays.fill(renumbered, -1);
+      renumbered[block[0]] = 0;
+      int nextId = 1;
+      for (int s = 0; s < stateCount; s++) {
+        if (renumbered[block[s]] < 0) {
+          renumbered[block[s]] = nextId++;
+        }
+      }
+
+      final int[] minTransitions = new int[blockCount * classCount];
+      final boolean[] minAccepts = new boolean[blockCount];
+      final boolean[] minAcceptsAtEnd = new boolean[blockCount];
+      for (int s = 0; s < stateCount; s++) {
+        final int id = renumbered[block[s]];
+        minAccepts[id] = accepts[s];
+        minAcceptsAtEnd[id] = acceptsAtEnd[s];
+        for (int cls = 0; cls < classCount; cls++) {
+          minTransitions[id * classCount + cls] =
+              renumbered[block[transitions[s * classCount + cls]]];
+        }
+      }
+
+      return new Dfa(classEnds, minTransitions, minAccepts, minAcceptsAtEnd);
+    }
+
+    RegExpAutomaton toAutomaton(Pattern fallback) {
+      return new RegExpAutomaton(classEnds, transitions, accepts, acceptsAtEnd, fallback);
+    }
+  }
+}
@@ -23,6 +23,24 @@ public final class SnowballStemmerAdapter implements Stemmer {
   }
 
   public CharSequence stem(CharSequence word) {
+    if (setCurrentAndStem(word)) {
+      return new MutableCharArray(Arrays.copyOf(s.getCurrentBuffer(), s.getCurrentBufferLength()));
+    } else {
+      return null;
+    }
+  }
+
+  @Override
+  public int stem(CharSequence word, MutableCharArray output) {
+    if (setCurrentAndStem(word)) {
+      output.reset(s.getCurrentBuffer(), 0, s.getCurrentBufferLength());
+      return output.length();
+    } else {
+      return UNCHANGED;
+    }
+  }
+
+  private boolean setCurrentAndStem(CharSequence word) {
     final int len = word.length();
     char[] buffer = s.getCurrentBuffer();
     if (buffer.length < len) buffer = new char[len];
@@ -30,10 +48,6 @@ public final class SnowballStemmerAdapter implements Stemmer {
     for (int i = word.length(); --i >= 0; ) buffer[i] = word.charAt(i);
     s.setCurrent(buffer, len);
 
-    if (s.stem()) {
-      return new MutableCharArray(Arrays.copyOf(s.getCurrentBuffer(), s.getCurrentBufferLength()));
-    } else {
-      return null;
-    }
+    return s.stem();
   }
 }
@@ -0,0 +1,162 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.language;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.carrot2.util.MutableCharArray;
+
+/**
+ * A bounded, thread-safe cache of {@link Stemmer} results, shared by all clustering requests that
+ * use the same {@link LanguageComponents}. Word forms recur across requests, so caching their stems
+ * avoids calling the stemmer over and over for the same words.
+ *
+ * <p>The cache is an optional language component. To enable it, add it to the language components
+ * once all other components (the stemmer in particular) are in place:
+ *
+ * <pre>
+ * StemCache cache = new StemCache(100_000);
+ * languageComponents = languageComponents.override(StemCache.class, () -&gt; cache);
+ * </pre>
+ *
+ * <p>The cache is split into independently locked segments (selected by the hash of the word), each
+ * evicting its least recently used entries once full.
+ *
+ * @since 4.8.0
+ */
+public final class StemCache {
+  /** Marks words for which the stemmer returned <code>null</code>. */
+  private static final char[] NO_STEM = new char[0];
+
+  private final Segment[] segments;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * @param maxEntries The maximum number of cached words.
+   */
+  public StemCache(int maxEntries) {
+    this(maxEntries, Runtime.getRuntime().availableProcessors() * 4);
+  }
+
+  /**
+   * @param maxEntries The maximum number of cached words.
+   * @param concurrencyLevel The expected number of threads accessing the cache concurrently, used
+   *     to compute the number of segments.
+   */
+  public StemCache(int maxEntries, int concurrencyLevel) {
+    if (maxEntries <= 0 || concurrencyLevel <= 0) {
+      throw new IllegalArgumentException("The size and concurrency level must be positive.");
+    }
+
+    // A power of two number of segments, each with at least 16 entries.
+    int segmentCount =
+        Integer.highestOneBit(Math.max(1, Math.min(concurrencyLevel, maxEntries / 16)));
+    this.segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      int capacity = maxEntries / segmentCount + (i < maxEntries % segmentCount ? 1 : 0);
+      segments[i] = new Segment(capacity);
+    }
+  }
+
+  /**
+   * Returns the stem of a word, from the cache or computed with the provided stemmer (and then
+   * cached). The stemmer must be the one this cache is used with, the cache does not distinguish
+   * between stemmers.
+   *
+   * @param word The (lower-case) word to stem. The content of the word is copied if it needs to be
+   *     cached.
+   * @return Returns the stem of the word or <code>null</code> if the stemmer returned <code>null
+   *     </code>. The returned array must not be modified.
+   */
+  public char[] stem(MutableCharArray word, Stemmer stemmer) {
+    final Segment segment = segments[spread(word.hashCode()) & (segments.length - 1)];
+
+    char[] stem;
+    synchronized (segment) {
+      stem = segment.get(word);
+    }
+
+    if (stem != null) {
+      hits.incrementAndGet();
+    } else {
+      misses.incrementAndGet();
+
+      final MutableCharArray stemmed = new MutableCharArray();
+      stem = stemmer.stem(word, stemmed) == Stemmer.UNCHANGED ? NO_STEM : stemmed.toArray();
+      final MutableCharArray key = new MutableCharArray(word);
+      synchronized (segment) {
+        segment.put(key, stem);
+      }
+    }
+
+    return stem == NO_STEM ? null : stem;
+  }
+
+  /**
+   * @return Returns the number of lookups served from the cache.
+   */
+  public long hits() {
+    return hits.get();
+  }
+
+  /**
+   * @return Returns the number of lookups that required stemming.
+   */
+  public long misses() {
+    return misses.get();
+  }
+
+  /**
+   * @return Returns the number of cached words.
+   */
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  /** Removes all cached words. */
+  public void clear() {
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        segment.clear();
+      }
+    }
+  }
+
+  /** Spreads the higher bits of the hash so that similar hashes do not collide on segments. */
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  /** A part of the cache with its own lock, in least-recently-used order. */
+  @SuppressWarnings("serial")
+  private static final class Segment extends LinkedHashMap<MutableCharArray, char[]> {
+    private final int capacity;
+
+    Segment(int capacity) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<MutableCharArray, char[]> eldest) {
+      return size() > capacity;
+    }
+  }
+}
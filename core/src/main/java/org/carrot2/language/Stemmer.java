@@ -10,6 +10,8 @@
  */
 package org.carrot2.language;
 
+import org.carrot2.util.MutableCharArray;
+
 /**
  * Simple lemmatization engine transforming an inflected form of a word to its base form or some
  * other unique token.
@@ -21,4 +23,36 @@ public interface Stemmer {
    * word.
    */
   CharSequence stem(CharSequence word);
+
+  /**
+   * Returned by {@link #stem(CharSequence, MutableCharArray)} if the base form cannot be
+   * determined.
+   *
+   * @since 4.8.0
+   */
+  int UNCHANGED = -1;
+
+  /**
+   * Determines the base form of the provided word without allocating a new character sequence. The
+   * output is reset to the base form, which may be stored in a buffer of the stemmer (valid until
+   * the next call and not to be modified by the caller), or of the output itself.
+   *
+   * <p>The default implementation delegates to {@link #stem(CharSequence)}, implementations should
+   * override it if they can avoid copying the base form.
+   *
+   * @param word The word to stem.
+   * @param output Set to the base form of the word, left unmodified if the base form cannot be
+   *     determined.
+   * @return Returns the length of the base form or {@link #UNCHANGED} if the base form cannot be
+   *     determined (and is assumed to be the same as the original word).
+   * @since 4.8.0
+   */
+  default int stem(CharSequence word, MutableCharArray output) {
+    final CharSequence stem = stem(word);
+    if (stem == null) {
+      return UNCHANGED;
+    }
+    output.reset(stem);
+    return output.length();
+  }
 }
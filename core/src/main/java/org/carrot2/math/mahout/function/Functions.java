@@ -230,6 +230,16 @@ public final class Functions {
         }
       };
 
+  /** Division with swapped arguments: <code>b / a</code>. */
+  public static final DoubleDoubleFunction DIV_SWAPPED =
+      new DoubleDoubleFunction() {
+
+        @Override
+        public double apply(double a, double b) {
+          return b / a;
+        }
+      };
+
   public static final DoubleDoubleFunction EQUALS =
       new DoubleDoubleFunction() {
 
@@ -531,13 +541,7 @@ public final class Functions {
   }
 
   public static DoubleFunction plus(final double b) {
-    return new DoubleFunction() {
-
-      @Override
-      public double apply(double a) {
-        return a + b;
-      }
-    };
+    return new Plus(b);
   }
 
   public static DoubleDoubleFunction plusMult(double constant) {
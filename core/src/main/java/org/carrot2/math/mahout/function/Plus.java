@@ -0,0 +1,29 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.mahout.function;
+
+/** Adds a constant, a distinct type so that matrices can specialize for it. */
+public final class Plus implements DoubleFunction {
+  private final double addend;
+
+  Plus(double addend) {
+    this.addend = addend;
+  }
+
+  @Override
+  public double apply(double a) {
+    return a + addend;
+  }
+
+  public double getAddend() {
+    return addend;
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.mahout.matrix.impl;
+
+/**
+ * Element-wise kernels of {@link DenseKernels}, an alternative to {@link ScalarKernels}. Operate on
+ * <code>length</code> contiguous elements of arrays, starting at the given offsets, and must
+ * produce results identical to {@link ScalarKernels}.
+ */
+interface ArrayKernels {
+  /**
+   * @return Returns the number of elements processed at once.
+   */
+  int lanes();
+
+  /** <code>x[i] *= multiplicator</code> */
+  void scale(double[] x, int xOffset, int length, double multiplicator);
+
+  /** <code>x[i] += value</code> */
+  void add(double[] x, int xOffset, int length, double value);
+
+  /** <code>x[i] *= y[i]</code> */
+  void multiply(double[] x, int xOffset, double[] y, int yOffset, int length);
+
+  /** <code>x[i] /= y[i]</code> */
+  void divide(double[] x, int xOffset, double[] y, int yOffset, int length);
+
+  /** <code>x[i] = y[i] / x[i]</code> */
+  void divideInto(double[] x, int xOffset, double[] y, int yOffset, int length);
+
+  /** <code>x[i] += multiplicator * y[i]</code> */
+  void addMultiple(
+      double[] x, int xOffset, double[] y, int yOffset, int length, double multiplicator);
+
+  /** <code>sums[i] += x[i] * x[i]</code> */
+  void addSquares(double[] sums, double[] x, int xOffset, int length);
+
+  /** <code>x[i] /= divisors[i]</code>, for non-zero divisors only. */
+  void divideByNonZero(double[] x, int xOffset, double[] divisors, int length);
+
+  /**
+   * @see ScalarKernels#max(double[], int[], double[], int, int, int, boolean)
+   */
+  void max(double[] max, int[] indices, double[] x, int xOffset, int length, int row, boolean abs);
+}
@@ -14,6 +14,7 @@ import org.carrot2.math.mahout.function.DoubleDoubleFunction;
 import org.carrot2.math.mahout.function.DoubleFunction;
 import org.carrot2.math.mahout.function.Functions;
 import org.carrot2.math.mahout.function.Mult;
+import org.carrot2.math.mahout.function.Plus;
 import org.carrot2.math.mahout.function.PlusMult;
 import org.carrot2.math.mahout.matrix.DoubleMatrix1D;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
@@ -101,6 +102,10 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
         assign(0);
         return;
       }
+      if (cs == 1) {
+        assignRows((x, xOffset, length) -> DenseKernels.scale(x, xOffset, length, multiplicator));
+        return;
+      }
       for (int row = rows; --row >= 0; ) { // the general case
         for (int i = index, column = columns; --column >= 0; ) {
           elems[i] *= multiplicator;
@@ -108,6 +113,9 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
         }
         index += rs;
       }
+    } else if (function instanceof Plus && cs == 1) { // x[i] = x[i] + addend
+      double addend = ((Plus) function).getAddend();
+      assignRows((x, xOffset, length) -> DenseKernels.add(x, xOffset, length, addend));
     } else { // the general case x[i] = f(x[i])
       for (int row = rows; --row >= 0; ) {
         for (int i = index, column = columns; --column >= 0; ) {
@@ -122,6 +130,16 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
   @Override
   public DoubleMatrix2D assign(DoubleMatrix2D source) {
     // overriden for performance only
+    if (source instanceof RowCompressedDoubleMatrix2D) {
+      checkShape(source);
+      assign(0);
+      source.forEachNonZero(
+          (row, column, value) -> {
+            setQuick(row, column, value);
+            return value;
+          });
+      return this;
+    }
     if (!(source instanceof DenseDoubleMatrix2D)) {
       return super.assign(source);
     }
@@ -190,6 +208,29 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
     int otherIndex = other.index(0, 0);
     int index = index(0, 0);
 
+    // vectorizable kernels, for rows of contiguous elements
+    if (cs == 1 && ocs == 1 && (other == this || !haveSharedCells(other))) {
+      if (function == Functions.MULT) {
+        assignRows(other, DenseKernels::multiply);
+        return this;
+      } else if (function == Functions.DIV) {
+        assignRows(other, DenseKernels::divide);
+        return this;
+      } else if (function == Functions.DIV_SWAPPED) {
+        assignRows(other, DenseKernels::divideInto);
+        return this;
+      } else if (function instanceof PlusMult) {
+        double multiplicator = ((PlusMult) function).getMultiplicator();
+        if (multiplicator != 0) {
+          assignRows(
+              other,
+              (x, xOffset, z, zOffset, length) ->
+                  DenseKernels.addMultiple(x, xOffset, z, zOffset, length, multiplicator));
+        }
+        return this;
+      }
+    }
+
     // specialized for speed
     if (function == Functions.MULT) { // x[i] = x[i] * y[i]
       for (int row = rows; --row >= 0; ) {
@@ -260,6 +301,44 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
     return this;
   }
 
+  /** A kernel applied to contiguous elements of a matrix. */
+  private interface UnaryKernel {
+    void apply(double[] x, int xOffset, int length);
+  }
+
+  /** A kernel applied to contiguous elements of two matrices. */
+  private interface BinaryKernel {
+    void apply(double[] x, int xOffset, double[] y, int yOffset, int length);
+  }
+
+  /**
+   * Applies the kernel to all elements of this matrix, at once if they are contiguous or row by
+   * row. Requires a unit column stride.
+   */
+  private void assignRows(UnaryKernel kernel) {
+    if (rowStride == columns) {
+      kernel.apply(elements, index(0, 0), rows * columns);
+    } else {
+      for (int row = 0; row < rows; row++) {
+        kernel.apply(elements, index(row, 0), columns);
+      }
+    }
+  }
+
+  /**
+   * Applies the kernel to all elements of this and the other matrix, at once if they are contiguous
+   * or row by row. Requires unit column strides.
+   */
+  private void assignRows(DenseDoubleMatrix2D other, BinaryKernel kernel) {
+    if (rowStride == columns && other.rowStride == other.columns) {
+      kernel.apply(elements, index(0, 0), other.elements, other.index(0, 0), rows * columns);
+    } else {
+      for (int row = 0; row < rows; row++) {
+        kernel.apply(elements, index(row, 0), other.elements, other.index(row, 0), columns);
+      }
+    }
+  }
+
   @Override
   public double getQuick(int row, int column) {
     // if (debug) if (column<0 || column>=columns || row<0 || row>=rows)
@@ -388,7 +467,7 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
     if (transposeA) {
       return viewDice().zMult(B, C, alpha, beta, false, transposeB);
     }
-    if (B instanceof SparseDoubleMatrix2D) {
+    if (B instanceof SparseDoubleMatrix2D || B instanceof RowCompressedDoubleMatrix2D) {
       // exploit quick sparse mult
       // A*B = (B' * A')'
       if (C == null) {
@@ -408,7 +487,7 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
     if (C == null) {
       C = new DenseDoubleMatrix2D(m, p);
     }
-    if (!(C instanceof DenseDoubleMatrix2D)) {
+    if (!DenseMatrixMultiplication.isDense(B) || !DenseMatrixMultiplication.isDense(C)) {
       return super.zMult(B, C, alpha, beta, transposeA, transposeB);
     }
     if (B.rows != n) {
@@ -421,99 +500,7 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
       throw new IllegalArgumentException("Matrices must not be identical");
     }
 
-    DenseDoubleMatrix2D BB = (DenseDoubleMatrix2D) B;
-    DenseDoubleMatrix2D CC = (DenseDoubleMatrix2D) C;
-    double[] AElems = this.elements;
-    double[] BElems = BB.elements;
-    double[] CElems = CC.elements;
-    if (AElems == null || BElems == null || CElems == null) {
-      throw new IllegalStateException();
-    }
-
-    int cA = this.columnStride;
-    int cB = BB.columnStride;
-    int cC = CC.columnStride;
-
-    int rA = this.rowStride;
-    int rB = BB.rowStride;
-    int rC = CC.rowStride;
-
-    /*
-    A is blocked to hide memory latency
-        xxxxxxx B
-        xxxxxxx
-        xxxxxxx
-    A
-    xxx     xxxxxxx C
-    xxx     xxxxxxx
-    ---     -------
-    xxx     xxxxxxx
-    xxx     xxxxxxx
-    ---     -------
-    xxx     xxxxxxx
-    */
-    int blockSize = 30000; // * 8 == Level 2 cache in bytes
-    // if (n+p == 0) return C;
-    // int m_optimal = (BLOCK_SIZE - n*p) / (n+p);
-    int mOptimal = (blockSize - n) / (n + 1);
-    if (mOptimal <= 0) {
-      mOptimal = 1;
-    }
-    int blocks = m / mOptimal;
-    if (m % mOptimal != 0) {
-      blocks++;
-    }
-    int rr = 0;
-    while (--blocks >= 0) {
-      int jB = BB.index(0, 0);
-      int indexA = index(rr, 0);
-      int jC = CC.index(rr, 0);
-      rr += mOptimal;
-      if (blocks == 0) {
-        mOptimal += m - rr;
-      }
-
-      for (int j = p; --j >= 0; ) {
-        int iA = indexA;
-        int iC = jC;
-        for (int i = mOptimal; --i >= 0; ) {
-          int kA = iA;
-          int kB = jB;
-
-          /*
-          // not unrolled:
-          for (int k = n; --k >= 0; ) {
-            //s += getQuick(i,k) * B.getQuick(k,j);
-            s += AElems[kA] * BElems[kB];
-            kB += rB;
-            kA += cA;
-          }
-          */
-
-          // loop unrolled
-          kA -= cA;
-          kB -= rB;
-
-          double s = 0;
-          for (int k = n % 4; --k >= 0; ) {
-            s += AElems[kA += cA] * BElems[kB += rB];
-          }
-          for (int k = n / 4; --k >= 0; ) {
-            s +=
-                AElems[kA += cA] * BElems[kB += rB]
-                    + AElems[kA += cA] * BElems[kB += rB]
-                    + AElems[kA += cA] * BElems[kB += rB]
-                    + AElems[kA += cA] * BElems[kB += rB];
-          }
-
-          CElems[iC] = alpha * s + beta * CElems[iC];
-          iA += rA;
-          iC += rC;
-        }
-        jB += cB;
-        jC += cC;
-      }
-    }
+    DenseMatrixMultiplication.multiply(this, B, C, alpha, beta);
     return C;
   }
 
@@ -0,0 +1,85 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.mahout.matrix.impl;
+
+import org.carrot2.math.mahout.matrix.DoubleMatrix1D;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+
+/**
+ * A vector of single precision values, typically a row or column view of a {@link
+ * DenseFloatMatrix2D}.
+ */
+final class DenseFloatMatrix1D extends DoubleMatrix1D {
+
+  final float[] elements;
+
+  DenseFloatMatrix1D(int size) {
+    setUp(size);
+    this.elements = new float[size];
+  }
+
+  DenseFloatMatrix1D(int size, float[] elements, int zero, int stride) {
+    setUp(size, zero, stride);
+    this.elements = elements;
+    this.isNoView = false;
+  }
+
+  @Override
+  public double getQuick(int index) {
+    return elements[zero + index * stride];
+  }
+
+  @Override
+  public void setQuick(int index, double value) {
+    elements[zero + index * stride] = (float) value;
+  }
+
+  @Override
+  protected boolean haveSharedCellsRaw(DoubleMatrix1D other) {
+    if (other instanceof SelectedDenseFloatMatrix1D) {
+      return this.elements == ((SelectedDenseFloatMatrix1D) other).elements;
+    }
+    if (other instanceof DenseFloatMatrix1D) {
+      return this.elements == ((DenseFloatMatrix1D) other).elements;
+    }
+    return false;
+  }
+
+  @Override
+  protected int index(int rank) {
+    return zero + rank * stride;
+  }
+
+  @Override
+  public DoubleMatrix1D like(int size) {
+    return new DenseFloatMatrix1D(size);
+  }
+
+  @Override
+  public DoubleMatrix2D like2D(int rows, int columns) {
+    return new DenseFloatMatrix2D(rows, columns);
+  }
+
+  @Override
+  protected DoubleMatrix1D viewSelectionLike(int[] offsets) {
+    return new SelectedDenseFloatMatrix1D(this.elements, offsets);
+  }
+
+  @Override
+  public double zSum() {
+    final float[] elems = this.elements;
+    double sum = 0;
+    for (int i = index(0), k = size; --k >= 0; i += stride) {
+      sum += elems[i];
+    }
+    return sum;
+  }
+}
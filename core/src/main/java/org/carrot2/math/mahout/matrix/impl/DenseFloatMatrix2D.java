@@ -0,0 +1,300 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.mahout.matrix.impl;
+
+import org.carrot2.math.mahout.function.DoubleDoubleFunction;
+import org.carrot2.math.mahout.function.DoubleFunction;
+import org.carrot2.math.mahout.function.Functions;
+import org.carrot2.math.mahout.function.Mult;
+import org.carrot2.math.mahout.function.PlusMult;
+import org.carrot2.math.mahout.matrix.DoubleMatrix1D;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+
+/**
+ * A dense matrix storing its elements in single precision, in row-major order. Elements are rounded
+ * to the nearest <code>float</code> when set and read as <code>double</code>s, so the matrix can be
+ * used wherever a {@link DoubleMatrix2D} is expected while taking half the memory of a {@link
+ * DenseDoubleMatrix2D}.
+ *
+ * <p>Matrices created by {@link #like(int, int)} and {@link #zMult} are single precision too.
+ * Products of dense matrices are computed by {@link DenseMatrixMultiplication}, which accumulates
+ * sums in double precision and rounds each element of the result once.
+ *
+ * @since 4.8.0
+ */
+public final class DenseFloatMatrix2D extends DoubleMatrix2D {
+
+  final float[] elements;
+
+  public DenseFloatMatrix2D(int rows, int columns) {
+    setUp(rows, columns);
+    this.elements = new float[rows * columns];
+  }
+
+  /** Creates a single precision copy of <code>source</code>. */
+  public DenseFloatMatrix2D(DoubleMatrix2D source) {
+    this(source.rows(), source.columns());
+    assign(source);
+  }
+
+  @Override
+  public DoubleMatrix2D assign(double value) {
+    final float[] elems = this.elements;
+    final float v = (float) value;
+    int index = index(0, 0);
+    for (int row = rows; --row >= 0; ) {
+      for (int i = index, column = columns; --column >= 0; ) {
+        elems[i] = v;
+        i += columnStride;
+      }
+      index += rowStride;
+    }
+    return this;
+  }
+
+  @Override
+  public void assign(DoubleFunction function) {
+    if (function instanceof Mult) {
+      final double multiplicator = ((Mult) function).getMultiplicator();
+      if (multiplicator == 1) {
+        return;
+      }
+      if (multiplicator == 0) {
+        assign(0);
+        return;
+      }
+    }
+
+    final float[] elems = this.elements;
+    int index = index(0, 0);
+    for (int row = rows; --row >= 0; ) {
+      for (int i = index, column = columns; --column >= 0; ) {
+        elems[i] = (float) function.apply(elems[i]);
+        i += columnStride;
+      }
+      index += rowStride;
+    }
+  }
+
+  @Override
+  public DoubleMatrix2D assign(DoubleMatrix2D source) {
+    if (source == this) {
+      return this;
+    }
+    checkShape(source);
+    if (haveSharedCells(source)) {
+      source = source.copy();
+    }
+
+    final float[] elems = this.elements;
+    int index = index(0, 0);
+    if (source instanceof DenseDoubleMatrix2D) {
+      final DenseDoubleMatrix2D other = (DenseDoubleMatrix2D) source;
+      final double[] otherElems = other.elements;
+      int otherIndex = other.index(0, 0);
+      for (int row = rows; --row >= 0; ) {
+        for (int i = index, j = otherIndex, column = columns; --column >= 0; ) {
+          elems[i] = (float) otherElems[j];
+          i += columnStride;
+          j += other.columnStride;
+        }
+        index += rowStride;
+        otherIndex += other.rowStride;
+      }
+    } else if (source instanceof DenseFloatMatrix2D) {
+      final DenseFloatMatrix2D other = (DenseFloatMatrix2D) source;
+      final float[] otherElems = other.elements;
+      int otherIndex = other.index(0, 0);
+      for (int row = rows; --row >= 0; ) {
+        for (int i = index, j = otherIndex, column = columns; --column >= 0; ) {
+          elems[i] = otherElems[j];
+          i += columnStride;
+          j += other.columnStride;
+        }
+        index += rowStride;
+        otherIndex += other.rowStride;
+      }
+    } else {
+      return super.assign(source);
+    }
+    return this;
+  }
+
+  @Override
+  public DoubleMatrix2D assign(DoubleMatrix2D y, DoubleDoubleFunction function) {
+    if (!(y instanceof DenseFloatMatrix2D)) {
+      return super.assign(y, function);
+    }
+    final DenseFloatMatrix2D other = (DenseFloatMatrix2D) y;
+    checkShape(y);
+
+    if (function instanceof PlusMult && ((PlusMult) function).getMultiplicator() == 0) {
+      return this;
+    }
+
+    final float[] elems = this.elements;
+    final float[] otherElems = other.elements;
+    final int cs = this.columnStride;
+    final int ocs = other.columnStride;
+    int index = index(0, 0);
+    int otherIndex = other.index(0, 0);
+
+    // specialized for speed
+    if (function == Functions.MULT) {
+      for (int row = rows; --row >= 0; ) {
+        for (int i = index, j = otherIndex, column = columns; --column >= 0; ) {
+          elems[i] *= otherElems[j];
+          i += cs;
+          j += ocs;
+        }
+        index += rowStride;
+        otherIndex += other.rowStride;
+      }
+    } else if (function == Functions.DIV) {
+      for (int row = rows; --row >= 0; ) {
+        for (int i = index, j = otherIndex, column = columns; --column >= 0; ) {
+          elems[i] /= otherElems[j];
+          i += cs;
+          j += ocs;
+        }
+        index += rowStride;
+        otherIndex += other.rowStride;
+      }
+    } else if (function instanceof PlusMult) {
+      final double multiplicator = ((PlusMult) function).getMultiplicator();
+      for (int row = rows; --row >= 0; ) {
+        for (int i = index, j = otherIndex, column = columns; --column >= 0; ) {
+          elems[i] = (float) (elems[i] + multiplicator * otherElems[j]);
+          i += cs;
+          j += ocs;
+        }
+        index += rowStride;
+        otherIndex += other.rowStride;
+      }
+    } else {
+      for (int row = rows; --row >= 0; ) {
+        for (int i = index, j = otherIndex, column = columns; --column >= 0; ) {
+          elems[i] = (float) function.apply(elems[i], otherElems[j]);
+          i += cs;
+          j += ocs;
+        }
+        index += rowStride;
+        otherIndex += other.rowStride;
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public double getQuick(int row, int column) {
+    return elements[rowZero + row * rowStride + columnZero + column * columnStride];
+  }
+
+  @Override
+  public void setQuick(int row, int column, double value) {
+    elements[rowZero + row * rowStride + columnZero + column * columnStride] = (float) value;
+  }
+
+  @Override
+  protected boolean haveSharedCellsRaw(DoubleMatrix2D other) {
+    if (other instanceof SelectedDenseFloatMatrix2D) {
+      return this.elements == ((SelectedDenseFloatMatrix2D) other).elements;
+    }
+    if (other instanceof DenseFloatMatrix2D) {
+      return this.elements == ((DenseFloatMatrix2D) other).elements;
+    }
+    return false;
+  }
+
+  @Override
+  protected int index(int row, int column) {
+    return rowZero + row * rowStride + columnZero + column * columnStride;
+  }
+
+  @Override
+  public DoubleMatrix2D like(int rows, int columns) {
+    return new DenseFloatMatrix2D(rows, columns);
+  }
+
+  @Override
+  public DoubleMatrix1D like1D(int size) {
+    return new DenseFloatMatrix1D(size);
+  }
+
+  @Override
+  protected DoubleMatrix1D like1D(int size, int zero, int stride) {
+    return new DenseFloatMatrix1D(size, this.elements, zero, stride);
+  }
+
+  @Override
+  protected DoubleMatrix2D viewSelectionLike(int[] rowOffsets, int[] columnOffsets) {
+    return new SelectedDenseFloatMatrix2D(this.elements, rowOffsets, columnOffsets, 0);
+  }
+
+  @Override
+  public DoubleMatrix2D zMult(
+      DoubleMatrix2D B,
+      DoubleMatrix2D C,
+      double alpha,
+      double beta,
+      boolean transposeA,
+      boolean transposeB) {
+    if (transposeA) {
+      return viewDice().zMult(B, C, alpha, beta, false, transposeB);
+    }
+    if (B instanceof SparseDoubleMatrix2D || B instanceof RowCompressedDoubleMatrix2D) {
+      // A*B = (B' * A')'
+      if (C == null) {
+        return B.zMult(this, null, alpha, beta, !transposeB, true).viewDice();
+      } else {
+        B.zMult(this, C.viewDice(), alpha, beta, !transposeB, true);
+        return C;
+      }
+    }
+    if (transposeB) {
+      return this.zMult(B.viewDice(), C, alpha, beta, false, false);
+    }
+
+    if (C == null) {
+      C = new DenseFloatMatrix2D(rows, B.columns);
+    }
+    if (!DenseMatrixMultiplication.isDense(B) || !DenseMatrixMultiplication.isDense(C)) {
+      return super.zMult(B, C, alpha, beta, false, false);
+    }
+    if (B.rows != columns) {
+      throw new IllegalArgumentException("Matrix2D inner dimensions must agree");
+    }
+    if (C.rows != rows || C.columns != B.columns) {
+      throw new IllegalArgumentException("Incompatible result matrix");
+    }
+    if (this == C || B == C) {
+      throw new IllegalArgumentException("Matrices must not be identical");
+    }
+
+    DenseMatrixMultiplication.multiply(this, B, C, alpha, beta);
+    return C;
+  }
+
+  @Override
+  public double zSum() {
+    final float[] elems = this.elements;
+    int index = index(0, 0);
+    double sum = 0;
+    for (int row = rows; --row >= 0; ) {
+      for (int i = index, column = columns; --column >= 0; ) {
+        sum += elems[i];
+        i += columnStride;
+      }
+      index += rowStride;
+    }
+    return sum;
+  }
+}
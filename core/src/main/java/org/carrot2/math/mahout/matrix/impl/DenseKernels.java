@@ -0,0 +1,201 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.mahout.matrix.impl;
+
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+
+/**
+ * Element-wise kernels of dense matrix operations (used by {@link DenseDoubleMatrix2D} and {@link
+ * org.carrot2.math.matrix.MatrixUtils}).
+ *
+ * <p>The kernels use SIMD instructions through the incubating vector API if the <code>
+ * jdk.incubator.vector</code> module is available (the JVM is started with <code>--add-modules
+ * jdk.incubator.vector</code>) and scalar loops otherwise. Setting the {@link #PROPERTY_VECTORIZED}
+ * system property to <code>false</code> disables the vector API even if it is available.
+ *
+ * <p>Both implementations apply the same floating point operations to each element, so the results
+ * are identical. Reductions (sums and norms) are not vectorized for this reason.
+ */
+public final class DenseKernels {
+  /** The system property disabling the vector API (if set to <code>false</code>). */
+  public static final String PROPERTY_VECTORIZED = "carrot2.math.vectorized";
+
+  private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+  private static final String VECTORIZED_KERNELS =
+      "org.carrot2.math.mahout.matrix.impl.VectorizedKernels";
+
+  /** Shorter vectors are processed by the scalar kernels. */
+  private static final int MIN_VECTORIZED_LENGTH = 16;
+
+  /** Kernels using the vector API, <code>null</code> if it is not available. */
+  private static final ArrayKernels VECTORIZED = loadVectorizedKernels();
+
+  private DenseKernels() {}
+
+  /**
+   * @return Returns <code>true</code> if the kernels use the vector API.
+   */
+  public static boolean isVectorized() {
+    return VECTORIZED != null;
+  }
+
+  /**
+   * @return Returns the kernels using the vector API or <code>null</code> if it is not available.
+   */
+  static ArrayKernels vectorizedKernels() {
+    return VECTORIZED;
+  }
+
+  /**
+   * @return Returns <code>true</code> if <code>A</code> is a dense matrix with contiguous rows, to
+   *     which the column operations of this class apply.
+   */
+  public static boolean hasContiguousRows(DoubleMatrix2D A) {
+    return A instanceof DenseDoubleMatrix2D && ((DenseDoubleMatrix2D) A).columnStride == 1;
+  }
+
+  /**
+   * Adds squares of elements of each column of <code>A</code> to <code>sums</code>.
+   *
+   * @see #hasContiguousRows(DoubleMatrix2D)
+   */
+  public static void addColumnSquares(DoubleMatrix2D A, double[] sums) {
+    final DenseDoubleMatrix2D M = contiguousRows(A);
+    for (int r = 0; r < M.rows; r++) {
+      if (vectorize(M.columns)) {
+        VECTORIZED.addSquares(sums, M.elements, M.index(r, 0), M.columns);
+      } else {
+        ScalarKernels.addSquares(sums, M.elements, M.index(r, 0), M.columns);
+      }
+    }
+  }
+
+  /**
+   * Divides elements of each column of <code>A</code> by the column's divisor, unless the divisor
+   * is zero.
+   *
+   * @see #hasContiguousRows(DoubleMatrix2D)
+   */
+  public static void divideColumns(DoubleMatrix2D A, double[] divisors) {
+    final DenseDoubleMatrix2D M = contiguousRows(A);
+    for (int r = 0; r < M.rows; r++) {
+      if (vectorize(M.columns)) {
+        VECTORIZED.divideByNonZero(M.elements, M.index(r, 0), divisors, M.columns);
+      } else {
+        ScalarKernels.divideByNonZero(M.elements, M.index(r, 0), divisors, M.columns);
+      }
+    }
+  }
+
+  /**
+   * Updates maximum values of each column of <code>A</code>, and their rows, with rows <code>
+   * [fromRow, A.rows())</code> of <code>A</code>. Values are ordered with {@link
+   * Double#compare(double, double)}, the first maximum value is retained on ties.
+   *
+   * @param abs If <code>true</code>, absolute values of elements are compared.
+   * @see #hasContiguousRows(DoubleMatrix2D)
+   */
+  public static void maxInColumns(
+      DoubleMatrix2D A, int fromRow, int[] indices, double[] maxValues, boolean abs) {
+    final DenseDoubleMatrix2D M = contiguousRows(A);
+    for (int r = fromRow; r < M.rows; r++) {
+      if (vectorize(M.columns)) {
+        VECTORIZED.max(maxValues, indices, M.elements, M.index(r, 0), M.columns, r, abs);
+      } else {
+        ScalarKernels.max(maxValues, indices, M.elements, M.index(r, 0), M.columns, r, abs);
+      }
+    }
+  }
+
+  static void scale(double[] x, int xOffset, int length, double multiplicator) {
+    if (vectorize(length)) {
+      VECTORIZED.scale(x, xOffset, length, multiplicator);
+    } else {
+      ScalarKernels.scale(x, xOffset, length, multiplicator);
+    }
+  }
+
+  static void add(double[] x, int xOffset, int length, double value) {
+    if (vectorize(length)) {
+      VECTORIZED.add(x, xOffset, length, value);
+    } else {
+      ScalarKernels.add(x, xOffset, length, value);
+    }
+  }
+
+  static void multiply(double[] x, int xOffset, double[] y, int yOffset, int length) {
+    if (vectorize(length)) {
+      VECTORIZED.multiply(x, xOffset, y, yOffset, length);
+    } else {
+      ScalarKernels.multiply(x, xOffset, y, yOffset, length);
+    }
+  }
+
+  static void divide(double[] x, int xOffset, double[] y, int yOffset, int length) {
+    if (vectorize(length)) {
+      VECTORIZED.divide(x, xOffset, y, yOffset, length);
+    } else {
+      ScalarKernels.divide(x, xOffset, y, yOffset, length);
+    }
+  }
+
+  static void divideInto(double[] x, int xOffset, double[] y, int yOffset, int length) {
+    if (vectorize(length)) {
+      VECTORIZED.divideInto(x, xOffset, y, yOffset, length);
+    } else {
+      ScalarKernels.divideInto(x, xOffset, y, yOffset, length);
+    }
+  }
+
+  static void addMultiple(
+      double[] x, int xOffset, double[] y, int yOffset, int length, double multiplicator) {
+    if (vectorize(length)) {
+      VECTORIZED.addMultiple(x, xOffset, y, yOffset, length, multiplicator);
+    } else {
+      ScalarKernels.addMultiple(x, xOffset, y, yOffset, length, multiplicator);
+    }
+  }
+
+  private static boolean vectorize(int length) {
+    return VECTORIZED != null && length >= MIN_VECTORIZED_LENGTH;
+  }
+
+  private static DenseDoubleMatrix2D contiguousRows(DoubleMatrix2D A) {
+    if (!hasContiguousRows(A)) {
+      throw new IllegalArgumentException("A dense matrix with contiguous rows expected.");
+    }
+    return (DenseDoubleMatrix2D) A;
+  }
+
+  /**
+   * Loads the kernels using the vector API if its module is present (and not disabled). The module
+   * is optional, so the kernels are compiled separately and loaded reflectively.
+   *
+   * @return Returns <code>null</code> if the vector API is not available.
+   */
+  private static ArrayKernels loadVectorizedKernels() {
+    if (!Boolean.parseBoolean(System.getProperty(PROPERTY_VECTORIZED, "true"))) {
+      return null;
+    }
+    if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+      return null;
+    }
+    try {
+      final ArrayKernels kernels =
+          (ArrayKernels) Class.forName(VECTORIZED_KERNELS).getDeclaredConstructor().newInstance();
+      // No point in vectorizing if there's no hardware support for more than one lane.
+      return kernels.lanes() > 1 ? kernels : null;
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,358 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.mahout.matrix.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.util.ExecutorServiceUtils;
+
+/**
+ * Dense matrix multiplication kernel used by {@link DenseDoubleMatrix2D#zMult}. Computes <code>
+ * C = alpha * A * B + beta * C</code> on cache-blocked, contiguous copies of <code>A</code>'s rows
+ * and <code>B</code>'s columns, two rows by two columns at a time.
+ *
+ * <p>Matrix methods always multiply in the calling thread. {@link #zMult(DoubleMatrix2D,
+ * DoubleMatrix2D, DoubleMatrix2D, double, double, boolean, boolean, int, long, ExecutorService)}
+ * can split large products into row blocks computed in parallel on a given executor, with an
+ * explicit limit on the number of threads and a minimum size of parallel products. Each element of
+ * <code>C</code> is always computed by a single thread, with the same order of floating point
+ * operations, so the result is identical regardless of the number of threads used.
+ *
+ * <p>Any of the matrices may be a {@link DenseFloatMatrix2D}. Single precision operands are widened
+ * to double precision when packed and elements of a single precision <code>C</code> are rounded
+ * once, after the whole sum has been computed.
+ */
+public final class DenseMatrixMultiplication {
+  /**
+   * The default minimum number of multiply-add operations (<code>m * n * p</code>) to multiply in
+   * parallel.
+   *
+   * @since 4.8.0
+   */
+  public static final int DEFAULT_PARALLELISM_THRESHOLD = 1 << 20;
+
+  /** Approximate number of packed doubles of <code>B</code> to keep in the cache. */
+  private static final int PANEL_SIZE = 1 << 14;
+
+  /** Minimum number of rows of <code>C</code> computed by a single task. */
+  private static final int MIN_TASK_ROWS = 8;
+
+  private DenseMatrixMultiplication() {}
+
+  /**
+   * Computes <code>C = alpha * op(A) * op(B) + beta * C</code>, the same as {@link
+   * DoubleMatrix2D#zMult(DoubleMatrix2D, DoubleMatrix2D, double, double, boolean, boolean)}, but
+   * products of large dense matrices are split into row blocks computed in parallel, using at most
+   * <code>threads</code> threads.
+   *
+   * @param threads The maximum number of threads to use.
+   * @param parallelismThreshold The minimum number of multiply-add operations (<code>m * n * p
+   *     </code>) to multiply in parallel, smaller products are computed in the calling thread.
+   * @param executor The executor to compute row blocks on, {@link ForkJoinPool#commonPool()} if
+   *     <code>null</code>.
+   * @return Returns <code>C</code>, or a new matrix if <code>C</code> is <code>null</code>.
+   * @since 4.8.0
+   */
+  public static DoubleMatrix2D zMult(
+      DoubleMatrix2D A,
+      DoubleMatrix2D B,
+      DoubleMatrix2D C,
+      double alpha,
+      double beta,
+      boolean transposeA,
+      boolean transposeB,
+      int threads,
+      long parallelismThreshold,
+      ExecutorService executor) {
+    if (threads <= 1 || !isDense(A) || !isDense(B) || (C != null && !isDense(C))) {
+      return A.zMult(B, C, alpha, beta, transposeA, transposeB);
+    }
+
+    if (transposeA) {
+      A = A.viewDice();
+    }
+    if (transposeB) {
+      B = B.viewDice();
+    }
+    if (C == null) {
+      C = A.like(A.rows, B.columns);
+    }
+    if (B.rows != A.columns) {
+      throw new IllegalArgumentException("Matrix2D inner dimensions must agree");
+    }
+    if (C.rows != A.rows || C.columns != B.columns) {
+      throw new IllegalArgumentException("Incompatible result matrix");
+    }
+    if (A == C || B == C) {
+      throw new IllegalArgumentException("Matrices must not be identical");
+    }
+
+    multiply(
+        A,
+        B,
+        C,
+        alpha,
+        beta,
+        threads,
+        parallelismThreshold,
+        executor == null ? ForkJoinPool.commonPool() : executor);
+    return C;
+  }
+
+  /**
+   * @return Returns <code>true</code> if <code>M</code> can be multiplied by this class.
+   */
+  static boolean isDense(DoubleMatrix2D M) {
+    return M instanceof DenseDoubleMatrix2D || M instanceof DenseFloatMatrix2D;
+  }
+
+  /**
+   * Computes <code>C = alpha * A * B + beta * C</code> in the calling thread. Matrix shapes must
+   * have been checked by the caller, all matrices must be {@link #isDense(DoubleMatrix2D) dense}.
+   */
+  static void multiply(
+      DoubleMatrix2D A, DoubleMatrix2D B, DoubleMatrix2D C, double alpha, double beta) {
+    multiply(A, B, C, alpha, beta, 1, 0, null);
+  }
+
+  private static void multiply(
+      DoubleMatrix2D A,
+      DoubleMatrix2D B,
+      DoubleMatrix2D C,
+      double alpha,
+      double beta,
+      int threads,
+      long parallelismThreshold,
+      ExecutorService executor) {
+    final int m = A.rows;
+    final int n = A.columns;
+    final int p = B.columns;
+    if (m == 0 || p == 0) {
+      return;
+    }
+
+    final Panel a = rowsOf(A);
+    final Panel b = columnsOf(B);
+    final Kernel kernel = new Kernel(a, b, C, n, p, alpha, beta);
+
+    final int blocks = Math.min(threads, m / MIN_TASK_ROWS);
+    if (blocks <= 1 || (long) m * n * p < parallelismThreshold) {
+      kernel.compute(0, m);
+    } else {
+      final List<Callable<Void>> tasks = new ArrayList<>(blocks);
+      for (int block = 0; block < blocks; block++) {
+        final int from = (int) ((long) m * block / blocks);
+        final int to = (int) ((long) m * (block + 1) / blocks);
+        tasks.add(
+            () -> {
+              kernel.compute(from, to);
+              return null;
+            });
+      }
+      ExecutorServiceUtils.invokeAll(executor, tasks);
+    }
+  }
+
+  /**
+   * Vectors of a matrix laid out contiguously: element <code>k</code> of vector <code>i</code> is
+   * at <code>offset + i * stride + k</code>.
+   */
+  private static final class Panel {
+    final double[] elements;
+    final int offset;
+    final int stride;
+
+    Panel(double[] elements, int offset, int stride) {
+      this.elements = elements;
+      this.offset = offset;
+      this.stride = stride;
+    }
+  }
+
+  /**
+   * Returns rows of <code>M</code>, copying them only if they are not already contiguous (or are
+   * single precision).
+   */
+  private static Panel rowsOf(DoubleMatrix2D M) {
+    if (M instanceof DenseDoubleMatrix2D && M.columnStride == 1) {
+      return new Panel(((DenseDoubleMatrix2D) M).elements, M.index(0, 0), M.rowStride);
+    }
+    return new Panel(pack(M, M.rows, M.columns, M.rowStride, M.columnStride), 0, M.columns);
+  }
+
+  /**
+   * Returns columns of <code>M</code>, copying them only if they are not already contiguous (or are
+   * single precision).
+   */
+  private static Panel columnsOf(DoubleMatrix2D M) {
+    if (M instanceof DenseDoubleMatrix2D && M.rowStride == 1) {
+      return new Panel(((DenseDoubleMatrix2D) M).elements, M.index(0, 0), M.columnStride);
+    }
+    return new Panel(pack(M, M.columns, M.rows, M.columnStride, M.rowStride), 0, M.rows);
+  }
+
+  private static double[] pack(
+      DoubleMatrix2D M, int vectors, int length, int vectorStride, int elementStride) {
+    final double[] packed = new double[vectors * length];
+    int base = M.index(0, 0);
+    if (M instanceof DenseFloatMatrix2D) {
+      final float[] source = ((DenseFloatMatrix2D) M).elements;
+      for (int i = 0, t = 0; i < vectors; i++, base += vectorStride) {
+        for (int k = 0, s = base; k < length; k++, s += elementStride) {
+          packed[t++] = source[s];
+        }
+      }
+    } else {
+      final double[] source = ((DenseDoubleMatrix2D) M).elements;
+      for (int i = 0, t = 0; i < vectors; i++, base += vectorStride) {
+        for (int k = 0, s = base; k < length; k++, s += elementStride) {
+          packed[t++] = source[s];
+        }
+      }
+    }
+    return packed;
+  }
+
+  private static final class Kernel {
+    private final double[] a;
+    private final int aOffset;
+    private final int aStride;
+    private final double[] b;
+    private final int bOffset;
+    private final int bStride;
+    private final DoubleMatrix2D C;
+    private final double[] cDoubles;
+    private final float[] cFloats;
+    private final int n;
+    private final int p;
+    private final double alpha;
+    private final double beta;
+
+    Kernel(Panel a, Panel b, DoubleMatrix2D C, int n, int p, double alpha, double beta) {
+      this.a = a.elements;
+      this.aOffset = a.offset;
+      this.aStride = a.stride;
+      this.b = b.elements;
+      this.bOffset = b.offset;
+      this.bStride = b.stride;
+      this.C = C;
+      this.cDoubles = C instanceof DenseDoubleMatrix2D ? ((DenseDoubleMatrix2D) C).elements : null;
+      this.cFloats = C instanceof DenseFloatMatrix2D ? ((DenseFloatMatrix2D) C).elements : null;
+      this.n = n;
+      this.p = p;
+      this.alpha = alpha;
+      this.beta = beta;
+    }
+
+    /** Computes rows <code>[from, to)</code> of <code>C</code>. */
+    void compute(int from, int to) {
+      // Iterate over panels of B's columns small enough to stay in the cache while
+      // all rows of A in this block are multiplied by them.
+      final int panelColumns = Math.max(2, (PANEL_SIZE / Math.max(1, n)) & ~1);
+      for (int j0 = 0; j0 < p; j0 += panelColumns) {
+        final int j1 = Math.min(p, j0 + panelColumns);
+        int i = from;
+        for (; i + 1 < to; i += 2) {
+          int j = j0;
+          for (; j + 1 < j1; j += 2) {
+            tile2x2(i, j);
+          }
+          if (j < j1) {
+            set(i, j, dot(i, j));
+            set(i + 1, j, dot(i + 1, j));
+          }
+        }
+        if (i < to) {
+          for (int j = j0; j < j1; j++) {
+            set(i, j, dot(i, j));
+          }
+        }
+      }
+    }
+
+    private void set(int row, int column, double s) {
+      final int index = C.index(row, column);
+      if (cDoubles != null) {
+        cDoubles[index] = alpha * s + beta * cDoubles[index];
+      } else {
+        cFloats[index] = (float) (alpha * s + beta * cFloats[index]);
+      }
+    }
+
+    /*
+     * Both methods below accumulate the sum in the same order: the first n % 4 products one by
+     * one, then the remaining ones in groups of four.
+     */
+
+    private double dot(int row, int column) {
+      final double[] a = this.a;
+      final double[] b = this.b;
+      int kA = aOffset + row * aStride;
+      int kB = bOffset + column * bStride;
+
+      double s = 0;
+      for (int k = n % 4; --k >= 0; ) {
+        s += a[kA++] * b[kB++];
+      }
+      for (int k = n / 4; --k >= 0; ) {
+        s += a[kA] * b[kB] + a[kA + 1] * b[kB + 1] + a[kA + 2] * b[kB + 2] + a[kA + 3] * b[kB + 3];
+        kA += 4;
+        kB += 4;
+      }
+      return s;
+    }
+
+    /** Computes a 2x2 tile of C, sharing the loads of A's rows and B's columns. */
+    private void tile2x2(int row, int column) {
+      final double[] a = this.a;
+      final double[] b = this.b;
+      int kA0 = aOffset + row * aStride;
+      int kA1 = kA0 + aStride;
+      int kB0 = bOffset + column * bStride;
+      int kB1 = kB0 + bStride;
+
+      double s00 = 0, s01 = 0, s10 = 0, s11 = 0;
+      for (int k = n % 4; --k >= 0; ) {
+        final double a0 = a[kA0++];
+        final double a1 = a[kA1++];
+        final double b0 = b[kB0++];
+        final double b1 = b[kB1++];
+        s00 += a0 * b0;
+        s01 += a0 * b1;
+        s10 += a1 * b0;
+        s11 += a1 * b1;
+      }
+      for (int k = n / 4; --k >= 0; ) {
+        final double a00 = a[kA0], a01 = a[kA0 + 1], a02 = a[kA0 + 2], a03 = a[kA0 + 3];
+        final double a10 = a[kA1], a11 = a[kA1 + 1], a12 = a[kA1 + 2], a13 = a[kA1 + 3];
+        final double b00 = b[kB0], b01 = b[kB0 + 1], b02 = b[kB0 + 2], b03 = b[kB0 + 3];
+        final double b10 = b[kB1], b11 = b[kB1 + 1], b12 = b[kB1 + 2], b13 = b[kB1 + 3];
+        s00 += a00 * b00 + a01 * b01 + a02 * b02 + a03 * b03;
+        s01 += a00 * b10 + a01 * b11 + a02 * b12 + a03 * b13;
+        s10 += a10 * b00 + a11 * b01 + a12 * b02 + a13 * b03;
+        s11 += a10 * b10 + a11 * b11 + a12 * b12 + a13 * b13;
+        kA0 += 4;
+        kA1 += 4;
+        kB0 += 4;
+        kB1 += 4;
+      }
+
+      set(row, column, s00);
+      set(row, column + 1, s01);
+      set(row + 1, column, s10);
+      set(row + 1, column + 1, s11);
+    }
+  }
+}
@@ -0,0 +1,431 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.mahout.matrix.impl;
+
+import java.util.Arrays;
+import org.carrot2.math.mahout.function.DoubleDoubleFunction;
+import org.carrot2.math.mahout.function.DoubleFunction;
+import org.carrot2.math.mahout.function.IntIntDoubleFunction;
+import org.carrot2.math.mahout.matrix.DoubleMatrix1D;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+
+/**
+ * A sparse matrix in the compressed sparse row (CSR) format. Non-zero values of each row are kept
+ * in contiguous arrays, ordered by column index, which makes row-wise traversal and sparse-by-dense
+ * multiplication ({@link #zMult}) cache-friendly and proportional to the number of non-zero
+ * elements.
+ *
+ * <p>Random access ({@link #getQuick(int, int)}) is a binary search within a row. Updating an
+ * existing non-zero element is cheap; inserting a new non-zero element shifts the tail of the
+ * storage arrays, so matrices should be constructed with the compressed-arrays constructor or
+ * filled in row-major order. Views (dice, parts, selections) are supported through wrappers and are
+ * considerably slower than the matrix itself.
+ */
+public final class RowCompressedDoubleMatrix2D extends DoubleMatrix2D {
+  /** Offsets into {@link #columnIndexes} and {@link #values}, one per row plus a sentinel. */
+  private int[] rowPointers;
+
+  /** Column index of each stored element. */
+  private int[] columnIndexes;
+
+  /** Value of each stored element. */
+  private double[] values;
+
+  public RowCompressedDoubleMatrix2D(int rows, int columns) {
+    this(rows, columns, new int[rows + 1], new int[0], new double[0]);
+  }
+
+  public RowCompressedDoubleMatrix2D(double[][] values) {
+    this(values.length, values.length == 0 ? 0 : values[0].length);
+    assign(values);
+  }
+
+  /**
+   * Creates a matrix from already compressed arrays. The arrays are not copied. Column indexes
+   * within each row must be strictly increasing.
+   *
+   * @param rowPointers <code>rows + 1</code> offsets, the elements of row <code>r</code> are stored
+   *     at indexes <code>[rowPointers[r], rowPointers[r + 1])</code> of the other two arrays.
+   * @param columnIndexes column index of each stored element.
+   * @param values value of each stored element.
+   */
+  public RowCompressedDoubleMatrix2D(
+      int rows, int columns, int[] rowPointers, int[] columnIndexes, double[] values) {
+    if (rowPointers.length != rows + 1
+        || rowPointers[rows] > columnIndexes.length
+        || columnIndexes.length != values.length) {
+      throw new IllegalArgumentException("Inconsistent compressed row arrays.");
+    }
+    setUp(rows, columns);
+    this.rowPointers = rowPointers;
+    this.columnIndexes = columnIndexes;
+    this.values = values;
+  }
+
+  /** Returns the index of the element in the storage arrays or a negative insertion point. */
+  private int find(int row, int column) {
+    return Arrays.binarySearch(columnIndexes, rowPointers[row], rowPointers[row + 1], column);
+  }
+
+  @Override
+  public double getQuick(int row, int column) {
+    final int index = find(row, column);
+    return index >= 0 ? values[index] : 0;
+  }
+
+  @Override
+  public void setQuick(int row, int column, double value) {
+    final int index = find(row, column);
+    if (index >= 0) {
+      // Keep explicit zeros in place, removing them is not worth the shifting.
+      values[index] = value;
+    } else if (value != 0) {
+      insert(row, -(index + 1), column, value);
+    }
+  }
+
+  private void insert(int row, int at, int column, double value) {
+    final int size = rowPointers[rows];
+    if (size == values.length) {
+      final int newCapacity = Math.max(16, size + (size >>> 1));
+      columnIndexes = Arrays.copyOf(columnIndexes, newCapacity);
+      values = Arrays.copyOf(values, newCapacity);
+    }
+    System.arraycopy(columnIndexes, at, columnIndexes, at + 1, size - at);
+    System.arraycopy(values, at, values, at + 1, size - at);
+    columnIndexes[at] = column;
+    values[at] = value;
+    for (int r = row + 1; r <= rows; r++) {
+      rowPointers[r]++;
+    }
+  }
+
+  @Override
+  public DoubleMatrix2D assign(double value) {
+    if (value == 0) {
+      Arrays.fill(rowPointers, 0);
+      columnIndexes = new int[0];
+      values = new double[0];
+      return this;
+    }
+    return rebuild((row, column, v) -> value);
+  }
+
+  @Override
+  public void assign(DoubleFunction function) {
+    if (function.apply(0) == 0) {
+      final int size = rowPointers[rows];
+      for (int i = 0; i < size; i++) {
+        values[i] = function.apply(values[i]);
+      }
+    } else {
+      rebuild((row, column, v) -> function.apply(v));
+    }
+  }
+
+  @Override
+  public DoubleMatrix2D assign(DoubleMatrix2D source) {
+    if (source == this) {
+      return this;
+    }
+    checkShape(source);
+
+    if (source instanceof RowCompressedDoubleMatrix2D) {
+      final RowCompressedDoubleMatrix2D other = (RowCompressedDoubleMatrix2D) source;
+      final int size = other.rowPointers[rows];
+      this.rowPointers = other.rowPointers.clone();
+      this.columnIndexes = Arrays.copyOf(other.columnIndexes, size);
+      this.values = Arrays.copyOf(other.values, size);
+      return this;
+    }
+
+    if (haveSharedCells(source)) {
+      source = source.copy();
+    }
+    final DoubleMatrix2D other = source;
+    return rebuild((row, column, v) -> other.getQuick(row, column));
+  }
+
+  @Override
+  public DoubleMatrix2D assign(DoubleMatrix2D y, DoubleDoubleFunction function) {
+    checkShape(y);
+    if (haveSharedCells(y)) {
+      y = y.copy();
+    }
+    final DoubleMatrix2D other = y;
+    return rebuild((row, column, v) -> function.apply(v, other.getQuick(row, column)));
+  }
+
+  /**
+   * Recomputes every cell of the matrix (including zeros) using the provided function of the cell's
+   * current value, rebuilding the compressed storage in one row-major pass.
+   */
+  private RowCompressedDoubleMatrix2D rebuild(IntIntDoubleFunction function) {
+    final int[] newRowPointers = new int[rows + 1];
+    int[] newColumnIndexes = new int[Math.max(16, rowPointers[rows])];
+    double[] newValues = new double[newColumnIndexes.length];
+
+    int size = 0;
+    for (int row = 0; row < rows; row++) {
+      newRowPointers[row] = size;
+      int index = rowPointers[row];
+      final int end = rowPointers[row + 1];
+      for (int column = 0; column < columns; column++) {
+        final double current;
+        if (index < end && columnIndexes[index] == column) {
+          current = values[index++];
+        } else {
+          current = 0;
+        }
+
+        final double value = function.apply(row, column, current);
+        if (value != 0) {
+          if (size == newValues.length) {
+            newColumnIndexes = Arrays.copyOf(newColumnIndexes, size + (size >>> 1));
+            newValues = Arrays.copyOf(newValues, newColumnIndexes.length);
+          }
+          newColumnIndexes[size] = column;
+          newValues[size] = value;
+          size++;
+        }
+      }
+    }
+    newRowPointers[rows] = size;
+
+    this.rowPointers = newRowPointers;
+    this.columnIndexes = newColumnIndexes;
+    this.values = newValues;
+    return this;
+  }
+
+  @Override
+  public int cardinality() {
+    int cardinality = 0;
+    final int size = rowPointers[rows];
+    for (int i = 0; i < size; i++) {
+      if (values[i] != 0) {
+        cardinality++;
+      }
+    }
+    return cardinality;
+  }
+
+  /** Iterates over non-zero elements in row-major order. */
+  @Override
+  public void forEachNonZero(IntIntDoubleFunction function) {
+    for (int row = 0; row < rows; row++) {
+      for (int i = rowPointers[row], end = rowPointers[row + 1]; i < end; i++) {
+        final double value = values[i];
+        if (value != 0) {
+          final double r = function.apply(row, columnIndexes[i], value);
+          if (r != value) {
+            values[i] = r;
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  protected DoubleMatrix2D getContent() {
+    return this;
+  }
+
+  @Override
+  public DoubleMatrix2D like(int rows, int columns) {
+    return new RowCompressedDoubleMatrix2D(rows, columns);
+  }
+
+  @Override
+  public DoubleMatrix1D like1D(int size) {
+    return new SparseDoubleMatrix1D(size);
+  }
+
+  @Override
+  protected DoubleMatrix1D like1D(int size, int zero, int stride) {
+    throw new UnsupportedOperationException(); // views are wrappers, should never be called.
+  }
+
+  @Override
+  protected DoubleMatrix2D viewSelectionLike(int[] rowOffsets, int[] columnOffsets) {
+    throw new UnsupportedOperationException(); // views are wrappers, should never be called.
+  }
+
+  @Override
+  public DoubleMatrix1D viewColumn(int column) {
+    checkColumn(column);
+    return new WrapperDoubleMatrix2D(this).viewColumn(column);
+  }
+
+  @Override
+  public DoubleMatrix2D viewColumnFlip() {
+    return new WrapperDoubleMatrix2D(this).viewColumnFlip();
+  }
+
+  @Override
+  public DoubleMatrix2D viewDice() {
+    return new WrapperDoubleMatrix2D(this).viewDice();
+  }
+
+  @Override
+  public DoubleMatrix2D viewPart(int row, int column, int height, int width) {
+    return new WrapperDoubleMatrix2D(this).viewPart(row, column, height, width);
+  }
+
+  @Override
+  public DoubleMatrix1D viewRow(int row) {
+    checkRow(row);
+    return new WrapperDoubleMatrix2D(this).viewRow(row);
+  }
+
+  @Override
+  public DoubleMatrix2D viewRowFlip() {
+    return new WrapperDoubleMatrix2D(this).viewRowFlip();
+  }
+
+  @Override
+  public DoubleMatrix2D viewSelection(int[] rowIndexes, int[] columnIndexes) {
+    return new WrapperDoubleMatrix2D(this).viewSelection(rowIndexes, columnIndexes);
+  }
+
+  @Override
+  public DoubleMatrix1D zMult(
+      DoubleMatrix1D y, DoubleMatrix1D z, double alpha, double beta, boolean transposeA) {
+    final int m = transposeA ? columns : rows;
+    final int n = transposeA ? rows : columns;
+
+    final boolean ignore = z == null;
+    if (ignore) {
+      z = new DenseDoubleMatrix1D(m);
+    }
+    if (n != y.size() || m > z.size()) {
+      throw new IllegalArgumentException("Incompatible args");
+    }
+
+    if (!ignore && beta != 1) {
+      for (int i = 0; i < m; i++) {
+        z.setQuick(i, beta * z.getQuick(i));
+      }
+    }
+
+    for (int row = 0; row < rows; row++) {
+      final int start = rowPointers[row];
+      final int end = rowPointers[row + 1];
+      if (transposeA) {
+        // z += alpha * A[row, :]' * y[row]
+        final double yv = alpha * y.getQuick(row);
+        if (yv != 0) {
+          for (int i = start; i < end; i++) {
+            final int c = columnIndexes[i];
+            z.setQuick(c, z.getQuick(c) + values[i] * yv);
+          }
+        }
+      } else {
+        double sum = 0;
+        for (int i = start; i < end; i++) {
+          sum += values[i] * y.getQuick(columnIndexes[i]);
+        }
+        z.setQuick(row, z.getQuick(row) + alpha * sum);
+      }
+    }
+    return z;
+  }
+
+  /**
+   * Sparse-by-dense multiplication. The cost is proportional to the number of non-zero elements of
+   * this matrix times the number of columns of <code>B</code>; the zero elements are never touched.
+   */
+  @Override
+  public DoubleMatrix2D zMult(
+      DoubleMatrix2D B,
+      DoubleMatrix2D C,
+      double alpha,
+      double beta,
+      boolean transposeA,
+      boolean transposeB) {
+    if (transposeB) {
+      B = B.viewDice();
+    }
+    final int m = transposeA ? columns : rows;
+    final int n = transposeA ? rows : columns;
+    final int p = B.columns();
+
+    final boolean ignore = C == null;
+    if (ignore) {
+      C = new DenseDoubleMatrix2D(m, p);
+    }
+    if (B.rows() != n) {
+      throw new IllegalArgumentException("Matrix2D inner dimensions must agree");
+    }
+    if (C.rows() != m || C.columns() != p) {
+      throw new IllegalArgumentException("Incompatible result matrix");
+    }
+    if (this == C || B == C) {
+      throw new IllegalArgumentException("Matrices must not be identical");
+    }
+
+    if (!ignore) {
+      if (beta == 0) {
+        C.assign(0);
+      } else if (beta != 1) {
+        C.assign((v) -> v * beta);
+      }
+    }
+
+    if (B instanceof DenseDoubleMatrix2D && C instanceof DenseDoubleMatrix2D) {
+      zMultDense((DenseDoubleMatrix2D) B, (DenseDoubleMatrix2D) C, alpha, transposeA);
+    } else {
+      for (int row = 0; row < rows; row++) {
+        for (int i = rowPointers[row], end = rowPointers[row + 1]; i < end; i++) {
+          final double v = alpha * values[i];
+          if (v == 0) {
+            continue;
+          }
+          final int column = columnIndexes[i];
+          // C[row, :] += v * B[column, :] or, transposed, C[column, :] += v * B[row, :]
+          final int cRow = transposeA ? column : row;
+          final int bRow = transposeA ? row : column;
+          for (int j = 0; j < p; j++) {
+            C.setQuick(cRow, j, C.getQuick(cRow, j) + v * B.getQuick(bRow, j));
+          }
+        }
+      }
+    }
+    return C;
+  }
+
+  /** {@link #zMult} specialization operating directly on dense storage arrays. */
+  private void zMultDense(
+      DenseDoubleMatrix2D B, DenseDoubleMatrix2D C, double alpha, boolean transposeA) {
+    final int p = B.columns();
+    final double[] bElems = B.elements;
+    final double[] cElems = C.elements;
+    final int bcs = B.columnStride;
+    final int ccs = C.columnStride;
+
+    for (int row = 0; row < rows; row++) {
+      for (int i = rowPointers[row], end = rowPointers[row + 1]; i < end; i++) {
+        final double v = alpha * values[i];
+        if (v == 0) {
+          continue;
+        }
+        final int column = columnIndexes[i];
+        int bIndex = transposeA ? B.index(row, 0) : B.index(column, 0);
+        int cIndex = transposeA ? C.index(column, 0) : C.index(row, 0);
+        for (int j = p; --j >= 0; ) {
+          cElems[cIndex] += v * bElems[bIndex];
+          bIndex += bcs;
+          cIndex += ccs;
+        }
+      }
+    }
+  }
+}
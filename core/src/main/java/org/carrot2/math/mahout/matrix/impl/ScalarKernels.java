@@ -0,0 +1,95 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.mahout.matrix.impl;
+
+/**
+ * Scalar implementations of {@link DenseKernels}. Operate on <code>length</code> contiguous
+ * elements of arrays, starting at the given offsets.
+ */
+final class ScalarKernels {
+  private ScalarKernels() {}
+
+  /** <code>x[i] *= multiplicator</code> */
+  static void scale(double[] x, int xOffset, int length, double multiplicator) {
+    for (int i = xOffset, max = xOffset + length; i < max; i++) {
+      x[i] *= multiplicator;
+    }
+  }
+
+  /** <code>x[i] += value</code> */
+  static void add(double[] x, int xOffset, int length, double value) {
+    for (int i = xOffset, max = xOffset + length; i < max; i++) {
+      x[i] += value;
+    }
+  }
+
+  /** <code>x[i] *= y[i]</code> */
+  static void multiply(double[] x, int xOffset, double[] y, int yOffset, int length) {
+    for (int i = xOffset, j = yOffset, max = xOffset + length; i < max; i++, j++) {
+      x[i] *= y[j];
+    }
+  }
+
+  /** <code>x[i] /= y[i]</code> */
+  static void divide(double[] x, int xOffset, double[] y, int yOffset, int length) {
+    for (int i = xOffset, j = yOffset, max = xOffset + length; i < max; i++, j++) {
+      x[i] /= y[j];
+    }
+  }
+
+  /** <code>x[i] = y[i] / x[i]</code> */
+  static void divideInto(double[] x, int xOffset, double[] y, int yOffset, int length) {
+    for (int i = xOffset, j = yOffset, max = xOffset + length; i < max; i++, j++) {
+      x[i] = y[j] / x[i];
+    }
+  }
+
+  /** <code>x[i] += multiplicator * y[i]</code> */
+  static void addMultiple(
+      double[] x, int xOffset, double[] y, int yOffset, int length, double multiplicator) {
+    for (int i = xOffset, j = yOffset, max = xOffset + length; i < max; i++, j++) {
+      x[i] += multiplicator * y[j];
+    }
+  }
+
+  /** <code>sums[i] += x[i] * x[i]</code> */
+  static void addSquares(double[] sums, double[] x, int xOffset, int length) {
+    for (int i = 0, j = xOffset; i < length; i++, j++) {
+      sums[i] += x[j] * x[j];
+    }
+  }
+
+  /** <code>x[i] /= divisors[i]</code>, for non-zero divisors only. */
+  static void divideByNonZero(double[] x, int xOffset, double[] divisors, int length) {
+    for (int i = 0, j = xOffset; i < length; i++, j++) {
+      if (divisors[i] != 0) {
+        x[j] /= divisors[i];
+      }
+    }
+  }
+
+  /**
+   * Replaces <code>max[i]</code> with <code>x[i]</code> (or its absolute value) and <code>
+   * indices[i]
+   * </code> with <code>row</code> where {@link Double#compare(double, double)} orders <code>x[i]
+   * </code> after <code>max[i]</code>.
+   */
+  static void max(
+      double[] max, int[] indices, double[] x, int xOffset, int length, int row, boolean abs) {
+    for (int i = 0, j = xOffset; i < length; i++, j++) {
+      final double value = abs ? Math.abs(x[j]) : x[j];
+      if (Double.compare(value, max[i]) > 0) {
+        max[i] = value;
+        indices[i] = row;
+      }
+    }
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.mahout.matrix.impl;
+
+import org.carrot2.math.mahout.matrix.DoubleMatrix1D;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+
+final class SelectedDenseFloatMatrix1D extends DoubleMatrix1D {
+
+  final float[] elements;
+
+  private final int[] offsets;
+
+  private int offset;
+
+  SelectedDenseFloatMatrix1D(float[] elements, int[] offsets) {
+    this(offsets.length, elements, 0, 1, offsets, 0);
+  }
+
+  SelectedDenseFloatMatrix1D(
+      int size, float[] elements, int zero, int stride, int[] offsets, int offset) {
+    setUp(size, zero, stride);
+
+    this.elements = elements;
+    this.offsets = offsets;
+    this.offset = offset;
+    this.isNoView = false;
+  }
+
+  @Override
+  protected int offset(int absRank) {
+    return offsets[absRank];
+  }
+
+  @Override
+  public double getQuick(int index) {
+    return elements[offset + offsets[zero + index * stride]];
+  }
+
+  @Override
+  protected boolean haveSharedCellsRaw(DoubleMatrix1D other) {
+    if (other instanceof SelectedDenseFloatMatrix1D) {
+      SelectedDenseFloatMatrix1D otherMatrix = (SelectedDenseFloatMatrix1D) other;
+      return this.elements == otherMatrix.elements;
+    }
+    if (other instanceof DenseFloatMatrix1D) {
+      DenseFloatMatrix1D otherMatrix = (DenseFloatMatrix1D) other;
+      return this.elements == otherMatrix.elements;
+    }
+    return false;
+  }
+
+  @Override
+  protected int index(int rank) {
+    return offset + offsets[zero + rank * stride];
+  }
+
+  @Override
+  public DoubleMatrix1D like(int size) {
+    return new DenseFloatMatrix1D(size);
+  }
+
+  @Override
+  public DoubleMatrix2D like2D(int rows, int columns) {
+    return new DenseFloatMatrix2D(rows, columns);
+  }
+
+  @Override
+  public void setQuick(int index, double value) {
+    elements[offset + offsets[zero + index * stride]] = (float) value;
+  }
+
+  @Override
+  protected void setUp(int size) {
+    super.setUp(size);
+    this.stride = 1;
+    this.offset = 0;
+  }
+
+  @Override
+  protected DoubleMatrix1D viewSelectionLike(int[] offsets) {
+    return new SelectedDenseFloatMatrix1D(this.elements, offsets);
+  }
+}
@@ -10,6 +10,7 @@
  */
 package org.carrot2.math.matrix;
 
+import java.util.function.BooleanSupplier;
 import java.util.function.IntBinaryOperator;
 import org.carrot2.math.mahout.function.Functions;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
@@ -59,6 +60,11 @@ abstract class IterativeMatrixFactorizationBase extends MatrixFactorizationBase
   /** Sorting aggregates */
   protected double[] aggregates;
 
+  /** Checked after each iteration, the algorithm stops early once it returns true. */
+  protected BooleanSupplier stopCondition;
+
+  protected static final BooleanSupplier DEFAULT_STOP_CONDITION = () -> false;
+
   /** */
   public IterativeMatrixFactorizationBase(DoubleMatrix2D A) {
     super(A);
@@ -71,6 +77,7 @@ abstract class IterativeMatrixFactorizationBase extends MatrixFactorizationBase
     this.approximationErrors = null;
     this.approximationError = -1;
     this.iterationsCompleted = 0;
+    this.stopCondition = DEFAULT_STOP_CONDITION;
   }
 
   /**
@@ -98,7 +105,7 @@ abstract class IterativeMatrixFactorizationBase extends MatrixFactorizationBase
 
     // Approximation error
     double newApproximationError =
-        MatrixUtils.frobeniusNorm(U.zMult(V, null, 1, 0, false, true).assign(A, Functions.MINUS));
+        MatrixUtils.frobeniusNorm(multiply(U, V, null, false, true).assign(A, Functions.MINUS));
     approximationErrors[iterationsCompleted] = newApproximationError;
 
     if ((approximationError - newApproximationError) / approximationError < stopThreshold) {
@@ -165,6 +172,21 @@ abstract class IterativeMatrixFactorizationBase extends MatrixFactorizationBase
     this.stopThreshold = stopThreshold;
   }
 
+  /** Returns the condition checked after each iteration to stop the algorithm early. */
+  public BooleanSupplier getStopCondition() {
+    return stopCondition;
+  }
+
+  /**
+   * Sets the condition checked after each iteration to stop the algorithm early (with a partial
+   * result), for example when a time budget runs out.
+   *
+   * @since 4.8.0
+   */
+  public void setStopCondition(BooleanSupplier stopCondition) {
+    this.stopCondition = stopCondition;
+  }
+
   /** */
   public double getApproximationError() {
     return approximationError;
@@ -14,9 +14,13 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BooleanSupplier;
 import org.carrot2.attrs.AttrComposite;
 import org.carrot2.attrs.AttrEnum;
+import org.carrot2.attrs.AttrInteger;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DenseMatrixMultiplication;
 
 /** A factory for {@link MatrixFactorization}s. */
 public abstract class IterativeMatrixFactorizationFactory extends AttrComposite
@@ -32,6 +36,31 @@ public abstract class IterativeMatrixFactorizationFactory extends AttrComposite
               .label("Factorization quality")
               .defaultValue(FactorizationQuality.HIGH));
 
+  /**
+   * The number of threads used to multiply large dense matrices. If larger than 1, products are
+   * split into row blocks computed in parallel. The factorization is the same as with one thread,
+   * only the processing time differs.
+   */
+  public final AttrInteger threads =
+      attributes.register(
+          "threads",
+          AttrInteger.builder().min(1).max(256).label("Factorization threads").defaultValue(1));
+
+  /**
+   * The minimum size of products of dense matrices (the number of multiply-add operations) to
+   * compute in parallel. Smaller products are computed in the calling thread.
+   */
+  public final AttrInteger parallelismThreshold =
+      attributes.register(
+          "parallelismThreshold",
+          AttrInteger.builder()
+              .min(0)
+              .label("Parallel multiplication threshold")
+              .defaultValue(DenseMatrixMultiplication.DEFAULT_PARALLELISM_THRESHOLD));
+
+  /** The executor to multiply dense matrices on, the common fork-join pool if null */
+  protected ExecutorService executor;
+
   /** The number of base vectors */
   protected int k;
 
@@ -129,6 +158,27 @@ public abstract class IterativeMatrixFactorizationFactory extends AttrComposite
     this.ordered = ordered;
   }
 
+  /** Returns the executor used to multiply dense matrices in parallel. */
+  public ExecutorService getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Sets the executor used to multiply dense matrices in parallel, <code>null</code> for the common
+   * fork-join pool.
+   */
+  public void setExecutor(ExecutorService executor) {
+    this.executor = executor;
+  }
+
+  @Override
+  public MatrixFactorization factorize(DoubleMatrix2D A) {
+    return factorize(A, () -> false);
+  }
+
+  @Override
+  public abstract MatrixFactorization factorize(DoubleMatrix2D A, BooleanSupplier stopCondition);
+
   public void estimateIterationsNumber(int dimensions, DoubleMatrix2D termDocumentMatrix) {
     setK(dimensions);
 
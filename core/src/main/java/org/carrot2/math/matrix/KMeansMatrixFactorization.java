@@ -10,10 +10,9 @@
  */
 package org.carrot2.math.matrix;
 
-import org.carrot2.math.mahout.function.Functions;
+import java.util.Arrays;
 import org.carrot2.math.mahout.function.Mult;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
-import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
 
 /**
  * Performs matrix factorization using the K-means clustering algorithm. This kind of factorization
@@ -34,50 +33,49 @@ public class KMeansMatrixFactorization extends IterativeMatrixFactorizationBase
     int n = A.columns();
 
     // Distances to centroids
-    DoubleMatrix2D D = new DenseDoubleMatrix2D(k, n);
+    DoubleMatrix2D D = createMatrix(k, n);
 
     // Object-cluster assignments
-    V = new DenseDoubleMatrix2D(n, k);
+    V = createMatrix(n, k);
 
     // Initialize the centroids with some document vectors
-    U = new DenseDoubleMatrix2D(A.rows(), k);
+    U = createMatrix(A.rows(), k);
     U.assign(A.viewPart(0, 0, A.rows(), k));
 
     int[] minIndices = new int[D.columns()];
     double[] minValues = new double[D.columns()];
+    int[] counts = new int[k];
 
     for (iterationsCompleted = 0; iterationsCompleted < maxIterations; iterationsCompleted++) {
       // Calculate cosine distances
-      U.zMult(A, D, 1, 0, true, false);
+      multiply(U, A, D, true, false);
 
       V.assign(0);
-      U.assign(0);
 
       // For each object
       MatrixUtils.maxInColumns(D, minIndices, minValues);
+      Arrays.fill(counts, 0);
       for (int i = 0; i < minIndices.length; i++) {
         V.setQuick(i, minIndices[i], 1);
+        counts[minIndices[i]]++;
       }
 
-      // Update centroids
+      // Update centroids: sum up the assigned document vectors in one (possibly sparse)
+      // multiplication, then divide.
+      multiply(A, V, U, false, false); // U <- AV
       for (int c = 0; c < V.columns(); c++) {
-        // Sum
-        int count = 0;
-        for (int d = 0; d < V.rows(); d++) {
-          if (V.getQuick(d, c) != 0) {
-            count++;
-            U.viewColumn(c).assign(A.viewColumn(d), Functions.PLUS);
-          }
-        }
-
-        // Divide
-        if (count > 0) {
-          U.viewColumn(c).assign(Mult.div(count));
+        if (counts[c] > 0) {
+          U.viewColumn(c).assign(Mult.div(counts[c]));
         } else {
           U.viewColumn(c).assign(0);
         }
       }
       MatrixUtils.normalizeColumnL2(U, null);
+
+      if (stopCondition.getAsBoolean()) {
+        iterationsCompleted++;
+        break;
+      }
     }
   }
 
@@ -10,6 +10,7 @@
  */
 package org.carrot2.math.matrix;
 
+import java.util.function.BooleanSupplier;
 import org.carrot2.math.mahout.matrix.*;
 
 /**
@@ -17,11 +18,16 @@ import org.carrot2.math.mahout.matrix.*;
  * is sometimes referred to as Concept Decomposition Factorization.
  */
 public class KMeansMatrixFactorizationFactory extends IterativeMatrixFactorizationFactory {
-  public MatrixFactorization factorize(DoubleMatrix2D A) {
+  @Override
+  public MatrixFactorization factorize(DoubleMatrix2D A, BooleanSupplier stopCondition) {
     KMeansMatrixFactorization factorization = new KMeansMatrixFactorization(A);
     factorization.setK(k);
     factorization.setMaxIterations(maxIterations);
     factorization.setStopThreshold(stopThreshold);
+    factorization.setStopCondition(stopCondition);
+    factorization.setThreads(threads.get());
+    factorization.setParallelismThreshold(parallelismThreshold.get());
+    factorization.setExecutor(executor);
 
     factorization.compute();
 
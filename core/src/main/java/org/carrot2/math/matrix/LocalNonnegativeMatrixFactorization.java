@@ -14,7 +14,6 @@ import org.carrot2.math.mahout.function.DoubleDoubleFunction;
 import org.carrot2.math.mahout.function.DoubleFunction;
 import org.carrot2.math.mahout.function.Functions;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
-import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
 
 /**
  * Performs matrix factorization using the Local Non-negative Matrix Factorization algorithm with
@@ -55,20 +54,21 @@ public class LocalNonnegativeMatrixFactorization extends IterativeMatrixFactoriz
     double eps = 1e-9;
 
     // Seed U and V with initial values
-    U = new DenseDoubleMatrix2D(A.rows(), k);
-    V = new DenseDoubleMatrix2D(A.columns(), k);
+    U = createMatrix(A.rows(), k);
+    V = createMatrix(A.columns(), k);
     seedingStrategy.seed(A, U, V);
 
     // Temporary matrices
-    DoubleMatrix2D Aeps = A.copy();
+    // A is possibly sparse but becomes dense once eps is added.
+    DoubleMatrix2D Aeps = createMatrix(A.rows(), A.columns()).assign(A);
     Aeps.assign(Functions.plus(eps));
-    DoubleMatrix2D UV = new DenseDoubleMatrix2D(A.rows(), A.columns());
-    DoubleMatrix2D VT = new DenseDoubleMatrix2D(A.columns(), k);
-    DoubleMatrix2D UT = new DenseDoubleMatrix2D(A.rows(), k);
+    DoubleMatrix2D UV = createMatrix(A.rows(), A.columns());
+    DoubleMatrix2D VT = createMatrix(A.columns(), k);
+    DoubleMatrix2D UT = createMatrix(A.rows(), k);
     double[] work = new double[U.columns()];
 
     // Colt functions
-    DoubleDoubleFunction invDiv = Functions.swapArgs(Functions.DIV);
+    DoubleDoubleFunction invDiv = Functions.DIV_SWAPPED;
     DoubleDoubleFunction sqrtMult = Functions.chain(Functions.SQRT, Functions.MULT);
     DoubleFunction plusEps = Functions.plus(eps);
 
@@ -78,17 +78,17 @@ public class LocalNonnegativeMatrixFactorization extends IterativeMatrixFactoriz
 
     for (int i = 0; i < maxIterations; i++) {
       // Update V
-      U.zMult(V, UV, 1, 0, false, true); // UV <- U*V'
+      multiply(U, V, UV, false, true); // UV <- U*V'
       UV.assign(plusEps); // UV <- UV + eps
       UV.assign(Aeps, invDiv); // UV <- Aeps ./ UV
-      UV.zMult(U, VT, 1, 0, true, false); // VT <- UV' * U
+      multiply(UV, U, VT, true, false); // VT <- UV' * U
       V.assign(VT, sqrtMult); // V <- sqrt(V .* VT)
 
       // Update U
-      U.zMult(V, UV, 1, 0, false, true); // UV <- U*V'
+      multiply(U, V, UV, false, true); // UV <- U*V'
       UV.assign(plusEps); // UV <- UV + eps
       UV.assign(Aeps, invDiv); // UV <- Aeps ./ UV
-      UV.zMult(V, UT, 1, 0, false, false); // UT <- UV * V
+      multiply(UV, V, UT, false, false); // UT <- UV * V
       U.assign(UT, Functions.MULT); // U <- U .* UT
 
       MatrixUtils.normalizeColumnL1(U, work);
@@ -99,6 +99,10 @@ public class LocalNonnegativeMatrixFactorization extends IterativeMatrixFactoriz
           break;
         }
       }
+
+      if (stopCondition.getAsBoolean()) {
+        break;
+      }
     }
 
     if (ordered) {
@@ -10,6 +10,7 @@
  */
 package org.carrot2.math.matrix;
 
+import java.util.function.BooleanSupplier;
 import org.carrot2.math.mahout.matrix.*;
 
 /**
@@ -18,13 +19,18 @@ import org.carrot2.math.mahout.matrix.*;
  */
 public class LocalNonnegativeMatrixFactorizationFactory
     extends IterativeMatrixFactorizationFactory {
-  public MatrixFactorization factorize(DoubleMatrix2D A) {
+  @Override
+  public MatrixFactorization factorize(DoubleMatrix2D A, BooleanSupplier stopCondition) {
     LocalNonnegativeMatrixFactorization factorization = new LocalNonnegativeMatrixFactorization(A);
     factorization.setK(k);
     factorization.setMaxIterations(maxIterations);
     factorization.setStopThreshold(stopThreshold);
     factorization.setSeedingStrategy(createSeedingStrategy());
     factorization.setOrdered(ordered);
+    factorization.setStopCondition(stopCondition);
+    factorization.setThreads(threads.get());
+    factorization.setParallelismThreshold(parallelismThreshold.get());
+    factorization.setExecutor(executor);
     factorization.compute();
     return factorization;
   }
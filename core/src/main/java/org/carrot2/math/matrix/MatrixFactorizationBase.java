@@ -10,7 +10,11 @@
  */
 package org.carrot2.math.matrix;
 
+import java.util.concurrent.ExecutorService;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DenseFloatMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DenseMatrixMultiplication;
 
 /** Abstract implementation of the {@link MatrixFactorization} interface. */
 abstract class MatrixFactorizationBase implements MatrixFactorization {
@@ -23,6 +27,15 @@ abstract class MatrixFactorizationBase implements MatrixFactorization {
   /** Coefficient result matrix */
   protected DoubleMatrix2D V;
 
+  /** The number of threads used to multiply dense matrices */
+  protected int threads = 1;
+
+  /** The minimum number of multiply-add operations to multiply dense matrices in parallel */
+  protected long parallelismThreshold = DenseMatrixMultiplication.DEFAULT_PARALLELISM_THRESHOLD;
+
+  /** The executor to multiply dense matrices on, the common fork-join pool if null */
+  protected ExecutorService executor;
+
   /**
    * Creates the MatrixFactorizationBase object for matrix A. All computations will be performed
    * during the invocation of the constructor. By default RandomMatrixFactorizationSeeding will be
@@ -42,6 +55,68 @@ abstract class MatrixFactorizationBase implements MatrixFactorization {
     return V;
   }
 
+  /**
+   * Creates a dense matrix for the results or intermediate values of the factorization. Matrices
+   * are single precision if the input matrix is a {@link DenseFloatMatrix2D}.
+   */
+  protected DoubleMatrix2D createMatrix(int rows, int columns) {
+    if (A instanceof DenseFloatMatrix2D) {
+      return new DenseFloatMatrix2D(rows, columns);
+    }
+    return new DenseDoubleMatrix2D(rows, columns);
+  }
+
+  /** Returns the number of threads used to multiply dense matrices. */
+  public int getThreads() {
+    return threads;
+  }
+
+  /** Sets the number of threads used to multiply dense matrices. */
+  public void setThreads(int threads) {
+    this.threads = threads;
+  }
+
+  /**
+   * Returns the minimum number of multiply-add operations to multiply dense matrices in parallel.
+   */
+  public long getParallelismThreshold() {
+    return parallelismThreshold;
+  }
+
+  /** Sets the minimum number of multiply-add operations to multiply dense matrices in parallel. */
+  public void setParallelismThreshold(long parallelismThreshold) {
+    this.parallelismThreshold = parallelismThreshold;
+  }
+
+  /** Returns the executor used to multiply dense matrices in parallel. */
+  public ExecutorService getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Sets the executor used to multiply dense matrices in parallel, <code>null</code> for the common
+   * fork-join pool.
+   */
+  public void setExecutor(ExecutorService executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Computes <code>C = op(X) * op(Y)</code>, using up to {@link #getThreads()} threads of {@link
+   * #getExecutor()} for dense matrices larger than {@link #getParallelismThreshold()}.
+   *
+   * @return Returns <code>C</code>, or a new matrix if <code>C</code> is <code>null</code>.
+   */
+  protected DoubleMatrix2D multiply(
+      DoubleMatrix2D X,
+      DoubleMatrix2D Y,
+      DoubleMatrix2D C,
+      boolean transposeX,
+      boolean transposeY) {
+    return DenseMatrixMultiplication.zMult(
+        X, Y, C, 1, 0, transposeX, transposeY, threads, parallelismThreshold, executor);
+  }
+
   /** Computes the factorization. */
   protected abstract void compute();
 }
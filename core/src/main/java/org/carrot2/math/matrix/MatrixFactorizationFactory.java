@@ -10,6 +10,7 @@
  */
 package org.carrot2.math.matrix;
 
+import java.util.function.BooleanSupplier;
 import org.carrot2.attrs.AcceptingVisitor;
 import org.carrot2.math.mahout.matrix.*;
 
@@ -21,4 +22,17 @@ public interface MatrixFactorizationFactory extends AcceptingVisitor {
    * @param A matrix to be factorized.
    */
   MatrixFactorization factorize(DoubleMatrix2D A);
+
+  /**
+   * Factorizes matrix <code>A</code>, iterative factorizations stop early (with a partial result)
+   * once <code>stopCondition</code> returns <code>true</code>. Other factorizations ignore the
+   * condition.
+   *
+   * @param A matrix to be factorized.
+   * @param stopCondition checked after each iteration of the factorization.
+   * @since 4.8.0
+   */
+  default MatrixFactorization factorize(DoubleMatrix2D A, BooleanSupplier stopCondition) {
+    return factorize(A);
+  }
 }
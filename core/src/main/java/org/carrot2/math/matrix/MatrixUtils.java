@@ -17,6 +17,8 @@ import org.carrot2.math.mahout.function.DoubleFunction;
 import org.carrot2.math.mahout.function.Functions;
 import org.carrot2.math.mahout.function.IntIntDoubleFunction;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DenseKernels;
+import org.carrot2.math.mahout.matrix.impl.RowCompressedDoubleMatrix2D;
 
 /** A set of <code>DoubleMatrix2D</code> shorthands and utility methods. */
 public class MatrixUtils {
@@ -32,12 +34,20 @@ public class MatrixUtils {
    * @return A with length-normalized columns (for convenience only)
    */
   public static DoubleMatrix2D normalizeColumnL2(DoubleMatrix2D A, double[] work) {
+    if (A instanceof RowCompressedDoubleMatrix2D) {
+      return normalizeCompressedColumnL2(A, work);
+    }
+
     work = prepareWork(A, work);
 
     // Calculate the L2 norm for each column
-    for (int r = 0; r < A.rows(); r++) {
-      for (int c = 0; c < A.columns(); c++) {
-        work[c] += A.getQuick(r, c) * A.getQuick(r, c);
+    if (DenseKernels.hasContiguousRows(A)) {
+      DenseKernels.addColumnSquares(A, work);
+    } else {
+      for (int r = 0; r < A.rows(); r++) {
+        for (int c = 0; c < A.columns(); c++) {
+          work[c] += A.getQuick(r, c) * A.getQuick(r, c);
+        }
       }
     }
 
@@ -94,6 +104,27 @@ public class MatrixUtils {
     return A;
   }
 
+  /**
+   * Normalizes column vectors of a compressed sparse matrix, visiting the non-zero elements only.
+   */
+  private static DoubleMatrix2D normalizeCompressedColumnL2(DoubleMatrix2D A, double[] work) {
+    final double[] w = prepareWork(A, work);
+
+    A.forEachNonZero(
+        (row, column, value) -> {
+          w[column] += value * value;
+          return value;
+        });
+
+    for (int c = 0; c < A.columns(); c++) {
+      w[c] = Math.sqrt(w[c]);
+    }
+
+    A.forEachNonZero((row, column, value) -> value / w[column]);
+
+    return A;
+  }
+
   /**
    * Normalizes column vectors of matrix <code>A</code> so that their L1 norm is equal to 1.0.
    *
@@ -135,6 +166,11 @@ public class MatrixUtils {
 
   /** A common routine for normalizing columns of a matrix. */
   private static void normalizeColumns(DoubleMatrix2D A, double[] work) {
+    if (DenseKernels.hasContiguousRows(A)) {
+      DenseKernels.divideColumns(A, work);
+      return;
+    }
+
     for (int r = A.rows() - 1; r >= 0; r--) {
       for (int c = 0; c < A.columns(); c++) {
         if (work[c] != 0) {
@@ -250,6 +286,13 @@ public class MatrixUtils {
     }
     Arrays.fill(indices, 0);
 
+    if (doubleComparator == DoubleComparators.NATURAL_ORDER
+        && (transform == Functions.IDENTITY || transform == Functions.ABS)
+        && DenseKernels.hasContiguousRows(A)) {
+      DenseKernels.maxInColumns(A, 1, indices, extValues, transform == Functions.ABS);
+      return indices;
+    }
+
     for (int r = 1; r < A.rows(); r++) {
       for (int c = 0; c < A.columns(); c++) {
         final double transformed = transform.apply(A.getQuick(r, c));
@@ -13,7 +13,6 @@ package org.carrot2.math.matrix;
 import org.carrot2.math.mahout.function.DoubleFunction;
 import org.carrot2.math.mahout.function.Functions;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
-import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
 
 /**
  * Performs matrix factorization using the Non-negative Matrix Factorization algorithm with
@@ -51,16 +50,16 @@ public class NonnegativeMatrixFactorizationED extends IterativeMatrixFactorizati
     double eps = 1e-9;
 
     // Seed U and V with initial values
-    U = new DenseDoubleMatrix2D(A.rows(), k);
-    V = new DenseDoubleMatrix2D(A.columns(), k);
+    U = createMatrix(A.rows(), k);
+    V = createMatrix(A.columns(), k);
     seedingStrategy.seed(A, U, V);
 
     // Temporary matrices
-    DoubleMatrix2D T = new DenseDoubleMatrix2D(k, k);
-    DoubleMatrix2D UT1 = new DenseDoubleMatrix2D(A.rows(), k);
-    DoubleMatrix2D UT2 = new DenseDoubleMatrix2D(A.rows(), k);
-    DoubleMatrix2D VT1 = new DenseDoubleMatrix2D(A.columns(), k);
-    DoubleMatrix2D VT2 = new DenseDoubleMatrix2D(A.columns(), k);
+    DoubleMatrix2D T = createMatrix(k, k);
+    DoubleMatrix2D UT1 = createMatrix(A.rows(), k);
+    DoubleMatrix2D UT2 = createMatrix(A.rows(), k);
+    DoubleMatrix2D VT1 = createMatrix(A.columns(), k);
+    DoubleMatrix2D VT2 = createMatrix(A.columns(), k);
     DoubleFunction plusEps = Functions.plus(eps);
 
     if (stopThreshold >= 0) {
@@ -69,18 +68,18 @@ public class NonnegativeMatrixFactorizationED extends IterativeMatrixFactorizati
 
     for (int i = 0; i < maxIterations; i++) {
       // Update V
-      U.zMult(U, T, 1, 0, true, false); // T <- U'U
-      A.zMult(U, VT1, 1, 0, true, false); // VT1 <- A'U
-      V.zMult(T, VT2, 1, 0, false, false); // VT2 <- VT
+      multiply(U, U, T, true, false); // T <- U'U
+      multiply(A, U, VT1, true, false); // VT1 <- A'U
+      multiply(V, T, VT2, false, false); // VT2 <- VT
       VT1.assign(plusEps);
       VT2.assign(plusEps);
       VT1.assign(VT2, Functions.DIV); // VT1 <- VT1 ./ VT2
       V.assign(VT1, Functions.MULT); // V <- V .* VT1
 
       // Update U
-      V.zMult(V, T, 1, 0, true, false); // T <- V'V
-      A.zMult(V, UT1, 1, 0, false, false); // UT1 <- AV
-      U.zMult(T, UT2, 1, 0, false, false); // UT2 <- UT
+      multiply(V, V, T, true, false); // T <- V'V
+      multiply(A, V, UT1, false, false); // UT1 <- AV
+      multiply(U, T, UT2, false, false); // UT2 <- UT
       UT1.assign(plusEps);
       UT2.assign(plusEps);
       UT1.assign(UT2, Functions.DIV); // UT1 <- UT1 ./ UT2
@@ -92,6 +91,10 @@ public class NonnegativeMatrixFactorizationED extends IterativeMatrixFactorizati
           break;
         }
       }
+
+      if (stopCondition.getAsBoolean()) {
+        break;
+      }
     }
 
     if (ordered) {
@@ -10,6 +10,7 @@
  */
 package org.carrot2.math.matrix;
 
+import java.util.function.BooleanSupplier;
 import org.carrot2.math.mahout.matrix.*;
 
 /**
@@ -17,13 +18,18 @@ import org.carrot2.math.mahout.matrix.*;
  * minimization of Euclidean Distance between A and UV' and multiplicative updating.
  */
 public class NonnegativeMatrixFactorizationEDFactory extends IterativeMatrixFactorizationFactory {
-  public MatrixFactorization factorize(DoubleMatrix2D A) {
+  @Override
+  public MatrixFactorization factorize(DoubleMatrix2D A, BooleanSupplier stopCondition) {
     NonnegativeMatrixFactorizationED factorization = new NonnegativeMatrixFactorizationED(A);
     factorization.setK(k);
     factorization.setMaxIterations(maxIterations);
     factorization.setStopThreshold(stopThreshold);
     factorization.setSeedingStrategy(createSeedingStrategy());
     factorization.setOrdered(ordered);
+    factorization.setStopCondition(stopCondition);
+    factorization.setThreads(threads.get());
+    factorization.setParallelismThreshold(parallelismThreshold.get());
+    factorization.setExecutor(executor);
 
     factorization.compute();
 
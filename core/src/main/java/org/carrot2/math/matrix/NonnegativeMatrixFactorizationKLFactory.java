@@ -10,6 +10,7 @@
  */
 package org.carrot2.math.matrix;
 
+import java.util.function.BooleanSupplier;
 import org.carrot2.math.mahout.matrix.*;
 
 /**
@@ -17,13 +18,18 @@ import org.carrot2.math.mahout.matrix.*;
  * Kullback-Leibler divergence between A and UV' and multiplicative updating.
  */
 public class NonnegativeMatrixFactorizationKLFactory extends IterativeMatrixFactorizationFactory {
-  public MatrixFactorization factorize(DoubleMatrix2D A) {
+  @Override
+  public MatrixFactorization factorize(DoubleMatrix2D A, BooleanSupplier stopCondition) {
     NonnegativeMatrixFactorizationKL factorization = new NonnegativeMatrixFactorizationKL(A);
     factorization.setK(k);
     factorization.setMaxIterations(maxIterations);
     factorization.setStopThreshold(stopThreshold);
     factorization.setSeedingStrategy(createSeedingStrategy());
     factorization.setOrdered(ordered);
+    factorization.setStopCondition(stopCondition);
+    factorization.setThreads(threads.get());
+    factorization.setParallelismThreshold(parallelismThreshold.get());
+    factorization.setExecutor(executor);
 
     factorization.compute();
 
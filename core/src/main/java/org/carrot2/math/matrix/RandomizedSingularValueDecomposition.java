@@ -0,0 +1,241 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.matrix;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.carrot2.math.mahout.DenseMatrix;
+import org.carrot2.math.mahout.Matrix;
+import org.carrot2.math.mahout.SingularValueDecomposition;
+import org.carrot2.math.mahout.function.Functions;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
+
+/**
+ * Computes a truncated Singular Value Decomposition using randomized range finding (Halko,
+ * Martinsson, Tropp: <i>Finding structure with randomness</i>). Only the top <i>k</i> singular
+ * triplets are approximated; the input matrix is never copied and the full decomposition is
+ * performed on a small <code>A.columns() x (k + oversampling)</code> projection only.
+ */
+public class RandomizedSingularValueDecomposition extends MatrixFactorizationBase
+    implements MatrixFactorization {
+  /** The desired number of base vectors */
+  protected int k;
+
+  /** The default number of desired base vectors */
+  protected static final int DEFAULT_K = -1;
+
+  /** The number of additional random samples taken on top of <i>k</i>. */
+  protected int oversampling;
+
+  /** The default oversampling */
+  protected static final int DEFAULT_OVERSAMPLING = 10;
+
+  /** The number of power (subspace) iterations performed on the sampled range. */
+  protected int powerIterations;
+
+  /** The default number of power iterations */
+  protected static final int DEFAULT_POWER_ITERATIONS = 2;
+
+  /** Random seed for the Gaussian test matrix. */
+  protected long seed;
+
+  /** The default random seed */
+  protected static final long DEFAULT_SEED = 0;
+
+  /** Singular values */
+  private double[] S;
+
+  /**
+   * Computes a randomized partial SVD of a matrix. Before accessing results, perform computations
+   * by calling the {@link #compute()}method.
+   *
+   * @param A matrix to be factorized
+   */
+  public RandomizedSingularValueDecomposition(DoubleMatrix2D A) {
+    super(A);
+
+    this.k = DEFAULT_K;
+    this.oversampling = DEFAULT_OVERSAMPLING;
+    this.powerIterations = DEFAULT_POWER_ITERATIONS;
+    this.seed = DEFAULT_SEED;
+  }
+
+  public void compute() {
+    final int rows = A.rows();
+    final int columns = A.columns();
+    final int rank = Math.min(rows, columns);
+    final int targetRank = (k > 0 && k < rank) ? k : rank;
+    final int samples = Math.min(targetRank + Math.max(0, oversampling), rank);
+
+    // Sample the range of A with a Gaussian test matrix: Q <- orth(A * Omega).
+    final Random random = new Random(seed);
+    final DoubleMatrix2D omega = new DenseDoubleMatrix2D(columns, samples);
+    omega.assign((v) -> random.nextGaussian());
+
+    final DoubleMatrix2D Q = new DenseDoubleMatrix2D(rows, samples);
+    multiply(A, omega, Q, false, false);
+    orthonormalizeColumns(Q);
+
+    // Power iterations improve the approximation for slowly decaying spectra. Each product is
+    // orthonormalized to avoid losing the smaller singular directions to rounding errors.
+    final DoubleMatrix2D Z = omega;
+    for (int i = 0; i < powerIterations; i++) {
+      multiply(A, Q, Z, true, false); // Z <- A'Q
+      orthonormalizeColumns(Z);
+      multiply(A, Z, Q, false, false); // Q <- AZ
+      orthonormalizeColumns(Q);
+    }
+
+    // Project A onto the sampled subspace, B' = A'Q, and decompose the small matrix:
+    // B' = Ub * S * Vb', hence A ~ QB = (Q * Vb) * S * Ub'.
+    multiply(A, Q, Z, true, false);
+    final SingularValueDecomposition svd = new SingularValueDecomposition(toMahoutMatrix(Z));
+
+    final DoubleMatrix2D Vb = toColtMatrix(svd.getV());
+    U = multiply(Q, Vb, null, false, false);
+    V = toColtMatrix(svd.getU());
+    S = svd.getSingularValues();
+    alignSigns(U, V);
+
+    if (targetRank < S.length) {
+      U = U.viewPart(0, 0, U.rows(), targetRank);
+      V = V.viewPart(0, 0, V.rows(), targetRank);
+      S = Arrays.copyOf(S, targetRank);
+    }
+  }
+
+  /**
+   * Singular vectors are determined up to a sign. Flip each pair of base and coefficient vectors so
+   * that the base vector's components sum to a non-negative value; for non-negative term-document
+   * matrices this makes the dominant directions point "into" the data.
+   */
+  private static void alignSigns(DoubleMatrix2D U, DoubleMatrix2D V) {
+    for (int c = 0; c < U.columns(); c++) {
+      if (U.viewColumn(c).zSum() < 0) {
+        U.viewColumn(c).assign(Functions.NEGATE);
+        V.viewColumn(c).assign(Functions.NEGATE);
+      }
+    }
+  }
+
+  /**
+   * Orthonormalizes columns of <code>M</code> in place using modified Gram-Schmidt with a second
+   * re-orthogonalization pass. Columns linearly dependent on the preceding ones are zeroed.
+   */
+  static void orthonormalizeColumns(DoubleMatrix2D M) {
+    final int rows = M.rows();
+    final int columns = M.columns();
+    for (int c = 0; c < columns; c++) {
+      final double initialNorm = columnNorm(M, c);
+      for (int pass = 0; pass < 2; pass++) {
+        for (int p = 0; p < c; p++) {
+          double dot = 0;
+          for (int r = 0; r < rows; r++) {
+            dot += M.getQuick(r, p) * M.getQuick(r, c);
+          }
+          if (dot != 0) {
+            for (int r = 0; r < rows; r++) {
+              M.setQuick(r, c, M.getQuick(r, c) - dot * M.getQuick(r, p));
+            }
+          }
+        }
+      }
+
+      final double norm = columnNorm(M, c);
+      if (norm <= initialNorm * 1e-10 || norm == 0) {
+        for (int r = 0; r < rows; r++) {
+          M.setQuick(r, c, 0);
+        }
+      } else {
+        for (int r = 0; r < rows; r++) {
+          M.setQuick(r, c, M.getQuick(r, c) / norm);
+        }
+      }
+    }
+  }
+
+  private static double columnNorm(DoubleMatrix2D M, int column) {
+    double sum = 0;
+    for (int r = 0; r < M.rows(); r++) {
+      final double v = M.getQuick(r, column);
+      sum += v * v;
+    }
+    return Math.sqrt(sum);
+  }
+
+  private static Matrix toMahoutMatrix(DoubleMatrix2D m) {
+    return new DenseMatrix(m.toArray());
+  }
+
+  private static DenseDoubleMatrix2D toColtMatrix(Matrix m) {
+    DenseDoubleMatrix2D result = new DenseDoubleMatrix2D(m.rowSize(), m.columnSize());
+    for (int r = 0; r < result.rows(); r++) {
+      for (int c = 0; c < result.columns(); c++) {
+        result.setQuick(r, c, m.getQuick(r, c));
+      }
+    }
+    return result;
+  }
+
+  public String toString() {
+    return "RSVD";
+  }
+
+  /** Returns singular values of the matrix. */
+  public double[] getSingularValues() {
+    return S;
+  }
+
+  /**
+   * Sets the number of base vectors <i>k </i>.
+   *
+   * @param k the number of base vectors
+   */
+  public void setK(int k) {
+    this.k = k;
+  }
+
+  /** Returns the number of base vectors <i>k </i>. */
+  public int getK() {
+    return k;
+  }
+
+  /** Sets the number of additional random samples taken on top of <i>k</i>. */
+  public void setOversampling(int oversampling) {
+    this.oversampling = oversampling;
+  }
+
+  /** Returns the number of additional random samples taken on top of <i>k</i>. */
+  public int getOversampling() {
+    return oversampling;
+  }
+
+  /** Sets the number of power iterations. */
+  public void setPowerIterations(int powerIterations) {
+    this.powerIterations = powerIterations;
+  }
+
+  /** Returns the number of power iterations. */
+  public int getPowerIterations() {
+    return powerIterations;
+  }
+
+  /** Sets the random seed used to generate the test matrix. */
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+
+  /** Returns the random seed used to generate the test matrix. */
+  public long getSeed() {
+    return seed;
+  }
+}
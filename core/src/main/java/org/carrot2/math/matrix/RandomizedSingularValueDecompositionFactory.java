@@ -0,0 +1,132 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.matrix;
+
+import java.util.concurrent.ExecutorService;
+import org.carrot2.attrs.AttrComposite;
+import org.carrot2.attrs.AttrInteger;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DenseMatrixMultiplication;
+
+/**
+ * Performs matrix factorization using a randomized, truncated Singular Value Decomposition. Only
+ * the top <i>k</i> singular vectors are computed, which is considerably faster than {@link
+ * PartialSingularValueDecompositionFactory} for large term-document matrices.
+ */
+public class RandomizedSingularValueDecompositionFactory extends AttrComposite
+    implements MatrixFactorizationFactory {
+  /**
+   * The number of additional random samples taken on top of the number of desired base vectors.
+   * Higher values improve the accuracy of the approximation at the cost of more computations.
+   */
+  public final AttrInteger oversampling =
+      attributes.register(
+          "oversampling",
+          AttrInteger.builder()
+              .label("Oversampling")
+              .min(0)
+              .max(100)
+              .defaultValue(RandomizedSingularValueDecomposition.DEFAULT_OVERSAMPLING));
+
+  /**
+   * The number of power iterations. Each iteration makes two passes over the term-document matrix
+   * and improves the accuracy of the approximation for matrices with slowly decaying spectra.
+   */
+  public final AttrInteger powerIterations =
+      attributes.register(
+          "powerIterations",
+          AttrInteger.builder()
+              .label("Power iterations")
+              .min(0)
+              .max(10)
+              .defaultValue(RandomizedSingularValueDecomposition.DEFAULT_POWER_ITERATIONS));
+
+  /**
+   * The number of threads used to multiply large dense matrices. If larger than 1, products are
+   * split into row blocks computed in parallel. The factorization is the same as with one thread,
+   * only the processing time differs.
+   */
+  public final AttrInteger threads =
+      attributes.register(
+          "threads",
+          AttrInteger.builder().min(1).max(256).label("Factorization threads").defaultValue(1));
+
+  /**
+   * The minimum size of products of dense matrices (the number of multiply-add operations) to
+   * compute in parallel. Smaller products are computed in the calling thread.
+   */
+  public final AttrInteger parallelismThreshold =
+      attributes.register(
+          "parallelismThreshold",
+          AttrInteger.builder()
+              .min(0)
+              .label("Parallel multiplication threshold")
+              .defaultValue(DenseMatrixMultiplication.DEFAULT_PARALLELISM_THRESHOLD));
+
+  /** The executor to multiply dense matrices on, the common fork-join pool if null */
+  protected ExecutorService executor;
+
+  /** The desired number of base vectors */
+  protected int k;
+
+  /** The default desired number of base vectors */
+  protected static final int DEFAULT_K = -1;
+
+  /**
+   * Creates the factory that creates factorizations that compute the maximum number of base
+   * vectors.
+   */
+  public RandomizedSingularValueDecompositionFactory() {
+    this.k = DEFAULT_K;
+  }
+
+  public MatrixFactorization factorize(DoubleMatrix2D A) {
+    RandomizedSingularValueDecomposition factorization =
+        new RandomizedSingularValueDecomposition(A);
+
+    factorization.setK(k);
+    factorization.setOversampling(oversampling.get());
+    factorization.setPowerIterations(powerIterations.get());
+    factorization.setThreads(threads.get());
+    factorization.setParallelismThreshold(parallelismThreshold.get());
+    factorization.setExecutor(executor);
+    factorization.compute();
+
+    return factorization;
+  }
+
+  /**
+   * Sets the number of base vectors <i>k </i>.
+   *
+   * @param k the number of base vectors
+   */
+  public void setK(int k) {
+    this.k = k;
+  }
+
+  /** Returns the number of base vectors <i>k </i>. */
+  public int getK() {
+    return k;
+  }
+
+  /** Returns the executor used to multiply dense matrices in parallel. */
+  public ExecutorService getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Sets the executor used to multiply dense matrices in parallel, <code>null</code> for the common
+   * fork-join pool.
+   */
+  public void setExecutor(ExecutorService executor) {
+    this.executor = executor;
+  }
+}
@@ -32,6 +32,7 @@ import org.carrot2.util.CharArrayComparators;
  * <ul>
  *   <li>{@link AllTokens#wordIndex}
  *   <li>{@link AllWords#image}
+ *   <li>{@link AllWords#imageIndex}
  *   <li>{@link AllWords#tf}
  *   <li>{@link AllWords#tfByDocument}
  * </ul>
@@ -42,22 +43,18 @@ final class CaseNormalizer {
   /** Performs normalization and saves the results to the <code>context</code>. */
   public void normalize(PreprocessingContext context, int dfThreshold) {
     // Local references to already existing arrays
-    final char[][] tokenImages = context.allTokens.image;
+    final ImageArena images = context.images();
+    final int[] tokenImages = context.allTokens.imageIndex;
     final short[] tokenTypesArray = context.allTokens.type;
     final int[] documentIndexesArray = context.allTokens.documentIndex;
     final byte[] tokensFieldIndex = context.allTokens.fieldIndex;
     final int tokenCount = tokenImages.length;
 
     // Sort token images
-    final int[] tokenImagesOrder =
-        IndirectSort.mergesort(
-            tokenImages,
-            0,
-            tokenImages.length,
-            CharArrayComparators.NORMALIZING_CHAR_ARRAY_COMPARATOR);
+    final int[] tokenImagesOrder = sortTokenImages(images, tokenImages);
 
     // Create holders for new arrays
-    final List<char[]> normalizedWordImages = new ArrayList<>();
+    final IntArrayList normalizedWordImages = new IntArrayList();
     final IntArrayList normalizedWordTf = new IntArrayList();
     final List<int[]> wordTfByDocumentList = new ArrayList<>();
     final ByteArrayList fieldIndexList = new ByteArrayList();
@@ -85,13 +82,13 @@ final class CaseNormalizer {
 
     // Go through the ordered token images
     for (int i = 0; i < tokenImagesOrder.length - 1; i++) {
-      final char[] image = tokenImages[tokenImagesOrder[i]];
-      final char[] nextImage = tokenImages[tokenImagesOrder[i + 1]];
+      final int image = tokenImages[tokenImagesOrder[i]];
+      final int nextImage = tokenImages[tokenImagesOrder[i + 1]];
       final int tokenType = tokenTypesArray[tokenImagesOrder[i]];
       final int documentIndex = documentIndexesArray[tokenImagesOrder[i + 1]];
 
       // Reached the end of non-null tokens?
-      if (image == null) {
+      if (image < 0) {
         break;
       }
 
@@ -107,9 +104,8 @@ final class CaseNormalizer {
 
       fieldIndices.set(tokensFieldIndex[tokenImagesOrder[i]]);
 
-      // Now check if image case is changing
-      final boolean sameCase =
-          CharArrayComparators.FAST_CHAR_ARRAY_COMPARATOR.compare(image, nextImage) == 0;
+      // Now check if image case is changing (images are interned)
+      final boolean sameCase = image == nextImage;
       if (sameCase) {
         // Case has not changed, just increase counters
         tf++;
@@ -126,9 +122,7 @@ final class CaseNormalizer {
         tf = 1;
       }
 
-      final boolean sameImage =
-          CharArrayComparators.CASE_INSENSITIVE_CHAR_ARRAY_COMPARATOR.compare(image, nextImage)
-              == 0;
+      final boolean sameImage = nextImage >= 0 && images.compareIgnoreCase(image, nextImage) == 0;
 
       // Check if token image has changed
       if (sameImage) {
@@ -179,7 +173,8 @@ final class CaseNormalizer {
     // Mapping from allTokens
     context.allTokens.wordIndex = wordIndexes;
 
-    context.allWords.image = normalizedWordImages.toArray(new char[normalizedWordImages.size()][]);
+    context.allWords.imageIndex = normalizedWordImages.toArray();
+    context.allWords.image = images.images(context.allWords.imageIndex);
     context.allWords.tf = normalizedWordTf.toArray();
     context.allWords.tfByDocument =
         wordTfByDocumentList.toArray(new int[wordTfByDocumentList.size()][]);
@@ -187,6 +182,51 @@ final class CaseNormalizer {
     context.allWords.type = types.toArray();
   }
 
+  /**
+   * Returns token indexes in the order of their images, as a stable sort of all tokens with {@link
+   * CharArrayComparators#NORMALIZING_CHAR_ARRAY_COMPARATOR} would. That comparator only considers
+   * identical images equal, so instead of comparing tokens, tokens are grouped by their interned
+   * image and only the distinct images are sorted. Tokens without an image come last.
+   */
+  static int[] sortTokenImages(ImageArena images, int[] tokenImageIds) {
+    final int tokenCount = tokenImageIds.length;
+
+    // Count the tokens of each distinct image.
+    final int[] imageTokens = new int[images.size()];
+    final IntArrayList distinctImages = new IntArrayList();
+    int nullTokens = 0;
+    for (int id : tokenImageIds) {
+      if (id < 0) {
+        nullTokens++;
+      } else if (imageTokens[id]++ == 0) {
+        distinctImages.add(id);
+      }
+    }
+
+    final int[] distinctOrder =
+        IndirectSort.mergesort(
+            0,
+            distinctImages.size(),
+            (a, b) -> images.compareNormalizing(distinctImages.get(a), distinctImages.get(b)));
+
+    // Convert token counts to the first position of each image's tokens.
+    int position = 0;
+    for (int i : distinctOrder) {
+      final int id = distinctImages.get(i);
+      final int count = imageTokens[id];
+      imageTokens[id] = position;
+      position += count;
+    }
+    assert position + nullTokens == tokenCount;
+
+    final int[] order = new int[tokenCount];
+    for (int i = 0; i < tokenCount; i++) {
+      final int id = tokenImageIds[i];
+      order[id < 0 ? position++ : imageTokens[id]++] = i;
+    }
+    return order;
+  }
+
   /** Initializes the counters for the a token image. */
   private void resetForNewTokenImage(
       final int[] documentIndexesArray,
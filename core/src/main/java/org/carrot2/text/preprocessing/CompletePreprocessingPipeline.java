@@ -10,11 +10,16 @@
  */
 package org.carrot2.text.preprocessing;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 import org.carrot2.attrs.AttrComposite;
 import org.carrot2.attrs.AttrInteger;
 import org.carrot2.attrs.AttrObject;
+import org.carrot2.clustering.CancellationToken;
 import org.carrot2.clustering.Document;
+import org.carrot2.clustering.StageListener;
+import org.carrot2.clustering.StageTimer;
 import org.carrot2.language.LanguageComponents;
 
 /**
@@ -58,6 +63,22 @@ public class CompletePreprocessingPipeline extends AttrComposite implements Cont
               .label("Phrase document frequency threshold")
               .defaultValue(1));
 
+  /**
+   * The number of threads used for tokenization and stemming of input documents. If larger than 1,
+   * documents are split into shards processed in parallel. The preprocessing result is the same as
+   * with one thread, only the processing time differs.
+   */
+  public final AttrInteger threads =
+      attributes.register(
+          "threads",
+          AttrInteger.builder().min(1).max(256).label("Preprocessing threads").defaultValue(1));
+
+  /**
+   * The executor for parallel tokenization and stemming, the common fork-join pool if <code>null
+   * </code>.
+   */
+  private ExecutorService executor;
+
   /** Label filtering is a composite of individual filters. */
   public LabelFilterProcessor labelFilters = new LabelFilterProcessor();
 
@@ -91,19 +112,72 @@ public class CompletePreprocessingPipeline extends AttrComposite implements Cont
   /** Stop list marker used by the algorithm, contains modifiable parameters.. */
   protected final StopListMarker stopListMarker = new StopListMarker();
 
-  /** Tokenizer used by the algorithm. */
-  protected final InputTokenizer tokenizer = new InputTokenizer();
+  /**
+   * @return Returns the executor used for parallel tokenization and stemming.
+   * @since 4.8.0
+   */
+  public ExecutorService getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Sets the executor used for parallel tokenization and stemming (if {@link #threads} is larger
+   * than 1), <code>null</code> for the common fork-join pool. The executor is owned by the caller.
+   *
+   * @since 4.8.0
+   */
+  public void setExecutor(ExecutorService executor) {
+    this.executor = executor;
+  }
 
   public PreprocessingContext preprocess(
       Stream<? extends Document> documents, String query, LanguageComponents langModel) {
-    try (PreprocessingContext context = new PreprocessingContext(langModel)) {
-      tokenizer.tokenize(context, documents);
+    return preprocess(documents, query, langModel, StageListener.NONE);
+  }
+
+  @Override
+  public PreprocessingContext preprocess(
+      Stream<? extends Document> documents,
+      String query,
+      LanguageComponents langModel,
+      StageListener stageListener) {
+    return preprocess(documents, query, langModel, stageListener, CancellationToken.NONE);
+  }
+
+  @Override
+  public PreprocessingContext preprocess(
+      Stream<? extends Document> documents,
+      String query,
+      LanguageComponents langModel,
+      StageListener stageListener,
+      CancellationToken cancellation) {
+    try (PreprocessingContext context = new PreprocessingContext(langModel, cancellation)) {
+      StageTimer timer = new StageTimer(stageListener);
+      ExecutorService executor = this.executor == null ? ForkJoinPool.commonPool() : this.executor;
+      // The tokenizer keeps per-call buffers, a new one makes the pipeline reentrant.
+      new InputTokenizer().tokenize(context, documents, threads.get(), executor);
+      timer.stage("tokenization");
       caseNormalizer.normalize(context, wordDfThreshold.get());
-      stemming.stem(context, query);
+      timer.stage("caseNormalization");
+      cancellation.checkCancelled();
+      stemming.stem(context, query, threads.get(), executor);
+      timer.stage("stemming");
       stopListMarker.mark(context);
+      timer.stage("stopListMarking");
       new PhraseExtractor(phraseDfThreshold.get()).extractPhrases(context);
+      timer.stage("phraseExtraction");
       labelFilters.process(context);
+      timer.stage("labelFiltering");
+      cancellation.checkCancelled();
       documentAssigner.assign(context);
+      timer.stage("documentAssignment");
+
+      timer.statistic("documents", context.documentCount);
+      timer.statistic("tokens", context.allTokens.imageIndex.length);
+      timer.statistic("words", context.allWords.image.length);
+      timer.statistic("stems", context.allStems.image.length);
+      timer.statistic("phrases", context.allPhrases.wordIndices.length);
+      timer.statistic("labels", context.allLabels.featureIndex.length);
       return context;
     }
   }
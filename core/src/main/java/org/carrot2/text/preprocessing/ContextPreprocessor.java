@@ -11,11 +11,42 @@
 package org.carrot2.text.preprocessing;
 
 import java.util.stream.Stream;
+import org.carrot2.clustering.CancellationToken;
 import org.carrot2.clustering.Document;
+import org.carrot2.clustering.StageListener;
 import org.carrot2.language.LanguageComponents;
 
 @FunctionalInterface
 public interface ContextPreprocessor {
   PreprocessingContext preprocess(
       Stream<? extends Document> documents, String query, LanguageComponents langModel);
+
+  /**
+   * Performs preprocessing, reporting the time of each preprocessing stage to the provided
+   * listener. The default implementation reports no stages.
+   */
+  default PreprocessingContext preprocess(
+      Stream<? extends Document> documents,
+      String query,
+      LanguageComponents langModel,
+      StageListener stageListener) {
+    return preprocess(documents, query, langModel);
+  }
+
+  /**
+   * Performs preprocessing, reporting the time of each preprocessing stage to the provided listener
+   * and checking the cancellation token during processing. The default implementation only checks
+   * the token before preprocessing starts.
+   *
+   * @since 4.8.0
+   */
+  default PreprocessingContext preprocess(
+      Stream<? extends Document> documents,
+      String query,
+      LanguageComponents langModel,
+      StageListener stageListener,
+      CancellationToken cancellation) {
+    cancellation.checkCancelled();
+    return preprocess(documents, query, langModel, stageListener);
+  }
 }
@@ -10,7 +10,6 @@
  */
 package org.carrot2.text.preprocessing;
 
-import com.carrotsearch.hppc.BitSet;
 import com.carrotsearch.hppc.IntArrayList;
 import java.util.ArrayList;
 import org.carrot2.attrs.AttrBoolean;
@@ -18,11 +17,12 @@ import org.carrot2.attrs.AttrComposite;
 import org.carrot2.attrs.AttrInteger;
 import org.carrot2.language.TokenTypeUtils;
 import org.carrot2.text.preprocessing.PreprocessingContext.AllLabels;
+import org.carrot2.util.CompressedBitSet;
 
 /**
  * Assigns document to label candidates. For each label candidate from {@link
- * AllLabels#featureIndex} an {@link BitSet} with the assigned documents is constructed. The
- * assignment algorithm is rather simple: in order to be assigned to a label, a document must
+ * AllLabels#featureIndex} a {@link CompressedBitSet} with the assigned documents is constructed.
+ * The assignment algorithm is rather simple: in order to be assigned to a label, a document must
  * contain at least one occurrence of each non-stop word from the label.
  *
  * <p>This class saves the following results to the {@link PreprocessingContext} :
@@ -66,12 +66,11 @@ public class DocumentAssigner extends AttrComposite {
     final int[][] phrasesTfByDocument = context.allPhrases.tfByDocument;
     final int[][] phrasesWordIndices = context.allPhrases.wordIndices;
     final int wordCount = wordsStemIndex.length;
-    final int documentCount = context.documentCount;
-
-    final BitSet[] labelsDocumentIndices = new BitSet[labelsFeatureIndex.length];
+    final CompressedBitSet[] labelsDocumentIndices =
+        new CompressedBitSet[labelsFeatureIndex.length];
 
     for (int i = 0; i < labelsFeatureIndex.length; i++) {
-      final BitSet documentIndices = new BitSet(documentCount);
+      final CompressedBitSet documentIndices = new CompressedBitSet();
 
       final int featureIndex = labelsFeatureIndex[i];
       if (featureIndex < wordCount) {
@@ -92,7 +91,7 @@ public class DocumentAssigner extends AttrComposite {
                     documentIndices, stemsTfByDocument[wordsStemIndex[wordIndex]]);
                 firstAdded = true;
               } else {
-                final BitSet temp = new BitSet(documentCount);
+                final CompressedBitSet temp = new CompressedBitSet();
                 addTfByDocumentToBitSet(temp, stemsTfByDocument[wordsStemIndex[wordIndex]]);
                 documentIndices.and(temp);
               }
@@ -108,7 +107,8 @@ public class DocumentAssigner extends AttrComposite {
     int minClusterSize = this.minClusterSize.get();
     if (minClusterSize > 1) {
       final IntArrayList newFeatureIndex = new IntArrayList(labelsFeatureIndex.length);
-      final ArrayList<BitSet> newDocumentIndices = new ArrayList<>(labelsFeatureIndex.length);
+      final ArrayList<CompressedBitSet> newDocumentIndices =
+          new ArrayList<>(labelsFeatureIndex.length);
 
       for (int i = 0; i < labelsFeatureIndex.length; i++) {
         if (labelsDocumentIndices[i].cardinality() >= minClusterSize) {
@@ -116,7 +116,7 @@ public class DocumentAssigner extends AttrComposite {
           newDocumentIndices.add(labelsDocumentIndices[i]);
         }
       }
-      context.allLabels.documentIndices = newDocumentIndices.toArray(new BitSet[0]);
+      context.allLabels.documentIndices = newDocumentIndices.toArray(new CompressedBitSet[0]);
       context.allLabels.featureIndex = newFeatureIndex.toArray();
       LabelFilterProcessor.updateFirstPhraseIndex(context);
     } else {
@@ -125,7 +125,7 @@ public class DocumentAssigner extends AttrComposite {
   }
 
   private static void addTfByDocumentToBitSet(
-      final BitSet documentIndices, final int[] tfByDocument) {
+      final CompressedBitSet documentIndices, final int[] tfByDocument) {
     for (int j = 0; j < tfByDocument.length / 2; j++) {
       documentIndices.set(tfByDocument[j * 2]);
     }
@@ -0,0 +1,214 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.text.preprocessing;
+
+import java.util.Arrays;
+import org.carrot2.util.CharArrayComparators;
+import org.carrot2.util.MutableCharArray;
+
+/**
+ * Unique token images, stored in a single growable character arena. Each image is identified by a
+ * consecutive integer and addressed by its {@link #offset(int)} and {@link #length(int)} in {@link
+ * #buffer()}. Images are interned with an open-addressing hash table of image identifiers, so
+ * neither interning nor lookups allocate objects per image.
+ *
+ * <p>{@link #image(int)} adapts images to the <code>char[]</code> arrays of the public API of
+ * {@link PreprocessingContext}. An array is created on the first request for an image, so the same
+ * image is always represented by the same array.
+ *
+ * <p>Interning and {@link #image(int)} are not thread-safe, the arena can be read concurrently
+ * otherwise.
+ *
+ * @since 4.8.0
+ */
+public final class ImageArena {
+  private static final int NO_IMAGE = -1;
+
+  /** Characters of all images, in the order of their identifiers. */
+  private char[] chars = new char[1024];
+
+  /** Start of each image in {@link #chars}, the image ends at the start of the next one. */
+  private int[] offsets = new int[65];
+
+  /** Hash of each image, <code>null</code> once the arena is {@linkplain #compact() compacted}. */
+  private int[] hashes = new int[64];
+
+  /** The number of images. */
+  private int size;
+
+  /** Hash table slots, image identifiers or {@link #NO_IMAGE}. */
+  private int[] slots;
+
+  /** Images materialized as arrays by {@link #image(int)}, allocated on demand. */
+  private char[][] arrays;
+
+  ImageArena() {
+    slots = new int[128];
+    Arrays.fill(slots, NO_IMAGE);
+  }
+
+  /**
+   * @return Returns the identifier of an image with the given content, adding a copy of the image
+   *     to the arena if it does not exist yet.
+   */
+  int intern(char[] buffer, int start, int length) {
+    if (slots == null) {
+      throw new IllegalStateException("Images cannot be added to a compacted arena.");
+    }
+
+    final int hash = MutableCharArray.hashCode(buffer, start, length);
+    final int mask = slots.length - 1;
+    int slot = mix(hash) & mask;
+    for (int id; (id = slots[slot]) != NO_IMAGE; slot = (slot + 1) & mask) {
+      if (hashes[id] == hash
+          && Arrays.equals(chars, offsets[id], offsets[id + 1], buffer, start, start + length)) {
+        return id;
+      }
+    }
+
+    return add(slot, buffer, start, length, hash);
+  }
+
+  /**
+   * @return Returns the number of images.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return Returns the character arena. The returned array must not be modified and is replaced by
+   *     a larger one when images are added.
+   */
+  public char[] buffer() {
+    return chars;
+  }
+
+  /**
+   * @return Returns the offset of an image in {@link #buffer()}.
+   */
+  public int offset(int image) {
+    return offsets[image];
+  }
+
+  /**
+   * @return Returns the length of an image.
+   */
+  public int length(int image) {
+    return offsets[image + 1] - offsets[image];
+  }
+
+  /**
+   * @return Returns the image with the given identifier as an array, for code that requires arrays.
+   *     The returned array must not be modified.
+   */
+  public char[] image(int image) {
+    if (arrays == null || arrays.length <= image) {
+      arrays = Arrays.copyOf(arrays == null ? new char[0][] : arrays, Math.max(image + 1, size));
+    }
+
+    char[] array = arrays[image];
+    if (array == null) {
+      arrays[image] = array = Arrays.copyOfRange(chars, offsets[image], offsets[image + 1]);
+    }
+    return array;
+  }
+
+  /**
+   * @return Returns the images with the given identifiers as arrays, see {@link #image(int)}.
+   *     Negative identifiers are converted to <code>null</code> elements.
+   */
+  public char[][] images(int[] images) {
+    final char[][] result = new char[images.length][];
+    for (int i = 0; i < images.length; i++) {
+      result[i] = images[i] < 0 ? null : image(images[i]);
+    }
+    return result;
+  }
+
+  /**
+   * Compares two images with {@link CharArrayComparators#compareNormalizing(char[], int, int,
+   * char[], int, int)}.
+   */
+  int compareNormalizing(int a, int b) {
+    return CharArrayComparators.compareNormalizing(
+        chars, offsets[a], length(a), chars, offsets[b], length(b));
+  }
+
+  /**
+   * Compares two images with {@link CharArrayComparators#compareIgnoreCase(char[], int, int,
+   * char[], int, int)}.
+   */
+  int compareIgnoreCase(int a, int b) {
+    return CharArrayComparators.compareIgnoreCase(
+        chars, offsets[a], length(a), chars, offsets[b], length(b));
+  }
+
+  /**
+   * Compares two images lexicographically, like {@link
+   * CharArrayComparators#FAST_CHAR_ARRAY_COMPARATOR}.
+   */
+  int compare(int a, int b) {
+    return Arrays.compare(chars, offsets[a], offsets[a + 1], chars, offsets[b], offsets[b + 1]);
+  }
+
+  /**
+   * Releases the hash table used for interning and trims the arena to its size. Images cannot be
+   * added afterwards.
+   */
+  void compact() {
+    slots = null;
+    hashes = null;
+    chars = Arrays.copyOf(chars, offsets[size]);
+    offsets = Arrays.copyOf(offsets, size + 1);
+  }
+
+  private int add(int slot, char[] buffer, int start, int length, int hash) {
+    if (size + 1 == offsets.length) {
+      offsets = Arrays.copyOf(offsets, size * 2 + 1);
+      hashes = Arrays.copyOf(hashes, size * 2);
+    }
+
+    final int offset = offsets[size];
+    if (offset + length > chars.length) {
+      chars = Arrays.copyOf(chars, Math.max(chars.length * 2, offset + length));
+    }
+    System.arraycopy(buffer, start, chars, offset, length);
+
+    offsets[size + 1] = offset + length;
+    hashes[size] = hash;
+    slots[slot] = size;
+    size++;
+    if (size * 2 > slots.length) {
+      rehash(slots.length * 2);
+    }
+    return size - 1;
+  }
+
+  private void rehash(int capacity) {
+    slots = new int[capacity];
+    Arrays.fill(slots, NO_IMAGE);
+    final int mask = capacity - 1;
+    for (int id = 0; id < size; id++) {
+      int slot = mix(hashes[id]) & mask;
+      while (slots[slot] != NO_IMAGE) {
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = id;
+    }
+  }
+
+  /** Scrambles the bits of the hash so that consecutive hashes do not cluster. */
+  private static int mix(int hash) {
+    hash *= 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+}
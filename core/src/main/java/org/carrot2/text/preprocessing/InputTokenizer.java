@@ -17,13 +17,21 @@ import com.carrotsearch.hppc.cursors.IntCursor;
 import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.carrot2.clustering.CancellationToken;
 import org.carrot2.clustering.Document;
+import org.carrot2.language.LanguageComponents;
 import org.carrot2.language.Tokenizer;
 import org.carrot2.text.preprocessing.PreprocessingContext.AllFields;
 import org.carrot2.text.preprocessing.PreprocessingContext.AllTokens;
 import org.carrot2.util.CharArrayUtils;
+import org.carrot2.util.ExecutorServiceUtils;
 import org.carrot2.util.MutableCharArray;
 import org.carrot2.util.StringUtils;
 
@@ -33,15 +41,18 @@ import org.carrot2.util.StringUtils;
  * <p>This class saves the following results to the {@link PreprocessingContext}:
  *
  * <ul>
- *   <li>{@link AllTokens#image}
+ *   <li>{@link AllTokens#imageIndex}
  *   <li>{@link AllTokens#documentIndex}
  *   <li>{@link AllTokens#fieldIndex}
  *   <li>{@link AllTokens#type}
  * </ul>
  */
 final class InputTokenizer {
-  /** Token images. */
-  private ArrayList<char[]> images;
+  /** Token image identifiers in {@link #tokenImages}, -1 for separators and the terminator. */
+  private IntArrayList images;
+
+  /** Interned token images. */
+  private ImageArena tokenImages;
 
   /** An array of token types. */
   private ShortArrayList tokenTypes;
@@ -56,6 +67,15 @@ final class InputTokenizer {
    */
   private ByteArrayList fieldIndices;
 
+  /** Field names in the order of their shard-local indexes, see {@link #tokenizeShard}. */
+  private List<String> shardFieldNames;
+
+  /** Reusable token image wrapper. */
+  private final MutableCharArray wrapper = new MutableCharArray(CharArrayUtils.EMPTY_ARRAY);
+
+  /** Minimum number of documents per shard in parallel tokenization. */
+  static final int MIN_SHARD_DOCUMENTS = 16;
+
   private static class FieldValue {
     String field;
     String value;
@@ -68,63 +88,26 @@ final class InputTokenizer {
 
   /** Performs tokenization and saves the results to the <code>context</code>. */
   public void tokenize(PreprocessingContext context, Stream<? extends Document> docStream) {
-    images = new ArrayList<>();
-    tokenTypes = new ShortArrayList();
-    documentIndices = new IntArrayList();
-    fieldIndices = new ByteArrayList();
+    reset(context.images());
 
-    final Tokenizer ts = context.languageComponents.get(Tokenizer.class);
-    final MutableCharArray wrapper = new MutableCharArray(CharArrayUtils.EMPTY_ARRAY);
-
-    HashMap<String, Integer> fieldIndexes = new HashMap<>();
-    ArrayList<FieldValue> fields = new ArrayList<>();
+    final Tokenizer ts = context.languageComponents.acquire(Tokenizer.class);
+    final HashMap<String, Integer> fieldIndexes = new HashMap<>();
 
     IntCursor docCount = new IntCursor();
-    docStream.forEachOrdered(
-        (doc) -> {
-          int documentIndex = docCount.value;
-          if (documentIndex > 0) {
-            addDocumentSeparator();
-          }
-
-          fields.clear();
-          doc.visitFields(
-              (fieldName, fieldValue) -> {
-                if (!StringUtils.isNullOrEmpty(fieldValue)) {
-                  fields.add(new FieldValue(fieldName, fieldValue));
-                }
-              });
-
-          boolean hadTokens = false;
-          for (FieldValue fv : fields) {
-            final int fieldIndex =
-                fieldIndexes.computeIfAbsent(fv.field, (k) -> fieldIndexes.size());
-            if (fieldIndex > Byte.MAX_VALUE) {
-              throw new RuntimeException("Too many fields (>" + fieldIndex + ")");
-            }
-            final String fieldValue = fv.value;
-
-            if (!StringUtils.isNullOrEmpty(fieldValue)) {
-              try {
-                short tokenType;
-
-                ts.reset(new StringReader(fieldValue));
-                if ((tokenType = ts.nextToken()) != Tokenizer.TT_EOF) {
-                  if (hadTokens) addFieldSeparator(documentIndex);
-                  do {
-                    ts.setTermBuffer(wrapper);
-                    add(documentIndex, (byte) fieldIndex, context.intern(wrapper), tokenType);
-                  } while ((tokenType = ts.nextToken()) != Tokenizer.TT_EOF);
-                  hadTokens = true;
-                }
-              } catch (IOException e) {
-                throw new RuntimeException(e);
-              }
+    try {
+      docStream.forEachOrdered(
+          (doc) -> {
+            context.cancellation.checkCancelled();
+            int documentIndex = docCount.value;
+            if (documentIndex > 0) {
+              addDocumentSeparator();
             }
-          }
-
-          docCount.value++;
-        });
+            addDocument(doc, documentIndex, ts, fieldIndexes);
+            docCount.value++;
+          });
+    } finally {
+      context.languageComponents.release(Tokenizer.class, ts);
+    }
 
     addTerminator();
 
@@ -135,34 +118,211 @@ final class InputTokenizer {
     context.documentCount = docCount.value;
     context.allTokens.documentIndex = documentIndices.toArray();
     context.allTokens.fieldIndex = fieldIndices.toArray();
-    context.allTokens.image = images.toArray(new char[images.size()][]);
+    context.allTokens.imageIndex = images.toArray();
     context.allTokens.type = tokenTypes.toArray();
     context.allFields.name = fieldNames;
 
     // Clean up
     images = null;
+    tokenImages = null;
     fieldIndices = null;
     tokenTypes = null;
     documentIndices = null;
   }
 
+  /**
+   * Performs tokenization of contiguous shards of documents in parallel, each shard with its own
+   * {@link Tokenizer}, and saves the merged results to the <code>context</code>. The results are
+   * identical to those of {@link #tokenize(PreprocessingContext, Stream)}.
+   */
+  public void tokenize(
+      PreprocessingContext context,
+      Stream<? extends Document> docStream,
+      int threads,
+      ExecutorService executor) {
+    if (threads <= 1) {
+      tokenize(context, docStream);
+      return;
+    }
+
+    final List<? extends Document> documents = docStream.collect(Collectors.toList());
+    final int shardCount = Math.min(threads, documents.size() / MIN_SHARD_DOCUMENTS);
+    if (shardCount <= 1) {
+      tokenize(context, documents.stream());
+      return;
+    }
+
+    final List<Callable<InputTokenizer>> tasks = new ArrayList<>();
+    for (int shard = 0; shard < shardCount; shard++) {
+      final int from = (int) ((long) documents.size() * shard / shardCount);
+      final int to = (int) ((long) documents.size() * (shard + 1) / shardCount);
+      tasks.add(
+          () -> {
+            final InputTokenizer shardTokenizer = new InputTokenizer();
+            shardTokenizer.tokenizeShard(
+                documents.subList(from, to),
+                from,
+                context.languageComponents,
+                context.cancellation);
+            return shardTokenizer;
+          });
+    }
+    final List<InputTokenizer> shards = ExecutorServiceUtils.invokeAll(executor, tasks);
+
+    // Merge the shards. Field indexes are assigned in the order of first occurrence, just
+    // like in the sequential case; token images are re-interned in the context's cache.
+    reset(context.images());
+    final HashMap<String, Integer> fieldIndexes = new HashMap<>();
+    for (int shard = 0; shard < shards.size(); shard++) {
+      final InputTokenizer tokens = shards.get(shard);
+      final byte[] fieldMap = new byte[tokens.shardFieldNames.size()];
+      for (int i = 0; i < fieldMap.length; i++) {
+        final int fieldIndex =
+            fieldIndexes.computeIfAbsent(tokens.shardFieldNames.get(i), (k) -> fieldIndexes.size());
+        checkFieldIndex(fieldIndex);
+        fieldMap[i] = (byte) fieldIndex;
+      }
+
+      // Shard images are interned once, tokens refer to them by identifier.
+      final ImageArena shardImages = tokens.tokenImages;
+      final int[] imageMap = new int[shardImages.size()];
+      for (int i = 0; i < imageMap.length; i++) {
+        imageMap[i] =
+            tokenImages.intern(shardImages.buffer(), shardImages.offset(i), shardImages.length(i));
+      }
+
+      if (shard > 0) {
+        addDocumentSeparator();
+      }
+      for (int i = 0, max = tokens.images.size(); i < max; i++) {
+        final int image = tokens.images.get(i);
+        final byte fieldIndex = tokens.fieldIndices.get(i);
+        add(
+            tokens.documentIndices.get(i),
+            fieldIndex >= 0 ? fieldMap[fieldIndex] : fieldIndex,
+            image < 0 ? image : imageMap[image],
+            tokens.tokenTypes.get(i));
+      }
+    }
+    addTerminator();
+
+    String[] fieldNames = new String[fieldIndexes.size()];
+    fieldIndexes.forEach((field, index) -> fieldNames[index] = field);
+
+    context.documentCount = documents.size();
+    context.allTokens.documentIndex = documentIndices.toArray();
+    context.allTokens.fieldIndex = fieldIndices.toArray();
+    context.allTokens.imageIndex = images.toArray();
+    context.allTokens.type = tokenTypes.toArray();
+    context.allFields.name = fieldNames;
+
+    images = null;
+    tokenImages = null;
+    fieldIndices = null;
+    tokenTypes = null;
+    documentIndices = null;
+  }
+
+  /**
+   * Tokenizes a shard of documents, without the terminator. Field indexes are local to the shard,
+   * in the order of {@link #shardFieldNames}; images are interned in a local {@link #tokenImages}.
+   */
+  private void tokenizeShard(
+      List<? extends Document> documents,
+      int firstDocumentIndex,
+      LanguageComponents languageComponents,
+      CancellationToken cancellation) {
+    reset(new ImageArena());
+
+    final Tokenizer ts = languageComponents.acquire(Tokenizer.class);
+    final HashMap<String, Integer> fieldIndexes = new HashMap<>();
+
+    try {
+      for (int i = 0; i < documents.size(); i++) {
+        cancellation.checkCancelled();
+        if (i > 0) {
+          addDocumentSeparator();
+        }
+        addDocument(documents.get(i), firstDocumentIndex + i, ts, fieldIndexes);
+      }
+    } finally {
+      languageComponents.release(Tokenizer.class, ts);
+    }
+
+    shardFieldNames = new ArrayList<>(Collections.nCopies(fieldIndexes.size(), null));
+    fieldIndexes.forEach((field, index) -> shardFieldNames.set(index, field));
+  }
+
+  /** Tokenizes all fields of a single document. */
+  private void addDocument(
+      Document doc, int documentIndex, Tokenizer ts, HashMap<String, Integer> fieldIndexes) {
+    final ArrayList<FieldValue> fields = new ArrayList<>();
+    doc.visitFields(
+        (fieldName, fieldValue) -> {
+          if (!StringUtils.isNullOrEmpty(fieldValue)) {
+            fields.add(new FieldValue(fieldName, fieldValue));
+          }
+        });
+
+    boolean hadTokens = false;
+    for (FieldValue fv : fields) {
+      final int fieldIndex = fieldIndexes.computeIfAbsent(fv.field, (k) -> fieldIndexes.size());
+      checkFieldIndex(fieldIndex);
+      final String fieldValue = fv.value;
+
+      if (!StringUtils.isNullOrEmpty(fieldValue)) {
+        try {
+          short tokenType;
+
+          ts.reset(new StringReader(fieldValue));
+          if ((tokenType = ts.nextToken()) != Tokenizer.TT_EOF) {
+            if (hadTokens) addFieldSeparator(documentIndex);
+            do {
+              ts.setTermBuffer(wrapper);
+              final int image =
+                  tokenImages.intern(wrapper.getBuffer(), wrapper.getStart(), wrapper.length());
+              add(documentIndex, (byte) fieldIndex, image, tokenType);
+            } while ((tokenType = ts.nextToken()) != Tokenizer.TT_EOF);
+            hadTokens = true;
+          }
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    }
+  }
+
+  private static void checkFieldIndex(int fieldIndex) {
+    if (fieldIndex > Byte.MAX_VALUE) {
+      throw new RuntimeException("Too many fields (>" + fieldIndex + ")");
+    }
+  }
+
+  private void reset(ImageArena tokenImages) {
+    this.tokenImages = tokenImages;
+    images = new IntArrayList();
+    tokenTypes = new ShortArrayList();
+    documentIndices = new IntArrayList();
+    fieldIndices = new ByteArrayList();
+  }
+
   /** Adds a special terminating token required at the very end of all documents. */
   void addTerminator() {
-    add(-1, (byte) -1, null, Tokenizer.TF_TERMINATOR);
+    add(-1, (byte) -1, -1, Tokenizer.TF_TERMINATOR);
   }
 
   /** Adds a document separator to the lists. */
   void addDocumentSeparator() {
-    add(-1, (byte) -1, null, Tokenizer.TF_SEPARATOR_DOCUMENT);
+    add(-1, (byte) -1, -1, Tokenizer.TF_SEPARATOR_DOCUMENT);
   }
 
   /** Adds a field separator to the lists. */
   void addFieldSeparator(int documentIndex) {
-    add(documentIndex, (byte) -1, null, Tokenizer.TF_SEPARATOR_FIELD);
+    add(documentIndex, (byte) -1, -1, Tokenizer.TF_SEPARATOR_FIELD);
   }
 
   /** Adds custom token code to the sequence. May be used to add separator constants. */
-  void add(int documentIndex, byte fieldIndex, char[] image, short tokenTypeCode) {
+  void add(int documentIndex, byte fieldIndex, int image, short tokenTypeCode) {
     documentIndices.add(documentIndex);
     fieldIndices.add(fieldIndex);
     images.add(image);
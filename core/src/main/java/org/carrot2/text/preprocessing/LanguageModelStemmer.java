@@ -15,14 +15,20 @@ import com.carrotsearch.hppc.IntArrayList;
 import com.carrotsearch.hppc.sorting.IndirectSort;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import org.carrot2.clustering.CancellationToken;
+import org.carrot2.language.LanguageComponents;
+import org.carrot2.language.StemCache;
 import org.carrot2.language.Stemmer;
 import org.carrot2.language.Tokenizer;
 import org.carrot2.text.preprocessing.PreprocessingContext.AllStems;
 import org.carrot2.text.preprocessing.PreprocessingContext.AllWords;
-import org.carrot2.util.CharArrayComparators;
 import org.carrot2.util.CharArrayUtils;
+import org.carrot2.util.ExecutorServiceUtils;
 import org.carrot2.util.MutableCharArray;
 
 /**
@@ -33,6 +39,7 @@ import org.carrot2.util.MutableCharArray;
  * <ul>
  *   <li>{@link AllWords#stemIndex}
  *   <li>{@link AllStems#image}
+ *   <li>{@link AllStems#imageIndex}
  *   <li>{@link AllStems#mostFrequentOriginalWordIndex}
  *   <li>{@link AllStems#tf}
  *   <li>{@link AllStems#tfByDocument}
@@ -42,47 +49,187 @@ import org.carrot2.util.MutableCharArray;
  * <p>This class requires that {@link InputTokenizer} and {@link CaseNormalizer} be invoked first.
  */
 final class LanguageModelStemmer {
+  /** Minimum number of words per shard in parallel stemming. */
+  static final int MIN_SHARD_WORDS = 128;
+
+  /** The number of words stemmed between checks of the cancellation token (a power of two). */
+  private static final int CANCELLATION_CHECK_INTERVAL = 1024;
+
+  /** Marks words that are their own stems in {@link #stemWords}. */
+  private static final int NO_STEM = -1;
+
   /** Performs stemming and saves the results to the <code>context</code>. */
   public void stem(PreprocessingContext context, String queryHint) {
-    final Stemmer stemmer = context.languageComponents.get(Stemmer.class);
+    final LanguageComponents languageComponents = context.languageComponents;
+    final Stemmer stemmer = languageComponents.acquire(Stemmer.class);
+    try {
+      final StemCache stemCache = stemCache(context);
+
+      final ImageArena images = context.images();
+      final int[] wordImages = context.allWords.imageIndex;
+      final int[] stemImages = new int[wordImages.length];
+      stemWords(
+          stemmer,
+          stemCache,
+          images,
+          wordImages,
+          stemImages,
+          0,
+          wordImages.length,
+          images,
+          context.cancellation);
+
+      addStemStatistics(context, stemImages, prepareQueryWords(queryHint, stemmer));
+    } finally {
+      languageComponents.release(Stemmer.class, stemmer);
+    }
+  }
 
-    final char[][] wordImages = context.allWords.image;
-    final char[][] stemImages = new char[wordImages.length][];
+  /**
+   * Performs stemming of contiguous shards of words in parallel, each shard with its own {@link
+   * Stemmer}, and saves the results to the <code>context</code>. The results are identical to those
+   * of {@link #stem(PreprocessingContext, String)}.
+   */
+  public void stem(
+      PreprocessingContext context, String queryHint, int threads, ExecutorService executor) {
+    final int[] wordImages = context.allWords.imageIndex;
+    final int shardCount = Math.min(threads, wordImages.length / MIN_SHARD_WORDS);
+    if (shardCount <= 1) {
+      stem(context, queryHint);
+      return;
+    }
 
+    // Shards read word images from the context's arena and intern new stem images in their own
+    // arenas; stems are interned in the context's arena below, in the order of words.
+    final ImageArena images = context.images();
+    final int[] stemImages = new int[wordImages.length];
+
+    final StemCache stemCache = stemCache(context);
+    final int[] bounds = new int[shardCount + 1];
+    final List<Callable<ImageArena>> tasks = new ArrayList<>();
+    for (int shard = 0; shard < shardCount; shard++) {
+      final int from = (int) ((long) wordImages.length * shard / shardCount);
+      final int to = (int) ((long) wordImages.length * (shard + 1) / shardCount);
+      bounds[shard + 1] = to;
+      tasks.add(
+          () -> {
+            final Stemmer stemmer = context.languageComponents.acquire(Stemmer.class);
+            try {
+              final ImageArena stems = new ImageArena();
+              stemWords(
+                  stemmer,
+                  stemCache,
+                  images,
+                  wordImages,
+                  stemImages,
+                  from,
+                  to,
+                  stems,
+                  context.cancellation);
+              return stems;
+            } finally {
+              context.languageComponents.release(Stemmer.class, stemmer);
+            }
+          });
+    }
+    final List<ImageArena> shardStems = ExecutorServiceUtils.invokeAll(executor, tasks);
+
+    for (int shard = 0; shard < shardCount; shard++) {
+      final ImageArena stems = shardStems.get(shard);
+      for (int i = bounds[shard]; i < bounds[shard + 1]; i++) {
+        final int stem = stemImages[i];
+        stemImages[i] =
+            stem == NO_STEM
+                ? wordImages[i]
+                : images.intern(stems.buffer(), stems.offset(stem), stems.length(stem));
+      }
+    }
+
+    final Stemmer stemmer = context.languageComponents.acquire(Stemmer.class);
+    try {
+      addStemStatistics(context, stemImages, prepareQueryWords(queryHint, stemmer));
+    } finally {
+      context.languageComponents.release(Stemmer.class, stemmer);
+    }
+  }
+
+  /**
+   * @return Returns the {@link StemCache} of the language components or <code>null</code> if there
+   *     is none.
+   */
+  private static StemCache stemCache(PreprocessingContext context) {
+    final LanguageComponents languageComponents = context.languageComponents;
+    return languageComponents.components().contains(StemCache.class)
+        ? languageComponents.get(StemCache.class)
+        : null;
+  }
+
+  /**
+   * Stems words in the <code>[from, to)</code> range, using the stem cache, if provided. The
+   * identifiers of stems interned in <code>stems</code> are saved to <code>stemImages</code>. If
+   * <code>stems</code> is not the arena of words, words that are their own stems are marked with
+   * {@link #NO_STEM}.
+   */
+  private static void stemWords(
+      Stemmer stemmer,
+      StemCache stemCache,
+      ImageArena images,
+      int[] wordImages,
+      int[] stemImages,
+      int from,
+      int to,
+      ImageArena stems,
+      CancellationToken cancellation) {
     final MutableCharArray mutableCharArray = new MutableCharArray(CharArrayUtils.EMPTY_ARRAY);
+    final MutableCharArray stemmed = new MutableCharArray(CharArrayUtils.EMPTY_ARRAY);
     char[] buffer = new char[128];
 
-    for (int i = 0; i < wordImages.length; i++) {
-      final char[] word = wordImages[i];
-      if (buffer.length < word.length) buffer = new char[word.length];
-
-      final boolean different = CharArrayUtils.toLowerCase(word, buffer);
+    for (int i = from; i < to; i++) {
+      if (((i - from) & (CANCELLATION_CHECK_INTERVAL - 1)) == 0) {
+        cancellation.checkCancelled();
+      }
 
-      mutableCharArray.reset(buffer, 0, word.length);
-      final CharSequence stemmed = stemmer.stem(mutableCharArray);
-      if (stemmed != null) {
-        mutableCharArray.reset(stemmed);
-        stemImages[i] = context.intern(mutableCharArray);
+      // The buffer of the arena changes as stems are added to it.
+      final int word = wordImages[i];
+      final int length = images.length(word);
+      if (buffer.length < length) buffer = new char[length];
+
+      final boolean different =
+          CharArrayUtils.toLowerCase(images.buffer(), buffer, images.offset(word), length);
+
+      mutableCharArray.reset(buffer, 0, length);
+      final boolean hasStem;
+      if (stemCache != null) {
+        final char[] stem = stemCache.stem(mutableCharArray, stemmer);
+        hasStem = stem != null;
+        if (hasStem) {
+          stemmed.reset(stem);
+        }
       } else {
+        hasStem = stemmer.stem(mutableCharArray, stemmed) != Stemmer.UNCHANGED;
+      }
+      if (hasStem) {
+        // The stem may be in a buffer of the stemmer, it is copied only if it's a new image.
+        stemImages[i] = stems.intern(stemmed.getBuffer(), stemmed.getStart(), stemmed.length());
+      } else if (different) {
         // We need to put the original word here, otherwise, we wouldn't be able
         // to compute frequencies for stems.
-        if (different) stemImages[i] = context.intern(mutableCharArray);
-        else stemImages[i] = word;
+        stemImages[i] = stems.intern(buffer, 0, length);
+      } else {
+        stemImages[i] = stems == images ? word : NO_STEM;
       }
     }
-
-    addStemStatistics(context, stemImages, prepareQueryWords(queryHint, stemmer));
   }
 
   /** Adds frequency statistics to the stems. */
   private void addStemStatistics(
-      PreprocessingContext context, char[][] wordStemImages, Set<MutableCharArray> queryStems) {
+      PreprocessingContext context, int[] wordStemImages, Set<MutableCharArray> queryStems) {
+    final ImageArena images = context.images();
     final int[] stemImagesOrder =
         IndirectSort.mergesort(
-            wordStemImages,
             0,
             wordStemImages.length,
-            CharArrayComparators.FAST_CHAR_ARRAY_COMPARATOR);
+            (a, b) -> images.compare(wordStemImages[a], wordStemImages[b]));
 
     // Local array references
     final int[] wordTfArray = context.allWords.tf;
@@ -97,17 +244,18 @@ final class LanguageModelStemmer {
 
     if (stemImagesOrder.length == 0) {
       context.allStems.image = new char[0][];
+      context.allStems.imageIndex = new int[0];
       context.allStems.mostFrequentOriginalWordIndex = new int[0];
       context.allStems.tf = new int[0];
       context.allStems.tfByDocument = new int[0][];
       context.allStems.fieldIndices = new byte[0];
 
-      context.allWords.stemIndex = new int[context.allWords.image.length];
+      context.allWords.stemIndex = new int[allWordsCount];
       return;
     }
 
     // Lists to accommodate the results
-    final ArrayList<char[]> stemImages = new ArrayList<>(allWordsCount);
+    final IntArrayList stemImages = new IntArrayList(allWordsCount);
     final IntArrayList stemTf = new IntArrayList(allWordsCount);
     final IntArrayList stemMostFrequentWordIndexes = new IntArrayList(allWordsCount);
     final ArrayList<int[]> stemTfByDocumentList = new ArrayList<>(allWordsCount);
@@ -127,24 +275,23 @@ final class LanguageModelStemmer {
     fieldIndices |= wordsFieldIndices[0];
 
     // For locating query words
-    final MutableCharArray buffer = new MutableCharArray(wordStemImages[stemImagesOrder[0]]);
-    boolean inQuery = queryStems.contains(buffer);
+    final MutableCharArray buffer = new MutableCharArray(CharArrayUtils.EMPTY_ARRAY);
+    boolean inQuery = isQueryStem(images, wordStemImages[stemImagesOrder[0]], buffer, queryStems);
 
     // Go through all words in the order of stem images
     for (int i = 0; i < stemImagesOrder.length - 1; i++) {
       final int orderIndex = stemImagesOrder[i];
-      final char[] stem = wordStemImages[orderIndex];
+      final int stem = wordStemImages[orderIndex];
       final int nextInOrderIndex = stemImagesOrder[i + 1];
-      final char[] nextStem = wordStemImages[nextInOrderIndex];
+      final int nextStem = wordStemImages[nextInOrderIndex];
 
       stemIndexesArray[orderIndex] = stemIndex;
       if (inQuery) {
         wordsType[orderIndex] |= Tokenizer.TF_QUERY_WORD;
       }
 
-      // Now check if token image is changing
-      final boolean sameStem =
-          CharArrayComparators.FAST_CHAR_ARRAY_COMPARATOR.compare(stem, nextStem) == 0;
+      // Now check if token image is changing (images are interned)
+      final boolean sameStem = stem == nextStem;
 
       if (sameStem) {
         totalTf += wordTfArray[nextInOrderIndex];
@@ -171,8 +318,7 @@ final class LanguageModelStemmer {
         stemTfsByDocument.clear();
         stemTfsByDocument.add(wordTfByDocumentArray[nextInOrderIndex]);
 
-        buffer.reset(wordStemImages[nextInOrderIndex]);
-        inQuery = queryStems.contains(buffer);
+        inQuery = isQueryStem(images, nextStem, buffer, queryStems);
       }
     }
 
@@ -188,7 +334,8 @@ final class LanguageModelStemmer {
     }
 
     // Convert lists to arrays and store them in allStems
-    context.allStems.image = stemImages.toArray(new char[stemImages.size()][]);
+    context.allStems.imageIndex = stemImages.toArray();
+    context.allStems.image = images.images(context.allStems.imageIndex);
     context.allStems.mostFrequentOriginalWordIndex = stemMostFrequentWordIndexes.toArray();
     context.allStems.tf = stemTf.toArray();
     context.allStems.tfByDocument =
@@ -199,6 +346,15 @@ final class LanguageModelStemmer {
     context.allWords.stemIndex = stemIndexesArray;
   }
 
+  private static boolean isQueryStem(
+      ImageArena images, int stem, MutableCharArray buffer, Set<MutableCharArray> queryStems) {
+    if (queryStems.isEmpty()) {
+      return false;
+    }
+    buffer.reset(images.buffer(), images.offset(stem), images.length(stem));
+    return queryStems.contains(buffer);
+  }
+
   /** */
   private void storeTfByDocument(ArrayList<int[]> target, ArrayList<int[]> source) {
     assert source.size() > 0 : "Empty source document list?";
@@ -217,10 +373,10 @@ final class LanguageModelStemmer {
 
     if (query != null) {
       final String[] split = query.toLowerCase(Locale.ROOT).split("\\s");
+      final MutableCharArray stem = new MutableCharArray();
       for (int i = 0; i < split.length; i++) {
-        final CharSequence stem = stemmer.stem(split[i]);
-        if (stem != null) {
-          queryWords.add(new MutableCharArray(stem));
+        if (stemmer.stem(split[i], stem) != Stemmer.UNCHANGED) {
+          queryWords.add(stem.clone());
         } else {
           queryWords.add(new MutableCharArray(split[i]));
         }
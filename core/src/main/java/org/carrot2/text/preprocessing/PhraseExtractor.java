@@ -63,6 +63,7 @@ public class PhraseExtractor {
   public void extractPhrases(PreprocessingContext context) {
     // Perform suffix sorting first
     suffixSorter.suffixSort(context);
+    context.cancellation.checkCancelled();
 
     final int[] suffixArray = context.allTokens.suffixOrder;
     final int[] lcpArray = context.allTokens.lcp;
@@ -72,6 +73,7 @@ public class PhraseExtractor {
 
     // Find all subphrases
     List<Substring> rcs = discoverRcs(suffixArray, lcpArray, documentIndexArray);
+    context.cancellation.checkCancelled();
 
     List<int[]> phraseWordIndexes = new ArrayList<>();
     IntArrayList phraseTf = new IntArrayList();
@@ -82,6 +84,7 @@ public class PhraseExtractor {
       // array. Also merge the phrase tf by document maps into flat
       // arrays.
       Collections.sort(rcs, new SubstringComparator(wordIndexesArray, stemIndexes));
+      context.cancellation.checkCancelled();
 
       int totalPhraseTf = rcs.get(0).frequency;
       Substring mostFrequentOriginal = rcs.get(0);
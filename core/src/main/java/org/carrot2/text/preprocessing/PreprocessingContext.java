@@ -14,10 +14,12 @@ import com.carrotsearch.hppc.*;
 import java.io.Closeable;
 import java.io.StringWriter;
 import java.util.Arrays;
+import org.carrot2.clustering.CancellationToken;
 import org.carrot2.language.LanguageComponents;
 import org.carrot2.language.Stemmer;
 import org.carrot2.language.TokenTypeUtils;
 import org.carrot2.language.Tokenizer;
+import org.carrot2.util.CompressedBitSet;
 import org.carrot2.util.MutableCharArray;
 import org.carrot2.util.TabularOutput;
 
@@ -34,21 +36,36 @@ public final class PreprocessingContext implements Closeable {
   /** Language model to be used */
   public final LanguageComponents languageComponents;
 
+  /** Cancellation token checked by preprocessing and clustering stages. */
+  public final CancellationToken cancellation;
+
   /** Count of documents processed by the tokenizer. */
   public int documentCount;
 
   /**
-   * Token interning cache. Token images are interned to save memory and allow reference
-   * comparisons.
+   * Token, word and stem images. Images are interned to save memory and allow comparisons of their
+   * identifiers.
    */
-  private ObjectHashSet<MutableCharArray> tokenCache = new ObjectHashSet<>();
+  private final ImageArena images = new ImageArena();
 
   /**
    * Creates a preprocessing context for the provided <code>documents</code> and with the provided
    * <code>languageModel</code>.
    */
   public PreprocessingContext(LanguageComponents languageComponents) {
+    this(languageComponents, CancellationToken.NONE);
+  }
+
+  /**
+   * Creates a preprocessing context with the provided <code>languageModel</code> and a cancellation
+   * token checked during processing.
+   *
+   * @since 4.8.0
+   */
+  public PreprocessingContext(
+      LanguageComponents languageComponents, CancellationToken cancellation) {
     this.languageComponents = languageComponents;
+    this.cancellation = cancellation;
   }
 
   /**
@@ -61,14 +78,36 @@ public final class PreprocessingContext implements Closeable {
    */
   public class AllTokens {
     /**
-     * Token image as it appears in the input. On positions where {@link #type} is equal to one of
-     * {@link Tokenizer#TF_TERMINATOR}, {@link Tokenizer#TF_SEPARATOR_DOCUMENT} or {@link
-     * Tokenizer#TF_SEPARATOR_FIELD} , image is <code>null</code>.
+     * Token image as it appears in the input, an identifier of the image in {@link
+     * PreprocessingContext#images()}. On positions where {@link #type} is equal to one of {@link
+     * Tokenizer#TF_TERMINATOR}, {@link Tokenizer#TF_SEPARATOR_DOCUMENT} or {@link
+     * Tokenizer#TF_SEPARATOR_FIELD}, the identifier is <code>-1</code>.
      *
      * <p>This array is produced by {@link InputTokenizer}.
+     *
+     * @since 4.8.0
+     */
+    public int[] imageIndex;
+
+    /**
+     * Token images as arrays, see {@link #imageIndex}. Preprocessing does not create these arrays,
+     * this field is <code>null</code> until {@link #image()} is called.
      */
     public char[][] image;
 
+    /**
+     * Returns {@link #image}, creating the token image arrays first if needed. Arrays are shared by
+     * tokens with the same image.
+     *
+     * @since 4.8.0
+     */
+    public char[][] image() {
+      if (image == null && imageIndex != null) {
+        image = images.images(imageIndex);
+      }
+      return image;
+    }
+
     /**
      * Token's {@link Tokenizer} bit flags.
      *
@@ -127,7 +166,7 @@ public final class PreprocessingContext implements Closeable {
     /** For debugging purposes. */
     @Override
     public String toString() {
-      if (image == null) {
+      if (imageIndex == null) {
         return UNINITIALIZED;
       }
 
@@ -147,10 +186,10 @@ public final class PreprocessingContext implements Closeable {
                 .addColumn("=>word", (spec) -> spec.alignLeft())
                 .build();
 
-        for (int i = 0; i < image.length; i++, t.nextRow()) {
+        for (int i = 0; i < imageIndex.length; i++, t.nextRow()) {
           t.append(
               i,
-              image[i] == null ? "<null>" : new String(image[i]),
+              imageIndex[i] < 0 ? "<null>" : new String(images.image(imageIndex[i])),
               type[i],
               fieldIndex[i],
               fieldIndex[i] >= 0 ? allFields.name[fieldIndex[i]] : null,
@@ -260,10 +299,19 @@ public final class PreprocessingContext implements Closeable {
      * <em>MacOS</em> appeared 12 times in the input and <em>macos</em> appeared 3 times, the image
      * will be equal to <em>MacOS</em>.
      *
-     * <p>This array is produced by {@link CaseNormalizer}.
+     * <p>This array is produced by {@link CaseNormalizer}, from {@link #imageIndex}.
      */
     public char[][] image;
 
+    /**
+     * Identifiers of {@link #image} in {@link PreprocessingContext#images()}.
+     *
+     * <p>This array is produced by {@link CaseNormalizer}.
+     *
+     * @since 4.8.0
+     */
+    public int[] imageIndex;
+
     /**
      * Token type of this word copied from {@link AllTokens#type}. Additional flags are set for each
      * word by {@link CaseNormalizer} and {@link LanguageModelStemmer}.
@@ -376,10 +424,19 @@ public final class PreprocessingContext implements Closeable {
     /**
      * Stem image as produced by the {@link Stemmer}, may not correspond to any correct word.
      *
-     * <p>This array is produced by {@link LanguageModelStemmer}.
+     * <p>This array is produced by {@link LanguageModelStemmer}, from {@link #imageIndex}.
      */
     public char[][] image;
 
+    /**
+     * Identifiers of {@link #image} in {@link PreprocessingContext#images()}.
+     *
+     * <p>This array is produced by {@link LanguageModelStemmer}.
+     *
+     * @since 4.8.0
+     */
+    public int[] imageIndex;
+
     /**
      * Pointer to the {@link AllWords} arrays, to the most frequent original form of the stem.
      * Pointers to the less frequent variants are not available.
@@ -562,7 +619,7 @@ public final class PreprocessingContext implements Closeable {
      *
      * <p>This array is produced by {@link DocumentAssigner}.
      */
-    public BitSet[] documentIndices;
+    public CompressedBitSet[] documentIndices;
 
     /**
      * The first index in {@link #featureIndex} which points to {@link AllPhrases}, or -1 if there
@@ -698,19 +755,19 @@ public final class PreprocessingContext implements Closeable {
    * release temporary data structures.
    */
   public void close() {
-    this.tokenCache = null;
+    images.compact();
   }
 
   /** Return a unique char buffer representing a given character sequence. */
   public char[] intern(MutableCharArray chs) {
-    int index = tokenCache.indexOf(chs);
-    if (tokenCache.indexExists(index)) {
-      return tokenCache.indexGet(index).getBuffer();
-    } else {
-      final char[] tokenImage = new char[chs.length()];
-      System.arraycopy(chs.getBuffer(), chs.getStart(), tokenImage, 0, chs.length());
-      tokenCache.add(new MutableCharArray(tokenImage));
-      return tokenImage;
-    }
+    return images.image(images.intern(chs.getBuffer(), chs.getStart(), chs.length()));
+  }
+
+  /**
+   * @return Returns the token, word and stem images of this context.
+   * @since 4.8.0
+   */
+  public ImageArena images() {
+    return images;
   }
 }
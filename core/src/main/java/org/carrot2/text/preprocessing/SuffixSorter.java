@@ -10,80 +10,248 @@
  */
 package org.carrot2.text.preprocessing;
 
-import com.carrotsearch.hppc.sorting.IndirectSort;
-import java.util.function.IntBinaryOperator;
+import java.util.Arrays;
 
 /**
- * A simple suffix sorting utility based on the generic sorting routines from {@link IndirectSort}.
+ * Suffix sorting of token word indexes. The suffix array is built in linear time with the SA-IS
+ * algorithm (Nong, Zhang and Chan, <i>Two Efficient Algorithms for Linear Time Suffix Array
+ * Construction</i>) and the longest common prefix array with Kasai et al.'s algorithm.
  */
 final class SuffixSorter {
-  /** An int comparator that enables suffix sorting. */
-  private static class SuffixComparator implements IntBinaryOperator {
-    private int[] suffixData;
-
-    public SuffixComparator(int[] suffixData) {
-      this.suffixData = suffixData;
-    }
-
-    public int applyAsInt(int suffixA, int suffixB) {
-      if (suffixA == suffixB) {
-        return 0;
-      }
+  /** Performs suffix sorting and saves the results to the <code>context</code>. */
+  void suffixSort(PreprocessingContext context) {
+    final int[] intCodes = suffixCodes(context.allTokens.wordIndex);
 
-      /*
-       * Suffix data ends with a unique negative value, so we don't need to do extra
-       * range checks and we still won't run into array index out of bounds
-       * exceptions.
-       */
-      while (suffixData[suffixA] == suffixData[suffixB]) {
-        suffixA++;
-        suffixB++;
-      }
+    // Create suffix order
+    int[] suffixOrder = suffixArray(intCodes);
+    context.allTokens.suffixOrder = suffixOrder;
 
-      return suffixData[suffixB] - suffixData[suffixA];
-    }
+    // Add LCPs
+    context.allTokens.lcp = calculateLcp(intCodes, suffixOrder);
   }
 
-  /** Performs suffix sorting and saves the results to the <code>context</code>. */
-  void suffixSort(PreprocessingContext context) {
-    /*
-     * Create a temporary array based on word indices with -1 values replaced with
-     * unique negative values. This will ensure that the phrases discovered based on
-     * the sorted/lcp array will not cross sentence/field boundaries. At some point we
-     * may want to make it an option. In this case, we'll need to review Substring and
-     * SubstringComparator for possible array index out of bounds.
-     */
-    final int[] intCodes = new int[context.allTokens.wordIndex.length];
-    System.arraycopy(context.allTokens.wordIndex, 0, intCodes, 0, intCodes.length);
+  /**
+   * Creates a temporary array based on word indices with -1 values replaced with unique negative
+   * values. This will ensure that the phrases discovered based on the sorted/lcp array will not
+   * cross sentence/field boundaries. At some point we may want to make it an option. In this case,
+   * we'll need to review Substring and SubstringComparator for possible array index out of bounds.
+   */
+  static int[] suffixCodes(int[] wordIndex) {
+    final int[] intCodes = new int[wordIndex.length];
+    System.arraycopy(wordIndex, 0, intCodes, 0, intCodes.length);
     int currentSeparatorCode = -1;
     for (int i = 0; i < intCodes.length; i++) {
       if (intCodes[i] < 0) {
         intCodes[i] = currentSeparatorCode--;
       }
     }
+    return intCodes;
+  }
 
-    // Create suffix order
-    int[] suffixOrder = IndirectSort.mergesort(0, intCodes.length, new SuffixComparator(intCodes));
-    context.allTokens.suffixOrder = suffixOrder;
+  /**
+   * Returns the suffix array of <code>intCodes</code>. Suffixes are ordered lexicographically, with
+   * larger codes sorting first.
+   */
+  static int[] suffixArray(int[] intCodes) {
+    final int n = intCodes.length;
+    if (n == 0) {
+      return new int[0];
+    }
 
-    // Add LCPs
-    context.allTokens.lcp = calculateLcp(intCodes, suffixOrder);
+    // Remap the codes to a dense alphabet of positive integers so that the order is reversed,
+    // then append a unique, smallest sentinel (0) required by SA-IS.
+    int max = Integer.MIN_VALUE;
+    int min = Integer.MAX_VALUE;
+    for (int code : intCodes) {
+      max = Math.max(max, code);
+      min = Math.min(min, code);
+    }
+
+    final int[] text = new int[n + 1];
+    for (int i = 0; i < n; i++) {
+      text[i] = max - intCodes[i] + 1;
+    }
+    final int alphabetSize = Math.addExact(Math.subtractExact(max, min), 2);
+
+    final int[] sa = new int[n + 1];
+    sais(text, sa, n + 1, alphabetSize);
+
+    // The sentinel's suffix is always first, drop it.
+    return Arrays.copyOfRange(sa, 1, n + 1);
   }
 
-  /** Calculates the Longest Common Prefix values for each token. */
-  private int[] calculateLcp(int[] intCodes, int[] suffixOrder) {
-    // LCP array
-    int[] lcpArray = new int[intCodes.length];
+  /**
+   * Calculates the Longest Common Prefix values for each token, <code>lcp[i]</code> is the length
+   * of the common prefix of suffixes <code>suffixOrder[i - 1]</code> and <code>suffixOrder[i]
+   * </code>.
+   */
+  static int[] calculateLcp(int[] intCodes, int[] suffixOrder) {
+    final int n = intCodes.length;
+    final int[] lcpArray = new int[n];
+    final int[] rank = new int[n];
+    for (int i = 0; i < n; i++) {
+      rank[suffixOrder[i]] = i;
+    }
 
-    lcpArray[0] = 0;
-    for (int i = 1; i < lcpArray.length - 1; i++) {
-      int lcp = 0;
-      while (intCodes[suffixOrder[i - 1] + lcp] == intCodes[suffixOrder[i] + lcp]) {
-        lcp++;
+    // Kasai et al.: the lcp of the suffix starting at i + 1 is at least the lcp
+    // of the suffix starting at i minus one.
+    int h = 0;
+    for (int i = 0; i < n; i++) {
+      final int r = rank[i];
+      if (r > 0) {
+        final int j = suffixOrder[r - 1];
+        while (i + h < n && j + h < n && intCodes[i + h] == intCodes[j + h]) {
+          h++;
+        }
+        lcpArray[r] = h;
+        if (h > 0) {
+          h--;
+        }
+      } else {
+        h = 0;
       }
-      lcpArray[i] = lcp;
     }
 
     return lcpArray;
   }
+
+  /**
+   * Builds the suffix array <code>sa</code> of <code>text[0..n)</code>. The text must consist of
+   * integers in the range <code>[0, alphabetSize)</code> and end with a unique <code>0</code>.
+   */
+  private static void sais(int[] text, int[] sa, int n, int alphabetSize) {
+    if (n == 1) {
+      sa[0] = 0;
+      return;
+    }
+
+    // Classify suffixes: S-type (true) or L-type (false).
+    final boolean[] sType = new boolean[n];
+    sType[n - 1] = true;
+    for (int i = n - 2; i >= 0; i--) {
+      sType[i] = text[i] < text[i + 1] || (text[i] == text[i + 1] && sType[i + 1]);
+    }
+
+    // Stage 1: sort LMS substrings by inducing from unsorted LMS positions.
+    final int[] buckets = new int[alphabetSize];
+    Arrays.fill(sa, 0, n, -1);
+    bucketEnds(text, n, buckets);
+    for (int i = 1; i < n; i++) {
+      if (isLms(sType, i)) {
+        sa[--buckets[text[i]]] = i;
+      }
+    }
+    induce(text, sa, sType, n, buckets);
+
+    // Move sorted LMS substrings to the front of sa.
+    int lmsCount = 0;
+    for (int i = 0; i < n; i++) {
+      if (isLms(sType, sa[i])) {
+        sa[lmsCount++] = sa[i];
+      }
+    }
+
+    // Name LMS substrings; names are stored at sa[lmsCount + position / 2], which
+    // is unique because no two LMS positions are adjacent.
+    Arrays.fill(sa, lmsCount, n, -1);
+    int names = 0;
+    int previous = -1;
+    for (int i = 0; i < lmsCount; i++) {
+      final int position = sa[i];
+      boolean different = previous < 0;
+      for (int d = 0; !different; d++) {
+        if (text[position + d] != text[previous + d]
+            || sType[position + d] != sType[previous + d]) {
+          different = true;
+        } else if (d > 0 && (isLms(sType, position + d) || isLms(sType, previous + d))) {
+          break;
+        }
+      }
+      if (different) {
+        names++;
+        previous = position;
+      }
+      sa[lmsCount + position / 2] = names - 1;
+    }
+
+    // Stage 2: sort the reduced string of LMS substring names, recursively if names are not
+    // unique.
+    final int[] reduced = new int[lmsCount];
+    for (int i = n - 1, j = lmsCount - 1; i >= lmsCount; i--) {
+      if (sa[i] >= 0) {
+        reduced[j--] = sa[i];
+      }
+    }
+
+    final int[] reducedSa = new int[lmsCount];
+    if (names < lmsCount) {
+      sais(reduced, reducedSa, lmsCount, names);
+    } else {
+      for (int i = 0; i < lmsCount; i++) {
+        reducedSa[reduced[i]] = i;
+      }
+    }
+
+    // Stage 3: induce the final order from sorted LMS suffixes.
+    for (int i = 1, j = 0; i < n; i++) {
+      if (isLms(sType, i)) {
+        reduced[j++] = i;
+      }
+    }
+
+    Arrays.fill(sa, 0, n, -1);
+    bucketEnds(text, n, buckets);
+    for (int i = lmsCount - 1; i >= 0; i--) {
+      final int position = reduced[reducedSa[i]];
+      sa[--buckets[text[position]]] = position;
+    }
+    induce(text, sa, sType, n, buckets);
+  }
+
+  private static boolean isLms(boolean[] sType, int i) {
+    return i > 0 && sType[i] && !sType[i - 1];
+  }
+
+  /** Induces the order of L-type suffixes, then S-type suffixes, from LMS suffixes in sa. */
+  private static void induce(int[] text, int[] sa, boolean[] sType, int n, int[] buckets) {
+    bucketStarts(text, n, buckets);
+    for (int i = 0; i < n; i++) {
+      final int j = sa[i] - 1;
+      if (j >= 0 && !sType[j]) {
+        sa[buckets[text[j]]++] = j;
+      }
+    }
+
+    bucketEnds(text, n, buckets);
+    for (int i = n - 1; i >= 0; i--) {
+      final int j = sa[i] - 1;
+      if (j >= 0 && sType[j]) {
+        sa[--buckets[text[j]]] = j;
+      }
+    }
+  }
+
+  private static void bucketStarts(int[] text, int n, int[] buckets) {
+    countSymbols(text, n, buckets);
+    for (int c = 0, sum = 0; c < buckets.length; c++) {
+      final int count = buckets[c];
+      buckets[c] = sum;
+      sum += count;
+    }
+  }
+
+  private static void bucketEnds(int[] text, int n, int[] buckets) {
+    countSymbols(text, n, buckets);
+    for (int c = 0, sum = 0; c < buckets.length; c++) {
+      sum += buckets[c];
+      buckets[c] = sum;
+    }
+  }
+
+  private static void countSymbols(int[] text, int n, int[] buckets) {
+    Arrays.fill(buckets, 0);
+    for (int i = 0; i < n; i++) {
+      buckets[text[i]]++;
+    }
+  }
 }
@@ -11,10 +11,13 @@
 package org.carrot2.text.vsm;
 
 import com.carrotsearch.hppc.BitSet;
+import com.carrotsearch.hppc.DoubleArrayList;
+import com.carrotsearch.hppc.IntArrayList;
 import com.carrotsearch.hppc.IntIntHashMap;
 import com.carrotsearch.hppc.sorting.IndirectSort;
 import java.util.Arrays;
 import java.util.function.IntToDoubleFunction;
+import org.carrot2.attrs.AttrBoolean;
 import org.carrot2.attrs.AttrComposite;
 import org.carrot2.attrs.AttrDouble;
 import org.carrot2.attrs.AttrInteger;
@@ -23,6 +26,7 @@ import org.carrot2.attrs.AttrStringArray;
 import org.carrot2.language.TokenTypeUtils;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
 import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.RowCompressedDoubleMatrix2D;
 import org.carrot2.math.mahout.matrix.impl.SparseDoubleMatrix2D;
 import org.carrot2.math.matrix.MatrixUtils;
 import org.carrot2.text.preprocessing.PreprocessingContext;
@@ -85,6 +89,17 @@ public class TermDocumentMatrixBuilder extends AttrComposite {
               .max(1)
               .defaultValue(0.9));
 
+  /**
+   * Stores the term-document and term-phrase matrices in a compressed sparse row format. Typical
+   * term-document matrices contain only a few percent of non-zero elements, so sparse storage
+   * reduces memory use and speeds up matrix factorization for larger inputs. Dense storage may be
+   * faster for very small inputs.
+   */
+  public final AttrBoolean sparseMatrices =
+      attributes.register(
+          "sparseMatrices",
+          AttrBoolean.builder().label("Use sparse term-document matrices").defaultValue(false));
+
   /** Method for calculating weights of words in the term-document matrices. */
   public TermWeighting termWeighting;
 
@@ -158,22 +173,29 @@ public class TermDocumentMatrixBuilder extends AttrComposite {
 
     // Calculate the number of terms we can include to fulfill the max matrix size
     final int maxRows = maximumMatrixSize.get() / documentCount;
-    final DoubleMatrix2D tdMatrix =
-        new DenseDoubleMatrix2D(Math.min(maxRows, stemsToInclude.length), documentCount);
+    final int rows = Math.min(maxRows, stemsToInclude.length);
+    final DoubleMatrix2D tdMatrix;
+    if (sparseMatrices.get()) {
+      tdMatrix =
+          buildCompressedTermDocumentMatrix(
+              preprocessingContext, stemsToInclude, stemWeightOrder, rows, fieldIndexToBoost);
+    } else {
+      tdMatrix = new DenseDoubleMatrix2D(rows, documentCount);
 
-    for (int i = 0; i < stemWeightOrder.length && i < maxRows; i++) {
-      final int stemIndex = stemsToInclude[stemWeightOrder[i]];
-      final int[] tfByDocument = stemsTfByDocument[stemIndex];
-      final int df = tfByDocument.length / 2;
-      final byte fieldIndices = stemsFieldIndices[stemIndex];
+      for (int i = 0; i < stemWeightOrder.length && i < maxRows; i++) {
+        final int stemIndex = stemsToInclude[stemWeightOrder[i]];
+        final int[] tfByDocument = stemsTfByDocument[stemIndex];
+        final int df = tfByDocument.length / 2;
+        final byte fieldIndices = stemsFieldIndices[stemIndex];
 
-      double fieldWeight = fieldIndexToBoost.applyAsDouble(fieldIndices);
-      for (int j = 0; j < df; j++) {
-        double weight =
-            termWeighting.calculateTermWeight(tfByDocument[j * 2 + 1], df, documentCount);
+        double fieldWeight = fieldIndexToBoost.applyAsDouble(fieldIndices);
+        for (int j = 0; j < df; j++) {
+          double weight =
+              termWeighting.calculateTermWeight(tfByDocument[j * 2 + 1], df, documentCount);
 
-        weight *= fieldWeight;
-        tdMatrix.set(i, tfByDocument[j * 2], weight);
+          weight *= fieldWeight;
+          tdMatrix.set(i, tfByDocument[j * 2], weight);
+        }
       }
     }
 
@@ -188,6 +210,57 @@ public class TermDocumentMatrixBuilder extends AttrComposite {
     vsmContext.stemToRowIndex = stemToRowIndex;
   }
 
+  /**
+   * Builds the term-document matrix in the compressed sparse row format. The weights are the same
+   * as in the dense matrix, zero weights are not stored.
+   */
+  private RowCompressedDoubleMatrix2D buildCompressedTermDocumentMatrix(
+      PreprocessingContext preprocessingContext,
+      int[] stemsToInclude,
+      int[] stemWeightOrder,
+      int rows,
+      IntToDoubleFunction fieldIndexToBoost) {
+    final int documentCount = preprocessingContext.documentCount;
+    final int[][] stemsTfByDocument = preprocessingContext.allStems.tfByDocument;
+    final byte[] stemsFieldIndices = preprocessingContext.allStems.fieldIndices;
+
+    final int[] rowPointers = new int[rows + 1];
+    for (int i = 0; i < rows; i++) {
+      rowPointers[i + 1] =
+          rowPointers[i] + stemsTfByDocument[stemsToInclude[stemWeightOrder[i]]].length / 2;
+    }
+
+    final int[] columnIndexes = new int[rowPointers[rows]];
+    final double[] values = new double[rowPointers[rows]];
+    int size = 0;
+    for (int i = 0; i < rows; i++) {
+      final int stemIndex = stemsToInclude[stemWeightOrder[i]];
+      final int[] tfByDocument = stemsTfByDocument[stemIndex];
+      final int df = tfByDocument.length / 2;
+      final double fieldWeight = fieldIndexToBoost.applyAsDouble(stemsFieldIndices[stemIndex]);
+
+      // Document indices are not necessarily sorted, but the compressed row must be.
+      final int[] order =
+          IndirectSort.mergesort(
+              0, df, (a, b) -> Integer.compare(tfByDocument[a * 2], tfByDocument[b * 2]));
+
+      rowPointers[i] = size;
+      for (int j : order) {
+        final double weight =
+            termWeighting.calculateTermWeight(tfByDocument[j * 2 + 1], df, documentCount)
+                * fieldWeight;
+        if (weight != 0) {
+          columnIndexes[size] = tfByDocument[j * 2];
+          values[size] = weight;
+          size++;
+        }
+      }
+    }
+    rowPointers[rows] = size;
+
+    return new RowCompressedDoubleMatrix2D(rows, documentCount, rowPointers, columnIndexes, values);
+  }
+
   public static final IntIntHashMap contantOrderIntIntHashMap(int seed) {
     return new IntIntHashMap() {
       {
@@ -214,14 +287,86 @@ public class TermDocumentMatrixBuilder extends AttrComposite {
         phraseFeatureIndices[featureIndex] = labelsFeatureIndex[featureIndex + firstPhraseIndex];
       }
 
-      final DoubleMatrix2D phraseMatrix =
-          TermDocumentMatrixBuilder.buildAlignedMatrix(
-              context, phraseFeatureIndices, termWeighting);
-      MatrixUtils.normalizeColumnL2(phraseMatrix, null);
-      context.termPhraseMatrix = phraseMatrix.viewDice();
+      if (sparseMatrices.get()) {
+        context.termPhraseMatrix =
+            buildCompressedPhraseMatrix(context, phraseFeatureIndices, termWeighting);
+      } else {
+        final DoubleMatrix2D phraseMatrix =
+            TermDocumentMatrixBuilder.buildAlignedMatrix(
+                context, phraseFeatureIndices, termWeighting);
+        MatrixUtils.normalizeColumnL2(phraseMatrix, null);
+        context.termPhraseMatrix = phraseMatrix.viewDice();
+      }
     }
   }
 
+  /**
+   * Builds the phrase-term matrix (the transpose of {@link #buildAlignedMatrix}) directly in the
+   * compressed sparse row format, with rows normalized to unit L2 length.
+   */
+  static DoubleMatrix2D buildCompressedPhraseMatrix(
+      VectorSpaceModelContext vsmContext, int[] featureIndex, TermWeighting termWeighting) {
+    final IntIntHashMap stemToRowIndex = vsmContext.stemToRowIndex;
+    final PreprocessingContext preprocessingContext = vsmContext.preprocessingContext;
+    final int[] wordsStemIndex = preprocessingContext.allWords.stemIndex;
+    final int[] stemsTf = preprocessingContext.allStems.tf;
+    final int[][] stemsTfByDocument = preprocessingContext.allStems.tfByDocument;
+    final int[][] phrasesWordIndices = preprocessingContext.allPhrases.wordIndices;
+    final int documentCount = preprocessingContext.documentCount;
+    final int wordCount = wordsStemIndex.length;
+
+    final int[] rowPointers = new int[featureIndex.length + 1];
+    final IntArrayList columnIndexes = new IntArrayList();
+    final DoubleArrayList values = new DoubleArrayList();
+    for (int i = 0; i < featureIndex.length; i++) {
+      final int feature = featureIndex[i];
+      final int[] wordIndices;
+      if (feature < wordCount) {
+        wordIndices = new int[] {feature};
+      } else {
+        wordIndices = phrasesWordIndices[feature - wordCount];
+      }
+
+      // Collect unique term-space columns of the phrase's stems, in column order.
+      final int start = columnIndexes.size();
+      for (int wordIndex = 0; wordIndex < wordIndices.length; wordIndex++) {
+        final int stemIndex = wordsStemIndex[wordIndices[wordIndex]];
+        final int index = stemToRowIndex.indexOf(stemIndex);
+        if (stemToRowIndex.indexExists(index)) {
+          final int column = stemToRowIndex.indexGet(index);
+          final int at =
+              Arrays.binarySearch(columnIndexes.buffer, start, columnIndexes.size(), column);
+          if (at < 0) {
+            final double weight =
+                termWeighting.calculateTermWeight(
+                    stemsTf[stemIndex], stemsTfByDocument[stemIndex].length / 2, documentCount);
+            columnIndexes.insert(-(at + 1), column);
+            values.insert(-(at + 1), weight);
+          }
+        }
+      }
+
+      double norm = 0;
+      for (int j = start; j < values.size(); j++) {
+        norm += values.get(j) * values.get(j);
+      }
+      if (norm != 0) {
+        norm = Math.sqrt(norm);
+        for (int j = start; j < values.size(); j++) {
+          values.set(j, values.get(j) / norm);
+        }
+      }
+      rowPointers[i + 1] = columnIndexes.size();
+    }
+
+    return new RowCompressedDoubleMatrix2D(
+        featureIndex.length,
+        stemToRowIndex.size(),
+        rowPointers,
+        columnIndexes.toArray(),
+        values.toArray());
+  }
+
   /**
    * Computes stem indices of words that are one-word label candidates or are non-stop words from
    * phrase label candidates.
@@ -10,15 +10,19 @@
  */
 package org.carrot2.text.vsm;
 
+import org.carrot2.attrs.AttrBoolean;
 import org.carrot2.attrs.AttrComposite;
 import org.carrot2.attrs.AttrObject;
+import org.carrot2.clustering.CancellationToken;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
 import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DenseFloatMatrix2D;
 import org.carrot2.math.matrix.IterativeMatrixFactorizationFactory;
 import org.carrot2.math.matrix.MatrixFactorization;
 import org.carrot2.math.matrix.MatrixFactorizationFactory;
 import org.carrot2.math.matrix.MatrixUtils;
 import org.carrot2.math.matrix.NonnegativeMatrixFactorizationEDFactory;
+import org.carrot2.math.matrix.RandomizedSingularValueDecompositionFactory;
 
 /** Reduces the dimensionality of a term-document matrix using a matrix factorization algorithm. */
 public class TermDocumentMatrixReducer extends AttrComposite {
@@ -37,6 +41,17 @@ public class TermDocumentMatrixReducer extends AttrComposite {
             .defaultValue(NonnegativeMatrixFactorizationEDFactory::new));
   }
 
+  /**
+   * Factorizes a single precision copy of the term-document matrix. Single precision halves the
+   * memory (and memory bandwidth) used by the term-document matrix and the intermediate matrices of
+   * nonnegative and k-means factorizations, cluster labels are rarely affected. Applies to dense
+   * term-document matrices only, sparse matrices are factorized in double precision.
+   */
+  public final AttrBoolean singlePrecision =
+      attributes.register(
+          "singlePrecision",
+          AttrBoolean.builder().label("Single precision factorization").defaultValue(false));
+
   /** Performs the reduction. */
   public void reduce(ReducedVectorSpaceModelContext context, int dimensions) {
     final VectorSpaceModelContext vsmContext = context.vsmContext;
@@ -47,18 +62,55 @@ public class TermDocumentMatrixReducer extends AttrComposite {
       return;
     }
 
+    // The factory is configured for this input only, restore its settings once done so that
+    // subsequent clustering runs with the same instance are not affected.
     if (factorizationFactory instanceof IterativeMatrixFactorizationFactory) {
-      ((IterativeMatrixFactorizationFactory) factorizationFactory)
-          .estimateIterationsNumber(dimensions, vsmContext.termDocumentMatrix);
+      final IterativeMatrixFactorizationFactory factory =
+          (IterativeMatrixFactorizationFactory) factorizationFactory;
+      final int k = factory.getK();
+      final int maxIterations = factory.getMaxIterations();
+      try {
+        factory.estimateIterationsNumber(dimensions, vsmContext.termDocumentMatrix);
+        factorize(context, dimensions);
+      } finally {
+        factory.setK(k);
+        factory.setMaxIterations(maxIterations);
+      }
+    } else if (factorizationFactory instanceof RandomizedSingularValueDecompositionFactory) {
+      final RandomizedSingularValueDecompositionFactory factory =
+          (RandomizedSingularValueDecompositionFactory) factorizationFactory;
+      final int k = factory.getK();
+      try {
+        // Only compute as many singular vectors as we need.
+        factory.setK(dimensions);
+        factorize(context, dimensions);
+      } finally {
+        factory.setK(k);
+      }
+    } else {
+      factorize(context, dimensions);
     }
+  }
 
+  private void factorize(ReducedVectorSpaceModelContext context, int dimensions) {
+    final VectorSpaceModelContext vsmContext = context.vsmContext;
     MatrixUtils.normalizeColumnL2(vsmContext.termDocumentMatrix, null);
+    DoubleMatrix2D termDocumentMatrix = vsmContext.termDocumentMatrix;
+    if (singlePrecision.get() && termDocumentMatrix instanceof DenseDoubleMatrix2D) {
+      termDocumentMatrix = new DenseFloatMatrix2D(termDocumentMatrix);
+    }
+
+    final CancellationToken cancellation = vsmContext.preprocessingContext.cancellation;
     final MatrixFactorization factorization =
-        factorizationFactory.factorize(vsmContext.termDocumentMatrix);
-    context.baseMatrix = factorization.getU();
-    context.coefficientMatrix = factorization.getV();
+        factorizationFactory.factorize(termDocumentMatrix, cancellation::stopIterating);
     context.baseMatrix = trim(factorizationFactory, factorization.getU(), dimensions);
     context.coefficientMatrix = trim(factorizationFactory, factorization.getV(), dimensions);
+
+    // Subsequent stages compute in double precision.
+    if (termDocumentMatrix != vsmContext.termDocumentMatrix) {
+      context.baseMatrix = toDoublePrecision(context.baseMatrix);
+      context.coefficientMatrix = toDoublePrecision(context.coefficientMatrix);
+    }
   }
 
   private final DoubleMatrix2D trim(
@@ -70,4 +122,8 @@ public class TermDocumentMatrixReducer extends AttrComposite {
       return matrix;
     }
   }
+
+  private static DoubleMatrix2D toDoublePrecision(DoubleMatrix2D matrix) {
+    return new DenseDoubleMatrix2D(matrix.rows(), matrix.columns()).assign(matrix);
+  }
 }
@@ -23,22 +23,7 @@ public class CharArrayComparators {
           return -1;
         }
 
-        final int l1 = a1.length;
-        final int l2 = a2.length;
-        final int n = l1 < l2 ? l1 : l2;
-
-        for (int i = 0, max = n; i < max; ) {
-          int chr1 = Character.codePointAt(a1, i);
-          int chr2 = Character.codePointAt(a2, i);
-          int cp = Integer.compare(Character.toLowerCase(chr1), Character.toLowerCase(chr2));
-          if (cp != 0) {
-            return cp;
-          }
-
-          i += Character.charCount(chr1);
-        }
-
-        return l1 - l2;
+        return compareIgnoreCase(a1, 0, a1.length, a2, 0, a2.length);
       };
 
   /** A case-sensitive lexicographic comparator. */
@@ -90,54 +75,81 @@ public class CharArrayComparators {
           return -1;
         }
 
-        final int l1 = a1.length;
-        final int l2 = a2.length;
-
-        // Not crucial, but speeds things up
-        if (l1 != l2) {
-          return l1 - l2;
-        }
+        return compareNormalizing(a1, 0, a1.length, a2, 0, a2.length);
+      };
 
-        /*
-         * The condition below is perfectly ok here. It is
-         * used to calculate word occurrence statistics, which is essentially a "count
-         * unique strings by sorting" problem. Therefore, the semantic meaning of the
-         * order produced by this comparator doesn't matter at all as long as it: a)
-         * groups equal (case sensitive) strings together, b) groups equal (case
-         * insensitive) strings into one block, c) null string is always greater than
-         * a non-null string. See tests for this comparator for examples.
-         *
-         * In comparison-based sorting algorithms crucial is the speed of comparisons,
-         * so declaring that e.g. shorter strings are always smaller (regardless of
-         * contents) saves us calls to Character.toLowerCase(), which are very costly.
-         * For CaseNormalizer it doesn't matter at all, and makes sorting way faster.
-         */
-
-        // Compare whole strings in case insensitive mode first
-        for (int i = 0, max = l1; i < max; ) {
-          int chr1 = Character.codePointAt(a1, i);
-          int chr2 = Character.codePointAt(a2, i);
-          int cp = Integer.compare(Character.toLowerCase(chr1), Character.toLowerCase(chr2));
-          if (cp != 0) {
-            return cp;
-          }
+  /**
+   * Compares character ranges the way {@link #CASE_INSENSITIVE_CHAR_ARRAY_COMPARATOR} compares
+   * arrays.
+   */
+  public static int compareIgnoreCase(
+      char[] a1, int start1, int length1, char[] a2, int start2, int length2) {
+    final int n = length1 < length2 ? length1 : length2;
 
-          i += Character.charCount(chr1);
-        }
+    for (int i = 0, max = n; i < max; ) {
+      int chr1 = Character.codePointAt(a1, start1 + i, start1 + length1);
+      int chr2 = Character.codePointAt(a2, start2 + i, start2 + length2);
+      int cp = Integer.compare(Character.toLowerCase(chr1), Character.toLowerCase(chr2));
+      if (cp != 0) {
+        return cp;
+      }
 
-        // Only if strings are case-insensitive equal, go case sensitive
-        for (int i = 0; i < l1; i++) {
-          char a1I = a1[i];
-          char a2I = a2[i];
+      i += Character.charCount(chr1);
+    }
 
-          if (a1I != a2I) {
-            // Put lower case first
-            return a2I - a1I;
-          }
-        }
+    return length1 - length2;
+  }
 
-        return 0;
-      };
+  /**
+   * Compares character ranges the way {@link #NORMALIZING_CHAR_ARRAY_COMPARATOR} compares arrays.
+   */
+  public static int compareNormalizing(
+      char[] a1, int start1, int length1, char[] a2, int start2, int length2) {
+    // Not crucial, but speeds things up
+    if (length1 != length2) {
+      return length1 - length2;
+    }
+
+    /*
+     * The condition below is perfectly ok here. It is
+     * used to calculate word occurrence statistics, which is essentially a "count
+     * unique strings by sorting" problem. Therefore, the semantic meaning of the
+     * order produced by this comparator doesn't matter at all as long as it: a)
+     * groups equal (case sensitive) strings together, b) groups equal (case
+     * insensitive) strings into one block, c) null string is always greater than
+     * a non-null string. See tests for this comparator for examples.
+     *
+     * In comparison-based sorting algorithms crucial is the speed of comparisons,
+     * so declaring that e.g. shorter strings are always smaller (regardless of
+     * contents) saves us calls to Character.toLowerCase(), which are very costly.
+     * For CaseNormalizer it doesn't matter at all, and makes sorting way faster.
+     */
+
+    // Compare whole strings in case insensitive mode first
+    for (int i = 0, max = length1; i < max; ) {
+      int chr1 = Character.codePointAt(a1, start1 + i, start1 + length1);
+      int chr2 = Character.codePointAt(a2, start2 + i, start2 + length2);
+      int cp = Integer.compare(Character.toLowerCase(chr1), Character.toLowerCase(chr2));
+      if (cp != 0) {
+        return cp;
+      }
+
+      i += Character.charCount(chr1);
+    }
+
+    // Only if strings are case-insensitive equal, go case sensitive
+    for (int i = 0; i < length1; i++) {
+      char a1I = a1[start1 + i];
+      char a2I = a2[start2 + i];
+
+      if (a1I != a2I) {
+        // Put lower case first
+        return a2I - a1I;
+      }
+    }
+
+    return 0;
+  }
 
   /** No instantiation. */
   private CharArrayComparators() {}
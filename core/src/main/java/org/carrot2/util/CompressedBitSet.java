@@ -0,0 +1,680 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.util;
+
+import java.util.Arrays;
+
+/**
+ * A compressed set of non-negative integers (typically document indices), organized similarly to
+ * Roaring bitmaps. The space of integers is split into chunks of 65536 values and only non-empty
+ * chunks are stored: sparse chunks (up to {@value #ARRAY_CONTAINER_MAX} elements) as a sorted array
+ * of 16-bit values, dense chunks as a plain bitmap. The memory used by the set is therefore
+ * proportional to the number of its elements rather than to the largest element, which matters when
+ * thousands of such sets (one per label or cluster) are created for a large number of documents.
+ *
+ * <p>This class is not thread-safe.
+ */
+public final class CompressedBitSet implements Cloneable {
+  /** Maximum number of elements in a chunk stored as an array. */
+  static final int ARRAY_CONTAINER_MAX = 4096;
+
+  private static final int CHUNK_SIZE = 1 << 16;
+  private static final char[] EMPTY_KEYS = new char[0];
+  private static final Container[] EMPTY_CONTAINERS = new Container[0];
+
+  /** Sorted high 16 bits of elements in each chunk. */
+  private char[] keys = EMPTY_KEYS;
+
+  /** Low 16 bits of elements in each chunk, parallel to {@link #keys}. */
+  private Container[] containers = EMPTY_CONTAINERS;
+
+  /** The number of non-empty chunks. */
+  private int size;
+
+  public CompressedBitSet() {}
+
+  /**
+   * @return Returns a new set with the given elements.
+   */
+  public static CompressedBitSet of(int... elements) {
+    final CompressedBitSet set = new CompressedBitSet();
+    for (int element : elements) {
+      set.set(element);
+    }
+    return set;
+  }
+
+  /** Adds an element to this set. */
+  public void set(int index) {
+    if (index < 0) {
+      throw new IndexOutOfBoundsException("Negative index: " + index);
+    }
+
+    final char key = (char) (index >>> 16);
+    final char value = (char) index;
+    int i = indexOf(key);
+    if (i >= 0) {
+      containers[i] = containers[i].add(value);
+    } else {
+      i = -i - 1;
+      ensureCapacity(size + 1);
+      System.arraycopy(keys, i, keys, i + 1, size - i);
+      System.arraycopy(containers, i, containers, i + 1, size - i);
+      keys[i] = key;
+      containers[i] = new ArrayContainer().add(value);
+      size++;
+    }
+  }
+
+  /**
+   * @return Returns <code>true</code> if this set contains the given element.
+   */
+  public boolean get(int index) {
+    if (index < 0) {
+      return false;
+    }
+    final int i = indexOf((char) (index >>> 16));
+    return i >= 0 && containers[i].contains((char) index);
+  }
+
+  /**
+   * @return Returns the number of elements in this set.
+   */
+  public long cardinality() {
+    long cardinality = 0;
+    for (int i = 0; i < size; i++) {
+      cardinality += containers[i].cardinality();
+    }
+    return cardinality;
+  }
+
+  /**
+   * @return Returns <code>true</code> if this set has no elements.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @return Returns the largest element plus one, or zero if the set is empty.
+   */
+  public long length() {
+    if (size == 0) {
+      return 0;
+    }
+    return ((long) keys[size - 1] << 16 | containers[size - 1].last()) + 1;
+  }
+
+  /** Removes all elements from this set. */
+  public void clear() {
+    Arrays.fill(containers, 0, size, null);
+    size = 0;
+  }
+
+  /** Adds all elements of another set to this set. */
+  public void or(CompressedBitSet other) {
+    // Count the chunks of the union.
+    int union = size;
+    for (int i = 0, j = 0; j < other.size; ) {
+      if (i < size && keys[i] < other.keys[j]) {
+        i++;
+      } else if (i < size && keys[i] == other.keys[j]) {
+        i++;
+        j++;
+      } else {
+        union++;
+        j++;
+      }
+    }
+
+    // Merge from the end, in place.
+    ensureCapacity(union);
+    int i = size - 1;
+    int j = other.size - 1;
+    for (int k = union - 1; j >= 0; k--) {
+      if (i >= 0 && keys[i] > other.keys[j]) {
+        keys[k] = keys[i];
+        containers[k] = containers[i--];
+      } else if (i >= 0 && keys[i] == other.keys[j]) {
+        keys[k] = keys[i];
+        containers[k] = containers[i--].or(other.containers[j--]);
+      } else {
+        keys[k] = other.keys[j];
+        containers[k] = other.containers[j--].copy();
+      }
+    }
+    size = union;
+  }
+
+  /** Retains only the elements of this set that are also in another set. */
+  public void and(CompressedBitSet other) {
+    int k = 0;
+    for (int i = 0, j = 0; i < size && j < other.size; ) {
+      if (keys[i] < other.keys[j]) {
+        i++;
+      } else if (keys[i] > other.keys[j]) {
+        j++;
+      } else {
+        final Container c = containers[i++].and(other.containers[j++]);
+        if (c.cardinality() > 0) {
+          keys[k] = keys[i - 1];
+          containers[k++] = c;
+        }
+      }
+    }
+    Arrays.fill(containers, k, size, null);
+    size = k;
+  }
+
+  /**
+   * @return Returns the number of elements in the intersection of two sets, without computing the
+   *     intersection itself.
+   */
+  public static long intersectionCount(CompressedBitSet a, CompressedBitSet b) {
+    long count = 0;
+    for (int i = 0, j = 0; i < a.size && j < b.size; ) {
+      if (a.keys[i] < b.keys[j]) {
+        i++;
+      } else if (a.keys[i] > b.keys[j]) {
+        j++;
+      } else {
+        count += a.containers[i++].andCardinality(b.containers[j++]);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @return Returns the smallest element greater than or equal to <code>from</code> or -1 if there
+   *     is no such element.
+   */
+  public int nextSetBit(int from) {
+    if (from < 0) {
+      from = 0;
+    }
+    int i = indexOf((char) (from >>> 16));
+    int low = from & (CHUNK_SIZE - 1);
+    if (i < 0) {
+      i = -i - 1;
+      low = 0;
+    }
+    for (; i < size; i++, low = 0) {
+      final int value = containers[i].nextValue(low);
+      if (value >= 0) {
+        return keys[i] << 16 | value;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @return Returns an iterator over the elements of this set, in increasing order. The set must
+   *     not be modified during iteration.
+   */
+  public SetBitIterator iterator() {
+    return new SetBitIterator();
+  }
+
+  /** An iterator over elements of the set. */
+  public final class SetBitIterator {
+    private int chunk;
+    private int low;
+
+    private SetBitIterator() {}
+
+    /**
+     * @return Returns the next element of the set or -1 if there are no more elements.
+     */
+    public int nextSetBit() {
+      for (; chunk < size; chunk++, low = 0) {
+        final int value = containers[chunk].nextValue(low);
+        if (value >= 0) {
+          low = value + 1;
+          return keys[chunk] << 16 | value;
+        }
+      }
+      return -1;
+    }
+  }
+
+  /**
+   * @return Returns the elements of this set, in increasing order.
+   */
+  public int[] toArray() {
+    final int[] result = new int[(int) cardinality()];
+    final SetBitIterator i = iterator();
+    for (int k = 0, v = i.nextSetBit(); v >= 0; v = i.nextSetBit()) {
+      result[k++] = v;
+    }
+    return result;
+  }
+
+  /**
+   * @return Returns an estimate of the memory used by this set, in bytes.
+   */
+  public long ramBytesUsed() {
+    long bytes = 16 + 16 + (long) keys.length * Character.BYTES + 16 + containers.length * 4L;
+    for (int i = 0; i < size; i++) {
+      bytes += containers[i].ramBytesUsed();
+    }
+    return bytes;
+  }
+
+  @Override
+  public CompressedBitSet clone() {
+    try {
+      final CompressedBitSet clone = (CompressedBitSet) super.clone();
+      clone.keys = Arrays.copyOf(keys, size);
+      clone.containers = new Container[size];
+      for (int i = 0; i < size; i++) {
+        clone.containers[i] = containers[i].copy();
+      }
+      return clone;
+    } catch (CloneNotSupportedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof CompressedBitSet)) {
+      return false;
+    }
+
+    final CompressedBitSet other = (CompressedBitSet) o;
+    if (size != other.size || cardinality() != other.cardinality()) {
+      return false;
+    }
+    final SetBitIterator i = iterator();
+    final SetBitIterator j = other.iterator();
+    for (int v = i.nextSetBit(); v >= 0; v = i.nextSetBit()) {
+      if (v != j.nextSetBit()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 0;
+    final SetBitIterator i = iterator();
+    for (int v = i.nextSetBit(); v >= 0; v = i.nextSetBit()) {
+      hash = 31 * hash + v;
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("{");
+    final SetBitIterator i = iterator();
+    for (int v = i.nextSetBit(); v >= 0; v = i.nextSetBit()) {
+      if (sb.length() > 1) {
+        sb.append(", ");
+      }
+      sb.append(v);
+    }
+    return sb.append("}").toString();
+  }
+
+  private int indexOf(char key) {
+    // Most sets have just one chunk.
+    if (size > 0 && keys[size - 1] == key) {
+      return size - 1;
+    }
+    return Arrays.binarySearch(keys, 0, size, key);
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (keys.length < capacity) {
+      final int newCapacity = Math.max(capacity, keys.length * 2);
+      keys = Arrays.copyOf(keys, newCapacity);
+      containers = Arrays.copyOf(containers, newCapacity);
+    }
+  }
+
+  /**
+   * The low 16 bits of elements in a single chunk. Operations may modify the container and return
+   * it, or return a container of a different type.
+   */
+  private abstract static class Container {
+    abstract int cardinality();
+
+    abstract boolean contains(char value);
+
+    abstract Container add(char value);
+
+    abstract Container or(Container other);
+
+    abstract Container and(Container other);
+
+    abstract int andCardinality(Container other);
+
+    /**
+     * @return Returns the smallest value greater than or equal to <code>from</code>, or -1.
+     */
+    abstract int nextValue(int from);
+
+    abstract int last();
+
+    abstract long ramBytesUsed();
+
+    abstract Container copy();
+  }
+
+  /** A sparse chunk: a sorted array of values. */
+  private static final class ArrayContainer extends Container {
+    private char[] values;
+    private int cardinality;
+
+    ArrayContainer() {
+      this(new char[4], 0);
+    }
+
+    ArrayContainer(char[] values, int cardinality) {
+      this.values = values;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    boolean contains(char value) {
+      return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+    }
+
+    @Override
+    Container add(char value) {
+      // Appending in increasing order is the most common case.
+      int i =
+          cardinality == 0 || values[cardinality - 1] < value
+              ? -cardinality - 1
+              : Arrays.binarySearch(values, 0, cardinality, value);
+      if (i >= 0) {
+        return this;
+      }
+      if (cardinality == ARRAY_CONTAINER_MAX) {
+        return toBitmap().add(value);
+      }
+
+      i = -i - 1;
+      if (cardinality == values.length) {
+        values = Arrays.copyOf(values, Math.min(ARRAY_CONTAINER_MAX, values.length * 2));
+      }
+      System.arraycopy(values, i, values, i + 1, cardinality - i);
+      values[i] = value;
+      cardinality++;
+      return this;
+    }
+
+    @Override
+    Container or(Container other) {
+      if (other instanceof BitmapContainer) {
+        return other.copy().or(this);
+      }
+
+      final ArrayContainer o = (ArrayContainer) other;
+      final char[] merged = new char[cardinality + o.cardinality];
+      int k = 0;
+      int i = 0;
+      int j = 0;
+      while (i < cardinality && j < o.cardinality) {
+        final char a = values[i];
+        final char b = o.values[j];
+        if (a < b) {
+          merged[k++] = a;
+          i++;
+        } else if (a > b) {
+          merged[k++] = b;
+          j++;
+        } else {
+          merged[k++] = a;
+          i++;
+          j++;
+        }
+      }
+      System.arraycopy(values, i, merged, k, cardinality - i);
+      k += cardinality - i;
+      System.arraycopy(o.values, j, merged, k, o.cardinality - j);
+      k += o.cardinality - j;
+
+      final ArrayContainer result = new ArrayContainer(merged, k);
+      return k > ARRAY_CONTAINER_MAX ? result.toBitmap() : result;
+    }
+
+    @Override
+    Container and(Container other) {
+      int k = 0;
+      if (other instanceof BitmapContainer) {
+        for (int i = 0; i < cardinality; i++) {
+          if (other.contains(values[i])) {
+            values[k++] = values[i];
+          }
+        }
+      } else {
+        final ArrayContainer o = (ArrayContainer) other;
+        for (int i = 0, j = 0; i < cardinality && j < o.cardinality; ) {
+          final char a = values[i];
+          final char b = o.values[j];
+          if (a < b) {
+            i++;
+          } else if (a > b) {
+            j++;
+          } else {
+            values[k++] = a;
+            i++;
+            j++;
+          }
+        }
+      }
+      cardinality = k;
+      return this;
+    }
+
+    @Override
+    int andCardinality(Container other) {
+      int count = 0;
+      if (other instanceof BitmapContainer) {
+        for (int i = 0; i < cardinality; i++) {
+          if (other.contains(values[i])) {
+            count++;
+          }
+        }
+      } else {
+        final ArrayContainer o = (ArrayContainer) other;
+        for (int i = 0, j = 0; i < cardinality && j < o.cardinality; ) {
+          final char a = values[i];
+          final char b = o.values[j];
+          if (a < b) {
+            i++;
+          } else if (a > b) {
+            j++;
+          } else {
+            count++;
+            i++;
+            j++;
+          }
+        }
+      }
+      return count;
+    }
+
+    @Override
+    int nextValue(int from) {
+      if (from >= CHUNK_SIZE) {
+        return -1;
+      }
+      int i = Arrays.binarySearch(values, 0, cardinality, (char) from);
+      if (i < 0) {
+        i = -i - 1;
+      }
+      return i < cardinality ? values[i] : -1;
+    }
+
+    @Override
+    int last() {
+      return values[cardinality - 1];
+    }
+
+    @Override
+    long ramBytesUsed() {
+      return 16 + 4 + 16 + values.length * (long) Character.BYTES;
+    }
+
+    @Override
+    ArrayContainer copy() {
+      return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 1)), cardinality);
+    }
+
+    private BitmapContainer toBitmap() {
+      final BitmapContainer bitmap = new BitmapContainer();
+      for (int i = 0; i < cardinality; i++) {
+        bitmap.add(values[i]);
+      }
+      return bitmap;
+    }
+  }
+
+  /** A dense chunk: a bitmap of all values. */
+  private static final class BitmapContainer extends Container {
+    private final long[] words;
+    private int cardinality;
+
+    BitmapContainer() {
+      this(new long[CHUNK_SIZE / Long.SIZE], 0);
+    }
+
+    private BitmapContainer(long[] words, int cardinality) {
+      this.words = words;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    boolean contains(char value) {
+      return (words[value >>> 6] & (1L << value)) != 0;
+    }
+
+    @Override
+    Container add(char value) {
+      final long word = words[value >>> 6];
+      final long updated = word | (1L << value);
+      if (word != updated) {
+        words[value >>> 6] = updated;
+        cardinality++;
+      }
+      return this;
+    }
+
+    @Override
+    Container or(Container other) {
+      if (other instanceof ArrayContainer) {
+        final ArrayContainer o = (ArrayContainer) other;
+        for (int i = 0; i < o.cardinality; i++) {
+          add(o.values[i]);
+        }
+      } else {
+        final long[] o = ((BitmapContainer) other).words;
+        int cardinality = 0;
+        for (int i = 0; i < words.length; i++) {
+          words[i] |= o[i];
+          cardinality += Long.bitCount(words[i]);
+        }
+        this.cardinality = cardinality;
+      }
+      return this;
+    }
+
+    @Override
+    Container and(Container other) {
+      if (other instanceof ArrayContainer) {
+        return other.copy().and(this);
+      }
+
+      final long[] o = ((BitmapContainer) other).words;
+      int cardinality = 0;
+      for (int i = 0; i < words.length; i++) {
+        words[i] &= o[i];
+        cardinality += Long.bitCount(words[i]);
+      }
+      this.cardinality = cardinality;
+      return cardinality > ARRAY_CONTAINER_MAX ? this : toArray();
+    }
+
+    @Override
+    int andCardinality(Container other) {
+      if (other instanceof ArrayContainer) {
+        return other.andCardinality(this);
+      }
+
+      final long[] o = ((BitmapContainer) other).words;
+      int count = 0;
+      for (int i = 0; i < words.length; i++) {
+        count += Long.bitCount(words[i] & o[i]);
+      }
+      return count;
+    }
+
+    @Override
+    int nextValue(int from) {
+      if (from >= CHUNK_SIZE) {
+        return -1;
+      }
+      int i = from >>> 6;
+      long word = words[i] & (-1L << from);
+      while (word == 0) {
+        if (++i == words.length) {
+          return -1;
+        }
+        word = words[i];
+      }
+      return i * Long.SIZE + Long.numberOfTrailingZeros(word);
+    }
+
+    @Override
+    int last() {
+      for (int i = words.length - 1; ; i--) {
+        if (words[i] != 0) {
+          return i * Long.SIZE + Long.SIZE - 1 - Long.numberOfLeadingZeros(words[i]);
+        }
+      }
+    }
+
+    @Override
+    long ramBytesUsed() {
+      return 16 + 4 + 16 + words.length * (long) Long.BYTES;
+    }
+
+    @Override
+    BitmapContainer copy() {
+      return new BitmapContainer(words.clone(), cardinality);
+    }
+
+    private ArrayContainer toArray() {
+      final char[] values = new char[Math.max(cardinality, 1)];
+      for (int k = 0, v = nextValue(0); v >= 0; v = nextValue(v + 1)) {
+        values[k++] = (char) v;
+      }
+      return new ArrayContainer(values, cardinality);
+    }
+  }
+}
@@ -138,6 +138,36 @@ public class ExecutorServiceUtils {
     }
   }
 
+  /**
+   * Runs all tasks using the provided executor and waits for their completion.
+   *
+   * @return Returns the results of tasks, in the order of tasks.
+   * @throws RuntimeException if any of the tasks failed or the calling thread was interrupted.
+   *     Unchecked exceptions thrown by the tasks are rethrown unwrapped.
+   */
+  public static <T> List<T> invokeAll(
+      ExecutorService executor, Collection<? extends Callable<T>> tasks) {
+    try {
+      List<T> results = new ArrayList<>(tasks.size());
+      for (Future<T> future : executor.invokeAll(tasks)) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new RuntimeException(cause);
+    }
+  }
+
   /**
    * @return Return an executor service with a fixed thread pool of <code>maxConcurrentThreads
    *     </code> threads and context class loader initialized to <code>clazz</code>'s context class
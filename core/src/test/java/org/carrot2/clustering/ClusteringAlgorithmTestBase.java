@@ -14,6 +14,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.carrotsearch.randomizedtesting.RandomizedTest;
 import com.carrotsearch.randomizedtesting.annotations.ThreadLeakLingering;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
@@ -170,6 +171,104 @@ public abstract class ClusteringAlgorithmTestBase<E extends ClusteringAlgorithm
     }
   }
 
+  @Test
+  public void testStageListener() {
+    Map<String, Long> stages = new LinkedHashMap<>();
+    Map<String, Long> statistics = new LinkedHashMap<>();
+    StageListener listener =
+        new StageListener() {
+          @Override
+          public void stageCompleted(String stage, long elapsedNanos) {
+            assertThat(elapsedNanos).isNotNegative();
+            assertThat(stages.put(stage, elapsedNanos)).as("Duplicate stage: " + stage).isNull();
+          }
+
+          @Override
+          public void statistic(String name, long value) {
+            assertThat(value).isNotNegative();
+            statistics.put(name, value);
+          }
+        };
+
+    LanguageComponents english = CachedLangComponents.loadCached("English");
+    List<Cluster<Document>> clusters =
+        algorithm().cluster(SampleDocumentData.DOCUMENTS_DATA_MINING.stream(), english, listener);
+
+    assertThat(stages).containsKeys("tokenization", "stemming");
+    assertThat(statistics)
+        .containsEntry("documents", (long) SampleDocumentData.DOCUMENTS_DATA_MINING.size());
+    assertThat(clusters)
+        .containsExactlyElementsOf(
+            algorithm().cluster(SampleDocumentData.DOCUMENTS_DATA_MINING.stream(), english));
+  }
+
+  @Test
+  public void testCancelledBeforeClustering() {
+    CancellationToken cancellation = CancellationToken.create();
+    cancellation.cancel();
+
+    Assertions.assertThatThrownBy(
+            () ->
+                algorithm()
+                    .cluster(
+                        SampleDocumentData.DOCUMENTS_DATA_MINING.stream(),
+                        CachedLangComponents.loadCached("English"),
+                        StageListener.NONE,
+                        cancellation))
+        .isInstanceOf(ClusteringCancelledException.class);
+  }
+
+  @Test
+  public void testCancelledDuringClustering() {
+    CancellationToken cancellation = CancellationToken.create();
+    String cancelAfter = randomFrom(Arrays.asList("tokenization", "stemming"));
+    StageListener listener =
+        new StageListener() {
+          @Override
+          public void stageCompleted(String stage, long elapsedNanos) {
+            if (stage.equals(cancelAfter)) {
+              cancellation.cancel();
+            }
+          }
+        };
+
+    Assertions.assertThatThrownBy(
+            () ->
+                algorithm()
+                    .cluster(
+                        SampleDocumentData.DOCUMENTS_DATA_MINING.stream(),
+                        CachedLangComponents.loadCached("English"),
+                        listener,
+                        cancellation))
+        .isInstanceOf(ClusteringCancelledException.class);
+  }
+
+  @Test
+  public void testDeadlineExceeded() {
+    Assertions.assertThatThrownBy(
+            () ->
+                algorithm()
+                    .cluster(
+                        SampleDocumentData.DOCUMENTS_DATA_MINING.stream(),
+                        CachedLangComponents.loadCached("English"),
+                        StageListener.NONE,
+                        CancellationToken.withTimeout(Duration.ZERO, false)))
+        .isInstanceOf(ClusteringCancelledException.class);
+  }
+
+  @Test
+  public void testBestEffortDeadlineExceeded() {
+    List<Cluster<Document>> clusters =
+        algorithm()
+            .cluster(
+                SampleDocumentData.DOCUMENTS_DATA_MINING.stream(),
+                CachedLangComponents.loadCached("English"),
+                StageListener.NONE,
+                CancellationToken.withTimeout(Duration.ZERO, true));
+
+    assertThat(clusters).isNotEmpty();
+  }
+
   @Test
   public void testAttrGetAndSet() {
     AcceptingVisitor algorithm = algorithm();
@@ -106,7 +106,7 @@ public class ClusterMergerTest extends LingoProcessingComponentTestBase {
       final String description = "clusterDocuments[" + i + "]";
       if (expectedDocumentIndices[i] != null) {
         Assertions.assertThat(lingoContext.clusterDocuments[i]).as(description).isNotNull();
-        Assertions.assertThat(lingoContext.clusterDocuments[i].asIntLookupContainer().toArray())
+        Assertions.assertThat(lingoContext.clusterDocuments[i].toArray())
             .as(description)
             .containsOnly(expectedDocumentIndices[i]);
       } else {
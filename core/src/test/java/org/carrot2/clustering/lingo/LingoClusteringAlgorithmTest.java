@@ -12,6 +12,7 @@ package org.carrot2.clustering.lingo;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import org.assertj.core.api.Assertions;
 import org.carrot2.AwaitsFix;
@@ -26,6 +27,12 @@ import org.carrot2.clustering.TestDocument;
 import org.carrot2.language.DefaultDictionaryImpl;
 import org.carrot2.language.TestsLanguageComponentsFactoryVariant1;
 import org.carrot2.math.matrix.KMeansMatrixFactorizationFactory;
+import org.carrot2.math.matrix.LocalNonnegativeMatrixFactorizationFactory;
+import org.carrot2.math.matrix.MatrixFactorizationFactory;
+import org.carrot2.math.matrix.NonnegativeMatrixFactorizationEDFactory;
+import org.carrot2.math.matrix.NonnegativeMatrixFactorizationKLFactory;
+import org.carrot2.math.matrix.PartialSingularValueDecompositionFactory;
+import org.carrot2.math.matrix.RandomizedSingularValueDecompositionFactory;
 import org.junit.Test;
 
 public class LingoClusteringAlgorithmTest
@@ -63,6 +70,96 @@ public class LingoClusteringAlgorithmTest
     Assertions.assertThat(clusters).isEmpty();
   }
 
+  @Test
+  public void testRandomizedSvdFactorization() {
+    LingoClusteringAlgorithm algorithm = algorithm();
+    algorithm.matrixReducer.factorizationFactory =
+        new RandomizedSingularValueDecompositionFactory();
+
+    List<Cluster<Document>> clusters =
+        algorithm.cluster(
+            SampleDocumentData.DOCUMENTS_DATA_MINING.stream(),
+            CachedLangComponents.loadCached("English"));
+
+    Assertions.assertThat(clusters).isNotEmpty();
+  }
+
+  @Test
+  public void testSparseMatricesProduceSameClusters() {
+    LingoClusteringAlgorithm dense = algorithm();
+    LingoClusteringAlgorithm sparse = algorithm();
+    sparse.matrixBuilder.sparseMatrices.set(true);
+
+    for (List<Document> documents :
+        Arrays.asList(
+            SampleDocumentData.DOCUMENTS_DATA_MINING, SampleDocumentData.DOCUMENTS_DAWID)) {
+      List<Cluster<Document>> expected =
+          dense.cluster(documents.stream(), CachedLangComponents.loadCached("English"));
+      List<Cluster<Document>> actual =
+          sparse.cluster(documents.stream(), CachedLangComponents.loadCached("English"));
+
+      Assertions.assertThat(actual).isNotEmpty();
+      Assertions.assertThat(actual).hasSameSizeAs(expected);
+      for (int i = 0; i < expected.size(); i++) {
+        Assertions.assertThat(actual.get(i).getLabels()).isEqualTo(expected.get(i).getLabels());
+        Assertions.assertThat(actual.get(i).getDocuments())
+            .isEqualTo(expected.get(i).getDocuments());
+      }
+    }
+  }
+
+  @Test
+  public void testSinglePrecisionProducesSameLabels() {
+    for (Supplier<MatrixFactorizationFactory> factory :
+        Arrays.<Supplier<MatrixFactorizationFactory>>asList(
+            NonnegativeMatrixFactorizationEDFactory::new,
+            NonnegativeMatrixFactorizationKLFactory::new,
+            LocalNonnegativeMatrixFactorizationFactory::new,
+            KMeansMatrixFactorizationFactory::new,
+            PartialSingularValueDecompositionFactory::new,
+            RandomizedSingularValueDecompositionFactory::new)) {
+      LingoClusteringAlgorithm doublePrecision = algorithm();
+      doublePrecision.matrixReducer.factorizationFactory = factory.get();
+      LingoClusteringAlgorithm singlePrecision = algorithm();
+      singlePrecision.matrixReducer.factorizationFactory = factory.get();
+      singlePrecision.matrixReducer.singlePrecision.set(true);
+
+      for (List<Document> documents :
+          Arrays.asList(
+              SampleDocumentData.DOCUMENTS_DATA_MINING, SampleDocumentData.DOCUMENTS_DAWID)) {
+        List<Cluster<Document>> expected =
+            doublePrecision.cluster(documents.stream(), CachedLangComponents.loadCached("English"));
+        List<Cluster<Document>> actual =
+            singlePrecision.cluster(documents.stream(), CachedLangComponents.loadCached("English"));
+
+        Assertions.assertThat(actual).isNotEmpty();
+        Assertions.assertThat(actual).hasSameSizeAs(expected);
+        for (int i = 0; i < expected.size(); i++) {
+          Assertions.assertThat(actual.get(i).getLabels())
+              .as("%s", doublePrecision.matrixReducer.factorizationFactory.getClass())
+              .isEqualTo(expected.get(i).getLabels());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testReusedInstanceProducesSameClusters() {
+    // The number of factorization iterations is estimated for the data mining input only.
+    List<Document> estimated = SampleDocumentData.DOCUMENTS_DATA_MINING;
+    List<Document> notEstimated = SampleDocumentData.DOCUMENTS_DAWID.subList(0, 20);
+
+    LingoClusteringAlgorithm reused = algorithm();
+    reused.cluster(estimated.stream(), CachedLangComponents.loadCached("English"));
+    List<Cluster<Document>> actual =
+        reused.cluster(notEstimated.stream(), CachedLangComponents.loadCached("English"));
+    List<Cluster<Document>> expected =
+        algorithm().cluster(notEstimated.stream(), CachedLangComponents.loadCached("English"));
+
+    Assertions.assertThat(actual).isNotEmpty();
+    Assertions.assertThat(actual).containsExactlyElementsOf(expected);
+  }
+
   // https://github.com/carrot2/carrot2/issues/159
   @Test
   public void testKMeansMatrixFactorizationFactoryBug() {
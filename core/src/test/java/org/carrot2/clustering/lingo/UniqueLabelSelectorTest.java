@@ -0,0 +1,134 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.clustering.lingo;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.assertj.core.api.Assertions;
+import org.carrot2.TestBase;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
+import org.junit.Test;
+
+/**
+ * Checks that {@link UniqueLabelSelector} selects the same labels as the reference implementation
+ * (repeated full scans of both matrices for the maximum entry).
+ */
+public class UniqueLabelSelectorTest extends TestBase {
+  @Test
+  public void testEmpty() {
+    Assertions.assertThat(select(new DenseDoubleMatrix2D(0, 3), null)).isEmpty();
+    Assertions.assertThat(select(new DenseDoubleMatrix2D(5, 0), new DenseDoubleMatrix2D(2, 0)))
+        .isEmpty();
+  }
+
+  @Test
+  public void testStemsPreferredOnTies() {
+    DoubleMatrix2D stemCos = new DenseDoubleMatrix2D(new double[][] {{0.5, 0.2}, {0.1, 0.3}});
+    DoubleMatrix2D phraseCos = new DenseDoubleMatrix2D(new double[][] {{0.1, 0.5}});
+    Assertions.assertThat(select(stemCos, phraseCos))
+        .containsExactly("stem 0, column 0: 0.5", "phrase 0, column 1: 0.5");
+  }
+
+  @Test
+  public void testEquivalentToFullScan() {
+    for (int round = 0; round < 500; round++) {
+      int columns = randomIntBetween(0, 20);
+      DoubleMatrix2D stemCos = randomMatrix(randomIntBetween(0, 30), columns);
+      DoubleMatrix2D phraseCos =
+          randomBoolean() ? null : randomMatrix(randomIntBetween(0, 50), columns);
+
+      List<String> expected =
+          selectByScan(stemCos.copy(), phraseCos != null ? phraseCos.copy() : null);
+      Assertions.assertThat(select(stemCos, phraseCos))
+          .as("Stems: %s, phrases: %s", stemCos, phraseCos)
+          .containsExactlyElementsOf(expected);
+    }
+  }
+
+  private static DoubleMatrix2D randomMatrix(int rows, int columns) {
+    // Few distinct values, so that there are plenty of ties.
+    double[] values = {-0.5, 0, 0, 0.1, 0.25, 0.5, 1, Double.NaN};
+    int distinct = randomIntBetween(1, values.length);
+    DoubleMatrix2D matrix = new DenseDoubleMatrix2D(rows, columns);
+    for (int r = 0; r < rows; r++) {
+      for (int c = 0; c < columns; c++) {
+        matrix.setQuick(r, c, values[randomIntBetween(0, distinct - 1)]);
+      }
+    }
+    return matrix;
+  }
+
+  private static List<String> select(DoubleMatrix2D stemCos, DoubleMatrix2D phraseCos) {
+    List<String> selected = new ArrayList<>();
+    UniqueLabelSelector selector = new UniqueLabelSelector(stemCos, phraseCos);
+    for (int label = 0; label < stemCos.columns() && selector.next(); label++) {
+      selected.add(label(selector.phrase, selector.row, selector.column, selector.score));
+    }
+    return selected;
+  }
+
+  /** The original selection, scanning both matrices for each label. Modifies the matrices. */
+  private static List<String> selectByScan(DoubleMatrix2D stemCos, DoubleMatrix2D phraseCos) {
+    List<String> selected = new ArrayList<>();
+    for (int label = 0; label < stemCos.columns(); label++) {
+      final int[] stemMax = max(stemCos);
+      final int[] phraseMax = max(phraseCos);
+
+      if (stemMax == null && phraseMax == null) {
+        break;
+      }
+
+      double stemScore = stemMax != null ? stemCos.getQuick(stemMax[0], stemMax[1]) : -1;
+      double phraseScore = phraseMax != null ? phraseCos.getQuick(phraseMax[0], phraseMax[1]) : -1;
+
+      if (phraseScore > stemScore) {
+        phraseCos.viewRow(phraseMax[0]).assign(0);
+        phraseCos.viewColumn(phraseMax[1]).assign(0);
+        stemCos.viewColumn(phraseMax[1]).assign(0);
+        selected.add(label(true, phraseMax[0], phraseMax[1], phraseScore));
+      } else {
+        stemCos.viewRow(stemMax[0]).assign(0);
+        stemCos.viewColumn(stemMax[1]).assign(0);
+        if (phraseCos != null) {
+          phraseCos.viewColumn(stemMax[1]).assign(0);
+        }
+        selected.add(label(false, stemMax[0], stemMax[1], stemScore));
+      }
+    }
+    return selected;
+  }
+
+  private static int[] max(DoubleMatrix2D matrix) {
+    if (matrix == null) {
+      return null;
+    }
+
+    int row = 0;
+    int column = 0;
+    double value = 0;
+    for (int r = 0; r < matrix.rows(); r++) {
+      for (int c = 0; c < matrix.columns(); c++) {
+        final double currentValue = matrix.getQuick(r, c);
+        if (currentValue > value) {
+          value = currentValue;
+          row = r;
+          column = c;
+        }
+      }
+    }
+    return value > 0 ? new int[] {row, column} : null;
+  }
+
+  private static String label(boolean phrase, int row, int column, double score) {
+    return (phrase ? "phrase " : "stem ") + row + ", column " + column + ": " + score;
+  }
+}
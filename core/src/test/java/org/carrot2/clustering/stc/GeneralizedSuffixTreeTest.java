@@ -12,13 +12,13 @@ package org.carrot2.clustering.stc;
 
 import static org.junit.Assert.*;
 
-import com.carrotsearch.hppc.BitSet;
 import com.carrotsearch.hppc.IntStack;
 import java.util.ArrayList;
 import java.util.Collections;
 import org.carrot2.TestBase;
 import org.carrot2.clustering.stc.GeneralizedSuffixTree.SequenceBuilder;
 import org.carrot2.text.suffixtree.SuffixTree;
+import org.carrot2.util.CompressedBitSet;
 import org.junit.Test;
 
 /**
@@ -33,7 +33,7 @@ public class GeneralizedSuffixTreeTest extends TestBase {
       super(sb, 2);
     }
 
-    protected void visit(int state, int card, BitSet bset, IntStack edges) {
+    protected void visit(int state, int card, CompressedBitSet bset, IntStack edges) {
       final StringBuilder b = new StringBuilder();
       for (int i = 0; i < edges.size(); i += 2)
         for (int j = edges.get(i); j <= edges.get(i + 1); j++) b.append(sb.input.get(j) + " ");
@@ -92,6 +92,32 @@ public class GeneralizedSuffixTreeTest extends TestBase {
         gst.nodes.toArray());
   }
 
+  @Test
+  public void testSubtreeWalkEquivalentToFullWalk() {
+    final SequenceBuilder sb = new SequenceBuilder();
+    for (int doc = randomIntBetween(1, 20); doc > 0; doc--) {
+      for (int phrase = randomIntBetween(1, 5); phrase > 0; phrase--) {
+        int[] terms = new int[randomIntBetween(1, 10)];
+        for (int i = 0; i < terms.length; i++) {
+          terms[i] = randomIntBetween(0, 10);
+        }
+        sb.addPhrase(terms);
+      }
+      sb.endDocument();
+    }
+    sb.buildSuffixTree();
+
+    TestGST full = new TestGST(sb);
+    full.visit();
+
+    TestGST subtrees = new TestGST(sb);
+    for (int edge : GeneralizedSuffixTree.Visitor.subtreeEdges(sb)) {
+      subtrees.visitSubtree(edge);
+    }
+
+    assertEquals(full.nodes, subtrees.nodes);
+  }
+
   /** */
   @Test
   public void testEmptyGST() {
@@ -10,9 +10,16 @@
  */
 package org.carrot2.clustering.stc;
 
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.randomizedtesting.annotations.ThreadLeakLingering;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -22,6 +29,8 @@ import org.assertj.core.api.Assertions;
 import org.carrot2.clustering.*;
 import org.carrot2.clustering.Cluster;
 import org.carrot2.clustering.Document;
+import org.carrot2.language.LanguageComponents;
+import org.carrot2.util.CompressedBitSet;
 import org.junit.Test;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
@@ -80,6 +89,53 @@ public class STCClusteringAlgorithmTest
         .isEqualTo(1);
   }
 
+  @Test
+  public void testOverlappingPairsEquivalentToPairwiseComparison() {
+    for (int round = 0; round < 20; round++) {
+      List<ClusterCandidate> candidates =
+          randomCandidates(randomIntBetween(0, 200), randomIntBetween(1, 300), 20);
+      float m = randomFrom(new Float[] {0f, 0.3f, 0.5f, 0.6f, 0.9f, 1f});
+
+      Assertions.assertThat(STCClusteringAlgorithm.overlappingPairs(candidates, m).toArray())
+          .containsExactly(pairwiseOverlappingPairs(candidates, m).toArray());
+    }
+  }
+
+  /** Random base cluster candidates, with up to the given number of documents in each. */
+  static List<ClusterCandidate> randomCandidates(
+      int count, int documentCount, int maxClusterDocuments) {
+    List<ClusterCandidate> candidates = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      CompressedBitSet documents = new CompressedBitSet();
+      for (int j = randomIntBetween(1, maxClusterDocuments); j > 0; j--) {
+        documents.set(randomIntBetween(0, documentCount - 1));
+      }
+      candidates.add(
+          new ClusterCandidate(new int[0], documents, (int) documents.cardinality(), 1f));
+    }
+    return candidates;
+  }
+
+  /** The reference implementation, comparing all pairs of clusters. */
+  static IntArrayList pairwiseOverlappingPairs(List<ClusterCandidate> baseClusters, float m) {
+    IntArrayList pairs = new IntArrayList();
+    for (int i = 0; i < baseClusters.size(); i++) {
+      for (int j = i + 1; j < baseClusters.size(); j++) {
+        final ClusterCandidate c1 = baseClusters.get(i);
+        final ClusterCandidate c2 = baseClusters.get(j);
+
+        final float a = c1.cardinality;
+        final float b = c2.cardinality;
+        final float c = CompressedBitSet.intersectionCount(c1.documents, c2.documents);
+
+        if (c / a > m && c / b > m) {
+          pairs.add(i, j);
+        }
+      }
+    }
+    return pairs;
+  }
+
   @Test
   public void testMergingBaseClustersWithStemEquivalentPhrases() {
     List<String> titles =
@@ -140,6 +196,56 @@ public class STCClusteringAlgorithmTest
     Assertions.assertThat(collect.contains("Guns") && collect.contains("Gun")).isFalse();
   }
 
+  @Test
+  public void testParallelBaseClusterDiscovery() {
+    List<Document> documents = new ArrayList<>(SampleDocumentData.DOCUMENTS_DATA_MINING);
+    documents.addAll(SampleDocumentData.DOCUMENTS_DAWID);
+
+    STCClusteringAlgorithm sequential = algorithm();
+    STCClusteringAlgorithm parallel = algorithm();
+    parallel.threads.set(randomIntBetween(2, 8));
+
+    LanguageComponents english = CachedLangComponents.loadCached("English");
+    Assertions.assertThat(parallel.cluster(documents.stream(), english))
+        .containsExactlyElementsOf(sequential.cluster(documents.stream(), english));
+  }
+
+  /** A single algorithm instance must be usable from many threads concurrently. */
+  @Test
+  @ThreadLeakLingering(linger = 5000)
+  public void testSharedInstanceConcurrently() throws Exception {
+    STCClusteringAlgorithm algorithm = algorithm();
+    algorithm.threads.set(randomIntBetween(1, 4));
+
+    LanguageComponents english = CachedLangComponents.loadCached("English");
+    List<List<Document>> dataSets =
+        Arrays.asList(SampleDocumentData.DOCUMENTS_DATA_MINING, SampleDocumentData.DOCUMENTS_DAWID);
+    List<List<Cluster<Document>>> expected =
+        dataSets.stream()
+            .map(docs -> algorithm().cluster(docs.stream(), english))
+            .collect(Collectors.toList());
+
+    int numberOfThreads = randomIntBetween(2, 8);
+    ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+    try {
+      List<Callable<Void>> tasks = new ArrayList<>();
+      for (int i = 0; i < numberOfThreads * 5; i++) {
+        int dataSet = randomIntBetween(0, dataSets.size() - 1);
+        tasks.add(
+            () -> {
+              Assertions.assertThat(algorithm.cluster(dataSets.get(dataSet).stream(), english))
+                  .containsExactlyElementsOf(expected.get(dataSet));
+              return null;
+            });
+      }
+      for (Future<Void> future : executor.invokeAll(tasks)) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   @Override
   public void testResultsStableFromRandomShuffle() throws Exception {
     super.testResultsStableFromRandomShuffle();
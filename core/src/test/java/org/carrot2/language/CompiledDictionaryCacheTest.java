@@ -0,0 +1,166 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.language;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.PatternSyntaxException;
+import org.assertj.core.api.Assertions;
+import org.carrot2.TestBase;
+import org.junit.Test;
+
+/** Test cases for {@link CompiledDictionaryCache}. */
+public class CompiledDictionaryCacheTest extends TestBase {
+  @Test
+  public void testSameContentsCompiledOnce() {
+    CompiledDictionaryCache cache = new CompiledDictionaryCache(1024 * 1024);
+
+    for (int round = 0; round < 3; round++) {
+      LabelFilter labelFilter = cache.labelFilter(dictionary("word1", "^foo.+"));
+      Assertions.assertThat(labelFilter.test("word1")).isFalse();
+      Assertions.assertThat(labelFilter.test("foobar")).isFalse();
+      Assertions.assertThat(labelFilter.test("word2")).isTrue();
+
+      StopwordFilter stopwordFilter = cache.stopwordFilter(dictionary("word1", "^foo.+"));
+      Assertions.assertThat(stopwordFilter.test("word1")).isFalse();
+      Assertions.assertThat(stopwordFilter.test("word2")).isTrue();
+    }
+
+    Assertions.assertThat(cache.misses()).isEqualTo(1);
+    Assertions.assertThat(cache.hits()).isEqualTo(5);
+    Assertions.assertThat(cache.size()).isEqualTo(1);
+
+    // Entries are not interchangeable between attributes.
+    DefaultDictionaryImpl swapped = new DefaultDictionaryImpl();
+    swapped.regexp.set("word1");
+    swapped.exact.set("^foo.+");
+    cache.labelFilter(swapped);
+    Assertions.assertThat(cache.size()).isEqualTo(2);
+
+    cache.clear();
+    Assertions.assertThat(cache.size()).isZero();
+    Assertions.assertThat(cache.estimatedBytes()).isZero();
+  }
+
+  @Test
+  public void testBoundedMemory() {
+    long maxBytes = randomIntBetween(10_000, 100_000);
+    CompiledDictionaryCache cache = new CompiledDictionaryCache(maxBytes);
+    for (int i = 0; i < 500; i++) {
+      LabelFilter filter = cache.labelFilter(dictionary("word" + i, "^prefix" + i + ".*"));
+      Assertions.assertThat(filter.test("word" + i)).isFalse();
+      Assertions.assertThat(cache.estimatedBytes()).isBetween(1L, maxBytes);
+    }
+
+    // Too large to cache at all.
+    cache.clear();
+    LabelFilter filter = cache.labelFilter(dictionary("x".repeat((int) maxBytes), "y"));
+    Assertions.assertThat(filter.test("y")).isFalse();
+    Assertions.assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  public void testCompiledAutomataWeighed() {
+    CompiledDictionaryCache cache = new CompiledDictionaryCache(1024 * 1024);
+    String pattern = "^(?:[a-f][0-9]){1," + randomIntBetween(5, 20) + "}x$";
+    cache.labelFilter(dictionary("word", pattern));
+
+    // Automaton states and transitions weigh more than the pattern itself.
+    RegExpAutomaton automaton = RegExpAutomaton.compile(List.of(pattern), 10_000);
+    Assertions.assertThat(automaton.ramBytesUsed())
+        .isGreaterThan(automaton.stateCount() * 4L + pattern.length() * 2L);
+    Assertions.assertThat(cache.estimatedBytes()).isGreaterThan(automaton.ramBytesUsed());
+  }
+
+  @Test
+  public void testInvalidDictionaryNotCached() {
+    CompiledDictionaryCache cache = new CompiledDictionaryCache(1024 * 1024);
+    for (int round = 0; round < 2; round++) {
+      Assertions.assertThatThrownBy(() -> cache.labelFilter(dictionary("word", "(foo")))
+          .isInstanceOf(PatternSyntaxException.class);
+      Assertions.assertThat(cache.size()).isZero();
+    }
+  }
+
+  @Test
+  public void testSubclassesNotCached() {
+    CompiledDictionaryCache cache = new CompiledDictionaryCache(1024 * 1024);
+    DefaultDictionaryImpl subclass = new DefaultDictionaryImpl() {};
+    subclass.exact.set("word");
+    Assertions.assertThat(cache.labelFilter(subclass).test("word")).isFalse();
+    Assertions.assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  public void testConcurrentAccess() throws Exception {
+    CompiledDictionaryCache cache = new CompiledDictionaryCache(1024 * 1024);
+    ExecutorService executor = Executors.newFixedThreadPool(randomIntBetween(2, 8));
+    try {
+      List<Callable<Void>> tasks = new ArrayList<>();
+      for (int t = 0; t < 16; t++) {
+        tasks.add(
+            () -> {
+              for (int i = 0; i < 100; i++) {
+                int dictionary = randomIntBetween(0, 9);
+                LabelFilter filter =
+                    cache.labelFilter(dictionary("word" + dictionary, "^foo" + dictionary));
+                Assertions.assertThat(filter.test("word" + dictionary)).isFalse();
+                Assertions.assertThat(filter.test("foo" + dictionary)).isFalse();
+                Assertions.assertThat(filter.test("bar")).isTrue();
+              }
+              return null;
+            });
+      }
+      for (Future<Void> f : executor.invokeAll(tasks)) {
+        f.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    Assertions.assertThat(cache.misses()).isEqualTo(cache.size());
+    Assertions.assertThat(cache.hits() + cache.misses()).isEqualTo(16 * 100);
+  }
+
+  @Test
+  public void testEphemeralDictionariesUseCache() throws IOException {
+    CompiledDictionaryCache cache = new CompiledDictionaryCache(1024 * 1024);
+    LanguageComponents languageComponents =
+        LanguageComponents.loader()
+            .load()
+            .language("English")
+            .override(CompiledDictionaryCache.class, () -> cache);
+
+    for (int round = 0; round < 3; round++) {
+      EphemeralDictionaries dictionaries = new EphemeralDictionaries();
+      dictionaries.labelFilters.set(List.of(dictionary("label1", "^foo.+")));
+      dictionaries.wordFilters.set(List.of(dictionary("word1", "^bar.+")));
+
+      LanguageComponents overridden = dictionaries.override(languageComponents);
+      Assertions.assertThat(overridden.get(LabelFilter.class).test("foobar")).isFalse();
+      Assertions.assertThat(overridden.get(StopwordFilter.class).test("word1")).isFalse();
+    }
+
+    Assertions.assertThat(cache.misses()).isEqualTo(2);
+    Assertions.assertThat(cache.hits()).isEqualTo(4);
+  }
+
+  private static DefaultDictionaryImpl dictionary(String exact, String regexp) {
+    DefaultDictionaryImpl dictionary = new DefaultDictionaryImpl();
+    dictionary.exact.set(exact);
+    dictionary.regexp.set(regexp);
+    return dictionary;
+  }
+}
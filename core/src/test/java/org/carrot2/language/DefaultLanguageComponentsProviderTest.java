@@ -113,8 +113,11 @@ public class DefaultLanguageComponentsProviderTest extends TestBase {
     Assertions.assertThat(tokenizer.nextToken()).isEqualTo((short) Tokenizer.TT_EOF);
 
     final Stemmer stemmer = components.get(Stemmer.class);
+    final MutableCharArray stem = new MutableCharArray();
     for (String[] pair : stemmingData) {
       Assertions.assertThat(stemmer.stem(pair[0]).toString()).isEqualTo(pair[1]);
+      Assertions.assertThat(stemmer.stem(pair[0], stem)).isEqualTo(pair[1].length());
+      Assertions.assertThat(stem.toString()).isEqualTo(pair[1]);
     }
 
     StopwordFilter wordFilter = components.get(StopwordFilter.class);
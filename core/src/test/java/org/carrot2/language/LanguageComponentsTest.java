@@ -11,9 +11,16 @@
 package org.carrot2.language;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import org.assertj.core.api.Assertions;
 import org.carrot2.TestBase;
 import org.carrot2.clustering.CachedLangComponents;
+import org.carrot2.clustering.Document;
+import org.carrot2.clustering.SampleDocumentData;
+import org.carrot2.clustering.lingo.LingoClusteringAlgorithm;
 import org.junit.Test;
 
 public class LanguageComponentsTest extends TestBase {
@@ -58,4 +65,69 @@ public class LanguageComponentsTest extends TestBase {
     Assertions.assertThat(english.components()).contains(Runnable.class);
     english.get(Runnable.class).run();
   }
+
+  @Test
+  public void testPooledComponents() {
+    AtomicInteger created = new AtomicInteger();
+    LanguageComponents english = CachedLangComponents.loadCached("English");
+    LanguageComponents pooled =
+        english
+            .override(
+                Stemmer.class,
+                (Supplier<Stemmer> supplier) ->
+                    () -> {
+                      created.incrementAndGet();
+                      return supplier.get();
+                    })
+            .pooled(2, Stemmer.class);
+
+    // Non-pooled components are not affected.
+    Tokenizer tokenizer = pooled.acquire(Tokenizer.class);
+    pooled.release(Tokenizer.class, tokenizer);
+    Assertions.assertThat(pooled.acquire(Tokenizer.class)).isNotSameAs(tokenizer);
+
+    // Instances are reused, up to the maximum number of idle instances.
+    List<Stemmer> stemmers = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      stemmers.add(pooled.acquire(Stemmer.class));
+    }
+    Assertions.assertThat(created.get()).isEqualTo(3);
+    stemmers.forEach((stemmer) -> pooled.release(Stemmer.class, stemmer));
+    Assertions.assertThat(pooled.pool(Stemmer.class).idle()).isEqualTo(2);
+    Assertions.assertThat(stemmers).contains(pooled.acquire(Stemmer.class));
+    Assertions.assertThat(created.get()).isEqualTo(3);
+
+    // get() always returns a new instance.
+    Assertions.assertThat(stemmers).doesNotContain(pooled.get(Stemmer.class));
+    Assertions.assertThat(created.get()).isEqualTo(4);
+
+    // Overriding a component discards its pool, other pools are retained.
+    LanguageComponents overridden =
+        pooled.pooled(2, Tokenizer.class).override(Stemmer.class, () -> (word) -> null);
+    Assertions.assertThat(overridden.pool(Stemmer.class)).isNull();
+    Assertions.assertThat(overridden.pool(Tokenizer.class)).isNotNull();
+  }
+
+  @Test
+  public void testPooledComponentsReusedAcrossClusteringCalls() {
+    // With as many idle instances as threads, parallel shards do not create more instances
+    // once the pool is populated.
+    int threads = randomIntBetween(1, 4);
+    LanguageComponents pooled =
+        CachedLangComponents.loadCached("English").pooled(threads, Tokenizer.class, Stemmer.class);
+
+    List<Document> documents = SampleDocumentData.DOCUMENTS_DATA_MINING;
+    int calls = randomIntBetween(5, 10);
+    for (int i = 0; i < calls; i++) {
+      LingoClusteringAlgorithm algorithm = new LingoClusteringAlgorithm();
+      algorithm.preprocessing.threads.set(threads);
+      Assertions.assertThat(algorithm.cluster(documents.stream(), pooled)).isNotEmpty();
+    }
+
+    for (Class<?> clazz : List.of(Tokenizer.class, Stemmer.class)) {
+      ComponentPool<?> pool = pooled.pool(clazz);
+      Assertions.assertThat(pool.reused()).as(clazz.getSimpleName()).isPositive();
+      Assertions.assertThat(pool.created()).as(clazz.getSimpleName()).isBetween(1L, (long) threads);
+    }
+  }
 }
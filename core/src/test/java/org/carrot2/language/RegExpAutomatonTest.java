@@ -0,0 +1,211 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.language;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.assertj.core.api.Assertions;
+import org.carrot2.TestBase;
+import org.carrot2.util.MutableCharArray;
+import org.junit.Test;
+
+/** Test cases for {@link RegExpAutomaton}. */
+public class RegExpAutomatonTest extends TestBase {
+  private static final String ALPHABET = "abcABC01 -.éÉ";
+
+  @Test
+  public void testSupportedConstructs() {
+    for (String pattern :
+        List.of(
+            "foo",
+            "^foo.+",
+            "(?i)(^.*(page|part|copyright) \\d+.*)",
+            "(?i)(années?|deux|général(ement)?|accueil)",
+            "a{2,3}b{2}c{1,}?",
+            "[^a-z\\d_]+$",
+            "(?<name>a|b)(?:c)",
+            "(?i:a)b(?-i)c",
+            "\\Q.*\\E+",
+            "\\t\\x41\\x{42}\\u0043\\cA\\0101\\.")) {
+      Assertions.assertThat(RegExpAutomaton.isSupported(pattern)).as(pattern).isTrue();
+    }
+  }
+
+  @Test
+  public void testUnsupportedConstructs() {
+    for (String pattern :
+        List.of(
+            "(a)\\1",
+            "a(?=b)",
+            "a(?!b)",
+            "(?<=a)b",
+            "(?<!a)b",
+            "(?>ab)",
+            "a*+",
+            "\\bfoo\\b",
+            "\\Afoo\\z",
+            "\\p{L}+",
+            "[a-z&&[^b]]",
+            "[a[b]]",
+            "(?m)^foo$",
+            "(?u)foo",
+            "a{1000}",
+            "\\x{1F600}")) {
+      Pattern.compile(pattern);
+      Assertions.assertThat(RegExpAutomaton.isSupported(pattern)).as(pattern).isFalse();
+    }
+  }
+
+  @Test
+  public void testFind() {
+    RegExpAutomaton automaton =
+        RegExpAutomaton.compile(List.of("^foo.+", "(?i)bar$", "b[a-c]{2}z"), 1000);
+
+    Assertions.assertThat(automaton.find("foobar")).isTrue();
+    Assertions.assertThat(automaton.find("prefix-foo")).isFalse();
+    Assertions.assertThat(automaton.find("foo")).isFalse();
+    Assertions.assertThat(automaton.find("xBAR")).isTrue();
+    Assertions.assertThat(automaton.find("bars")).isFalse();
+    Assertions.assertThat(automaton.find("abcaz")).isTrue();
+    Assertions.assertThat(automaton.find(new MutableCharArray("xxbabz"))).isTrue();
+
+    // Inputs matched with the pattern fallback.
+    Assertions.assertThat(automaton.find("bar\n")).isTrue();
+    Assertions.assertThat(automaton.find("\nfoobar")).isTrue();
+    Assertions.assertThat(automaton.find("\nfoo-")).isFalse();
+  }
+
+  @Test
+  public void testStateLimit() {
+    // The classic exponential blow-up case for deterministic automata.
+    String pattern = "a.{12}$";
+    Assertions.assertThat(RegExpAutomaton.compile(List.of(pattern), 1000)).isNull();
+    Assertions.assertThat(RegExpAutomaton.compile(List.of(pattern), 100_000)).isNotNull();
+  }
+
+  @Test
+  public void testEquivalenceWithPattern() {
+    for (int round = 0; round < 200; round++) {
+      List<String> patterns = new ArrayList<>();
+      for (int i = randomIntBetween(1, 3); i > 0; i--) {
+        patterns.add(randomPattern(randomIntBetween(1, 3)));
+      }
+
+      StringBuilder union = new StringBuilder();
+      for (String p : patterns) {
+        Assertions.assertThat(RegExpAutomaton.isSupported(p)).as(p).isTrue();
+        union.append(union.length() == 0 ? "(" : ")|(").append(p);
+      }
+      Pattern expected = Pattern.compile(union.append(')').toString());
+      RegExpAutomaton automaton = RegExpAutomaton.compile(patterns, 100_000);
+
+      for (int i = 0; i < 100; i++) {
+        String input = randomInput();
+        Assertions.assertThat(automaton.find(input))
+            .as("Patterns: %s, input: '%s'", patterns, input)
+            .isEqualTo(expected.matcher(input).find());
+      }
+    }
+  }
+
+  @Test
+  public void testDictionaryWithMixedPatterns() {
+    DefaultDictionaryImpl dictionary = new DefaultDictionaryImpl();
+    dictionary.regexp.set("^foo.+", "(\\w+) \\1", "(?i)bar\\d");
+    LabelFilter filter = dictionary.compileLabelFilter();
+
+    Assertions.assertThat(filter.test("foobar")).isFalse();
+    Assertions.assertThat(filter.test("baz baz")).isFalse();
+    Assertions.assertThat(filter.test(new MutableCharArray("xBAR2"))).isFalse();
+    Assertions.assertThat(filter.test("prefix-foo baz")).isTrue();
+  }
+
+  private static String randomPattern(int depth) {
+    StringBuilder sb = new StringBuilder();
+    if (randomIntBetween(0, 10) == 0) {
+      sb.append(randomFrom(List.of("(?i)", "(?-i)")));
+    }
+    if (randomIntBetween(0, 5) == 0) {
+      sb.append('^');
+    }
+    for (int i = randomIntBetween(1, 4); i > 0; i--) {
+      sb.append(randomAtom(depth));
+      if (randomIntBetween(0, 3) == 0) {
+        sb.append(
+            randomFrom(List.of("*", "+", "?", "{2}", "{0,2}", "{1,}", "*?", "+?", "??", "{1,3}?")));
+      }
+    }
+    if (randomIntBetween(0, 5) == 0) {
+      sb.append('$');
+    }
+    return sb.toString();
+  }
+
+  private static String randomAtom(int depth) {
+    switch (randomIntBetween(0, depth > 0 ? 9 : 6)) {
+      case 0:
+        return ".";
+      case 1:
+        return randomFrom(List.of("\\d", "\\D", "\\w", "\\W", "\\s", "\\S", "\\.", "\\-"));
+      case 2:
+        {
+          StringBuilder sb = new StringBuilder("[");
+          if (randomBoolean()) {
+            sb.append('^');
+          }
+          for (int i = randomIntBetween(1, 3); i > 0; i--) {
+            switch (randomIntBetween(0, 2)) {
+              case 0:
+                sb.append(randomFrom(List.of("a-b", "B-c", "0-9", "A-Z", "à-ÿ")));
+                break;
+              case 1:
+                sb.append(randomFrom(List.of("\\w", "\\d", "\\s", "\\W")));
+                break;
+              default:
+                sb.append(randomFrom(List.of("a", "C", "\\-", ".", " ", "é")));
+                break;
+            }
+          }
+          return sb.append(']').toString();
+        }
+      case 3:
+        return "\\Q" + randomLiteral() + "\\E";
+      case 7:
+        return "(" + randomPattern(depth - 1) + ")";
+      case 8:
+        {
+          String group = randomFrom(List.of("(", "(?:", "(?i:", "(?-i:"));
+          return group + randomPattern(depth - 1) + "|" + randomPattern(depth - 1) + ")";
+        }
+      default:
+        return randomLiteral();
+    }
+  }
+
+  private static String randomLiteral() {
+    String literals = "abcABC1é";
+    return String.valueOf(literals.charAt(randomIntBetween(0, literals.length() - 1)));
+  }
+
+  private static String randomInput() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = randomIntBetween(0, 10); i > 0; i--) {
+      sb.append(ALPHABET.charAt(randomIntBetween(0, ALPHABET.length() - 1)));
+    }
+    if (randomIntBetween(0, 20) == 0) {
+      sb.insert(
+          randomIntBetween(0, sb.length()),
+          randomFrom(List.of("\n", "\r\n", "\u2028", "\uD83D\uDE00")));
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.language;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.assertj.core.api.Assertions;
+import org.carrot2.TestBase;
+import org.carrot2.util.MutableCharArray;
+import org.junit.Test;
+
+/** Test cases for {@link StemCache}. */
+public class StemCacheTest extends TestBase {
+  /** Strips the trailing "s", has no stem for words without one. */
+  private final AtomicInteger stemmerCalls = new AtomicInteger();
+
+  private final Stemmer stemmer =
+      (word) -> {
+        stemmerCalls.incrementAndGet();
+        int length = word.length();
+        return length > 0 && word.charAt(length - 1) == 's'
+            ? word.subSequence(0, length - 1).toString()
+            : null;
+      };
+
+  @Test
+  public void testCachedStems() {
+    StemCache cache = new StemCache(100);
+
+    for (int round = 0; round < 3; round++) {
+      Assertions.assertThat(stem(cache, "cats")).isEqualTo("cat");
+      Assertions.assertThat(stem(cache, "dog")).isNull();
+    }
+
+    Assertions.assertThat(stemmerCalls.get()).isEqualTo(2);
+    Assertions.assertThat(cache.misses()).isEqualTo(2);
+    Assertions.assertThat(cache.hits()).isEqualTo(4);
+    Assertions.assertThat(cache.size()).isEqualTo(2);
+
+    cache.clear();
+    Assertions.assertThat(cache.size()).isZero();
+    Assertions.assertThat(stem(cache, "cats")).isEqualTo("cat");
+    Assertions.assertThat(stemmerCalls.get()).isEqualTo(3);
+  }
+
+  @Test
+  public void testKeysAreCopied() {
+    StemCache cache = new StemCache(100);
+    char[] buffer = "cats".toCharArray();
+    Assertions.assertThat(cache.stem(new MutableCharArray(buffer), stemmer))
+        .containsExactly('c', 'a', 't');
+
+    // Reusing the lookup buffer must not affect cached entries.
+    "dogs".getChars(0, 4, buffer, 0);
+    Assertions.assertThat(stem(cache, "dogs")).isEqualTo("dog");
+    Assertions.assertThat(stem(cache, "cats")).isEqualTo("cat");
+    Assertions.assertThat(cache.hits()).isEqualTo(1);
+  }
+
+  @Test
+  public void testBoundedSize() {
+    int maxEntries = randomIntBetween(1, 500);
+    StemCache cache = new StemCache(maxEntries, randomIntBetween(1, 16));
+    for (int i = 0; i < maxEntries * 3; i++) {
+      Assertions.assertThat(stem(cache, "word" + i + "s")).isEqualTo("word" + i);
+    }
+    Assertions.assertThat(cache.size()).isBetween(1, maxEntries);
+  }
+
+  @Test
+  public void testConcurrentAccess() throws Exception {
+    StemCache cache = new StemCache(randomIntBetween(10, 1000));
+    ExecutorService executor = Executors.newFixedThreadPool(randomIntBetween(2, 8));
+    try {
+      List<Callable<Void>> tasks = new ArrayList<>();
+      for (int t = 0; t < 16; t++) {
+        tasks.add(
+            () -> {
+              for (int i = 0; i < 10_000; i++) {
+                int word = randomIntBetween(0, 2000);
+                String stem = stem(cache, String.format(Locale.ROOT, "w%ds", word));
+                Assertions.assertThat(stem).isEqualTo("w" + word);
+              }
+              return null;
+            });
+      }
+      for (Future<Void> f : executor.invokeAll(tasks)) {
+        f.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    Assertions.assertThat(cache.hits() + cache.misses()).isEqualTo(16 * 10_000);
+  }
+
+  private String stem(StemCache cache, String word) {
+    char[] stem = cache.stem(new MutableCharArray(word), stemmer);
+    return stem == null ? null : new String(stem);
+  }
+}
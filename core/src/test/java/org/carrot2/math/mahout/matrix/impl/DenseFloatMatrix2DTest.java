@@ -0,0 +1,163 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.mahout.matrix.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.carrot2.TestBase;
+import org.carrot2.math.mahout.function.DoubleDoubleFunction;
+import org.carrot2.math.mahout.function.DoubleFunction;
+import org.carrot2.math.mahout.function.Functions;
+import org.carrot2.math.mahout.function.Mult;
+import org.carrot2.math.mahout.function.PlusMult;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.matrix.MatrixAssertions;
+import org.junit.Test;
+
+/** Test cases for {@link DenseFloatMatrix2D}. */
+public class DenseFloatMatrix2DTest extends TestBase {
+  @Test
+  public void testStoresSinglePrecision() {
+    final DoubleMatrix2D matrix = new DenseFloatMatrix2D(2, 3);
+    matrix.setQuick(1, 2, Math.PI);
+    assertThat(matrix.getQuick(1, 2)).isEqualTo((float) Math.PI);
+
+    final DoubleMatrix2D copy = new DenseFloatMatrix2D(randomMatrix(4, 5));
+    for (int row = 0; row < copy.rows(); row++) {
+      for (int column = 0; column < copy.columns(); column++) {
+        assertThat(copy.getQuick(row, column)).isEqualTo((float) copy.getQuick(row, column));
+      }
+    }
+
+    assertThat(copy.like()).isInstanceOf(DenseFloatMatrix2D.class);
+    assertThat(copy.viewDice().copy()).isInstanceOf(DenseFloatMatrix2D.class);
+    assertThat(copy.zMult(copy, null, 1, 0, false, true)).isInstanceOf(DenseFloatMatrix2D.class);
+  }
+
+  @Test
+  public void testAssignAgainstDoublePrecision() {
+    final List<DoubleFunction> functions =
+        List.of(Mult.mult(randomValue()), Functions.plus(randomValue()), Functions.SQRT);
+    final List<DoubleDoubleFunction> binaryFunctions =
+        List.of(
+            Functions.MULT,
+            Functions.DIV,
+            Functions.DIV_SWAPPED,
+            Functions.PLUS,
+            PlusMult.plusMult(randomValue()),
+            PlusMult.minusMult(randomValue()));
+
+    for (int round = 0; round < 50; round++) {
+      final int rows = randomIntBetween(1, 20);
+      final int columns = randomIntBetween(1, 20);
+      final DoubleMatrix2D actual = view(new DenseFloatMatrix2D(randomMatrix(rows, columns)));
+      final DoubleMatrix2D expected = new DenseDoubleMatrix2D(rows, columns).assign(actual);
+
+      if (randomBoolean()) {
+        final DoubleFunction function = randomFrom(functions);
+        actual.assign(function);
+        expected.assign(function);
+      } else {
+        final DoubleMatrix2D y = randomMatrix(rows, columns);
+        final DoubleMatrix2D yActual = view(randomBoolean() ? new DenseFloatMatrix2D(y) : y);
+        final DoubleDoubleFunction function = randomFrom(binaryFunctions);
+        actual.assign(yActual, function);
+        expected.assign(yActual, function);
+      }
+
+      MatrixAssertions.assertThat(actual).isEquivalentTo(expected, 1e-6);
+    }
+  }
+
+  @Test
+  public void testAgainstNaiveMultiplication() {
+    for (int round = 0; round < 20; round++) {
+      final int m = randomIntBetween(0, 40);
+      final int n = randomIntBetween(0, 40);
+      final int p = randomIntBetween(0, 40);
+      final boolean transposeA = randomBoolean();
+      final boolean transposeB = randomBoolean();
+
+      final DoubleMatrix2D A =
+          randomPrecision(transposeA ? randomMatrix(n, m) : randomMatrix(m, n));
+      final DoubleMatrix2D B =
+          randomPrecision(transposeB ? randomMatrix(p, n) : randomMatrix(n, p));
+      final DoubleMatrix2D C = randomPrecision(randomMatrix(m, p));
+      final double alpha = randomValue();
+      final double beta = randomValue();
+
+      final DoubleMatrix2D a = transposeA ? A.viewDice() : A;
+      final DoubleMatrix2D b = transposeB ? B.viewDice() : B;
+      final DoubleMatrix2D expected = new DenseDoubleMatrix2D(m, p);
+      for (int i = 0; i < m; i++) {
+        for (int j = 0; j < p; j++) {
+          double s = 0;
+          for (int k = 0; k < n; k++) {
+            s += a.getQuick(i, k) * b.getQuick(k, j);
+          }
+          expected.setQuick(i, j, alpha * s + beta * C.getQuick(i, j));
+        }
+      }
+
+      MatrixAssertions.assertThat(A.zMult(B, C.copy(), alpha, beta, transposeA, transposeB))
+          .isEquivalentTo(expected, 1e-5);
+    }
+  }
+
+  @Test
+  public void testMatrixViews() {
+    final DoubleMatrix2D A = new DenseFloatMatrix2D(randomMatrix(30, 30));
+    final DoubleMatrix2D B = new DenseFloatMatrix2D(randomMatrix(30, 30));
+
+    final DoubleMatrix2D aPart = A.viewPart(3, 5, 17, 11);
+    final DoubleMatrix2D bPart = B.viewDice().viewPart(2, 1, 11, 13);
+    final DoubleMatrix2D cPart = new DenseFloatMatrix2D(40, 40).viewPart(7, 3, 17, 13);
+
+    aPart.zMult(bPart, cPart, 1, 0, false, false);
+    MatrixAssertions.assertThat(cPart)
+        .isEquivalentTo(aPart.copy().zMult(bPart.copy(), null, 1, 0, false, false), 1e-6);
+
+    A.viewColumn(4).assign(1);
+    A.viewSelection(new int[] {2, 0}, new int[] {1}).assign(2);
+    assertThat(A.viewRow(7).getQuick(4)).isEqualTo(1);
+    assertThat(A.getQuick(0, 1)).isEqualTo(2);
+    assertThat(A.getQuick(2, 1)).isEqualTo(2);
+
+    final DoubleMatrix2D selection = A.viewSelection(new int[] {9, 3}, null).viewDice();
+    assertThat(selection.getQuick(5, 0)).isEqualTo(A.getQuick(9, 5));
+    assertThat(selection.viewColumn(1).getQuick(6)).isEqualTo(A.getQuick(3, 6));
+  }
+
+  private DoubleMatrix2D view(DoubleMatrix2D matrix) {
+    if (randomBoolean()) {
+      return matrix;
+    }
+    // A diced copy of a transposed matrix has the same cells with non-contiguous rows.
+    final DoubleMatrix2D transposed = matrix.like(matrix.columns(), matrix.rows());
+    transposed.assign(matrix.viewDice());
+    return transposed.viewDice();
+  }
+
+  private static DoubleMatrix2D randomPrecision(DoubleMatrix2D matrix) {
+    return randomBoolean() ? new DenseFloatMatrix2D(matrix) : matrix;
+  }
+
+  private static double randomValue() {
+    return randomDouble() + 0.5;
+  }
+
+  private static DoubleMatrix2D randomMatrix(int rows, int columns) {
+    final DoubleMatrix2D matrix = new DenseDoubleMatrix2D(rows, columns);
+    matrix.assign((v) -> randomValue());
+    return matrix;
+  }
+}
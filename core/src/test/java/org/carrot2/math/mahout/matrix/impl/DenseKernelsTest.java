@@ -0,0 +1,243 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.mahout.matrix.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import org.carrot2.TestBase;
+import org.carrot2.math.mahout.function.DoubleDoubleFunction;
+import org.carrot2.math.mahout.function.DoubleFunction;
+import org.carrot2.math.mahout.function.Functions;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.matrix.MatrixUtils;
+import org.junit.Assume;
+import org.junit.Test;
+
+/** Test cases for {@link DenseKernels}. */
+public class DenseKernelsTest extends TestBase {
+  @Test
+  public void testVectorizedKernelsEquivalentToScalar() {
+    Assume.assumeTrue("Vector API not available.", DenseKernels.isVectorized());
+    final ArrayKernels vectorized = DenseKernels.vectorizedKernels();
+
+    for (int round = 0; round < 200; round++) {
+      final int length = randomIntBetween(0, 100);
+      final int xOffset = randomIntBetween(0, 5);
+      final int yOffset = randomIntBetween(0, 5);
+      final double[] x = randomVector(xOffset + length);
+      final double[] y = randomVector(yOffset + length);
+      final double scalar = randomValue();
+
+      double[] expected = x.clone();
+      double[] actual = x.clone();
+      ScalarKernels.scale(expected, xOffset, length, scalar);
+      vectorized.scale(actual, xOffset, length, scalar);
+      assertIdentical(actual, expected);
+
+      expected = x.clone();
+      actual = x.clone();
+      ScalarKernels.add(expected, xOffset, length, scalar);
+      vectorized.add(actual, xOffset, length, scalar);
+      assertIdentical(actual, expected);
+
+      expected = x.clone();
+      actual = x.clone();
+      ScalarKernels.multiply(expected, xOffset, y, yOffset, length);
+      vectorized.multiply(actual, xOffset, y, yOffset, length);
+      assertIdentical(actual, expected);
+
+      expected = x.clone();
+      actual = x.clone();
+      ScalarKernels.divide(expected, xOffset, y, yOffset, length);
+      vectorized.divide(actual, xOffset, y, yOffset, length);
+      assertIdentical(actual, expected);
+
+      expected = x.clone();
+      actual = x.clone();
+      ScalarKernels.divideInto(expected, xOffset, y, yOffset, length);
+      vectorized.divideInto(actual, xOffset, y, yOffset, length);
+      assertIdentical(actual, expected);
+
+      expected = x.clone();
+      actual = x.clone();
+      ScalarKernels.addMultiple(expected, xOffset, y, yOffset, length, scalar);
+      vectorized.addMultiple(actual, xOffset, y, yOffset, length, scalar);
+      assertIdentical(actual, expected);
+
+      final double[] sums = randomVector(length);
+      expected = sums.clone();
+      actual = sums.clone();
+      ScalarKernels.addSquares(expected, x, xOffset, length);
+      vectorized.addSquares(actual, x, xOffset, length);
+      assertIdentical(actual, expected);
+
+      expected = x.clone();
+      actual = x.clone();
+      ScalarKernels.divideByNonZero(expected, xOffset, sums, length);
+      vectorized.divideByNonZero(actual, xOffset, sums, length);
+      assertIdentical(actual, expected);
+
+      final boolean abs = randomBoolean();
+      final int[] indices = new int[length];
+      final int[] expectedIndices = new int[length];
+      final int[] actualIndices = new int[length];
+      Arrays.fill(indices, -1);
+      expected = sums.clone();
+      actual = sums.clone();
+      ScalarKernels.max(expected, expectedIndices, x, xOffset, length, round, abs);
+      vectorized.max(actual, actualIndices, x, xOffset, length, round, abs);
+      assertIdentical(actual, expected);
+      assertThat(actualIndices).isEqualTo(expectedIndices);
+    }
+  }
+
+  @Test
+  public void testAssignEquivalentToElementWise() {
+    // Multiplication by zero or one is special-cased, use regular values as arguments.
+    final DoubleFunction[] unary = {
+      Functions.mult(randomRegularValue()), Functions.plus(randomValue()), Functions.SQRT
+    };
+    final DoubleDoubleFunction[] binary = {
+      Functions.MULT,
+      Functions.DIV,
+      Functions.DIV_SWAPPED,
+      Functions.plusMult(randomRegularValue()),
+      Functions.MINUS
+    };
+
+    for (int round = 0; round < 100; round++) {
+      final int rows = randomIntBetween(1, 10);
+      final int columns = randomIntBetween(1, 40);
+      final DoubleMatrix2D a = randomMatrix(rows, columns);
+      final DoubleMatrix2D b = randomMatrix(rows, columns);
+
+      final DoubleFunction f = unary[randomIntBetween(0, unary.length - 1)];
+      final DoubleMatrix2D actual = a.copy();
+      actual.assign(f);
+      assertIdentical(actual, elementWise(a, b, (x, y) -> f.apply(x)));
+
+      final DoubleDoubleFunction g = binary[randomIntBetween(0, binary.length - 1)];
+      assertIdentical(a.copy().assign(b, g), elementWise(a, b, g));
+    }
+  }
+
+  @Test
+  public void testColumnOperationsEquivalentToElementWise() {
+    for (int round = 0; round < 100; round++) {
+      final int rows = randomIntBetween(2, 10);
+      final int columns = randomIntBetween(1, 40);
+      final DoubleMatrix2D a = randomMatrix(rows, columns);
+      final DoubleMatrix2D strided = stridedCopy(a);
+      assertThat(DenseKernels.hasContiguousRows(strided)).isFalse();
+
+      assertIdentical(
+          MatrixUtils.normalizeColumnL2(a.copy(), null),
+          MatrixUtils.normalizeColumnL2(stridedCopy(a), null));
+
+      final DoubleFunction transform = randomBoolean() ? Functions.IDENTITY : Functions.ABS;
+      final double[] actualMax = new double[columns];
+      final double[] expectedMax = new double[columns];
+      assertThat(MatrixUtils.maxInColumns(a, null, actualMax, transform))
+          .isEqualTo(MatrixUtils.maxInColumns(strided, null, expectedMax, transform));
+      assertIdentical(actualMax, expectedMax);
+    }
+  }
+
+  /**
+   * @return Returns a random dense matrix, possibly a view of a larger matrix, with contiguous
+   *     rows.
+   */
+  private static DoubleMatrix2D randomMatrix(int rows, int columns) {
+    final int extraColumns = randomBoolean() ? 0 : randomIntBetween(1, 3);
+    final DoubleMatrix2D m = new DenseDoubleMatrix2D(rows + 1, columns + extraColumns);
+    for (int r = 0; r < m.rows(); r++) {
+      for (int c = 0; c < m.columns(); c++) {
+        m.setQuick(r, c, randomValue());
+      }
+    }
+    final DoubleMatrix2D view = m.viewPart(1, extraColumns > 0 ? 1 : 0, rows, columns);
+    assertThat(DenseKernels.hasContiguousRows(view)).isTrue();
+    return view;
+  }
+
+  /**
+   * @return Returns a copy of <code>a</code> stored in column-major order, so without contiguous
+   *     rows.
+   */
+  private static DoubleMatrix2D stridedCopy(DoubleMatrix2D a) {
+    final DoubleMatrix2D transposed = new DenseDoubleMatrix2D(a.columns(), a.rows());
+    transposed.assign(a.viewDice());
+    return transposed.viewDice();
+  }
+
+  private static DoubleMatrix2D elementWise(
+      DoubleMatrix2D a, DoubleMatrix2D b, DoubleDoubleFunction function) {
+    final DoubleMatrix2D result = new DenseDoubleMatrix2D(a.rows(), a.columns());
+    for (int r = 0; r < a.rows(); r++) {
+      for (int c = 0; c < a.columns(); c++) {
+        result.setQuick(r, c, function.apply(a.getQuick(r, c), b.getQuick(r, c)));
+      }
+    }
+    return result;
+  }
+
+  private static double[] randomVector(int length) {
+    final double[] v = new double[length];
+    for (int i = 0; i < length; i++) {
+      v[i] = randomValue();
+    }
+    return v;
+  }
+
+  /** Mostly regular values, with some zeros and special values thrown in. */
+  private static double randomValue() {
+    switch (randomIntBetween(0, 20)) {
+      case 0:
+        return 0;
+      case 1:
+        return -0d;
+      case 2:
+        return Double.NaN;
+      case 3:
+        return randomBoolean() ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+      case 4:
+        return Double.MIN_VALUE;
+      default:
+        return randomRegularValue();
+    }
+  }
+
+  private static double randomRegularValue() {
+    return (randomDouble() - 0.5) * randomIntBetween(1, 1000);
+  }
+
+  private static void assertIdentical(DoubleMatrix2D actual, DoubleMatrix2D expected) {
+    assertThat(actual.rows()).isEqualTo(expected.rows());
+    assertThat(actual.columns()).isEqualTo(expected.columns());
+    for (int r = 0; r < actual.rows(); r++) {
+      for (int c = 0; c < actual.columns(); c++) {
+        assertThat(Double.doubleToLongBits(actual.getQuick(r, c)))
+            .as("[%d, %d]", r, c)
+            .isEqualTo(Double.doubleToLongBits(expected.getQuick(r, c)));
+      }
+    }
+  }
+
+  private static void assertIdentical(double[] actual, double[] expected) {
+    assertThat(actual.length).isEqualTo(expected.length);
+    for (int i = 0; i < actual.length; i++) {
+      assertThat(Double.doubleToLongBits(actual[i]))
+          .as("[%d]", i)
+          .isEqualTo(Double.doubleToLongBits(expected[i]));
+    }
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.mahout.matrix.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.carrot2.TestBase;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.matrix.MatrixAssertions;
+import org.junit.Test;
+
+/** Test cases for {@link DenseMatrixMultiplication}. */
+public class DenseMatrixMultiplicationTest extends TestBase {
+  @Test
+  public void testAgainstNaiveMultiplication() {
+    for (int round = 0; round < 20; round++) {
+      final int m = randomIntBetween(0, 40);
+      final int n = randomIntBetween(0, 40);
+      final int p = randomIntBetween(0, 40);
+      final boolean transposeA = randomBoolean();
+      final boolean transposeB = randomBoolean();
+
+      final DoubleMatrix2D A = transposeA ? randomMatrix(n, m) : randomMatrix(m, n);
+      final DoubleMatrix2D B = transposeB ? randomMatrix(p, n) : randomMatrix(n, p);
+      final DoubleMatrix2D C = randomMatrix(m, p);
+      final double alpha = randomDouble();
+      final double beta = randomDouble();
+
+      final DoubleMatrix2D a = transposeA ? A.viewDice() : A;
+      final DoubleMatrix2D b = transposeB ? B.viewDice() : B;
+      final DoubleMatrix2D expected = new DenseDoubleMatrix2D(m, p);
+      for (int i = 0; i < m; i++) {
+        for (int j = 0; j < p; j++) {
+          double s = 0;
+          for (int k = 0; k < n; k++) {
+            s += a.getQuick(i, k) * b.getQuick(k, j);
+          }
+          expected.setQuick(i, j, alpha * s + beta * C.getQuick(i, j));
+        }
+      }
+
+      MatrixAssertions.assertThat(A.zMult(B, C.copy(), alpha, beta, transposeA, transposeB))
+          .isEquivalentTo(expected, 1e-10);
+    }
+  }
+
+  @Test
+  public void testMatrixViews() {
+    final DoubleMatrix2D A = randomMatrix(30, 30);
+    final DoubleMatrix2D B = randomMatrix(30, 30);
+
+    final DoubleMatrix2D aPart = A.viewPart(3, 5, 17, 11);
+    final DoubleMatrix2D bPart = B.viewDice().viewPart(2, 1, 11, 13);
+    final DoubleMatrix2D cPart = new DenseDoubleMatrix2D(40, 40).viewPart(7, 3, 17, 13);
+
+    aPart.zMult(bPart, cPart, 1, 0, false, false);
+    MatrixAssertions.assertThat(cPart)
+        .isEquivalentTo(aPart.copy().zMult(bPart.copy(), null, 1, 0, false, false), 1e-10);
+  }
+
+  @Test
+  public void testParallelResultIdenticalToSequential() {
+    // Large enough to exceed the parallelism threshold.
+    final int m = randomIntBetween(110, 200);
+    final int n = randomIntBetween(100, 120);
+    final int p = randomIntBetween(100, 120);
+    assertThat((long) m * n * p)
+        .isGreaterThan(DenseMatrixMultiplication.DEFAULT_PARALLELISM_THRESHOLD);
+
+    final boolean transposeA = randomBoolean();
+    final boolean transposeB = randomBoolean();
+    final DoubleMatrix2D A = transposeA ? randomMatrix(n, m) : randomMatrix(m, n);
+    final DoubleMatrix2D B = transposeB ? randomMatrix(p, n) : randomMatrix(n, p);
+    final DoubleMatrix2D C = randomMatrix(m, p);
+    final double alpha = randomDouble();
+    final double beta = randomDouble();
+
+    final DoubleMatrix2D sequential = A.zMult(B, C.copy(), alpha, beta, transposeA, transposeB);
+    final DoubleMatrix2D parallel =
+        DenseMatrixMultiplication.zMult(
+            A,
+            B,
+            C.copy(),
+            alpha,
+            beta,
+            transposeA,
+            transposeB,
+            randomIntBetween(2, 8),
+            DenseMatrixMultiplication.DEFAULT_PARALLELISM_THRESHOLD,
+            null);
+
+    assertThat(parallel.toArray()).isEqualTo(sequential.toArray());
+  }
+
+  @Test
+  public void testParallelOnExecutorBelowDefaultThreshold() throws Exception {
+    // Below the default threshold, multiplied in parallel with a lower one.
+    final int m = randomIntBetween(16, 40);
+    final int n = randomIntBetween(1, 40);
+    final int p = randomIntBetween(1, 40);
+    final DoubleMatrix2D A = randomMatrix(m, n);
+    final DoubleMatrix2D B = randomMatrix(n, p);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(randomIntBetween(1, 4));
+    try {
+      final DoubleMatrix2D parallel =
+          DenseMatrixMultiplication.zMult(
+              A, B, null, 1, 0, false, false, randomIntBetween(2, 8), 0, executor);
+      assertThat(parallel.toArray()).isEqualTo(A.zMult(B, null, 1, 0, false, false).toArray());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testParallelResultMatrixCreated() {
+    final DoubleMatrix2D A = new DenseFloatMatrix2D(randomMatrix(120, 100));
+    final DoubleMatrix2D B = randomMatrix(120, 100);
+
+    final DoubleMatrix2D parallel =
+        DenseMatrixMultiplication.zMult(
+            A,
+            B,
+            null,
+            1,
+            0,
+            false,
+            true,
+            randomIntBetween(2, 8),
+            DenseMatrixMultiplication.DEFAULT_PARALLELISM_THRESHOLD,
+            null);
+    assertThat(parallel).isInstanceOf(DenseFloatMatrix2D.class);
+    assertThat(parallel.toArray()).isEqualTo(A.zMult(B, null, 1, 0, false, true).toArray());
+  }
+
+  private DoubleMatrix2D randomMatrix(int rows, int columns) {
+    final DoubleMatrix2D matrix = new DenseDoubleMatrix2D(rows, columns);
+    matrix.assign((v) -> randomDouble() - 0.5);
+    return matrix;
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.mahout.matrix.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.assertj.core.data.Offset;
+import org.carrot2.TestBase;
+import org.carrot2.math.mahout.function.Functions;
+import org.carrot2.math.mahout.matrix.DoubleMatrix1D;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.matrix.MatrixAssertions;
+import org.carrot2.math.matrix.MatrixUtils;
+import org.junit.Test;
+
+/** Test cases for {@link RowCompressedDoubleMatrix2D}. */
+public class RowCompressedDoubleMatrix2DTest extends TestBase {
+  private static final double DELTA = 1e-10;
+
+  @Test
+  public void testSetAndGet() {
+    double[][] values = randomSparseArray(randomIntBetween(1, 20), randomIntBetween(1, 20));
+
+    // Fill in random order to exercise insertions in the middle of the storage.
+    DoubleMatrix2D sparse = new RowCompressedDoubleMatrix2D(values.length, values[0].length);
+    for (int i = values.length * values[0].length; --i >= 0; ) {
+      int r = randomIntBetween(0, values.length - 1);
+      int c = randomIntBetween(0, values[0].length - 1);
+      sparse.setQuick(r, c, values[r][c]);
+    }
+    for (int r = 0; r < values.length; r++) {
+      for (int c = 0; c < values[r].length; c++) {
+        sparse.setQuick(r, c, values[r][c]);
+      }
+    }
+
+    MatrixAssertions.assertThat(sparse).isEquivalentTo(new DenseDoubleMatrix2D(values), 0);
+    assertThat(sparse.cardinality()).isEqualTo(new DenseDoubleMatrix2D(values).cardinality());
+  }
+
+  @Test
+  public void testZMultAgainstDense() {
+    final int m = randomIntBetween(1, 20);
+    final int n = randomIntBetween(1, 20);
+    final int p = randomIntBetween(1, 10);
+    final boolean transposeA = randomBoolean();
+    final boolean transposeB = randomBoolean();
+
+    final double[][] a = randomSparseArray(m, n);
+    final DoubleMatrix2D sparse = new RowCompressedDoubleMatrix2D(a);
+    final DoubleMatrix2D dense = new DenseDoubleMatrix2D(a);
+
+    final int inner = transposeA ? m : n;
+    final int outer = transposeA ? n : m;
+    final DoubleMatrix2D B =
+        transposeB
+            ? new DenseDoubleMatrix2D(randomSparseArray(p, inner))
+            : new DenseDoubleMatrix2D(randomSparseArray(inner, p));
+    final DoubleMatrix2D C = new DenseDoubleMatrix2D(randomSparseArray(outer, p));
+
+    final double alpha = randomDouble();
+    final double beta = randomDouble();
+    final DoubleMatrix2D expected = dense.zMult(B, C.copy(), alpha, beta, transposeA, transposeB);
+
+    // Dense result.
+    MatrixAssertions.assertThat(sparse.zMult(B, C.copy(), alpha, beta, transposeA, transposeB))
+        .isEquivalentTo(expected, DELTA);
+
+    // Sparse right-hand side of a dense matrix, a generic (non-dense) result.
+    MatrixAssertions.assertThat(
+            sparse.zMult(
+                B, new SparseDoubleMatrix2D(C.toArray()), alpha, beta, transposeA, transposeB))
+        .isEquivalentTo(expected, DELTA);
+
+    // Dense-by-sparse multiplication.
+    final DoubleMatrix2D D =
+        new DenseDoubleMatrix2D(transposeA ? randomSparseArray(p, n) : randomSparseArray(p, m));
+    MatrixAssertions.assertThat(D.zMult(sparse, null, 1, 0, false, transposeA))
+        .isEquivalentTo(D.zMult(dense, null, 1, 0, false, transposeA), DELTA);
+
+    // Matrix-vector multiplication.
+    final DoubleMatrix1D y = new DenseDoubleMatrix1D(transposeA ? m : n);
+    y.assign(alpha);
+    assertThat(sparse.zMult(y, null, 1, 0, transposeA).toArray())
+        .containsExactly(dense.zMult(y, null, 1, 0, transposeA).toArray(), Offset.offset(DELTA));
+  }
+
+  @Test
+  public void testAssignAndViews() {
+    final double[][] a = randomSparseArray(randomIntBetween(2, 20), randomIntBetween(2, 20));
+    final DoubleMatrix2D sparse = new RowCompressedDoubleMatrix2D(a);
+    final DoubleMatrix2D dense = new DenseDoubleMatrix2D(a);
+
+    MatrixAssertions.assertThat(sparse.viewDice()).isEquivalentTo(dense.viewDice(), 0);
+    MatrixAssertions.assertThat(sparse.viewPart(1, 1, a.length - 1, a[0].length - 1))
+        .isEquivalentTo(dense.viewPart(1, 1, a.length - 1, a[0].length - 1), 0);
+    MatrixAssertions.assertThat(new DenseDoubleMatrix2D(a.length, a[0].length).assign(sparse))
+        .isEquivalentTo(dense, 0);
+
+    MatrixAssertions.assertThat(MatrixUtils.normalizeColumnL2(sparse.copy(), null))
+        .isEquivalentTo(MatrixUtils.normalizeColumnL2(dense.copy(), null), DELTA);
+
+    sparse.assign(Functions.plus(1));
+    dense.assign(Functions.plus(1));
+    MatrixAssertions.assertThat(sparse).isEquivalentTo(dense, 0);
+
+    sparse.assign(0);
+    assertThat(sparse.cardinality()).isEqualTo(0);
+  }
+
+  private double[][] randomSparseArray(int rows, int columns) {
+    final double[][] values = new double[rows][columns];
+    for (int r = 0; r < rows; r++) {
+      for (int c = 0; c < columns; c++) {
+        if (randomIntBetween(0, 3) == 0) {
+          values[r][c] = randomDouble();
+        }
+      }
+    }
+    return values;
+  }
+}
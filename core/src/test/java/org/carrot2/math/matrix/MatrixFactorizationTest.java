@@ -10,9 +10,18 @@
  */
 package org.carrot2.math.matrix;
 
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.assertj.core.api.Assertions;
+import org.assertj.core.data.Offset;
 import org.carrot2.TestBase;
+import org.carrot2.math.mahout.function.Functions;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
 import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DenseFloatMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.RowCompressedDoubleMatrix2D;
 import org.junit.Test;
 
 /** Test cases for matrix factorizations. */
@@ -26,6 +35,9 @@ public class MatrixFactorizationTest extends TestBase {
   /** The maximum allowed difference between matrix elements */
   private double DELTA = 1e-4;
 
+  /** The maximum allowed difference between single and double precision factorizations */
+  private double SINGLE_PRECISION_DELTA = 1e-3;
+
   /** The test input matrix */
   private DoubleMatrix2D A =
       new DenseDoubleMatrix2D(
@@ -74,6 +86,117 @@ public class MatrixFactorizationTest extends TestBase {
     org.junit.Assert.assertArrayEquals(expectedS, factorization.getSingularValues(), DELTA);
   }
 
+  @Test
+  public void testRandomizedSVD() {
+    RandomizedSingularValueDecompositionFactory factory =
+        new RandomizedSingularValueDecompositionFactory();
+    factory.setK(2);
+
+    RandomizedSingularValueDecomposition factorization =
+        (RandomizedSingularValueDecomposition) factory.factorize(A);
+
+    // Same as the full SVD, but with signs aligned to non-negative base vector sums.
+    DoubleMatrix2D expectedU =
+        new DenseDoubleMatrix2D(
+            new double[][] {
+              {0, 0.752646},
+              {0.651927, 0},
+              {0.651927, 0},
+              {0.387277, 0},
+              {0, 0.658425}
+            });
+
+    DoubleMatrix2D expectedV =
+        new DenseDoubleMatrix2D(
+            new double[][] {
+              {0.557873, 0},
+              {0.562741, 0},
+              {0, 0.619628},
+              {0, 0.619628},
+              {0.23542, 0},
+              {0.562741, 0},
+              {0, 0.48179}
+            });
+
+    double[] expectedS = new double[] {1.6450472, 1.5621864};
+
+    check(expectedU, expectedV, factorization);
+    org.junit.Assert.assertArrayEquals(expectedS, factorization.getSingularValues(), DELTA);
+  }
+
+  @Test
+  public void testRandomizedSVDQualityComparedToFullSVD() {
+    final int rows = randomIntBetween(100, 300);
+    final int columns = randomIntBetween(50, 200);
+    final int k = randomIntBetween(2, 15);
+
+    // A non-negative, sparse-ish matrix with a dominant low-rank structure plus noise,
+    // similar in nature to a term-document matrix.
+    final DoubleMatrix2D B = new DenseDoubleMatrix2D(rows, columns);
+    for (int t = 0; t < k; t++) {
+      final double weight = 10.0 / (t + 1);
+      final double[] left = new double[rows];
+      final double[] right = new double[columns];
+      for (int r = 0; r < rows; r++) {
+        left[r] = randomIntBetween(0, 3) == 0 ? randomDouble() : 0;
+      }
+      for (int c = 0; c < columns; c++) {
+        right[c] = randomIntBetween(0, 3) == 0 ? randomDouble() : 0;
+      }
+      for (int r = 0; r < rows; r++) {
+        for (int c = 0; c < columns; c++) {
+          B.setQuick(r, c, B.getQuick(r, c) + weight * left[r] * right[c]);
+        }
+      }
+    }
+    for (int r = 0; r < rows; r++) {
+      for (int c = 0; c < columns; c++) {
+        if (randomIntBetween(0, 10) == 0) {
+          B.setQuick(r, c, B.getQuick(r, c) + randomDouble() * 0.01);
+        }
+      }
+    }
+
+    final PartialSingularValueDecompositionFactory svdFactory =
+        new PartialSingularValueDecompositionFactory();
+    svdFactory.setK(k);
+    final PartialSingularValueDecomposition svd =
+        (PartialSingularValueDecomposition) svdFactory.factorize(B);
+
+    final RandomizedSingularValueDecompositionFactory rsvdFactory =
+        new RandomizedSingularValueDecompositionFactory();
+    rsvdFactory.setK(k);
+    final RandomizedSingularValueDecomposition rsvd =
+        (RandomizedSingularValueDecomposition) rsvdFactory.factorize(B);
+
+    Assertions.assertThat(rsvd.getU().rows()).isEqualTo(rows);
+    Assertions.assertThat(rsvd.getU().columns()).isEqualTo(k);
+    Assertions.assertThat(rsvd.getV().rows()).isEqualTo(columns);
+    Assertions.assertThat(rsvd.getV().columns()).isEqualTo(k);
+
+    // Singular values should be nearly identical.
+    final double[] expectedS = svd.getSingularValues();
+    final double[] actualS = rsvd.getSingularValues();
+    for (int i = 0; i < k; i++) {
+      Assertions.assertThat(actualS[i]).isCloseTo(expectedS[i], Offset.offset(expectedS[0] * 1e-3));
+    }
+
+    // The reconstruction error of the rank-k approximation should be on par with the optimal one.
+    final double svdError = reconstructionError(B, svd.getU(), expectedS, svd.getV());
+    final double rsvdError = reconstructionError(B, rsvd.getU(), actualS, rsvd.getV());
+    Assertions.assertThat(rsvdError).isLessThanOrEqualTo(svdError * 1.01 + 1e-9);
+  }
+
+  private static double reconstructionError(
+      DoubleMatrix2D A, DoubleMatrix2D U, double[] S, DoubleMatrix2D V) {
+    final DoubleMatrix2D US = U.copy();
+    for (int c = 0; c < US.columns(); c++) {
+      US.viewColumn(c).assign(Functions.mult(S[c]));
+    }
+    return MatrixUtils.frobeniusNorm(
+        US.zMult(V, null, 1, 0, false, true).assign(A, Functions.MINUS));
+  }
+
   @Test
   public void testUnorderedNMFED() {
     DoubleMatrix2D expectedU =
@@ -131,6 +254,75 @@ public class MatrixFactorizationTest extends TestBase {
     checkIterative(expectedU, expectedV, new KMeansMatrixFactorizationFactory());
   }
 
+  @Test
+  public void testThreadsDoNotAffectResults() {
+    ExecutorService executor = Executors.newFixedThreadPool(randomIntBetween(1, 4));
+    try {
+      checkThreadsDoNotAffectResults(executor);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private void checkThreadsDoNotAffectResults(ExecutorService executor) {
+    // Large enough for products to be computed in parallel.
+    final DoubleMatrix2D input = new DenseDoubleMatrix2D(400, 300);
+    input.assign((v) -> randomDouble());
+
+    for (IterativeMatrixFactorizationFactory factory :
+        List.of(
+            new NonnegativeMatrixFactorizationEDFactory(),
+            new NonnegativeMatrixFactorizationKLFactory(),
+            new LocalNonnegativeMatrixFactorizationFactory(),
+            new KMeansMatrixFactorizationFactory())) {
+      factory.setK(10);
+      factory.setMaxIterations(3);
+      factory.setStopThreshold(STOP_THRESHOLD);
+
+      MatrixFactorization sequential = factory.factorize(input);
+      factory.threads.set(randomIntBetween(2, 8));
+      factory.parallelismThreshold.set(randomIntBetween(0, 1_000_000));
+      factory.setExecutor(randomBoolean() ? executor : null);
+      MatrixFactorization parallel = factory.factorize(input);
+
+      Assertions.assertThat(parallel.getU().toArray()).isEqualTo(sequential.getU().toArray());
+      Assertions.assertThat(parallel.getV().toArray()).isEqualTo(sequential.getV().toArray());
+    }
+
+    RandomizedSingularValueDecompositionFactory svd =
+        new RandomizedSingularValueDecompositionFactory();
+    svd.setK(10);
+    MatrixFactorization sequential = svd.factorize(input);
+    svd.threads.set(randomIntBetween(2, 8));
+    svd.parallelismThreshold.set(randomIntBetween(0, 1_000_000));
+    svd.setExecutor(randomBoolean() ? executor : null);
+    Assertions.assertThat(svd.factorize(input).getU().toArray())
+        .isEqualTo(sequential.getU().toArray());
+  }
+
+  @Test
+  public void testStopCondition() {
+    for (IterativeMatrixFactorizationFactory factory :
+        List.of(
+            new NonnegativeMatrixFactorizationEDFactory(),
+            new NonnegativeMatrixFactorizationKLFactory(),
+            new LocalNonnegativeMatrixFactorizationFactory(),
+            new KMeansMatrixFactorizationFactory())) {
+      factory.setK(K);
+      factory.setMaxIterations(MAX_ITERATIONS);
+
+      int stopAfter = randomIntBetween(1, MAX_ITERATIONS - 1);
+      AtomicInteger checks = new AtomicInteger();
+      IterativeMatrixFactorizationBase factorization =
+          (IterativeMatrixFactorizationBase)
+              factory.factorize(A, () -> checks.incrementAndGet() >= stopAfter);
+
+      Assertions.assertThat(factorization.getIterationsCompleted())
+          .as(factory.getClass().getSimpleName())
+          .isEqualTo(stopAfter);
+    }
+  }
+
   @Test
   public void testOrderedNMFED() {
     DoubleMatrix2D expectedU =
@@ -226,6 +418,19 @@ public class MatrixFactorizationTest extends TestBase {
     MatrixFactorization factorization = factory.factorize(A);
     check(expectedU, expectedV, factorization);
 
+    // Sparse input must yield the same factorization.
+    check(expectedU, expectedV, factory.factorize(new RowCompressedDoubleMatrix2D(A.toArray())));
+
+    // Single precision input must yield a close factorization, computed in single precision.
+    MatrixFactorization singlePrecision = factory.factorize(new DenseFloatMatrix2D(A));
+    Assertions.assertThat(singlePrecision.getU().like()).isInstanceOf(DenseFloatMatrix2D.class);
+    MatrixAssertions.assertThat(singlePrecision.getU())
+        .as("U")
+        .isEquivalentTo(factorization.getU(), SINGLE_PRECISION_DELTA);
+    MatrixAssertions.assertThat(singlePrecision.getV())
+        .as("V")
+        .isEquivalentTo(factorization.getV(), SINGLE_PRECISION_DELTA);
+
     return factorization;
   }
 
@@ -12,10 +12,12 @@ package org.carrot2.text.preprocessing;
 
 import static org.carrot2.text.preprocessing.PreprocessingContextAssert.*;
 
+import com.carrotsearch.hppc.sorting.IndirectSort;
 import org.assertj.core.api.Assertions;
 import org.carrot2.TestBase;
 import org.carrot2.clustering.CachedLangComponents;
 import org.carrot2.language.Tokenizer;
+import org.carrot2.util.CharArrayComparators;
 import org.junit.Test;
 
 /** Test cases for {@link CaseNormalizer}. */
@@ -23,6 +25,32 @@ public class CaseNormalizerTest extends TestBase {
   PreprocessingContextBuilder contextBuilder =
       new PreprocessingContextBuilder(CachedLangComponents.loadCached("English"));
 
+  @Test
+  public void testTokenOrderEquivalentToSortingAllTokens() {
+    final String[] words = {
+      "a", "A", "ab", "Ab", "AB", "aB", "b", "B", "ba", "Bą", "bą", "ÉTÉ", "été"
+    };
+    for (int round = 0; round < 20; round++) {
+      final ImageArena images = new ImageArena();
+      final char[][] tokenImages = new char[randomIntBetween(0, 500)][];
+      final int[] tokenImageIds = new int[tokenImages.length];
+      for (int i = 0; i < tokenImages.length; i++) {
+        // Null separators have no image.
+        tokenImages[i] = randomIntBetween(0, 10) == 0 ? null : randomFrom(words).toCharArray();
+        tokenImageIds[i] =
+            tokenImages[i] == null ? -1 : images.intern(tokenImages[i], 0, tokenImages[i].length);
+      }
+
+      Assertions.assertThat(CaseNormalizer.sortTokenImages(images, tokenImageIds))
+          .containsExactly(
+              IndirectSort.mergesort(
+                  tokenImages,
+                  0,
+                  tokenImages.length,
+                  CharArrayComparators.NORMALIZING_CHAR_ARRAY_COMPARATOR));
+    }
+  }
+
   @Test
   public void testEmpty() {
     PreprocessingContextAssert a =
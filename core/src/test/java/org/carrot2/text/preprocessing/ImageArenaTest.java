@@ -0,0 +1,65 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.text.preprocessing;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.assertj.core.api.Assertions;
+import org.carrot2.TestBase;
+import org.junit.Test;
+
+/** Test cases for {@link ImageArena}. */
+public class ImageArenaTest extends TestBase {
+  @Test
+  public void testInterning() {
+    ImageArena arena = new ImageArena();
+    char[] buffer = "xfoobarx".toCharArray();
+
+    int foo = arena.intern(buffer, 1, 3);
+    int bar = arena.intern(buffer, 4, 3);
+    Assertions.assertThat(foo).isNotEqualTo(bar);
+    Assertions.assertThat(arena.intern("foo".toCharArray(), 0, 3)).isEqualTo(foo);
+    int empty = arena.intern(buffer, 0, 0);
+    Assertions.assertThat(arena.intern(new char[0], 0, 0)).isEqualTo(empty);
+    Assertions.assertThat(arena.size()).isEqualTo(3);
+
+    Assertions.assertThat(arena.length(foo)).isEqualTo(3);
+    Assertions.assertThat(arena.length(empty)).isEqualTo(0);
+    Assertions.assertThat(new String(arena.buffer(), arena.offset(bar), arena.length(bar)))
+        .isEqualTo("bar");
+
+    // Arrays are created on demand, once per image.
+    Assertions.assertThat(arena.image(foo)).containsExactly('f', 'o', 'o');
+    Assertions.assertThat(arena.image(foo)).isSameAs(arena.image(foo));
+    char[][] images = arena.images(new int[] {bar, -1, foo});
+    Assertions.assertThat(images[0]).isSameAs(arena.image(bar));
+    Assertions.assertThat(images[1]).isNull();
+    Assertions.assertThat(images[2]).isSameAs(arena.image(foo));
+  }
+
+  @Test
+  public void testManyImages() {
+    ImageArena arena = new ImageArena();
+    Map<String, Integer> expected = new HashMap<>();
+    for (int i = 0; i < 20_000; i++) {
+      String image = randomAsciiLettersOfLengthBetween(0, 12);
+      int id = arena.intern(image.toCharArray(), 0, image.length());
+      Assertions.assertThat(expected.computeIfAbsent(image, (k) -> id)).isEqualTo(id);
+    }
+
+    arena.compact();
+    Assertions.assertThat(arena.size()).isEqualTo(expected.size());
+    expected.forEach(
+        (image, id) -> Assertions.assertThat(new String(arena.image(id))).isEqualTo(image));
+    Assertions.assertThatThrownBy(() -> arena.intern(new char[1], 0, 1))
+        .isInstanceOf(IllegalStateException.class);
+  }
+}
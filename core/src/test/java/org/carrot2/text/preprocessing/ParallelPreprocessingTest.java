@@ -0,0 +1,196 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.text.preprocessing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.carrot2.TestBase;
+import org.carrot2.clustering.CachedLangComponents;
+import org.carrot2.clustering.Document;
+import org.carrot2.clustering.SampleDocumentData;
+import org.carrot2.language.LanguageComponents;
+import org.carrot2.language.StemCache;
+import org.junit.Test;
+
+/**
+ * Checks that parallel tokenization and stemming (and stemming with a {@link StemCache}) yield the
+ * same context as sequential.
+ */
+public class ParallelPreprocessingTest extends TestBase {
+  @Test
+  public void testCompletePipelineIdenticalToSequential() {
+    final List<Document> documents = randomDocuments();
+    final String query = randomBoolean() ? null : "data mining";
+
+    CompletePreprocessingPipeline sequential = new CompletePreprocessingPipeline();
+    CompletePreprocessingPipeline parallel = new CompletePreprocessingPipeline();
+    parallel.threads.set(randomIntBetween(2, 8));
+
+    LanguageComponents languageComponents = CachedLangComponents.loadCached("English");
+    PreprocessingContext expected =
+        sequential.preprocess(documents.stream(), query, languageComponents);
+    PreprocessingContext actual =
+        parallel.preprocess(documents.stream(), query, languageComponents);
+
+    assertSameContext(actual, expected);
+    assertThat(actual.allPhrases.wordIndices).isDeepEqualTo(expected.allPhrases.wordIndices);
+    assertThat(actual.allPhrases.tf).isEqualTo(expected.allPhrases.tf);
+    assertSameSparseArrays(actual.allPhrases.tfByDocument, expected.allPhrases.tfByDocument);
+    assertThat(actual.allLabels.featureIndex).isEqualTo(expected.allLabels.featureIndex);
+    assertThat(actual.allLabels.documentIndices).isEqualTo(expected.allLabels.documentIndices);
+  }
+
+  @Test
+  public void testBasicPipelineIdenticalToSequential() {
+    final List<Document> documents = randomDocuments();
+
+    BasicPreprocessingPipeline sequential = new BasicPreprocessingPipeline();
+    BasicPreprocessingPipeline parallel = new BasicPreprocessingPipeline();
+    parallel.threads.set(randomIntBetween(2, 8));
+
+    LanguageComponents languageComponents = CachedLangComponents.loadCached("English");
+    assertSameContext(
+        parallel.preprocess(documents.stream(), null, languageComponents),
+        sequential.preprocess(documents.stream(), null, languageComponents));
+  }
+
+  @Test
+  public void testCallerExecutor() {
+    final List<Document> documents = randomDocuments();
+
+    CompletePreprocessingPipeline sequential = new CompletePreprocessingPipeline();
+    CompletePreprocessingPipeline parallel = new CompletePreprocessingPipeline();
+    parallel.threads.set(randomIntBetween(2, 8));
+
+    LanguageComponents languageComponents = CachedLangComponents.loadCached("English");
+    ExecutorService executor = Executors.newFixedThreadPool(randomIntBetween(1, 4));
+    try {
+      parallel.setExecutor(executor);
+      assertSameContext(
+          parallel.preprocess(documents.stream(), null, languageComponents),
+          sequential.preprocess(documents.stream(), null, languageComponents));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testStemCacheIdenticalToUncached() {
+    final List<Document> documents = randomDocuments();
+
+    BasicPreprocessingPipeline pipeline = new BasicPreprocessingPipeline();
+    pipeline.threads.set(randomIntBetween(1, 8));
+
+    LanguageComponents languageComponents = CachedLangComponents.loadCached("English");
+    StemCache stemCache = new StemCache(randomIntBetween(10, 10_000), randomIntBetween(1, 8));
+    LanguageComponents cached = languageComponents.override(StemCache.class, () -> stemCache);
+
+    PreprocessingContext expected =
+        pipeline.preprocess(documents.stream(), null, languageComponents);
+    for (int round = 0; round < 2; round++) {
+      assertSameContext(pipeline.preprocess(documents.stream(), null, cached), expected);
+    }
+    assertThat(stemCache.hits()).isPositive();
+  }
+
+  @Test
+  public void testInternedTokenImages() {
+    final List<Document> documents = randomDocuments();
+
+    CompletePreprocessingPipeline parallel = new CompletePreprocessingPipeline();
+    parallel.threads.set(randomIntBetween(2, 8));
+    PreprocessingContext context =
+        parallel.preprocess(documents.stream(), null, CachedLangComponents.loadCached("English"));
+
+    // Token images are expected to be unique instances across all shards.
+    final char[][] images = context.allTokens.image();
+    final Map<String, char[]> unique = new HashMap<>();
+    for (char[] image : images) {
+      if (image != null) {
+        assertThat(unique.computeIfAbsent(new String(image), (k) -> image)).isSameAs(image);
+      }
+    }
+  }
+
+  private List<Document> randomDocuments() {
+    final List<Document> documents = new ArrayList<>(SampleDocumentData.DOCUMENTS_DATA_MINING);
+    documents.addAll(SampleDocumentData.DOCUMENTS_DAWID);
+    Collections.shuffle(documents, getRandom());
+
+    // Documents with extra fields, in a random location, exercise field index remapping.
+    final int extra = randomIntBetween(0, 5);
+    for (int i = 0; i < extra; i++) {
+      final String content = "other field content " + i;
+      documents.add(
+          randomIntBetween(0, documents.size()),
+          (fieldConsumer) -> {
+            fieldConsumer.accept("other", content);
+            fieldConsumer.accept("title", "extra title");
+          });
+    }
+    return documents.subList(0, randomIntBetween(documents.size() / 2, documents.size()));
+  }
+
+  private static void assertSameContext(
+      PreprocessingContext actual, PreprocessingContext expected) {
+    assertThat(actual.documentCount).isEqualTo(expected.documentCount);
+    assertThat(actual.allFields.name).isEqualTo(expected.allFields.name);
+
+    assertThat(actual.allTokens.imageIndex).isEqualTo(expected.allTokens.imageIndex);
+    assertThat(actual.allTokens.image()).isDeepEqualTo(expected.allTokens.image());
+    assertThat(actual.allTokens.type).isEqualTo(expected.allTokens.type);
+    assertThat(actual.allTokens.fieldIndex).isEqualTo(expected.allTokens.fieldIndex);
+    assertThat(actual.allTokens.documentIndex).isEqualTo(expected.allTokens.documentIndex);
+    assertThat(actual.allTokens.wordIndex).isEqualTo(expected.allTokens.wordIndex);
+
+    assertThat(actual.allWords.imageIndex).isEqualTo(expected.allWords.imageIndex);
+    assertThat(actual.allWords.image).isDeepEqualTo(expected.allWords.image);
+    assertThat(actual.allWords.type).isEqualTo(expected.allWords.type);
+    assertThat(actual.allWords.tf).isEqualTo(expected.allWords.tf);
+    assertThat(actual.allWords.stemIndex).isEqualTo(expected.allWords.stemIndex);
+    assertThat(actual.allWords.fieldIndices).isEqualTo(expected.allWords.fieldIndices);
+    assertSameSparseArrays(actual.allWords.tfByDocument, expected.allWords.tfByDocument);
+
+    assertThat(actual.allStems.imageIndex).isEqualTo(expected.allStems.imageIndex);
+    assertThat(actual.allStems.image).isDeepEqualTo(expected.allStems.image);
+    assertThat(actual.allStems.mostFrequentOriginalWordIndex)
+        .isEqualTo(expected.allStems.mostFrequentOriginalWordIndex);
+    assertThat(actual.allStems.tf).isEqualTo(expected.allStems.tf);
+    assertThat(actual.allStems.fieldIndices).isEqualTo(expected.allStems.fieldIndices);
+    assertSameSparseArrays(actual.allStems.tfByDocument, expected.allStems.tfByDocument);
+  }
+
+  /**
+   * Sparse (document, tf) pairs are not ordered, not even between two sequential runs, so they are
+   * compared as maps.
+   */
+  private static void assertSameSparseArrays(int[][] actual, int[][] expected) {
+    assertThat(actual.length).isEqualTo(expected.length);
+    for (int i = 0; i < actual.length; i++) {
+      assertThat(toMap(actual[i])).isEqualTo(toMap(expected[i]));
+    }
+  }
+
+  private static Map<Integer, Integer> toMap(int[] sparse) {
+    final Map<Integer, Integer> map = new HashMap<>();
+    for (int i = 0; i < sparse.length; i += 2) {
+      map.put(sparse[i], sparse[i + 1]);
+    }
+    return map;
+  }
+}
@@ -413,12 +413,12 @@ public class PreprocessingContextAssert {
     }
 
     public String getTokenImage() {
-      if (context.allTokens.image[tokenIndex] == null) return null;
-      return new String(context.allTokens.image[tokenIndex]);
+      if (context.allTokens.image()[tokenIndex] == null) return null;
+      return new String(context.allTokens.image()[tokenIndex]);
     }
 
     public String getWordImage() {
-      if (context.allTokens.image[tokenIndex] == null) {
+      if (context.allTokens.image()[tokenIndex] == null) {
         if (TokenTypeUtils.isDocumentSeparator(context.allTokens.type[tokenIndex])) return DS;
         if (TokenTypeUtils.isFieldSeparator(context.allTokens.type[tokenIndex])) return FS;
         if (TokenTypeUtils.isTerminator(context.allTokens.type[tokenIndex])) return EOS;
@@ -446,7 +446,7 @@ public class PreprocessingContextAssert {
 
   public List<TokenEntry> tokens() {
     List<TokenEntry> result = new ArrayList<>();
-    for (int i = 0; i < context.allTokens.image.length; i++) result.add(new TokenEntry(i));
+    for (int i = 0; i < context.allTokens.image().length; i++) result.add(new TokenEntry(i));
     return result;
   }
 
@@ -459,8 +459,8 @@ public class PreprocessingContextAssert {
       this.tokenImage =
           tokenIndex
               + ":"
-              + (context.allTokens.image[tokenIndex] != null
-                  ? new String(context.allTokens.image[tokenIndex])
+              + (context.allTokens.image()[tokenIndex] != null
+                  ? new String(context.allTokens.image()[tokenIndex])
                   : "<null>");
     }
 
@@ -484,7 +484,7 @@ public class PreprocessingContextAssert {
       Assertions.assertThat(
               CharArrayComparators.FAST_CHAR_ARRAY_COMPARATOR.compare(
                       image != null ? image.toCharArray() : null,
-                      context.allTokens.image[tokenIndex])
+                      context.allTokens.image()[tokenIndex])
                   == 0)
           .as(
               "token image equality: "
@@ -492,7 +492,7 @@ public class PreprocessingContextAssert {
                   + " vs. "
                   + new String(
                       ObjectUtils.firstNonNull(
-                          context.allTokens.image[tokenIndex], "<null>".toCharArray())))
+                          context.allTokens.image()[tokenIndex], "<null>".toCharArray())))
           .isTrue();
       return this;
     }
@@ -10,6 +10,7 @@
  */
 package org.carrot2.text.preprocessing;
 
+import com.carrotsearch.hppc.sorting.IndirectSort;
 import java.util.stream.Stream;
 import org.assertj.core.api.Assertions;
 import org.carrot2.TestBase;
@@ -105,6 +106,82 @@ public class SuffixSorterTest extends TestBase {
         expectedLcpArray);
   }
 
+  @Test
+  public void testRandomCodesAgainstComparisonSort() {
+    for (int round = 0; round < 100; round++) {
+      final int[] wordIndex = randomWordIndexes(randomIntBetween(1, 500), randomIntBetween(1, 10));
+      final int[] intCodes = SuffixSorter.suffixCodes(wordIndex);
+
+      final int[] expectedSuffixOrder = comparisonSortSuffixArray(intCodes);
+      final int[] suffixOrder = SuffixSorter.suffixArray(intCodes);
+      Assertions.assertThat(suffixOrder).containsExactly(expectedSuffixOrder);
+      Assertions.assertThat(SuffixSorter.calculateLcp(intCodes, suffixOrder))
+          .containsExactly(naiveLcp(intCodes, expectedSuffixOrder));
+    }
+  }
+
+  @Test
+  public void testRepetitiveInput() {
+    final int[] period = randomWordIndexes(randomIntBetween(1, 20), randomIntBetween(1, 5));
+    final int[] wordIndex = repeat(period, randomIntBetween(10, 200));
+    final int[] intCodes = SuffixSorter.suffixCodes(wordIndex);
+
+    final int[] suffixOrder = SuffixSorter.suffixArray(intCodes);
+    Assertions.assertThat(suffixOrder).containsExactly(comparisonSortSuffixArray(intCodes));
+    Assertions.assertThat(SuffixSorter.calculateLcp(intCodes, suffixOrder))
+        .containsExactly(naiveLcp(intCodes, suffixOrder));
+  }
+
+  /** Random word indexes with occasional separators (-1), always ending with a separator. */
+  static int[] randomWordIndexes(int length, int words) {
+    final int[] wordIndex = new int[length];
+    for (int i = 0; i < length - 1; i++) {
+      wordIndex[i] = randomIntBetween(0, 9) == 0 ? -1 : randomIntBetween(0, words - 1);
+    }
+    wordIndex[length - 1] = -1;
+    return wordIndex;
+  }
+
+  /** Repeats <code>period</code> without its trailing separator, adding one at the end. */
+  static int[] repeat(int[] period, int times) {
+    final int length = period.length - 1;
+    final int[] wordIndex = new int[length * times + 1];
+    for (int i = 0; i < times; i++) {
+      System.arraycopy(period, 0, wordIndex, i * length, length);
+    }
+    wordIndex[wordIndex.length - 1] = -1;
+    return wordIndex;
+  }
+
+  /** Suffix sorting with a comparison sort, as previously done by {@link SuffixSorter}. */
+  static int[] comparisonSortSuffixArray(int[] intCodes) {
+    return IndirectSort.mergesort(
+        0,
+        intCodes.length,
+        (suffixA, suffixB) -> {
+          if (suffixA == suffixB) {
+            return 0;
+          }
+          while (intCodes[suffixA] == intCodes[suffixB]) {
+            suffixA++;
+            suffixB++;
+          }
+          return intCodes[suffixB] - intCodes[suffixA];
+        });
+  }
+
+  static int[] naiveLcp(int[] intCodes, int[] suffixOrder) {
+    int[] lcpArray = new int[intCodes.length];
+    for (int i = 1; i < lcpArray.length - 1; i++) {
+      int lcp = 0;
+      while (intCodes[suffixOrder[i - 1] + lcp] == intCodes[suffixOrder[i] + lcp]) {
+        lcp++;
+      }
+      lcpArray[i] = lcp;
+    }
+    return lcpArray;
+  }
+
   private void checkAsserts(
       Stream<? extends Document> documents, int[] expectedSuffixOrder, int[] expectedLcpArray) {
     PreprocessingContext context =
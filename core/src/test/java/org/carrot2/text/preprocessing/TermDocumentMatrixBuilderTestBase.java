@@ -43,6 +43,7 @@ public class TermDocumentMatrixBuilderTestBase extends TestBase {
     matrixBuilder.termWeighting = new TfTermWeighting();
     matrixBuilder.maxWordDf.set(1.0);
     matrixBuilder.boostFields.set("title");
+    matrixBuilder.sparseMatrices.set(randomBoolean());
   }
 
   protected PreprocessingContext buildTermDocumentMatrix(Stream<? extends Document> documents) {
@@ -0,0 +1,112 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.util;
+
+import com.carrotsearch.hppc.BitSet;
+import org.assertj.core.api.Assertions;
+import org.carrot2.TestBase;
+import org.junit.Test;
+
+/** Test cases for {@link CompressedBitSet}. */
+public class CompressedBitSetTest extends TestBase {
+  @Test
+  public void testEmpty() {
+    CompressedBitSet set = new CompressedBitSet();
+    Assertions.assertThat(set.isEmpty()).isTrue();
+    Assertions.assertThat(set.cardinality()).isZero();
+    Assertions.assertThat(set.length()).isZero();
+    Assertions.assertThat(set.nextSetBit(0)).isEqualTo(-1);
+    Assertions.assertThat(set.toArray()).isEmpty();
+    Assertions.assertThat(set).isEqualTo(new CompressedBitSet());
+    Assertions.assertThat(set.toString()).isEqualTo("{}");
+  }
+
+  @Test
+  public void testSetAndGet() {
+    CompressedBitSet set = CompressedBitSet.of(5, 3, 70_000, 3, 0);
+    Assertions.assertThat(set.toArray()).containsExactly(0, 3, 5, 70_000);
+    Assertions.assertThat(set.get(3)).isTrue();
+    Assertions.assertThat(set.get(4)).isFalse();
+    Assertions.assertThat(set.get(-1)).isFalse();
+    Assertions.assertThat(set.length()).isEqualTo(70_001);
+    Assertions.assertThat(set.nextSetBit(6)).isEqualTo(70_000);
+    Assertions.assertThat(set.toString()).isEqualTo("{0, 3, 5, 70000}");
+  }
+
+  @Test
+  public void testSparseSetsUseLittleMemory() {
+    CompressedBitSet set = CompressedBitSet.of(10, 20_000, 49_999);
+    BitSet bitSet = new BitSet(50_000);
+    Assertions.assertThat(set.ramBytesUsed()).isLessThan(bitSet.bits.length * Long.BYTES / 10);
+  }
+
+  @Test
+  public void testEquivalentToBitSet() {
+    for (int round = 0; round < 100; round++) {
+      BitSet a = new BitSet();
+      BitSet b = new BitSet();
+      CompressedBitSet ca = new CompressedBitSet();
+      CompressedBitSet cb = new CompressedBitSet();
+      randomFill(a, ca);
+      randomFill(b, cb);
+
+      Assertions.assertThat(ca.cardinality()).isEqualTo(a.cardinality());
+      Assertions.assertThat(ca.length()).isEqualTo(a.length());
+      Assertions.assertThat(ca.toArray()).isEqualTo(a.asIntLookupContainer().toArray());
+      Assertions.assertThat(CompressedBitSet.intersectionCount(ca, cb))
+          .isEqualTo(BitSet.intersectionCount(a, b));
+
+      for (int i = 0; i < 100; i++) {
+        int index = randomIntBetween(0, (int) Math.max(a.length(), 1) + 10);
+        Assertions.assertThat(ca.get(index)).isEqualTo(a.get(index));
+        Assertions.assertThat(ca.nextSetBit(index)).isEqualTo(a.nextSetBit(index));
+      }
+
+      CompressedBitSet clone = ca.clone();
+      BitSet expected = (BitSet) a.clone();
+      switch (randomIntBetween(0, 2)) {
+        case 0:
+          clone.or(cb);
+          expected.union(b);
+          break;
+        case 1:
+          clone.and(cb);
+          expected.intersect(b);
+          break;
+        case 2:
+          clone.clear();
+          expected.clear();
+          break;
+      }
+
+      Assertions.assertThat(clone.toArray()).isEqualTo(expected.asIntLookupContainer().toArray());
+      Assertions.assertThat(clone.cardinality()).isEqualTo(expected.cardinality());
+      Assertions.assertThat(clone.isEmpty()).isEqualTo(expected.isEmpty());
+      Assertions.assertThat(clone).isEqualTo(CompressedBitSet.of(clone.toArray()));
+      Assertions.assertThat(clone.hashCode())
+          .isEqualTo(CompressedBitSet.of(clone.toArray()).hashCode());
+
+      // The original set must not change.
+      Assertions.assertThat(ca.toArray()).isEqualTo(a.asIntLookupContainer().toArray());
+    }
+  }
+
+  /** Fills both sets with the same random elements, sparse or dense, over one or more chunks. */
+  private static void randomFill(BitSet bitSet, CompressedBitSet set) {
+    final int max = randomFrom(new int[] {100, 70_000, 300_000});
+    final int count = randomBoolean() ? randomIntBetween(0, 100) : randomIntBetween(0, max / 2);
+    for (int i = 0; i < count; i++) {
+      int index = randomIntBetween(0, max);
+      bitSet.set(index);
+      set.set(index);
+    }
+  }
+}
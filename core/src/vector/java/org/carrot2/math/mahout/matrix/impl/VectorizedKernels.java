@@ -0,0 +1,181 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.mahout.matrix.impl;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementations of {@link DenseKernels} with the (incubating) vector API. This class is compiled
+ * separately from other classes (only it requires the <code>jdk.incubator.vector</code> module) and
+ * {@link DenseKernels} loads it reflectively, if the module is available.
+ *
+ * <p>All kernels apply the same floating point operations to each element as {@link ScalarKernels}
+ * (no fused multiply-adds, no reordering), so their results are identical.
+ */
+final class VectorizedKernels implements ArrayKernels {
+  private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+  VectorizedKernels() {}
+
+  @Override
+  public int lanes() {
+    return SPECIES.length();
+  }
+
+  @Override
+  public void scale(double[] x, int xOffset, int length, double multiplicator) {
+    final int bound = SPECIES.loopBound(length);
+    int i = 0;
+    for (; i < bound; i += SPECIES.length()) {
+      DoubleVector.fromArray(SPECIES, x, xOffset + i).mul(multiplicator).intoArray(x, xOffset + i);
+    }
+    ScalarKernels.scale(x, xOffset + i, length - i, multiplicator);
+  }
+
+  @Override
+  public void add(double[] x, int xOffset, int length, double value) {
+    final int bound = SPECIES.loopBound(length);
+    int i = 0;
+    for (; i < bound; i += SPECIES.length()) {
+      DoubleVector.fromArray(SPECIES, x, xOffset + i).add(value).intoArray(x, xOffset + i);
+    }
+    ScalarKernels.add(x, xOffset + i, length - i, value);
+  }
+
+  @Override
+  public void multiply(double[] x, int xOffset, double[] y, int yOffset, int length) {
+    final int bound = SPECIES.loopBound(length);
+    int i = 0;
+    for (; i < bound; i += SPECIES.length()) {
+      DoubleVector.fromArray(SPECIES, x, xOffset + i)
+          .mul(DoubleVector.fromArray(SPECIES, y, yOffset + i))
+          .intoArray(x, xOffset + i);
+    }
+    ScalarKernels.multiply(x, xOffset + i, y, yOffset + i, length - i);
+  }
+
+  @Override
+  public void divide(double[] x, int xOffset, double[] y, int yOffset, int length) {
+    final int bound = SPECIES.loopBound(length);
+    int i = 0;
+    for (; i < bound; i += SPECIES.length()) {
+      DoubleVector.fromArray(SPECIES, x, xOffset + i)
+          .div(DoubleVector.fromArray(SPECIES, y, yOffset + i))
+          .intoArray(x, xOffset + i);
+    }
+    ScalarKernels.divide(x, xOffset + i, y, yOffset + i, length - i);
+  }
+
+  @Override
+  public void divideInto(double[] x, int xOffset, double[] y, int yOffset, int length) {
+    final int bound = SPECIES.loopBound(length);
+    int i = 0;
+    for (; i < bound; i += SPECIES.length()) {
+      DoubleVector.fromArray(SPECIES, y, yOffset + i)
+          .div(DoubleVector.fromArray(SPECIES, x, xOffset + i))
+          .intoArray(x, xOffset + i);
+    }
+    ScalarKernels.divideInto(x, xOffset + i, y, yOffset + i, length - i);
+  }
+
+  @Override
+  public void addMultiple(
+      double[] x, int xOffset, double[] y, int yOffset, int length, double multiplicator) {
+    final int bound = SPECIES.loopBound(length);
+    int i = 0;
+    for (; i < bound; i += SPECIES.length()) {
+      DoubleVector.fromArray(SPECIES, x, xOffset + i)
+          .add(DoubleVector.fromArray(SPECIES, y, yOffset + i).mul(multiplicator))
+          .intoArray(x, xOffset + i);
+    }
+    ScalarKernels.addMultiple(x, xOffset + i, y, yOffset + i, length - i, multiplicator);
+  }
+
+  @Override
+  public void addSquares(double[] sums, double[] x, int xOffset, int length) {
+    final int bound = SPECIES.loopBound(length);
+    int i = 0;
+    for (; i < bound; i += SPECIES.length()) {
+      final DoubleVector v = DoubleVector.fromArray(SPECIES, x, xOffset + i);
+      DoubleVector.fromArray(SPECIES, sums, i).add(v.mul(v)).intoArray(sums, i);
+    }
+    for (int j = xOffset + i; i < length; i++, j++) {
+      sums[i] += x[j] * x[j];
+    }
+  }
+
+  @Override
+  public void divideByNonZero(double[] x, int xOffset, double[] divisors, int length) {
+    final int bound = SPECIES.loopBound(length);
+    int i = 0;
+    for (; i < bound; i += SPECIES.length()) {
+      final DoubleVector d = DoubleVector.fromArray(SPECIES, divisors, i);
+      final VectorMask<Double> nonZero = d.compare(VectorOperators.NE, 0);
+      DoubleVector.fromArray(SPECIES, x, xOffset + i).div(d, nonZero).intoArray(x, xOffset + i);
+    }
+    for (int j = xOffset + i; i < length; i++, j++) {
+      if (divisors[i] != 0) {
+        x[j] /= divisors[i];
+      }
+    }
+  }
+
+  @Override
+  public void max(
+      double[] max, int[] indices, double[] x, int xOffset, int length, int row, boolean abs) {
+    final int bound = SPECIES.loopBound(length);
+    int i = 0;
+    for (; i < bound; i += SPECIES.length()) {
+      DoubleVector v = DoubleVector.fromArray(SPECIES, x, xOffset + i);
+      if (abs) {
+        v = v.abs();
+      }
+      final DoubleVector m = DoubleVector.fromArray(SPECIES, max, i);
+      final VectorMask<Double> greater = comparesGreater(v, m);
+      if (greater.anyTrue()) {
+        m.blend(v, greater).intoArray(max, i);
+        for (int lane = greater.firstTrue(); lane < SPECIES.length(); lane++) {
+          if (greater.laneIsSet(lane)) {
+            indices[i + lane] = row;
+          }
+        }
+      }
+    }
+    for (int j = xOffset + i; i < length; i++, j++) {
+      final double value = abs ? Math.abs(x[j]) : x[j];
+      if (Double.compare(value, max[i]) > 0) {
+        max[i] = value;
+        indices[i] = row;
+      }
+    }
+  }
+
+  /**
+   * @return Returns the lanes where {@link Double#compare(double, double)} orders <code>a</code>
+   *     after <code>b</code>: <code>a &gt; b</code>, positive zero after negative zero and NaNs
+   *     after all other values.
+   */
+  private static VectorMask<Double> comparesGreater(DoubleVector a, DoubleVector b) {
+    final VectorMask<Double> aNaN = a.test(VectorOperators.IS_NAN);
+    final VectorMask<Double> bNaN = b.test(VectorOperators.IS_NAN);
+    final VectorMask<Double> zeros =
+        a.compare(VectorOperators.EQ, 0).and(b.compare(VectorOperators.EQ, 0));
+    final LongVector aBits = a.reinterpretAsLongs();
+    final LongVector bBits = b.reinterpretAsLongs();
+    final VectorMask<Double> positiveAfterNegativeZero =
+        zeros.and(aBits.compare(VectorOperators.GT, bBits).cast(SPECIES));
+    return a.compare(VectorOperators.GT, b).or(positiveAfterNegativeZero).or(aNaN.andNot(bNaN));
+  }
+}
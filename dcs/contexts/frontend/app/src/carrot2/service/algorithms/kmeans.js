@@ -39,7 +39,9 @@ const languageModelSettings = [
   advanced(settingFrom("preprocessing.wordDfThreshold")),
   settingFrom("useDimensionalityReduction"),
   ...settingFromRecursive("matrixReducer.factorizationFactory", getterProvider),
-  settingFrom("matrixBuilder.maximumMatrixSize")
+  settingFrom("matrixBuilder.maximumMatrixSize"),
+  advanced(settingFrom("matrixBuilder.sparseMatrices")),
+  advanced(settingFrom("matrixReducer.singlePrecision"))
 ];
 
 const parameterStore = persistentStore(
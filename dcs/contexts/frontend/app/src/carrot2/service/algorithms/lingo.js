@@ -83,7 +83,9 @@ const languageModelSettings = [
   advanced(settingFrom("preprocessing.wordDfThreshold")),
   advanced(settingFrom("matrixBuilder.maxWordDf")),
   ...settingFromRecursive("matrixReducer.factorizationFactory", getterProvider),
-  settingFrom("matrixBuilder.maximumMatrixSize")
+  settingFrom("matrixBuilder.maximumMatrixSize"),
+  advanced(settingFrom("matrixBuilder.sparseMatrices")),
+  advanced(settingFrom("matrixReducer.singlePrecision"))
 ];
 
 const dictionariesSettings = [
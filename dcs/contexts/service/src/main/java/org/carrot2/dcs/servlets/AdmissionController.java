@@ -0,0 +1,180 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.dcs.servlets;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.carrot2.dcs.model.ErrorResponseType;
+
+/**
+ * Limits the number of concurrently running clustering requests, both globally and per algorithm.
+ * Requests that cannot run immediately wait (in arrival order) in a bounded queue, for a limited
+ * time. Requests that do not fit in the queue or time out waiting are rejected with {@link
+ * ErrorResponseType#OVERLOADED}, so that the latency of admitted requests stays bounded under load.
+ */
+final class AdmissionController {
+  /** A clustering slot, released on {@link #close()}. */
+  interface Permit extends AutoCloseable {
+    @Override
+    void close();
+  }
+
+  private static final Permit UNLIMITED = () -> {};
+
+  private final int maxConcurrent;
+  private final int maxConcurrentPerAlgorithm;
+  private final int maxQueued;
+  private final long timeoutNanos;
+
+  /** Global slots, <code>null</code> if unbounded. */
+  private final Semaphore global;
+
+  private final ConcurrentHashMap<String, Semaphore> perAlgorithm = new ConcurrentHashMap<>();
+
+  private final AtomicInteger queued = new AtomicInteger();
+  private final AtomicLong rejected = new AtomicLong();
+
+  /**
+   * @param maxConcurrent Maximum number of concurrent clustering requests, zero for no limit.
+   * @param maxConcurrentPerAlgorithm Maximum number of concurrent clustering requests of a single
+   *     algorithm, zero for no limit.
+   * @param maxQueued Maximum number of requests waiting for a slot. Zero rejects requests if there
+   *     is no slot available immediately.
+   * @param timeout Maximum time a request waits for a slot.
+   */
+  AdmissionController(
+      int maxConcurrent,
+      int maxConcurrentPerAlgorithm,
+      int maxQueued,
+      long timeout,
+      TimeUnit timeoutUnit) {
+    if (maxConcurrent < 0 || maxConcurrentPerAlgorithm < 0 || maxQueued < 0 || timeout < 0) {
+      throw new IllegalArgumentException("Admission limits must be non-negative.");
+    }
+    this.maxConcurrent = maxConcurrent;
+    this.maxConcurrentPerAlgorithm = maxConcurrentPerAlgorithm;
+    this.maxQueued = maxQueued;
+    this.timeoutNanos = timeoutUnit.toNanos(timeout);
+    this.global = maxConcurrent > 0 ? new Semaphore(maxConcurrent, true) : null;
+  }
+
+  /**
+   * @return Returns <code>true</code> if any concurrency limit is in effect.
+   */
+  boolean isEnabled() {
+    return maxConcurrent > 0 || maxConcurrentPerAlgorithm > 0;
+  }
+
+  /**
+   * Acquires a clustering slot for the given algorithm, waiting if necessary.
+   *
+   * @throws TerminateRequestException If the wait queue is full or no slot became available in
+   *     time.
+   */
+  Permit acquire(String algorithm) throws TerminateRequestException {
+    if (!isEnabled()) {
+      return UNLIMITED;
+    }
+
+    Semaphore algorithmSlots =
+        maxConcurrentPerAlgorithm > 0
+            ? perAlgorithm.computeIfAbsent(
+                algorithm, (k) -> new Semaphore(maxConcurrentPerAlgorithm, true))
+            : null;
+
+    // Fast path: slots available and nobody waiting for them.
+    if (tryAcquireNow(algorithmSlots)) {
+      if (tryAcquireNow(global)) {
+        return permit(algorithmSlots);
+      }
+      release(algorithmSlots);
+    }
+
+    if (queued.incrementAndGet() > maxQueued) {
+      queued.decrementAndGet();
+      rejected.incrementAndGet();
+      throw new TerminateRequestException(
+          ErrorResponseType.OVERLOADED,
+          "Too many concurrent clustering requests, try again later.");
+    }
+
+    try {
+      final long deadline = System.nanoTime() + timeoutNanos;
+      if (tryAcquire(algorithmSlots, deadline)) {
+        if (tryAcquire(global, deadline)) {
+          return permit(algorithmSlots);
+        }
+        release(algorithmSlots);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TerminateRequestException(
+          ErrorResponseType.UNHANDLED_ERROR, "Interrupted while waiting for a clustering slot.", e);
+    } finally {
+      queued.decrementAndGet();
+    }
+
+    rejected.incrementAndGet();
+    throw new TerminateRequestException(
+        ErrorResponseType.OVERLOADED,
+        "Timed out waiting for a clustering slot (in "
+            + TimeUnit.NANOSECONDS.toMillis(timeoutNanos)
+            + "ms), try again later.");
+  }
+
+  /**
+   * @return Returns the number of requests currently waiting for a slot.
+   */
+  int queued() {
+    return queued.get();
+  }
+
+  /**
+   * @return Returns the number of requests rejected so far.
+   */
+  long rejected() {
+    return rejected.get();
+  }
+
+  private Permit permit(Semaphore algorithmSlots) {
+    AtomicInteger released = new AtomicInteger();
+    return () -> {
+      if (released.getAndIncrement() == 0) {
+        release(global);
+        release(algorithmSlots);
+      }
+    };
+  }
+
+  /** Acquires a permit only if it is available and there are no waiting threads. */
+  private static boolean tryAcquireNow(Semaphore slots) {
+    try {
+      // Unlike tryAcquire(), a zero-timeout wait honors the fairness of the semaphore.
+      return slots == null || slots.tryAcquire(0, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private static boolean tryAcquire(Semaphore slots, long deadline) throws InterruptedException {
+    return slots == null || slots.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+  }
+
+  private static void release(Semaphore slots) {
+    if (slots != null) {
+      slots.release();
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.dcs.servlets;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.carrot2.clustering.ClusteringAlgorithm;
+
+/**
+ * A pool of idle, configured clustering algorithm instances. Instances are keyed by the algorithm,
+ * the request template and request parameters they were populated with, so an instance taken from
+ * the pool is configured exactly as a freshly created one would be. Algorithms restore any settings
+ * they adjust to a particular input once clustering completes, so instances need no reset before
+ * they are reused.
+ *
+ * <p>The pool keeps at most {@link #MAX_CONFIGURATIONS} distinct configurations (least recently
+ * used ones are discarded) and up to a given number of idle instances of each.
+ */
+final class AlgorithmPool {
+  static final int MAX_CONFIGURATIONS = 128;
+
+  /** Identifies the configuration of a pooled algorithm instance. */
+  static final class Key {
+    private final String algorithm;
+    private final String template;
+    private final Map<String, Object> parameters;
+    private final int hashCode;
+
+    /**
+     * @param parameters Request parameters. The map must not be modified once the key is created.
+     */
+    Key(String algorithm, String template, Map<String, Object> parameters) {
+      this.algorithm = Objects.requireNonNull(algorithm);
+      this.template = template;
+      this.parameters = parameters;
+      this.hashCode = Objects.hash(algorithm, template, parameters);
+    }
+
+    String algorithm() {
+      return algorithm;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key other = (Key) o;
+      return hashCode == other.hashCode
+          && algorithm.equals(other.algorithm)
+          && Objects.equals(template, other.template)
+          && Objects.equals(parameters, other.parameters);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private final int maxIdlePerConfiguration;
+  private final LinkedHashMap<Key, ArrayDeque<ClusteringAlgorithm>> idle;
+
+  /**
+   * @param maxIdlePerConfiguration Maximum number of idle instances kept for each configuration,
+   *     zero disables pooling.
+   */
+  AlgorithmPool(int maxIdlePerConfiguration) {
+    if (maxIdlePerConfiguration < 0) {
+      throw new IllegalArgumentException(
+          "Pool size must be non-negative: " + maxIdlePerConfiguration);
+    }
+    this.maxIdlePerConfiguration = maxIdlePerConfiguration;
+    this.idle =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(
+              Map.Entry<Key, ArrayDeque<ClusteringAlgorithm>> eldest) {
+            return size() > MAX_CONFIGURATIONS;
+          }
+        };
+  }
+
+  /**
+   * @return Returns an idle instance configured for the given key (removing it from the pool) or
+   *     <code>null</code> if there is no such instance.
+   */
+  synchronized ClusteringAlgorithm borrow(Key key) {
+    ArrayDeque<ClusteringAlgorithm> instances = idle.get(key);
+    return instances == null ? null : instances.pollFirst();
+  }
+
+  /**
+   * Returns an instance to the pool. The instance must have been borrowed from the pool or created
+   * and populated for the given key, and must not be used by the caller afterwards.
+   */
+  synchronized void release(Key key, ClusteringAlgorithm algorithm) {
+    if (maxIdlePerConfiguration == 0) {
+      return;
+    }
+
+    ArrayDeque<ClusteringAlgorithm> instances =
+        idle.computeIfAbsent(key, (k) -> new ArrayDeque<>());
+    if (instances.size() < maxIdlePerConfiguration) {
+      instances.addFirst(Objects.requireNonNull(algorithm));
+    }
+  }
+
+  synchronized int idleCount() {
+    return idle.values().stream().mapToInt(ArrayDeque::size).sum();
+  }
+}
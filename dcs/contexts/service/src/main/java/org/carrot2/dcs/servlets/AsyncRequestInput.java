@@ -0,0 +1,199 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.dcs.servlets;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.carrot2.clustering.CancellationToken;
+import org.carrot2.clustering.ClusteringCancelledException;
+
+/**
+ * Reads the request body with non-blocking servlet I/O and exposes it as a (blocking) input stream
+ * to the thread processing the request.
+ *
+ * <p>The container does not report a client disconnect to the async context unless a read or a
+ * write is pending. The body is read with a {@link ReadListener} instead, which is notified
+ * (through {@link #onError(Throwable)}) if the connection fails while waiting for more data. The
+ * request is then cancelled and the pending reads fail.
+ *
+ * <p>Reads wait for data until the deadline of the request's {@link CancellationToken}. They fail
+ * with a {@link ClusteringCancelledException} once the deadline passes or the token is cancelled.
+ * Whoever cancels the token elsewhere must call {@link #cancelled()} to wake up pending reads.
+ *
+ * <p>At most {@link #MAX_BUFFERED} bytes are read ahead of the consumer; reading resumes once the
+ * consumer catches up (half of the buffer is consumed).
+ */
+class AsyncRequestInput extends InputStream implements ReadListener {
+  static final int MAX_BUFFERED = 64 * 1024;
+  private static final int CHUNK_SIZE = 8 * 1024;
+
+  private final ServletInputStream input;
+  private final CancellationToken cancellation;
+
+  // All fields below are guarded by this object's monitor.
+  private final ArrayDeque<byte[]> chunks = new ArrayDeque<>();
+  private byte[] chunk;
+  private int position;
+  private int buffered;
+  private boolean finished;
+  private IOException failure;
+
+  /** Set when reading stopped because the buffer is full (the input is still ready). */
+  private boolean paused;
+
+  AsyncRequestInput(ServletInputStream input, CancellationToken cancellation) {
+    this.input = Objects.requireNonNull(input);
+    this.cancellation = Objects.requireNonNull(cancellation);
+    input.setReadListener(this);
+  }
+
+  @Override
+  public void onDataAvailable() throws IOException {
+    fill();
+  }
+
+  @Override
+  public synchronized void onAllDataRead() {
+    finished = true;
+    notifyAll();
+  }
+
+  /** Wakes up pending reads after the cancellation token has been cancelled. */
+  synchronized void cancelled() {
+    notifyAll();
+  }
+
+  @Override
+  public void onError(Throwable t) {
+    // The client disconnected (or the connection failed), nobody waits for the result.
+    cancellation.cancel();
+    synchronized (this) {
+      failure =
+          t instanceof IOException
+              ? (IOException) t
+              : new IOException("Could not read the request body.", t);
+      notifyAll();
+    }
+  }
+
+  /**
+   * Reads the data available without blocking until the buffer is full. Invoked by the container
+   * or, if reading was paused, by the consumer (never concurrently).
+   */
+  private void fill() throws IOException {
+    byte[] buffer = new byte[CHUNK_SIZE];
+    while (true) {
+      synchronized (this) {
+        if (buffered >= MAX_BUFFERED) {
+          paused = true;
+          return;
+        }
+      }
+
+      // If the input is not ready, the container calls onDataAvailable (or onError) later.
+      if (!input.isReady()) {
+        return;
+      }
+
+      int read = input.read(buffer);
+      synchronized (this) {
+        if (read < 0) {
+          finished = true;
+        } else if (read > 0) {
+          chunks.add(Arrays.copyOf(buffer, read));
+          buffered += read;
+        }
+        notifyAll();
+      }
+      if (read < 0) {
+        return;
+      }
+    }
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] b = new byte[1];
+    return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    Objects.checkFromIndexSize(off, len, b.length);
+    if (len == 0) {
+      return 0;
+    }
+
+    int read;
+    boolean resume;
+    synchronized (this) {
+      while (chunk == null) {
+        if (failure != null) {
+          throw failure;
+        }
+        chunk = chunks.poll();
+        position = 0;
+        if (chunk == null) {
+          if (finished) {
+            return -1;
+          }
+          if (cancellation.isCancelled()) {
+            throw new ClusteringCancelledException("Request cancelled.");
+          }
+          long remaining = cancellation.remainingNanos();
+          if (remaining <= 0) {
+            throw new ClusteringCancelledException(
+                "Request body not received before the deadline.");
+          }
+          try {
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+          }
+        }
+      }
+
+      read = Math.min(len, chunk.length - position);
+      System.arraycopy(chunk, position, b, off, read);
+      position += read;
+      if (position == chunk.length) {
+        chunk = null;
+      }
+      buffered -= read;
+
+      resume = paused && buffered <= MAX_BUFFERED / 2;
+      if (resume) {
+        paused = false;
+      }
+    }
+
+    if (resume) {
+      fill();
+    }
+    return read;
+  }
+
+  @Override
+  public synchronized int available() throws IOException {
+    if (failure != null) {
+      throw failure;
+    }
+    return buffered;
+  }
+}
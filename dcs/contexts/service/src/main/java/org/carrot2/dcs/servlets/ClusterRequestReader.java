@@ -0,0 +1,308 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.dcs.servlets;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.carrot2.dcs.model.ClusterRequest;
+
+/**
+ * Reads a {@link ClusterRequest} from JSON without materializing its documents. Documents are
+ * parsed one by one, as they are consumed from {@link #documents()}.
+ *
+ * <p>Request properties ({@link ClusterRequest#language}, {@link ClusterRequest#algorithm} and
+ * {@link ClusterRequest#parameters}) may appear anywhere in the request object. Documents are only
+ * streamed if all these properties precede them, otherwise they are buffered as raw JSON tokens
+ * until the end of the request is reached. Each property may appear at most once.
+ */
+final class ClusterRequestReader implements Closeable {
+  static final String PROPERTY_LANGUAGE = "language";
+  static final String PROPERTY_ALGORITHM = "algorithm";
+  static final String PROPERTY_PARAMETERS = "parameters";
+  static final String PROPERTY_DOCUMENTS = "documents";
+
+  /** Request properties other than documents. */
+  private static final Set<String> REQUEST_PROPERTIES =
+      Set.of(PROPERTY_LANGUAGE, PROPERTY_ALGORITHM, PROPERTY_PARAMETERS);
+
+  private static final TypeReference<Map<String, Object>> PARAMETERS_TYPE =
+      new TypeReference<>() {};
+
+  private final ObjectMapper om;
+  private final JsonParser parser;
+  private final ClusterRequest request = new ClusterRequest();
+
+  /** The parser to read documents from, positioned at the start of the documents array. */
+  private JsonParser documentsParser;
+
+  /** Buffered documents, if they could not be streamed. */
+  private TokenBuffer documentsBuffer;
+
+  private boolean documentsStreamed;
+  private boolean documentsFinished;
+
+  /** Names of request properties read so far. */
+  private final Set<String> properties = new HashSet<>();
+
+  ClusterRequestReader(ObjectMapper om, InputStream input) throws IOException {
+    this.om = om;
+    this.parser = om.createParser(input);
+    this.request.documents = null;
+  }
+
+  /**
+   * Reads request properties up to the documents array. Documents are streamed if <code>
+   * streamDocuments</code> is <code>true</code> and all request properties precede them, otherwise
+   * documents are buffered and the remaining properties are read.
+   *
+   * @return Returns the request with all properties except documents.
+   */
+  ClusterRequest readRequest(boolean streamDocuments) throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new JsonParseException(parser, "Expected a JSON object with the clustering request.");
+    }
+
+    JsonToken token;
+    while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+      final String property = parser.currentName();
+      parser.nextToken();
+      if (PROPERTY_DOCUMENTS.equals(property)) {
+        if (documentsParser != null) {
+          throw new JsonParseException(parser, "Duplicate property: " + property);
+        }
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+          continue;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+          throw new JsonParseException(parser, "Documents must be an array of JSON objects.");
+        }
+
+        if (streamDocuments && properties.size() == REQUEST_PROPERTIES.size()) {
+          documentsParser = parser;
+          return request;
+        }
+
+        documentsBuffer = new TokenBuffer(parser);
+        documentsBuffer.copyCurrentStructure(parser);
+        documentsParser = documentsBuffer.asParser();
+        documentsParser.nextToken();
+      } else {
+        readProperty(property);
+      }
+    }
+
+    checkEndOfRequest(token);
+    return request;
+  }
+
+  /**
+   * Computes a digest of the content of all documents (field names and values, in order). Documents
+   * must have been buffered, that is {@link #readRequest(boolean)} must have been called with
+   * streaming disabled.
+   */
+  byte[] documentsDigest() throws IOException {
+    if (documentsParser == parser) {
+      throw new IllegalStateException("Documents are streamed, not buffered.");
+    }
+
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+
+    if (documentsBuffer != null) {
+      try (JsonParser tokens = documentsBuffer.asParser()) {
+        JsonToken token;
+        while ((token = tokens.nextToken()) != null) {
+          digest.update((byte) token.ordinal());
+          if (token == JsonToken.FIELD_NAME || token.isScalarValue()) {
+            byte[] text = tokens.getText().getBytes(StandardCharsets.UTF_8);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(0, text.length));
+            digest.update(text);
+          }
+        }
+      }
+    }
+    return digest.digest();
+  }
+
+  /**
+   * Returns a stream of request documents. The stream can be consumed only once, and its
+   * consumption may throw an {@link UncheckedIOException} if documents cannot be parsed.
+   */
+  Stream<ClusterRequest.Document> documents() {
+    if (documentsStreamed) {
+      throw new IllegalStateException("Documents have already been consumed.");
+    }
+    documentsStreamed = true;
+
+    if (documentsParser == null) {
+      return Stream.empty();
+    }
+
+    Spliterator<ClusterRequest.Document> spliterator =
+        new Spliterators.AbstractSpliterator<>(
+            Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+          @Override
+          public boolean tryAdvance(Consumer<? super ClusterRequest.Document> action) {
+            try {
+              ClusterRequest.Document doc = nextDocument();
+              if (doc == null) {
+                return false;
+              }
+              action.accept(doc);
+              return true;
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          }
+        };
+
+    return StreamSupport.stream(spliterator, false);
+  }
+
+  /**
+   * Reads the remainder of the request, skipping any documents that have not been consumed. All
+   * request properties precede streamed documents, so only the end of the request may follow them.
+   */
+  void finish() throws IOException {
+    if (documentsParser == parser) {
+      while (nextDocument() != null) {
+        // Skip unconsumed documents.
+      }
+
+      JsonToken token = parser.nextToken();
+      if (token == JsonToken.FIELD_NAME) {
+        checkProperty(parser.currentName());
+      }
+      checkEndOfRequest(token);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      if (documentsParser != null && documentsParser != parser) {
+        documentsParser.close();
+      }
+    } finally {
+      parser.close();
+    }
+  }
+
+  private void readProperty(String property) throws IOException {
+    checkProperty(property);
+    properties.add(property);
+    switch (property) {
+      case PROPERTY_LANGUAGE:
+        request.language = om.readValue(parser, String.class);
+        break;
+      case PROPERTY_ALGORITHM:
+        request.algorithm = om.readValue(parser, String.class);
+        break;
+      case PROPERTY_PARAMETERS:
+        request.parameters =
+            parser.currentToken() == JsonToken.VALUE_NULL
+                ? null
+                : om.readValue(parser, PARAMETERS_TYPE);
+        break;
+      default:
+        throw new AssertionError(property);
+    }
+  }
+
+  private void checkProperty(String property) throws JsonParseException {
+    if (!REQUEST_PROPERTIES.contains(property)) {
+      throw new JsonParseException(parser, "Unrecognized request property: " + property);
+    }
+    if (properties.contains(property)) {
+      throw new JsonParseException(parser, "Duplicate property: " + property);
+    }
+  }
+
+  private void checkEndOfRequest(JsonToken token) throws IOException {
+    if (token != JsonToken.END_OBJECT) {
+      throw new JsonParseException(parser, "Unexpected token in the clustering request: " + token);
+    }
+  }
+
+  /**
+   * Reads the next document, with field values being strings or arrays of strings.
+   *
+   * @return Returns the next document or <code>null</code> at the end of the documents array.
+   */
+  private ClusterRequest.Document nextDocument() throws IOException {
+    if (documentsParser == null || documentsFinished) {
+      return null;
+    }
+
+    final JsonParser source = documentsParser;
+    if (source.nextToken() == JsonToken.END_ARRAY) {
+      documentsFinished = true;
+      return null;
+    }
+    if (source.currentToken() != JsonToken.START_OBJECT) {
+      throw new JsonParseException(source, "Documents must be JSON objects.");
+    }
+
+    ClusterRequest.Document doc = new ClusterRequest.Document();
+    while (source.nextToken() == JsonToken.FIELD_NAME) {
+      final String field = source.currentName();
+      JsonToken token = source.nextToken();
+      if (token == JsonToken.VALUE_STRING) {
+        doc.setField(field, source.getText());
+      } else if (token == JsonToken.START_ARRAY) {
+        List<String> values = new ArrayList<>();
+        while ((token = source.nextToken()) == JsonToken.VALUE_STRING) {
+          values.add(source.getText());
+        }
+        if (token != JsonToken.END_ARRAY) {
+          throw invalidFieldValue(source, field);
+        }
+        doc.setField(field, values);
+      } else {
+        throw invalidFieldValue(source, field);
+      }
+    }
+    return doc;
+  }
+
+  private static JsonParseException invalidFieldValue(JsonParser source, String field) {
+    return new JsonParseException(
+        source,
+        "Document's field values can be of type String, String[] or a List<String>: field="
+            + field);
+  }
+}
@@ -11,34 +11,52 @@
 package org.carrot2.dcs.servlets;
 
 import com.carrotsearch.hppc.cursors.IntCursor;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.ServletConfig;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.carrot2.attrs.AliasMapper;
 import org.carrot2.attrs.Attrs;
+import org.carrot2.clustering.CancellationToken;
 import org.carrot2.clustering.Cluster;
 import org.carrot2.clustering.ClusteringAlgorithm;
 import org.carrot2.clustering.ClusteringAlgorithmProvider;
+import org.carrot2.clustering.ClusteringCancelledException;
 import org.carrot2.clustering.Document;
+import org.carrot2.clustering.StageListener;
 import org.carrot2.dcs.model.ClusterRequest;
 import org.carrot2.dcs.model.ClusterResponse;
 import org.carrot2.dcs.model.ClusterServletParameters;
 import org.carrot2.dcs.model.ErrorResponseType;
 import org.carrot2.dcs.model.ServiceInfo;
 import org.carrot2.language.LanguageComponents;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 @SuppressWarnings("serial")
 public class ClusterServlet extends RestEndpoint {
   public static final String PARAM_SERVICE_INFO = "serviceInfo";
 
+  private static final Logger console = LoggerFactory.getLogger("console");
+
+  /** Time allowed past the request's deadline to complete clustering and write the response. */
+  private static final long ASYNC_TIMEOUT_MARGIN_MILLIS = 10_000;
+
   private DcsContext dcsContext;
   private ClusterRequest templateDefault = new ClusterRequest();
 
@@ -67,30 +85,163 @@ public class ClusterServlet extends RestEndpoint {
     dcsContext = DcsContext.load(config.getServletContext());
   }
 
+  /**
+   * Hands the request off to the clustering executor (with async processing), so that container
+   * threads are not blocked while clustering. Requests are processed on the container thread if
+   * async processing is not supported.
+   */
   @Override
   protected void doPost(HttpServletRequest request, HttpServletResponse response)
       throws IOException {
-    // TODO: support streaming mode in which the request is not fully deserialized but parsed and
-    // processed on the fly?
+    Stopwatch swRequest = new Stopwatch();
+    CancellationToken cancellation;
+    try {
+      cancellation = parseTimeout(request);
+    } catch (TerminateRequestException e) {
+      handleException(request, response, e);
+      return;
+    }
+
+    if (!request.isAsyncSupported()) {
+      processRequest(request, request.getInputStream(), response, swRequest, cancellation);
+      return;
+    }
+
+    AsyncContext asyncContext = request.startAsync();
+    // The async timeout is a backstop for the request's deadline: it leaves time to complete
+    // best-effort clustering and write the response. Requests without a deadline are not timed
+    // out (stalled uploads still fail with the container's connection idle timeout).
+    long remainingNanos = cancellation.remainingNanos();
+    asyncContext.setTimeout(
+        remainingNanos == Long.MAX_VALUE
+            ? 0
+            : TimeUnit.NANOSECONDS.toMillis(remainingNanos) + ASYNC_TIMEOUT_MARGIN_MILLIS);
+
+    // Client disconnects during the upload cancel the request (see AsyncRequestInput).
+    AsyncRequestInput body;
+    try {
+      body = new AsyncRequestInput(request.getInputStream(), cancellation);
+    } catch (IOException e) {
+      try {
+        handleException(request, response, e);
+      } finally {
+        asyncContext.complete();
+      }
+      return;
+    }
+
+    asyncContext.addListener(
+        new AsyncListener() {
+          @Override
+          public void onError(AsyncEvent event) {
+            // Writing the response (or the connection) failed, nobody waits for the result.
+            cancellation.cancel();
+            body.cancelled();
+          }
+
+          @Override
+          public void onTimeout(AsyncEvent event) {
+            cancellation.cancel();
+            body.cancelled();
+          }
+
+          @Override
+          public void onComplete(AsyncEvent event) {}
+
+          @Override
+          public void onStartAsync(AsyncEvent event) {}
+        });
+
+    try {
+      dcsContext.clusteringExecutor.execute(
+          () -> {
+            try {
+              processRequest(request, body, response, swRequest, cancellation);
+            } catch (IOException e) {
+              console.debug("Could not write the response: {}", e.toString());
+            } finally {
+              asyncContext.complete();
+            }
+          });
+    } catch (TerminateRequestException e) {
+      try {
+        handleException(request, response, e);
+      } finally {
+        asyncContext.complete();
+      }
+    }
+  }
 
+  private void processRequest(
+      HttpServletRequest request,
+      InputStream body,
+      HttpServletResponse response,
+      Stopwatch swRequest,
+      CancellationToken cancellation)
+      throws IOException {
     try {
       ServiceInfo serviceInfo = new ServiceInfo();
 
-      Stopwatch swRequest = new Stopwatch();
       ClusterRequest template = parseTemplate(request);
-      ClusterRequest clusteringRequest = parseRequest(request);
 
-      ClusteringAlgorithm algorithm = parseAlgorithm(template, clusteringRequest);
+      // Documents are parsed and tokenized as they are consumed by the algorithm if all request
+      // properties precede them, so only their tokens are kept in memory. Otherwise, documents
+      // are buffered: if results are cached (documents are hashed before clustering) and if
+      // clustering needs an admission permit (the body is read before waiting for a clustering
+      // slot so that slow uploads don't hold slots).
+      ResultCache cache = dcsContext.resultCache;
+      boolean streamDocuments = cache == null && !dcsContext.admissionController.isEnabled();
+      List<Cluster<Integer>> clusters = null;
+      try (ClusterRequestReader reader = openRequest(body)) {
+        ClusterRequest clusteringRequest = parseRequest(reader, streamDocuments);
+
+        AlgorithmPool.Key algorithmKey = algorithmKey(request, template, clusteringRequest);
+
+        // Get language components for the designated language.
+        LanguageComponents language = getLanguage(template, clusteringRequest);
 
-      // Get language components for the designated language.
-      LanguageComponents language = getLanguage(template, clusteringRequest);
+        ResultCache.Key cacheKey = null;
+        if (cache != null) {
+          cacheKey =
+              new ResultCache.Key(
+                  clusteringRequest.language, algorithmKey, documentsDigest(reader));
+          clusters = cache.get(cacheKey);
+          serviceInfo.cacheHit = clusters != null;
+          serviceInfo.cacheHits = cache.hits();
+          serviceInfo.cacheMisses = cache.misses();
+        }
 
-      // Run the clustering.
-      Stopwatch swClustering = new Stopwatch();
-      List<Cluster<DocumentRef>> clusters = runClustering(clusteringRequest, algorithm, language);
-      serviceInfo.clusteringTimeMillis = swClustering.elapsedMillis();
+        if (clusters == null) {
+          // Wait for a free clustering slot (or reject the request if overloaded).
+          try (AdmissionController.Permit permit =
+              dcsContext.admissionController.acquire(algorithmKey.algorithm())) {
+            ClusteringAlgorithm algorithm =
+                acquireAlgorithm(algorithmKey, template, clusteringRequest);
 
-      ClusterResponse clusterResponse = new ClusterResponse(adapt(clusters));
+            // Run the clustering, collecting stage timings if they are to be returned.
+            StageListener stageListener = StageListener.NONE;
+            if (isEnabled(request, PARAM_SERVICE_INFO)) {
+              stageListener = stageCollector(serviceInfo);
+            }
+            Stopwatch swClustering = new Stopwatch();
+            clusters =
+                adapt(runClustering(reader, algorithm, language, stageListener, cancellation));
+            serviceInfo.clusteringTimeMillis = swClustering.elapsedMillis();
+
+            // Only reuse instances that completed clustering successfully.
+            dcsContext.algorithmPool.release(algorithmKey, algorithm);
+          }
+
+          // Don't cache clusters built from partial results.
+          if (cache != null && !cancellation.isDeadlineExceeded()) {
+            cache.put(cacheKey, clusters);
+          }
+        } else {
+          serviceInfo.clusteringTimeMillis = 0L;
+        }
+      }
+
+      ClusterResponse clusterResponse = new ClusterResponse(clusters);
       serviceInfo.requestHandlingTimeMillis = swRequest.elapsedMillis();
 
       if (isEnabled(request, PARAM_SERVICE_INFO)) {
@@ -98,24 +249,56 @@ public class ClusterServlet extends RestEndpoint {
       }
 
       writeJsonResponse(response, shouldIndent(request), clusterResponse);
+    } catch (ClusteringCancelledException e) {
+      // Cancelled (or past the deadline) while reading the request body.
+      handleException(
+          request,
+          response,
+          new TerminateRequestException(
+              ErrorResponseType.TIMEOUT, "Request did not complete within the timeout.", e));
     } catch (Exception e) {
       handleException(request, response, e);
     }
   }
 
-  private ClusteringAlgorithm parseAlgorithm(
-      ClusterRequest template, ClusterRequest clusteringRequest) throws TerminateRequestException {
+  private AlgorithmPool.Key algorithmKey(
+      HttpServletRequest request, ClusterRequest template, ClusterRequest clusteringRequest)
+      throws TerminateRequestException {
     String algorithmName = firstNotNull(clusteringRequest.algorithm, template.algorithm);
     if (algorithmName == null) {
       throw new TerminateRequestException(
           ErrorResponseType.BAD_REQUEST, "Algorithm must not be empty.");
     }
-    ClusteringAlgorithmProvider supplier = dcsContext.algorithmSuppliers.get(algorithmName);
-    if (supplier == null) {
+    if (!dcsContext.algorithmSuppliers.containsKey(algorithmName)) {
       throw new TerminateRequestException(
           ErrorResponseType.BAD_REQUEST, "Algorithm not available: " + algorithmName);
     }
 
+    return new AlgorithmPool.Key(
+        algorithmName,
+        request.getParameter(ClusterServletParameters.PARAM_TEMPLATE),
+        clusteringRequest.parameters);
+  }
+
+  /**
+   * Returns an idle algorithm instance configured identically from the pool or creates and
+   * populates a new one.
+   */
+  private ClusteringAlgorithm acquireAlgorithm(
+      AlgorithmPool.Key key, ClusterRequest template, ClusterRequest clusteringRequest)
+      throws TerminateRequestException {
+    ClusteringAlgorithm algorithm = dcsContext.algorithmPool.borrow(key);
+    if (algorithm == null) {
+      algorithm = parseAlgorithm(key.algorithm(), template, clusteringRequest);
+    }
+    return algorithm;
+  }
+
+  private ClusteringAlgorithm parseAlgorithm(
+      String algorithmName, ClusterRequest template, ClusterRequest clusteringRequest)
+      throws TerminateRequestException {
+    ClusteringAlgorithmProvider supplier = dcsContext.algorithmSuppliers.get(algorithmName);
+
     Function<String, Object> classFromName = AliasMapper.SPI_DEFAULTS::fromName;
     ClusteringAlgorithm algorithm = supplier.get();
 
@@ -143,6 +326,28 @@ public class ClusterServlet extends RestEndpoint {
     return null;
   }
 
+  private CancellationToken parseTimeout(HttpServletRequest request)
+      throws TerminateRequestException {
+    String timeout = request.getParameter(ClusterServletParameters.PARAM_TIMEOUT);
+    if (timeout == null) {
+      return CancellationToken.create();
+    }
+
+    long millis;
+    try {
+      millis = Long.parseLong(timeout.trim());
+    } catch (NumberFormatException e) {
+      millis = -1;
+    }
+    if (millis <= 0) {
+      throw new TerminateRequestException(
+          ErrorResponseType.BAD_REQUEST,
+          "Timeout must be a positive number of milliseconds: " + timeout);
+    }
+    return CancellationToken.withTimeout(
+        Duration.ofMillis(millis), isEnabled(request, ClusterServletParameters.PARAM_BEST_EFFORT));
+  }
+
   private ClusterRequest parseTemplate(HttpServletRequest request)
       throws TerminateRequestException {
     String templateName = request.getParameter(ClusterServletParameters.PARAM_TEMPLATE);
@@ -192,25 +397,72 @@ public class ClusterServlet extends RestEndpoint {
         .collect(Collectors.toList());
   }
 
+  private static StageListener stageCollector(ServiceInfo serviceInfo) {
+    serviceInfo.clusteringStageNanos = new LinkedHashMap<>();
+    serviceInfo.clusteringStatistics = new LinkedHashMap<>();
+    return new StageListener() {
+      @Override
+      public void stageCompleted(String stage, long elapsedNanos) {
+        serviceInfo.clusteringStageNanos.merge(stage, elapsedNanos, Long::sum);
+      }
+
+      @Override
+      public void statistic(String name, long value) {
+        serviceInfo.clusteringStatistics.put(name, value);
+      }
+    };
+  }
+
   private List<Cluster<DocumentRef>> runClustering(
-      ClusterRequest clusteringRequest,
+      ClusterRequestReader reader,
       ClusteringAlgorithm algorithm,
-      LanguageComponents language) {
+      LanguageComponents language,
+      StageListener stageListener,
+      CancellationToken cancellation)
+      throws TerminateRequestException {
     IntCursor c = new IntCursor();
     Stream<DocumentRef> stream =
-        clusteringRequest.documents.stream()
-            .sequential()
-            .map(doc -> new DocumentRef(doc, c.value++));
+        reader.documents().sequential().map(doc -> new DocumentRef(doc, c.value++));
+
+    try {
+      List<Cluster<DocumentRef>> clusters =
+          algorithm.cluster(stream, language, stageListener, cancellation);
+      reader.finish();
+      return clusters;
+    } catch (ClusteringCancelledException e) {
+      throw new TerminateRequestException(
+          ErrorResponseType.TIMEOUT, "Clustering did not complete within the timeout.", e);
+    } catch (UncheckedIOException e) {
+      throw new TerminateRequestException(
+          ErrorResponseType.BAD_REQUEST, "Could not parse request body.", e.getCause());
+    } catch (IOException e) {
+      throw new TerminateRequestException(
+          ErrorResponseType.BAD_REQUEST, "Could not parse request body.", e);
+    }
+  }
+
+  private byte[] documentsDigest(ClusterRequestReader reader) throws TerminateRequestException {
+    try {
+      return reader.documentsDigest();
+    } catch (IOException e) {
+      throw new TerminateRequestException(
+          ErrorResponseType.BAD_REQUEST, "Could not parse request body.", e);
+    }
+  }
 
-    return algorithm.cluster(stream, language);
+  private ClusterRequestReader openRequest(InputStream body) throws TerminateRequestException {
+    try {
+      return new ClusterRequestReader(dcsContext.om, new BufferedInputStream(body));
+    } catch (IOException e) {
+      throw new TerminateRequestException(
+          ErrorResponseType.BAD_REQUEST, "Could not parse request body.", e);
+    }
   }
 
-  private ClusterRequest parseRequest(HttpServletRequest request) throws TerminateRequestException {
+  private ClusterRequest parseRequest(ClusterRequestReader reader, boolean streamDocuments)
+      throws TerminateRequestException {
     try {
-      return dcsContext
-          .om
-          .readerFor(ClusterRequest.class)
-          .readValue(new BufferedInputStream(request.getInputStream()));
+      return reader.readRequest(streamDocuments);
     } catch (IOException e) {
       throw new TerminateRequestException(
           ErrorResponseType.BAD_REQUEST, "Could not parse request body.", e);
@@ -0,0 +1,147 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.dcs.servlets;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.carrot2.dcs.model.ErrorResponseType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs cluster requests handed off by container threads (with servlet async processing), so that
+ * the container's thread pool only bounds connection handling and not clustering.
+ *
+ * <p>By default requests run on a fixed number of platform threads and wait in a bounded queue if
+ * all threads are busy. Requests that do not fit in the queue are rejected with {@link
+ * ErrorResponseType#OVERLOADED}. Alternatively, each request runs on its own virtual thread (if the
+ * JVM supports them), the number of concurrently clustered requests is then bounded by the {@link
+ * AdmissionController}.
+ */
+final class ClusteringExecutor {
+  private static final Logger console = LoggerFactory.getLogger("console");
+
+  private final ExecutorService executor;
+  private final int threads;
+  private final boolean virtualThreads;
+
+  private ClusteringExecutor(ExecutorService executor, int threads, boolean virtualThreads) {
+    this.executor = executor;
+    this.threads = threads;
+    this.virtualThreads = virtualThreads;
+  }
+
+  /**
+   * @param threads The number of clustering threads.
+   * @param maxQueued The maximum number of requests waiting for a clustering thread.
+   * @param virtualThreads Run each request on a virtual thread instead, if the JVM supports them.
+   */
+  static ClusteringExecutor create(int threads, int maxQueued, boolean virtualThreads) {
+    if (threads <= 0 || maxQueued < 0) {
+      throw new IllegalArgumentException(
+          "The number of threads must be positive, the queue size non-negative.");
+    }
+
+    if (virtualThreads) {
+      ExecutorService executor = newVirtualThreadPerTaskExecutor();
+      if (executor != null) {
+        return new ClusteringExecutor(executor, threads, true);
+      }
+      console.warn(
+          "Virtual threads are not supported by this JVM ({}), using {} clustering threads.",
+          Runtime.version(),
+          threads);
+    }
+
+    AtomicInteger tid = new AtomicInteger();
+    ThreadFactory threadFactory =
+        (runnable) -> {
+          Thread t = new Thread(runnable, "clustering-" + tid.incrementAndGet());
+          t.setDaemon(true);
+          return t;
+        };
+
+    // A synchronous hand-off if no queueing is allowed.
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            maxQueued > 0 ? new ArrayBlockingQueue<>(maxQueued) : new SynchronousQueue<>(),
+            threadFactory);
+    return new ClusteringExecutor(executor, threads, false);
+  }
+
+  /**
+   * @return Returns <code>true</code> if requests run on virtual threads.
+   */
+  boolean usesVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /**
+   * @return Returns the number of clustering threads (the default limit of concurrently clustered
+   *     requests with virtual threads).
+   */
+  int threads() {
+    return threads;
+  }
+
+  /**
+   * Runs the request processing task.
+   *
+   * @throws TerminateRequestException If the task can't be accepted.
+   */
+  void execute(Runnable task) throws TerminateRequestException {
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      throw new TerminateRequestException(
+          ErrorResponseType.OVERLOADED,
+          "Too many concurrent clustering requests, try again later.",
+          e);
+    }
+  }
+
+  void shutdown() {
+    executor.shutdown();
+  }
+
+  /**
+   * Creates a virtual thread executor reflectively (virtual threads are not available in the
+   * minimum supported Java version).
+   *
+   * @return Returns <code>null</code> if virtual threads are not supported.
+   */
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      return null;
+    } catch (InvocationTargetException e) {
+      // Preview feature not enabled (Java 19, 20).
+      if (e.getCause() instanceof UnsupportedOperationException) {
+        return null;
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+}
@@ -22,9 +22,11 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
@@ -34,9 +36,13 @@ import java.util.stream.StreamSupport;
 import org.carrot2.clustering.ClusteringAlgorithm;
 import org.carrot2.clustering.ClusteringAlgorithmProvider;
 import org.carrot2.dcs.model.ClusterRequest;
+import org.carrot2.language.CompiledDictionaryCache;
 import org.carrot2.language.LanguageComponents;
 import org.carrot2.language.LanguageComponentsLoader;
 import org.carrot2.language.LoadedLanguages;
+import org.carrot2.language.StemCache;
+import org.carrot2.language.Stemmer;
+import org.carrot2.language.Tokenizer;
 import org.carrot2.util.ResourceLookup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,6 +51,41 @@ class DcsContext {
   public static final String PARAM_RESOURCES = "resources";
   public static final String PARAM_TEMPLATES = "templates";
   public static final String PARAM_ALGORITHMS = "algorithms";
+  public static final String PARAM_ALGORITHM_POOL_SIZE = "algorithmPoolSize";
+
+  public static final String PARAM_RESULT_CACHE_ENTRIES = "resultCacheEntries";
+  public static final String PARAM_RESULT_CACHE_MEMORY_MB = "resultCacheMemoryMB";
+  public static final String PARAM_RESULT_CACHE_TTL_SECONDS = "resultCacheTtlSeconds";
+
+  public static final String PARAM_STEM_CACHE_ENTRIES = "stemCacheEntries";
+  public static final String PARAM_DICTIONARY_CACHE_MEMORY_MB = "dictionaryCacheMemoryMB";
+  public static final String PARAM_LANGUAGE_COMPONENT_POOL_SIZE = "languageComponentPoolSize";
+
+  public static final String PARAM_MAX_CONCURRENT_CLUSTERINGS = "maxConcurrentClusterings";
+  public static final String PARAM_MAX_CONCURRENT_CLUSTERINGS_PER_ALGORITHM =
+      "maxConcurrentClusteringsPerAlgorithm";
+  public static final String PARAM_ADMISSION_QUEUE_SIZE = "admissionQueueSize";
+  public static final String PARAM_ADMISSION_TIMEOUT_MILLIS = "admissionTimeoutMillis";
+
+  public static final String PARAM_CLUSTERING_THREADS = "clusteringThreads";
+  public static final String PARAM_CLUSTERING_QUEUE_SIZE = "clusteringQueueSize";
+  public static final String PARAM_CLUSTERING_VIRTUAL_THREADS = "clusteringVirtualThreads";
+
+  /** Default maximum number of idle algorithm instances per configuration. */
+  public static final int DEFAULT_ALGORITHM_POOL_SIZE = 16;
+
+  public static final int DEFAULT_RESULT_CACHE_MEMORY_MB = 64;
+  public static final int DEFAULT_RESULT_CACHE_TTL_SECONDS = 600;
+
+  public static final int DEFAULT_DICTIONARY_CACHE_MEMORY_MB = 16;
+
+  /** Default maximum number of idle tokenizer and stemmer instances per language. */
+  public static final int DEFAULT_LANGUAGE_COMPONENT_POOL_SIZE = 16;
+
+  public static final int DEFAULT_ADMISSION_QUEUE_SIZE = 100;
+  public static final int DEFAULT_ADMISSION_TIMEOUT_MILLIS = 10000;
+
+  public static final int DEFAULT_CLUSTERING_QUEUE_SIZE = 1000;
 
   private static String KEY = "_dcs_";
   private static Logger console = LoggerFactory.getLogger("console");
@@ -55,6 +96,15 @@ class DcsContext {
   final Map<String, ClusterRequest> templates;
   final LinkedHashMap<String, ClusteringAlgorithmProvider> algorithmSuppliers;
   final LinkedHashMap<String, List<String>> algorithmLanguages;
+  final AlgorithmPool algorithmPool;
+
+  /** Clustering result cache, <code>null</code> if disabled. */
+  final ResultCache resultCache;
+
+  final AdmissionController admissionController;
+
+  final ClusteringExecutor clusteringExecutor;
+
   final ClassLoader cl = this.getClass().getClassLoader();
 
   private DcsContext(ServletContext servletContext) throws ServletException {
@@ -99,6 +149,13 @@ class DcsContext {
         .removeIf(e -> !isAlgorithmAvailable(e.getValue(), languages.values()));
 
     this.algorithmLanguages = computeAlgorithmLanguagePairs(algorithmSuppliers, languages.values());
+    this.algorithmPool =
+        new AlgorithmPool(
+            parseNonNegativeInt(
+                servletContext, PARAM_ALGORITHM_POOL_SIZE, DEFAULT_ALGORITHM_POOL_SIZE));
+    this.resultCache = createResultCache(servletContext);
+    this.clusteringExecutor = createClusteringExecutor(servletContext);
+    this.admissionController = createAdmissionController(servletContext, clusteringExecutor);
 
     console.info(
         "DCS context initialized [algorithms: {}, templates: {}]",
@@ -106,6 +163,106 @@ class DcsContext {
         templates.keySet());
   }
 
+  private static ResultCache createResultCache(ServletContext servletContext)
+      throws ServletException {
+    int entries = parseNonNegativeInt(servletContext, PARAM_RESULT_CACHE_ENTRIES, 0);
+    int memoryMb =
+        parseNonNegativeInt(
+            servletContext, PARAM_RESULT_CACHE_MEMORY_MB, DEFAULT_RESULT_CACHE_MEMORY_MB);
+    int ttlSeconds =
+        parseNonNegativeInt(
+            servletContext, PARAM_RESULT_CACHE_TTL_SECONDS, DEFAULT_RESULT_CACHE_TTL_SECONDS);
+    if (entries == 0 || memoryMb == 0 || ttlSeconds == 0) {
+      return null;
+    }
+
+    console.info(
+        "Result cache enabled [entries: {}, memory: {}MB, ttl: {}s]",
+        entries,
+        memoryMb,
+        ttlSeconds);
+    return new ResultCache(entries, memoryMb * (1024L * 1024L), ttlSeconds, TimeUnit.SECONDS);
+  }
+
+  private static ClusteringExecutor createClusteringExecutor(ServletContext servletContext)
+      throws ServletException {
+    int threads = parseNonNegativeInt(servletContext, PARAM_CLUSTERING_THREADS, 0);
+    if (threads == 0) {
+      threads = Runtime.getRuntime().availableProcessors();
+    }
+    int queueSize =
+        parseNonNegativeInt(
+            servletContext, PARAM_CLUSTERING_QUEUE_SIZE, DEFAULT_CLUSTERING_QUEUE_SIZE);
+    boolean virtualThreads =
+        Boolean.parseBoolean(
+            Objects.requireNonNullElse(
+                    servletContext.getInitParameter(PARAM_CLUSTERING_VIRTUAL_THREADS), "false")
+                .trim());
+
+    ClusteringExecutor executor = ClusteringExecutor.create(threads, queueSize, virtualThreads);
+    if (executor.usesVirtualThreads()) {
+      console.info("Clustering executor enabled [virtual threads, concurrent: {}]", threads);
+    } else {
+      console.info("Clustering executor enabled [threads: {}, queue: {}]", threads, queueSize);
+    }
+    return executor;
+  }
+
+  private static AdmissionController createAdmissionController(
+      ServletContext servletContext, ClusteringExecutor clusteringExecutor)
+      throws ServletException {
+    int maxConcurrent = parseNonNegativeInt(servletContext, PARAM_MAX_CONCURRENT_CLUSTERINGS, 0);
+    if (maxConcurrent == 0 && clusteringExecutor.usesVirtualThreads()) {
+      // Each request has its own virtual thread, bound the number of concurrent clusterings
+      // to the number of clustering threads.
+      maxConcurrent = clusteringExecutor.threads();
+    }
+    int maxConcurrentPerAlgorithm =
+        parseNonNegativeInt(servletContext, PARAM_MAX_CONCURRENT_CLUSTERINGS_PER_ALGORITHM, 0);
+    int queueSize =
+        parseNonNegativeInt(
+            servletContext, PARAM_ADMISSION_QUEUE_SIZE, DEFAULT_ADMISSION_QUEUE_SIZE);
+    int timeoutMillis =
+        parseNonNegativeInt(
+            servletContext, PARAM_ADMISSION_TIMEOUT_MILLIS, DEFAULT_ADMISSION_TIMEOUT_MILLIS);
+
+    AdmissionController controller =
+        new AdmissionController(
+            maxConcurrent,
+            maxConcurrentPerAlgorithm,
+            queueSize,
+            timeoutMillis,
+            TimeUnit.MILLISECONDS);
+    if (controller.isEnabled()) {
+      console.info(
+          "Admission control enabled [concurrent: {}, per algorithm: {}, queue: {}, timeout: {}ms]",
+          maxConcurrent,
+          maxConcurrentPerAlgorithm,
+          queueSize,
+          timeoutMillis);
+    }
+    return controller;
+  }
+
+  private static int parseNonNegativeInt(
+      ServletContext servletContext, String paramName, int defaultValue) throws ServletException {
+    String value = servletContext.getInitParameter(paramName);
+    if (value == null || value.isBlank()) {
+      return defaultValue;
+    }
+
+    try {
+      int parsed = Integer.parseInt(value.trim());
+      if (parsed < 0) {
+        throw new NumberFormatException();
+      }
+      return parsed;
+    } catch (NumberFormatException e) {
+      throw new ServletException(
+          "Context parameter " + paramName + " must be a non-negative integer: " + value, e);
+    }
+  }
+
   private static boolean isAlgorithmAvailable(
       ClusteringAlgorithmProvider provider, Collection<LanguageComponents> languages) {
     ClusteringAlgorithm algorithm = provider.get();
@@ -152,9 +309,48 @@ class DcsContext {
       throw new ServletException("Could not load or initialize language resources.", e);
     }
 
+    // Stem caches are shared by all requests in the same language.
+    int stemCacheEntries = parseNonNegativeInt(servletContext, PARAM_STEM_CACHE_ENTRIES, 0);
+    if (stemCacheEntries > 0) {
+      console.info("Stem cache enabled [entries per language: {}]", stemCacheEntries);
+    }
+
+    // Compiled ephemeral dictionaries are language-independent, one cache serves all languages.
+    int dictionaryCacheMemoryMB =
+        parseNonNegativeInt(
+            servletContext, PARAM_DICTIONARY_CACHE_MEMORY_MB, DEFAULT_DICTIONARY_CACHE_MEMORY_MB);
+    CompiledDictionaryCache dictionaryCache = null;
+    if (dictionaryCacheMemoryMB > 0) {
+      console.info("Dictionary cache enabled [memory: {}MB]", dictionaryCacheMemoryMB);
+      dictionaryCache = new CompiledDictionaryCache(dictionaryCacheMemoryMB * 1024L * 1024L);
+    }
+
+    // Tokenizers and stemmers are stateful, idle instances are pooled and reused by requests.
+    int componentPoolSize =
+        parseNonNegativeInt(
+            servletContext,
+            PARAM_LANGUAGE_COMPONENT_POOL_SIZE,
+            DEFAULT_LANGUAGE_COMPONENT_POOL_SIZE);
+    if (componentPoolSize > 0) {
+      console.info(
+          "Language component pools enabled [idle instances per language: {}]", componentPoolSize);
+    }
+
     LinkedHashMap<String, LanguageComponents> languages = new LinkedHashMap<>();
     for (String lang : loadedLanguages.languages()) {
-      languages.put(lang, loadedLanguages.language(lang));
+      LanguageComponents components = loadedLanguages.language(lang);
+      if (componentPoolSize > 0) {
+        components = components.pooled(componentPoolSize, Tokenizer.class, Stemmer.class);
+      }
+      if (stemCacheEntries > 0) {
+        StemCache stemCache = new StemCache(stemCacheEntries);
+        components = components.override(StemCache.class, () -> stemCache);
+      }
+      if (dictionaryCache != null) {
+        CompiledDictionaryCache cache = dictionaryCache;
+        components = components.override(CompiledDictionaryCache.class, () -> cache);
+      }
+      languages.put(lang, components);
     }
     return languages;
   }
@@ -190,6 +386,18 @@ class DcsContext {
     return context;
   }
 
+  /**
+   * Releases the resources of the context loaded for the given servlet context (if any). Invoked by
+   * {@link DcsContextListener} when the web application is shut down.
+   */
+  static synchronized void unload(ServletContext servletContext) {
+    DcsContext context = (DcsContext) servletContext.getAttribute(KEY);
+    if (context != null) {
+      servletContext.removeAttribute(KEY);
+      context.clusteringExecutor.shutdown();
+    }
+  }
+
   private static Map<String, ClusterRequest> processTemplates(
       ObjectMapper om,
       LinkedHashMap<String, ClusteringAlgorithmProvider> algorithmSuppliers,
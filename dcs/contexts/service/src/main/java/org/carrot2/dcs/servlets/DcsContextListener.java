@@ -0,0 +1,25 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.dcs.servlets;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+
+/**
+ * Releases the {@link DcsContext} shared by all servlets of the web application when the
+ * application is shut down.
+ */
+public class DcsContextListener implements ServletContextListener {
+  @Override
+  public void contextDestroyed(ServletContextEvent event) {
+    DcsContext.unload(event.getServletContext());
+  }
+}
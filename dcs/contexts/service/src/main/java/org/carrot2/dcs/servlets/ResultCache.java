@@ -0,0 +1,178 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.dcs.servlets;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.carrot2.clustering.Cluster;
+
+/**
+ * A cache of clustering results for identical requests. Entries are keyed by the language,
+ * algorithm configuration and a digest of document content. The cache is bounded by the number of
+ * entries and their estimated memory size (least recently used entries are evicted first) and
+ * entries expire after a fixed time.
+ */
+final class ResultCache {
+  /** Identifies the clustering result of a request. */
+  static final class Key {
+    private final String language;
+    private final AlgorithmPool.Key algorithm;
+    private final byte[] documentsDigest;
+    private final int hashCode;
+
+    Key(String language, AlgorithmPool.Key algorithm, byte[] documentsDigest) {
+      this.language = Objects.requireNonNull(language);
+      this.algorithm = Objects.requireNonNull(algorithm);
+      this.documentsDigest = Objects.requireNonNull(documentsDigest);
+      this.hashCode =
+          31 * Objects.hash(language, algorithm) + Arrays.hashCode(this.documentsDigest);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key other = (Key) o;
+      return hashCode == other.hashCode
+          && language.equals(other.language)
+          && algorithm.equals(other.algorithm)
+          && Arrays.equals(documentsDigest, other.documentsDigest);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private static final class Entry {
+    final List<Cluster<Integer>> clusters;
+    final long sizeInBytes;
+    final long expiresAt;
+
+    Entry(List<Cluster<Integer>> clusters, long sizeInBytes, long expiresAt) {
+      this.clusters = clusters;
+      this.sizeInBytes = sizeInBytes;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  private final int maxEntries;
+  private final long maxSizeInBytes;
+  private final long ttlNanos;
+  private final LongSupplier nanoClock;
+
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long sizeInBytes;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  ResultCache(int maxEntries, long maxSizeInBytes, long ttl, TimeUnit ttlUnit) {
+    this(maxEntries, maxSizeInBytes, ttlUnit.toNanos(ttl), System::nanoTime);
+  }
+
+  ResultCache(int maxEntries, long maxSizeInBytes, long ttlNanos, LongSupplier nanoClock) {
+    if (maxEntries <= 0 || maxSizeInBytes <= 0 || ttlNanos <= 0) {
+      throw new IllegalArgumentException("Cache limits must be positive.");
+    }
+    this.maxEntries = maxEntries;
+    this.maxSizeInBytes = maxSizeInBytes;
+    this.ttlNanos = ttlNanos;
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * @return Returns cached clusters for the given key or <code>null</code> if there are none (or
+   *     they have expired). The returned clusters must not be modified.
+   */
+  List<Cluster<Integer>> get(Key key) {
+    synchronized (this) {
+      Entry entry = entries.get(key);
+      if (entry != null) {
+        if (entry.expiresAt - nanoClock.getAsLong() > 0) {
+          hits.incrementAndGet();
+          return entry.clusters;
+        }
+        remove(key);
+      }
+    }
+    misses.incrementAndGet();
+    return null;
+  }
+
+  /** Caches clusters for the given key. The clusters must not be modified afterwards. */
+  void put(Key key, List<Cluster<Integer>> clusters) {
+    long size = estimateSizeInBytes(clusters);
+    if (size > maxSizeInBytes) {
+      return;
+    }
+
+    synchronized (this) {
+      remove(key);
+      entries.put(key, new Entry(clusters, size, nanoClock.getAsLong() + ttlNanos));
+      sizeInBytes += size;
+
+      // Evict expired entries, then least recently used ones.
+      long now = nanoClock.getAsLong();
+      for (Iterator<Entry> i = entries.values().iterator(); i.hasNext(); ) {
+        Entry e = i.next();
+        if (e.expiresAt - now <= 0 || entries.size() > maxEntries || sizeInBytes > maxSizeInBytes) {
+          sizeInBytes -= e.sizeInBytes;
+          i.remove();
+        }
+      }
+    }
+  }
+
+  long hits() {
+    return hits.get();
+  }
+
+  long misses() {
+    return misses.get();
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  private void remove(Key key) {
+    Entry previous = entries.remove(key);
+    if (previous != null) {
+      sizeInBytes -= previous.sizeInBytes;
+    }
+  }
+
+  /** Estimates the heap size of clusters (object headers, references and label characters). */
+  static long estimateSizeInBytes(List<Cluster<Integer>> clusters) {
+    long size = 16 + 4L * clusters.size();
+    for (Cluster<Integer> c : clusters) {
+      size += 64;
+      for (String label : c.getLabels()) {
+        size += 48 + label.length();
+      }
+      size += 16 + 20L * c.getDocuments().size();
+      size += estimateSizeInBytes(c.getClusters());
+    }
+    return size;
+  }
+}
@@ -10,14 +10,20 @@
  */
 package org.carrot2.dcs.servlets;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 
 import jakarta.servlet.ServletConfig;
 import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletContextEvent;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.InputStream;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 import org.carrot2.TestBase;
@@ -42,11 +48,20 @@ public abstract class AbstractServletTest extends TestBase {
     mocks = MockitoAnnotations.openMocks(this);
 
     when(config.getServletContext()).thenReturn(context);
+
+    Map<String, Object> attributes = new HashMap<>();
+    when(context.getAttribute(anyString())).thenAnswer((a) -> attributes.get(a.getArgument(0)));
+    doAnswer((a) -> attributes.put(a.getArgument(0), a.getArgument(1)))
+        .when(context)
+        .setAttribute(anyString(), any());
+    doAnswer((a) -> attributes.remove(a.getArgument(0))).when(context).removeAttribute(anyString());
     when(request.getParameter(ClusterServlet.PARAM_INDENT)).thenReturn("true");
   }
 
   @After
   public void cleanup() throws Exception {
+    new DcsContextListener().contextDestroyed(new ServletContextEvent(context));
+
     if (mocks != null) {
       mocks.close();
     }
@@ -0,0 +1,112 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.dcs.servlets;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.assertj.core.api.Assertions;
+import org.carrot2.TestBase;
+import org.carrot2.dcs.model.ErrorResponseType;
+import org.junit.Test;
+
+public class AdmissionControllerTest extends TestBase {
+  @Test
+  public void testUnlimited() throws Exception {
+    AdmissionController controller = new AdmissionController(0, 0, 0, 0, TimeUnit.SECONDS);
+    Assertions.assertThat(controller.isEnabled()).isFalse();
+    for (int i = 0; i < 100; i++) {
+      controller.acquire("Lingo");
+    }
+    Assertions.assertThat(controller.rejected()).isZero();
+  }
+
+  @Test
+  public void testGlobalLimit() throws Exception {
+    AdmissionController controller = new AdmissionController(2, 0, 0, 0, TimeUnit.SECONDS);
+
+    AdmissionController.Permit p1 = controller.acquire("Lingo");
+    controller.acquire("STC");
+    assertOverloaded(controller, "Bisecting K-Means");
+
+    p1.close();
+    // Closing a permit more than once has no effect.
+    p1.close();
+    controller.acquire("Bisecting K-Means");
+    assertOverloaded(controller, "Lingo");
+    Assertions.assertThat(controller.rejected()).isEqualTo(2);
+  }
+
+  @Test
+  public void testPerAlgorithmLimit() throws Exception {
+    AdmissionController controller = new AdmissionController(0, 1, 0, 0, TimeUnit.SECONDS);
+
+    AdmissionController.Permit permit = controller.acquire("Lingo");
+    assertOverloaded(controller, "Lingo");
+    controller.acquire("STC");
+
+    permit.close();
+    controller.acquire("Lingo");
+  }
+
+  @Test
+  public void testWaitTimeout() throws Exception {
+    AdmissionController controller = new AdmissionController(1, 0, 1, 10, TimeUnit.MILLISECONDS);
+
+    controller.acquire("Lingo");
+    assertOverloaded(controller, "Lingo");
+    Assertions.assertThat(controller.queued()).isZero();
+  }
+
+  @Test
+  public void testQueuedRequestAdmitted() throws Exception {
+    AdmissionController controller = new AdmissionController(1, 0, 1, 1, TimeUnit.MINUTES);
+
+    AdmissionController.Permit permit = controller.acquire("Lingo");
+    CompletableFuture<AdmissionController.Permit> queued = acquireAsync(controller, "STC");
+    awaitQueued(controller, 1);
+
+    // The queue is full.
+    assertOverloaded(controller, "STC");
+
+    permit.close();
+    queued.get(1, TimeUnit.MINUTES).close();
+    Assertions.assertThat(controller.queued()).isZero();
+    Assertions.assertThat(controller.rejected()).isEqualTo(1);
+  }
+
+  private static CompletableFuture<AdmissionController.Permit> acquireAsync(
+      AdmissionController controller, String algorithm) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          try {
+            return controller.acquire(algorithm);
+          } catch (TerminateRequestException e) {
+            throw new RuntimeException(e);
+          }
+        });
+  }
+
+  private static void awaitQueued(AdmissionController controller, int expected)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+    while (controller.queued() != expected) {
+      Assertions.assertThat(System.nanoTime() - deadline).isNegative();
+      Thread.sleep(10);
+    }
+  }
+
+  private static void assertOverloaded(AdmissionController controller, String algorithm) {
+    Assertions.assertThatThrownBy(() -> controller.acquire(algorithm))
+        .isInstanceOfSatisfying(
+            TerminateRequestException.class,
+            (e) -> Assertions.assertThat(e.type).isEqualTo(ErrorResponseType.OVERLOADED));
+  }
+}
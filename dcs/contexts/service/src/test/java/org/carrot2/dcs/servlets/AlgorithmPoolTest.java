@@ -0,0 +1,66 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.dcs.servlets;
+
+import java.util.Map;
+import org.assertj.core.api.Assertions;
+import org.carrot2.TestBase;
+import org.carrot2.clustering.ClusteringAlgorithm;
+import org.junit.Test;
+
+public class AlgorithmPoolTest extends TestBase {
+  @Test
+  public void testInstancesReusedForIdenticalConfiguration() {
+    AlgorithmPool pool = new AlgorithmPool(2);
+
+    AlgorithmPool.Key key = new AlgorithmPool.Key("Dummy", null, Map.of("groupSize", 10));
+    Assertions.assertThat(pool.borrow(key)).isNull();
+
+    ClusteringAlgorithm algorithm = new DummyAlgorithmProvider().get();
+    pool.release(key, algorithm);
+
+    Assertions.assertThat(
+            pool.borrow(new AlgorithmPool.Key("Dummy", "template", Map.of("groupSize", 10))))
+        .isNull();
+    Assertions.assertThat(
+            pool.borrow(new AlgorithmPool.Key("Dummy", null, Map.of("groupSize", 20))))
+        .isNull();
+    Assertions.assertThat(
+            pool.borrow(new AlgorithmPool.Key("Dummy", null, Map.of("groupSize", 10))))
+        .isSameAs(algorithm);
+    Assertions.assertThat(pool.borrow(key)).isNull();
+  }
+
+  @Test
+  public void testIdleInstancesLimit() {
+    AlgorithmPool pool = new AlgorithmPool(2);
+    AlgorithmPool.Key key = new AlgorithmPool.Key("Dummy", null, null);
+    for (int i = 0; i < 5; i++) {
+      pool.release(key, new DummyAlgorithmProvider().get());
+    }
+    Assertions.assertThat(pool.idleCount()).isEqualTo(2);
+
+    for (int i = 0; i < AlgorithmPool.MAX_CONFIGURATIONS * 2; i++) {
+      pool.release(
+          new AlgorithmPool.Key("Dummy", null, Map.of("groupSize", i)),
+          new DummyAlgorithmProvider().get());
+    }
+    Assertions.assertThat(pool.idleCount()).isEqualTo(AlgorithmPool.MAX_CONFIGURATIONS);
+  }
+
+  @Test
+  public void testPoolingDisabled() {
+    AlgorithmPool pool = new AlgorithmPool(0);
+    AlgorithmPool.Key key = new AlgorithmPool.Key("Dummy", null, null);
+    pool.release(key, new DummyAlgorithmProvider().get());
+    Assertions.assertThat(pool.borrow(key)).isNull();
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.dcs.servlets;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.assertj.core.api.Assertions;
+import org.carrot2.TestBase;
+import org.carrot2.clustering.CancellationToken;
+import org.carrot2.clustering.ClusteringCancelledException;
+import org.junit.Test;
+
+public class AsyncRequestInputTest extends TestBase {
+  @Test
+  public void testReadsBody() throws Exception {
+    byte[] body = new byte[randomIntBetween(0, AsyncRequestInput.MAX_BUFFERED * 3)];
+    getRandom().nextBytes(body);
+
+    NonBlockingInput input = new NonBlockingInput();
+    CancellationToken cancellation = CancellationToken.create();
+    AsyncRequestInput asyncInput = new AsyncRequestInput(input, cancellation);
+
+    // Arrives in pieces, reading pauses when the buffer is full.
+    for (int from = 0; from < body.length; ) {
+      int to = Math.min(body.length, from + randomIntBetween(1, 10000));
+      input.push(Arrays.copyOfRange(body, from, to));
+      from = to;
+    }
+    input.pushEof();
+
+    Assertions.assertThat(asyncInput.readAllBytes()).isEqualTo(body);
+    Assertions.assertThat(cancellation.isCancelled()).isFalse();
+  }
+
+  @Test
+  public void testClientDisconnectCancelsRequest() throws Exception {
+    NonBlockingInput input = new NonBlockingInput();
+    CancellationToken cancellation = CancellationToken.create();
+    AsyncRequestInput asyncInput = new AsyncRequestInput(input, cancellation);
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      input.push(new byte[] {'{', '"'});
+      Future<byte[]> consumer = executor.submit(asyncInput::readAllBytes);
+
+      // The client disconnects in the middle of the request body.
+      input.listener.onError(new EOFException("Early EOF"));
+
+      Assertions.assertThat(cancellation.isCancelled()).isTrue();
+      Assertions.assertThatThrownBy(() -> consumer.get(10, TimeUnit.SECONDS))
+          .hasCauseInstanceOf(EOFException.class);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testReadFailsAtDeadline() throws Exception {
+    NonBlockingInput input = new NonBlockingInput();
+    CancellationToken cancellation =
+        CancellationToken.withTimeout(Duration.ofMillis(randomIntBetween(1, 100)), false);
+    AsyncRequestInput asyncInput = new AsyncRequestInput(input, cancellation);
+
+    // The client stalls, the rest of the body never arrives.
+    input.push(new byte[] {'{', '"'});
+    Assertions.assertThatThrownBy(asyncInput::readAllBytes)
+        .isInstanceOf(ClusteringCancelledException.class);
+    Assertions.assertThat(cancellation.isDeadlineExceeded()).isTrue();
+  }
+
+  @Test
+  public void testCancellationWakesUpReads() throws Exception {
+    NonBlockingInput input = new NonBlockingInput();
+    CancellationToken cancellation = CancellationToken.create();
+    AsyncRequestInput asyncInput = new AsyncRequestInput(input, cancellation);
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      input.push(new byte[] {'{', '"'});
+      Future<byte[]> consumer = executor.submit(asyncInput::readAllBytes);
+
+      // The request times out (or fails) while waiting for the body.
+      cancellation.cancel();
+      asyncInput.cancelled();
+
+      Assertions.assertThatThrownBy(() -> consumer.get(10, TimeUnit.SECONDS))
+          .hasCauseInstanceOf(ClusteringCancelledException.class);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /** Emulates a container input stream: data is available only after it arrives. */
+  private static class NonBlockingInput extends ServletInputStream {
+    private final ArrayDeque<byte[]> arrived = new ArrayDeque<>();
+    private int position;
+    private boolean eof;
+    private boolean notReady;
+    private ReadListener listener;
+
+    void push(byte[] data) throws IOException {
+      synchronized (this) {
+        arrived.add(data);
+      }
+      notifyDataAvailable();
+    }
+
+    void pushEof() throws IOException {
+      synchronized (this) {
+        eof = true;
+      }
+      notifyDataAvailable();
+    }
+
+    private void notifyDataAvailable() throws IOException {
+      // The listener is only notified once isReady() returned false.
+      boolean notify;
+      synchronized (this) {
+        notify = notReady;
+        notReady = false;
+      }
+      if (notify) {
+        listener.onDataAvailable();
+      }
+    }
+
+    @Override
+    public synchronized boolean isFinished() {
+      return eof && arrived.isEmpty();
+    }
+
+    @Override
+    public synchronized boolean isReady() {
+      notReady = !eof && arrived.isEmpty();
+      return !notReady;
+    }
+
+    @Override
+    public void setReadListener(ReadListener listener) {
+      this.listener = listener;
+      synchronized (this) {
+        notReady = true;
+      }
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] b = new byte[1];
+      return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) throws IOException {
+      byte[] data = arrived.peek();
+      if (data == null) {
+        if (eof) {
+          return -1;
+        }
+        throw new IllegalStateException("Input not ready.");
+      }
+
+      int read = Math.min(len, data.length - position);
+      System.arraycopy(data, position, b, off, read);
+      position += read;
+      if (position == data.length) {
+        arrived.remove();
+        position = 0;
+      }
+      return read;
+    }
+  }
+}
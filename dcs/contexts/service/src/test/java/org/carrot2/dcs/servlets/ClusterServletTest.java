@@ -17,15 +17,19 @@ import static org.mockito.Mockito.when;
 import com.fasterxml.jackson.core.util.DefaultIndenter;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncContext;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.assertj.core.api.Assertions;
 import org.carrot2.dcs.model.ClusterResponse;
 import org.carrot2.dcs.model.ClusterServletParameters;
 import org.carrot2.dcs.model.ErrorResponse;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 public class ClusterServletTest extends AbstractServletTest {
   @Test
@@ -59,6 +63,16 @@ public class ClusterServletTest extends AbstractServletTest {
     verifyRequest("attrInTemplate.request.json", "attrInTemplate.response.json");
   }
 
+  @Test
+  public void testDocumentsBeforeRequestProperties() throws Exception {
+    verifyRequest("documentsFirst.request.json", "attrInRequest.response.json");
+  }
+
+  @Test
+  public void testPropertyAfterDocuments() throws Exception {
+    verifyRequest("propertyAfterDocuments.request.json", "propertyAfterDocuments.response.json");
+  }
+
   @Test
   public void testInvalidValueAttr() throws Exception {
     verifyInvalidRequest(
@@ -80,6 +94,36 @@ public class ClusterServletTest extends AbstractServletTest {
     verifyRequest("dictionary.request.json", "dictionary.response.json");
   }
 
+  @Test
+  public void testTimeout() throws Exception {
+    when(request.getParameter(ClusterServletParameters.PARAM_TIMEOUT)).thenReturn("60000");
+    verifyRequest("simple.request.json", "simple.response.json");
+  }
+
+  @Test
+  public void testAsyncRequest() throws Exception {
+    AsyncContext asyncContext = Mockito.mock(AsyncContext.class);
+    CountDownLatch completed = new CountDownLatch(1);
+    doAnswer(
+            (a) -> {
+              completed.countDown();
+              return null;
+            })
+        .when(asyncContext)
+        .complete();
+    when(request.isAsyncSupported()).thenReturn(true);
+    when(request.startAsync()).thenReturn(asyncContext);
+
+    verifyRequest("simple.request.json", "simple.response.json", completed);
+  }
+
+  @Test
+  public void testInvalidTimeout() throws Exception {
+    when(request.getParameter(ClusterServletParameters.PARAM_TIMEOUT)).thenReturn("-10");
+    verifyInvalidRequest(
+        HttpServletResponse.SC_BAD_REQUEST, "simple.request.json", "invalidTimeout.response.json");
+  }
+
   private void verifyInvalidRequest(
       int expectedStatus, String requestResource, String responseResource) throws Exception {
     String requestData = resourceString(requestResource);
@@ -122,6 +166,12 @@ public class ClusterServletTest extends AbstractServletTest {
   }
 
   private void verifyRequest(String requestResource, String responseResource) throws Exception {
+    verifyRequest(requestResource, responseResource, null);
+  }
+
+  private void verifyRequest(
+      String requestResource, String responseResource, CountDownLatch asyncCompleted)
+      throws Exception {
     String requestData = resourceString(requestResource);
 
     StringWriter sw = new StringWriter();
@@ -132,6 +182,9 @@ public class ClusterServletTest extends AbstractServletTest {
     ClusterServlet servlet = new ClusterServlet();
     servlet.init(config);
     servlet.doPost(request, response);
+    if (asyncCompleted != null) {
+      Assertions.assertThat(asyncCompleted.await(30, TimeUnit.SECONDS)).isTrue();
+    }
     pw.flush();
 
     // Verify against expected response.
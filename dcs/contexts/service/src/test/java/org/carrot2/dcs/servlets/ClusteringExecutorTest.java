@@ -0,0 +1,67 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.dcs.servlets;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.assertj.core.api.Assertions;
+import org.carrot2.TestBase;
+import org.carrot2.dcs.model.ErrorResponseType;
+import org.junit.Test;
+
+public class ClusteringExecutorTest extends TestBase {
+  @Test
+  public void testQueueLimit() throws Exception {
+    ClusteringExecutor executor = ClusteringExecutor.create(1, 1, false);
+    try {
+      CountDownLatch release = new CountDownLatch(1);
+      CountDownLatch done = new CountDownLatch(2);
+      Runnable task =
+          () -> {
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              throw new RuntimeException(e);
+            }
+            done.countDown();
+          };
+
+      // One running, one queued, the third one is rejected.
+      executor.execute(task);
+      executor.execute(task);
+      Assertions.assertThatThrownBy(() -> executor.execute(task))
+          .isInstanceOfSatisfying(
+              TerminateRequestException.class,
+              (e) -> Assertions.assertThat(e.type).isEqualTo(ErrorResponseType.OVERLOADED));
+
+      release.countDown();
+      Assertions.assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testVirtualThreads() throws Exception {
+    ClusteringExecutor executor = ClusteringExecutor.create(2, 0, true);
+    try {
+      Assertions.assertThat(executor.usesVirtualThreads())
+          .isEqualTo(Runtime.version().feature() >= 21);
+      Assertions.assertThat(executor.threads()).isEqualTo(2);
+
+      CountDownLatch done = new CountDownLatch(1);
+      executor.execute(done::countDown);
+      Assertions.assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2025, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.dcs.servlets;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.assertj.core.api.Assertions;
+import org.carrot2.TestBase;
+import org.carrot2.clustering.Cluster;
+import org.junit.Test;
+
+public class ResultCacheTest extends TestBase {
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  public void testHitsAndMisses() {
+    ResultCache cache = new ResultCache(10, 1 << 20, 100, clock::get);
+
+    List<Cluster<Integer>> clusters = clusters("label", 1, 2, 3);
+    Assertions.assertThat(cache.get(key("English", 10, 1))).isNull();
+    cache.put(key("English", 10, 1), clusters);
+
+    Assertions.assertThat(cache.get(key("English", 10, 1))).isSameAs(clusters);
+    Assertions.assertThat(cache.get(key("German", 10, 1))).isNull();
+    Assertions.assertThat(cache.get(key("English", 20, 1))).isNull();
+    Assertions.assertThat(cache.get(key("English", 10, 2))).isNull();
+
+    Assertions.assertThat(cache.hits()).isEqualTo(1);
+    Assertions.assertThat(cache.misses()).isEqualTo(4);
+  }
+
+  @Test
+  public void testExpiration() {
+    ResultCache cache = new ResultCache(10, 1 << 20, 100, clock::get);
+    cache.put(key("English", 10, 1), clusters("label", 1));
+
+    clock.addAndGet(99);
+    Assertions.assertThat(cache.get(key("English", 10, 1))).isNotNull();
+    clock.addAndGet(1);
+    Assertions.assertThat(cache.get(key("English", 10, 1))).isNull();
+    Assertions.assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  public void testEntryLimit() {
+    ResultCache cache = new ResultCache(3, 1 << 20, 100, clock::get);
+    for (int i = 0; i < 5; i++) {
+      cache.put(key("English", 10, i), clusters("label", i));
+      // Keep the first entry recently used.
+      cache.get(key("English", 10, 0));
+    }
+
+    Assertions.assertThat(cache.size()).isEqualTo(3);
+    Assertions.assertThat(cache.get(key("English", 10, 0))).isNotNull();
+    Assertions.assertThat(cache.get(key("English", 10, 1))).isNull();
+    Assertions.assertThat(cache.get(key("English", 10, 4))).isNotNull();
+  }
+
+  @Test
+  public void testMemoryLimit() {
+    List<Cluster<Integer>> clusters = clusters("label", 1, 2, 3, 4, 5);
+    long size = ResultCache.estimateSizeInBytes(clusters);
+    ResultCache cache = new ResultCache(100, size * 2, 100, clock::get);
+
+    for (int i = 0; i < 5; i++) {
+      cache.put(key("English", 10, i), clusters);
+    }
+    Assertions.assertThat(cache.size()).isEqualTo(2);
+
+    // Results larger than the limit are not cached at all.
+    cache.put(key("English", 10, 10), clusters("label", new int[1000]));
+    Assertions.assertThat(cache.get(key("English", 10, 10))).isNull();
+    Assertions.assertThat(cache.size()).isEqualTo(2);
+  }
+
+  private static ResultCache.Key key(String language, int groupSize, int digest) {
+    return new ResultCache.Key(
+        language,
+        new AlgorithmPool.Key("Dummy", null, Map.of("groupSize", groupSize)),
+        new byte[] {(byte) digest, 1, 2, 3});
+  }
+
+  private static List<Cluster<Integer>> clusters(String label, int... documents) {
+    Cluster<Integer> cluster = new Cluster<>();
+    cluster.addLabel(label);
+    for (int doc : documents) {
+      cluster.addDocument(doc);
+    }
+    return List.of(cluster);
+  }
+}
@@ -34,14 +34,19 @@ class StringServletInputStream extends ServletInputStream {
     throw new UnsupportedOperationException();
   }
 
+  /** All data is available up front, reads never block. */
   @Override
   public boolean isReady() {
-    throw new UnsupportedOperationException();
+    return true;
   }
 
   @Override
   public void setReadListener(ReadListener readListener) {
-    throw new UnsupportedOperationException();
+    try {
+      readListener.onDataAvailable();
+    } catch (IOException e) {
+      readListener.onError(e);
+    }
   }
 
   @Override
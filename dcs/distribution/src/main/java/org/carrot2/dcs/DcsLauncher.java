@@ -54,6 +54,8 @@ public class DcsLauncher extends Command<ExitCode> {
   public static final String OPT_PID_FILE = "--pid-file";
   public static final String OPT_IDLE_TIME = "--idle-time";
   public static final String OPT_VERSION = "--version";
+  public static final String OPT_CLUSTERING_THREADS = "--clustering-threads";
+  public static final String OPT_VIRTUAL_THREADS = "--virtual-threads";
 
   @Parameter(
       names = {"-p", OPT_PORT},
@@ -77,6 +79,18 @@ public class DcsLauncher extends Command<ExitCode> {
       hidden = true)
   public Integer maxThreads;
 
+  @Parameter(
+      names = {OPT_CLUSTERING_THREADS},
+      description =
+          "Number of threads running clustering requests (by default the number of processors).")
+  public Integer clusteringThreads;
+
+  @Parameter(
+      names = {OPT_VIRTUAL_THREADS},
+      description =
+          "Run each clustering request on a virtual thread (Java 21+), the number of concurrent clusterings is bounded by the number of clustering threads.")
+  public boolean virtualThreads;
+
   @Parameter(
       names = {OPT_SHUTDOWN_TOKEN},
       description = "The shutdown secret token. If empty, shutdown endpoint will be disabled.")
@@ -140,6 +154,12 @@ public class DcsLauncher extends Command<ExitCode> {
       JettyContainer c =
           new JettyContainer(
               port, host, home.resolve("web"), shutdownToken, maxThreads, useGzip, idleTime);
+      if (clusteringThreads != null) {
+        c.setInitParameter("clusteringThreads", Integer.toString(clusteringThreads));
+      }
+      if (virtualThreads) {
+        c.setInitParameter("clusteringVirtualThreads", "true");
+      }
       try {
         c.start();
       } catch (IOException e) {
@@ -47,6 +47,9 @@ public class JettyContainer {
   private Integer maxThreads;
   private Integer idleTime;
 
+  /** Init parameters of all web application contexts. */
+  private final Map<String, String> initParameters = new LinkedHashMap<>();
+
   public JettyContainer(
       int port,
       String host,
@@ -64,6 +67,14 @@ public class JettyContainer {
     this.idleTime = idleTime;
   }
 
+  /**
+   * Sets an init parameter of all web application contexts. Context parameters declared in <code>
+   * web.xml</code> take precedence.
+   */
+  public void setInitParameter(String name, String value) {
+    initParameters.put(name, value);
+  }
+
   public void start() throws Exception {
     server = createServer();
     addContexts(server, connector, webappContexts);
@@ -114,6 +125,7 @@ public class JettyContainer {
       // Don't allow directory listings and don't use mmap buffers for serving static content.
       ctx.setInitParameter(DefaultServlet.CONTEXT_INIT + "dirAllowed", "false");
       ctx.setInitParameter(DefaultServlet.CONTEXT_INIT + "useFileMappedBuffer", "false");
+      initParameters.forEach(ctx::setInitParameter);
 
       CONSOLE.debug("Deploying context '{}' at: {}.", ctxName, ctxPath);
       ctxHandlers.add(ctx);
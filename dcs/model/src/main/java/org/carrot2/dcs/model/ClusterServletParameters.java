@@ -13,4 +13,10 @@ package org.carrot2.dcs.model;
 public final class ClusterServletParameters {
 
   public static final String PARAM_TEMPLATE = "template";
+
+  /** The time budget of a clustering request, in milliseconds. */
+  public static final String PARAM_TIMEOUT = "timeout";
+
+  /** Return clusters built from partial results (instead of an error) when the timeout passes. */
+  public static final String PARAM_BEST_EFFORT = "bestEffort";
 }
@@ -12,6 +12,7 @@ package org.carrot2.dcs.model;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Map;
 
 /** Request processing and service state information (for debugging and diagnostics). */
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -19,4 +20,21 @@ public class ServiceInfo {
   @JsonProperty public Long clusteringTimeMillis;
 
   @JsonProperty public Long requestHandlingTimeMillis;
+
+  /** Processing time of consecutive clustering stages (algorithm-specific), in nanoseconds. */
+  @JsonProperty public Map<String, Long> clusteringStageNanos;
+
+  /**
+   * Statistics of processed data, such as term counts or matrix dimensions (algorithm-specific).
+   */
+  @JsonProperty public Map<String, Long> clusteringStatistics;
+
+  /** Whether clusters were served from the result cache (if the cache is enabled). */
+  @JsonProperty public Boolean cacheHit;
+
+  /** Total number of result cache hits (if the cache is enabled). */
+  @JsonProperty public Long cacheHits;
+
+  /** Total number of result cache misses (if the cache is enabled). */
+  @JsonProperty public Long cacheMisses;
 }
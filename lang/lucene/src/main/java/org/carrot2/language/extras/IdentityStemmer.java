@@ -11,10 +11,16 @@
 package org.carrot2.language.extras;
 
 import org.carrot2.language.Stemmer;
+import org.carrot2.util.MutableCharArray;
 
 class IdentityStemmer implements Stemmer {
   @Override
   public CharSequence stem(CharSequence word) {
     return null;
   }
+
+  @Override
+  public int stem(CharSequence word, MutableCharArray output) {
+    return UNCHANGED;
+  }
 }
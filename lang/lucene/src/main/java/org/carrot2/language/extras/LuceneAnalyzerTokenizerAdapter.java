@@ -58,6 +58,10 @@ public class LuceneAnalyzerTokenizerAdapter implements Tokenizer {
       ts.close();
     }
 
+    // Drop any tokens left over by a previous, not fully consumed input (tokenizers are pooled).
+    queue.clear();
+    last = null;
+
     ts = analyzer.tokenStream("", reader);
     ts.reset();
 
@@ -34,6 +34,29 @@ final class LuceneStemmerAdapter implements Stemmer {
 
   @Override
   public CharSequence stem(CharSequence word) {
+    int newLen = stemIntoBuffer(word);
+    if (newLen != UNCHANGED) {
+      return new MutableCharArray(Arrays.copyOf(buffer, newLen));
+    } else {
+      return null;
+    }
+  }
+
+  @Override
+  public int stem(CharSequence word, MutableCharArray output) {
+    int newLen = stemIntoBuffer(word);
+    if (newLen != UNCHANGED) {
+      output.reset(buffer, 0, newLen);
+    }
+    return newLen;
+  }
+
+  /**
+   * Stems the word into {@link #buffer}.
+   *
+   * @return Returns the length of the stem or {@link #UNCHANGED} if the word is its own stem.
+   */
+  private int stemIntoBuffer(CharSequence word) {
     if (word.length() + extraBufferPadding > buffer.length) {
       buffer = new char[word.length() + extraBufferPadding];
     }
@@ -45,9 +68,9 @@ final class LuceneStemmerAdapter implements Stemmer {
     int newLen = stemmer.apply(buffer, word.length());
 
     if (newLen != word.length() || !equals(buffer, newLen, word)) {
-      return new MutableCharArray(Arrays.copyOf(buffer, newLen));
+      return newLen;
     } else {
-      return null;
+      return UNCHANGED;
     }
   }
 
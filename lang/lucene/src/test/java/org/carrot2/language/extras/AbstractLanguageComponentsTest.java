@@ -46,9 +46,18 @@ public abstract class AbstractLanguageComponentsTest {
   @Test
   public void testStemming() {
     final Stemmer stemmer = components.get(Stemmer.class);
+    final MutableCharArray buffer = new MutableCharArray();
     for (String[] pair : stemmingPairs) {
       CharSequence stem = stemmer.stem(pair[0]);
       Assertions.assertThat(stem == null ? null : stem.toString()).isEqualTo(pair[1]);
+
+      int length = stemmer.stem(pair[0], buffer);
+      if (pair[1] == null) {
+        Assertions.assertThat(length).isEqualTo(Stemmer.UNCHANGED);
+      } else {
+        Assertions.assertThat(length).isEqualTo(pair[1].length());
+        Assertions.assertThat(buffer.toString()).isEqualTo(pair[1]);
+      }
     }
   }
 